@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+
+/**
+ * Inputs shared by the compiler benchmarks.
+ *
+ * <p>Every benchmark can run on generated code of a fixed size, which keeps results comparable
+ * between releases, or on a comma-separated list of JS files passed with {@code -p files=...}, for
+ * measuring a real-world project.
+ */
+public final class BenchmarkInputs {
+
+  /** The externs that the type checking and optimization benchmarks compile against. */
+  public static ImmutableList<SourceFile> browserExterns() throws IOException {
+    return ImmutableList.copyOf(
+        CommandLineRunner.getBuiltinExterns(CompilerOptions.Environment.BROWSER));
+  }
+
+  /**
+   * Returns the files named in {@code files}, or {@code syntheticFileCount} generated files if
+   * {@code files} is empty.
+   */
+  public static ImmutableList<SourceFile> load(String files, int syntheticFileCount) {
+    ImmutableList.Builder<SourceFile> inputs = ImmutableList.builder();
+    if (files.isEmpty()) {
+      for (int i = 0; i < syntheticFileCount; i++) {
+        inputs.add(SourceFile.fromCode("synthetic" + i + ".js", syntheticCode(i)));
+      }
+    } else {
+      for (String path : Splitter.on(',').omitEmptyStrings().trimResults().split(files)) {
+        inputs.add(SourceFile.fromFile(path, UTF_8));
+      }
+    }
+    return inputs.build();
+  }
+
+  /**
+   * Returns typed, Closure-style code with enough structure to keep every phase busy: classes with
+   * JSDoc, unions, loops, branches, cross-file calls and some code that the peephole passes can
+   * fold away.
+   */
+  private static String syntheticCode(int fileIndex) {
+    StringBuilder sb = new StringBuilder();
+    String ns = "ns" + fileIndex;
+    sb.append("/** @const */ var ").append(ns).append(" = {};\n");
+    for (int i = 0; i < 20; i++) {
+      String cls = ns + ".Widget" + i;
+      sb.append("/**\n * @constructor\n * @param {number} seed\n */\n")
+          .append(cls)
+          .append(" = function(seed) {\n")
+          .append("  /** @private {number} */\n  this.count_ = seed;\n")
+          .append("  /** @type {!Array<string>} */\n  this.names = [];\n")
+          .append("};\n")
+          .append("/**\n * @param {string|number} value\n * @return {string}\n */\n")
+          .append(cls)
+          .append(".prototype.describe = function(value) {\n")
+          .append("  var result = '';\n")
+          .append("  for (var i = 0; i < this.count_; i++) {\n")
+          .append("    if (typeof value === 'number' && value > i) {\n")
+          .append("      result += value * 2;\n")
+          .append("    } else {\n")
+          .append("      result += String(value) + i;\n")
+          .append("    }\n")
+          .append("  }\n")
+          .append("  if (false) {\n    result = 'unreachable' + (1 + 2);\n  }\n")
+          .append("  this.names.push(result);\n")
+          .append("  return result;\n")
+          .append("};\n")
+          .append("/** @return {number} */\n")
+          .append(cls)
+          .append(".prototype.total = function() {\n")
+          .append("  var sum = 0;\n")
+          .append("  for (var j = 0; j < this.names.length; j++) {\n")
+          .append("    sum += this.names[j].length;\n")
+          .append("  }\n")
+          .append("  return sum > 10 ? sum : 10 - sum;\n")
+          .append("};\n")
+          .append("/**\n * @param {number} n\n * @return {number}\n */\n")
+          .append("function use")
+          .append(fileIndex)
+          .append('_')
+          .append(i)
+          .append("(n) {\n")
+          .append("  var w = new ")
+          .append(cls)
+          .append("(3);\n")
+          .append("  w.describe(n % 2 ? 'a' : n);\n")
+          .append("  return w.total() + (true ? 1 : 2);\n")
+          .append("}\n");
+    }
+    if (fileIndex > 0) {
+      sb.append("use").append(fileIndex - 1).append("_0(").append(fileIndex).append(");\n");
+    }
+    return sb.toString();
+  }
+
+  private BenchmarkInputs() {}
+}
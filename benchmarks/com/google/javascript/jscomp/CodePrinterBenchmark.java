@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.javascript.jscomp;
+
+import com.google.javascript.jscomp.CodePrinter.SourceAndMappings;
+import com.google.javascript.rhino.Node;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures printing the AST back to JavaScript together with a V3 source map, the last step of
+ * every compilation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CodePrinterBenchmark {
+
+  /** Comma-separated JS files to print. Generated code is used if empty. */
+  @Param("")
+  public String files;
+
+  @Param({"false", "true"})
+  public boolean prettyPrint;
+
+  private CompilerOptions options;
+  private Node jsRoot;
+
+  @Setup
+  public void setUp() throws IOException {
+    options = new CompilerOptions();
+    options.setLanguageIn(CompilerOptions.LanguageMode.ECMASCRIPT_NEXT);
+    options.setSourceMapOutputPath("out.js.map");
+    options.setPrettyPrint(prettyPrint);
+    Compiler compiler = new Compiler();
+    compiler.init(BenchmarkInputs.browserExterns(), BenchmarkInputs.load(files, 50), options);
+    compiler.parse();
+    jsRoot = compiler.getJsRoot();
+  }
+
+  @Benchmark
+  public String print() throws IOException {
+    SourceAndMappings printed =
+        new CodePrinter.Builder(jsRoot).setCompilerOptions(options).buildWithSourceMappings();
+    SourceMap sourceMap = SourceMap.Format.V3.getInstance();
+    for (SourceMap.Mapping mapping : printed.mappings) {
+      sourceMap.addMapping(mapping);
+    }
+    StringBuilder sourceMapJson = new StringBuilder();
+    sourceMap.appendTo(sourceMapJson, "out.js");
+    return printed.source + sourceMapJson;
+  }
+}
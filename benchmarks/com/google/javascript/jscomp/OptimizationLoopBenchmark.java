@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.javascript.jscomp;
+
+import com.google.javascript.jscomp.PassConfig.OptimizationPasses;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one iteration of the main optimization loop, the {@link PhaseOptimizer.Loop} that
+ * repeats the inlining, dead code removal and peephole passes of an ADVANCED compilation.
+ *
+ * <p>Before every invocation the inputs are compiled from scratch up to the point where the loop
+ * starts, so each iteration sees the same AST.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class OptimizationLoopBenchmark {
+
+  /** Comma-separated JS files to optimize. Generated code is used if empty. */
+  @Param("")
+  public String files;
+
+  private Compiler compiler;
+  private PhaseOptimizer optimizer;
+
+  @Setup(Level.Invocation)
+  public void setUp() throws IOException {
+    CompilerOptions options = new CompilerOptions();
+    options.setLanguageIn(CompilerOptions.LanguageMode.ECMASCRIPT_NEXT);
+    CompilationLevel.ADVANCED_OPTIMIZATIONS.setOptionsForCompilationLevel(options);
+    CompilationLevel.ADVANCED_OPTIMIZATIONS.setTypeBasedOptimizationOptions(options);
+    options.setCheckTypes(true);
+    options.setMaxOptimizationLoopIterations(1);
+    compiler = new Compiler();
+    compiler.init(BenchmarkInputs.browserExterns(), BenchmarkInputs.load(files, 50), options);
+    compiler.parseForCompilation();
+    compiler.stage1Passes();
+    compiler.stage2Passes(OptimizationPasses.FIRST_HALF);
+
+    optimizer = new PhaseOptimizer(compiler, null);
+    optimizer.consume(new DefaultPassConfig(options).getMainOptimizationLoop().build());
+  }
+
+  @Benchmark
+  public void optimizationLoop() {
+    compiler.setPhaseOptimizer(optimizer);
+    optimizer.process(compiler.getExternsRoot(), compiler.getJsRoot());
+    compiler.setPhaseOptimizer(null);
+  }
+}
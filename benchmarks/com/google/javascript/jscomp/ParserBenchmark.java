@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.javascript.jscomp;
+
+import com.google.common.collect.ImmutableList;
+import com.google.javascript.jscomp.parsing.Config;
+import com.google.javascript.jscomp.parsing.Config.JsDocParsing;
+import com.google.javascript.jscomp.parsing.Config.LanguageMode;
+import com.google.javascript.jscomp.parsing.Config.RunMode;
+import com.google.javascript.jscomp.parsing.Config.StrictMode;
+import com.google.javascript.jscomp.parsing.ParserRunner;
+import com.google.javascript.rhino.ErrorReporter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Measures how long it takes to parse the inputs, JSDoc included, into an AST. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ParserBenchmark {
+
+  private static final ErrorReporter IGNORE_ERRORS =
+      new ErrorReporter() {
+        @Override
+        public void warning(String message, String sourceName, int line, int lineOffset) {}
+
+        @Override
+        public void error(String message, String sourceName, int line, int lineOffset) {}
+      };
+
+  /** Comma-separated JS files to parse. Generated code is used if empty. */
+  @Param("")
+  public String files;
+
+  /** Whether to parse the browser externs as well as the inputs. */
+  @Param({"false", "true"})
+  public boolean includeExterns;
+
+  private ImmutableList<SourceFile> inputs;
+  private Config config;
+
+  @Setup
+  public void setUp() throws IOException {
+    ImmutableList.Builder<SourceFile> builder = ImmutableList.builder();
+    if (includeExterns) {
+      builder.addAll(BenchmarkInputs.browserExterns());
+    }
+    inputs = builder.addAll(BenchmarkInputs.load(files, 50)).build();
+    config =
+        ParserRunner.createConfig(
+            LanguageMode.ES_NEXT,
+            JsDocParsing.TYPES_ONLY,
+            RunMode.KEEP_GOING,
+            /* extraAnnotationNames= */ null,
+            /* parseInlineSourceMaps= */ true,
+            StrictMode.SLOPPY);
+  }
+
+  @Benchmark
+  public void parse(Blackhole blackhole) throws IOException {
+    for (SourceFile input : inputs) {
+      blackhole.consume(ParserRunner.parse(input, input.getCode(), config, IGNORE_ERRORS));
+    }
+  }
+}
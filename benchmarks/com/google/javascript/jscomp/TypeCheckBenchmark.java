@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.javascript.jscomp;
+
+import com.google.javascript.jscomp.deps.ModuleLoader.ResolutionMode;
+import com.google.javascript.jscomp.modules.ModuleMapCreator;
+import com.google.javascript.rhino.Node;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures typed scope creation, type inference and type checking, the three steps that make up
+ * the {@link TypeCheck} part of a compilation.
+ *
+ * <p>The inputs are parsed again before every invocation, because type checking annotates the AST
+ * and the type registry and can't be run twice on the same compiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class TypeCheckBenchmark {
+
+  /** Comma-separated JS files to type check. Generated code is used if empty. */
+  @Param("")
+  public String files;
+
+  private Compiler compiler;
+
+  @Setup(Level.Invocation)
+  public void setUp() throws IOException {
+    CompilerOptions options = new CompilerOptions();
+    options.setLanguageIn(CompilerOptions.LanguageMode.ECMASCRIPT_NEXT);
+    options.setCheckTypes(true);
+    compiler = new Compiler();
+    compiler.init(BenchmarkInputs.browserExterns(), BenchmarkInputs.load(files, 50), options);
+    compiler.parse();
+
+    Node externsRoot = compiler.getExternsRoot();
+    Node jsRoot = compiler.getJsRoot();
+    new GatherModuleMetadata(compiler, false, ResolutionMode.BROWSER).process(externsRoot, jsRoot);
+    new ModuleMapCreator(compiler, compiler.getModuleMetadataMap()).process(externsRoot, jsRoot);
+    new InferConsts(compiler).process(externsRoot, jsRoot);
+  }
+
+  @Benchmark
+  public TypedScope typeCheck() {
+    return new TypeCheck(
+            compiler, compiler.getReverseAbstractInterpreter(), compiler.getTypeRegistry())
+        .processForTesting(compiler.getExternsRoot(), compiler.getJsRoot());
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.rhino;
+
+import com.google.javascript.jscomp.BenchmarkInputs;
+import com.google.javascript.jscomp.CompilationLevel;
+import com.google.javascript.jscomp.Compiler;
+import com.google.javascript.jscomp.CompilerOptions;
+import com.google.javascript.jscomp.PassConfig.OptimizationPasses;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reports how much memory the {@link Node} properties of a compilation use, and how much an
+ * alternative layout would use.
+ *
+ * <p>Node properties are stored in a linked list of immutable items. A list tail can be shared by
+ * many nodes; for example, all nodes of a file usually share the item holding their source file.
+ * The alternative layout keeps boolean properties in an {@code int} bit field on every node, and
+ * all other properties of a node in one packed array.
+ *
+ * <p>Sizes assume the default HotSpot object layout of a 64 bit JVM with compressed references:
+ * 12 byte object headers, 4 byte references, and objects aligned to 8 bytes.
+ *
+ * <pre>
+ * $ java -cp bazel-bin/benchmarks_deploy.jar com.google.javascript.rhino.NodePropertyFootprint \
+ *     [comma-separated list of JS files]
+ * </pre>
+ */
+public final class NodePropertyFootprint {
+  private static final int OBJECT_HEADER_BYTES = 12;
+  private static final int ARRAY_HEADER_BYTES = 16;
+  private static final int REFERENCE_BYTES = 4;
+  /** An item holds a reference to the next item, a byte for the property and the value. */
+  private static final long LIST_ITEM_BYTES =
+      align(OBJECT_HEADER_BYTES + REFERENCE_BYTES + 1 + REFERENCE_BYTES);
+
+  private final Map<Class<?>, Long> bitFieldBytesByNodeClass = new HashMap<>();
+  private final Set<Object> listItems = Collections.newSetFromMap(new IdentityHashMap<>());
+  private final Set<Object> packedArrays = Collections.newSetFromMap(new IdentityHashMap<>());
+  private long nodes;
+  private long totalBitFieldBytes;
+  private long packedArrayBytes;
+
+  public static void main(String[] args) throws Exception {
+    CompilerOptions options = new CompilerOptions();
+    CompilationLevel.ADVANCED_OPTIMIZATIONS.setOptionsForCompilationLevel(options);
+    options.setCheckTypes(true);
+    Compiler compiler = new Compiler();
+    compiler.init(
+        BenchmarkInputs.browserExterns(),
+        BenchmarkInputs.load(args.length > 0 ? args[0] : "", 200),
+        options);
+
+    System.out.printf(
+        "%-20s %10s %12s %12s %12s%n",
+        "after", "nodes", "list bytes", "array bytes", "difference");
+    compiler.parseForCompilation();
+    report("parsing", compiler.getRoot());
+    compiler.stage1Passes();
+    report("checks", compiler.getRoot());
+    compiler.stage2Passes(OptimizationPasses.ALL);
+    report("optimizations", compiler.getRoot());
+  }
+
+  private static void report(String phase, Node root) {
+    NodePropertyFootprint footprint = new NodePropertyFootprint();
+    footprint.measure(root);
+    long listBytes = footprint.listItems.size() * LIST_ITEM_BYTES;
+    long arrayBytes = footprint.totalBitFieldBytes + footprint.packedArrayBytes;
+    System.out.printf(
+        "%-20s %10d %12d %12d %+11.1f%%%n",
+        phase,
+        footprint.nodes,
+        listBytes,
+        arrayBytes,
+        100.0 * (arrayBytes - listBytes) / listBytes);
+  }
+
+  private void measure(Node root) {
+    Deque<Node> stack = new ArrayDeque<>();
+    stack.push(root);
+    while (!stack.isEmpty()) {
+      Node n = stack.pop();
+      nodes++;
+      for (Node child = n.getFirstChild(); child != null; child = child.getNext()) {
+        stack.push(child);
+      }
+      // Every node pays for the bit field, whether or not it has boolean properties.
+      totalBitFieldBytes +=
+          bitFieldBytesByNodeClass.computeIfAbsent(n.getClass(), c -> bitFieldBytes(c));
+
+      int[] valuedProps = {0};
+      n.forEachPropListItem(
+          (item, prop, objectValue, intValue) -> {
+            listItems.add(item);
+            // Boolean properties are stored as int properties with the value 1.
+            if (objectValue != null || intValue != 1) {
+              valuedProps[0]++;
+            }
+          });
+      // Nodes that share their whole property list could share their packed array too. Each
+      // entry holds a reference to the value and a key.
+      if (valuedProps[0] > 0 && packedArrays.add(n.getPropListHeadForTesting())) {
+        packedArrayBytes += align(ARRAY_HEADER_BYTES + 2L * REFERENCE_BYTES * valuedProps[0]);
+      }
+    }
+  }
+
+  /** Returns how much adding an {@code int} field grows an instance of {@code nodeClass}. */
+  private static long bitFieldBytes(Class<?> nodeClass) {
+    long fieldBytes = 0;
+    for (Class<?> c = nodeClass; c != null; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+          fieldBytes += fieldBytes(field.getType());
+        }
+      }
+    }
+    return align(OBJECT_HEADER_BYTES + fieldBytes + Integer.BYTES)
+        - align(OBJECT_HEADER_BYTES + fieldBytes);
+  }
+
+  private static long fieldBytes(Class<?> type) {
+    if (type == long.class || type == double.class) {
+      return 8;
+    } else if (type == int.class || type == float.class) {
+      return 4;
+    } else if (type == short.class || type == char.class) {
+      return 2;
+    } else if (type == byte.class || type == boolean.class) {
+      return 1;
+    }
+    return REFERENCE_BYTES;
+  }
+
+  private static long align(long bytes) {
+    return (bytes + 7) & ~7L;
+  }
+}
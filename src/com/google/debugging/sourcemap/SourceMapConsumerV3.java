@@ -17,13 +17,19 @@
 package com.google.debugging.sourcemap;
 
 import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Iterables;
 import com.google.debugging.sourcemap.Base64VLQ.CharIterator;
 import com.google.debugging.sourcemap.proto.Mapping.OriginalMapping;
 import com.google.debugging.sourcemap.proto.Mapping.OriginalMapping.Precision;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -31,21 +37,55 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import org.jspecify.annotations.Nullable;
 
 /**
  * Class for parsing version 3 of the SourceMap format, as produced by the Closure Compiler, etc.
  * https://github.com/google/closure-compiler/wiki/Source-Maps
+ *
+ * <p>Parsing indexes where each generated line starts in the encoded mappings. Decoding isn't lazy:
+ * parsing still decodes every entry once, to check it and because the source values of an entry are
+ * relative to the entry before it, which may be on an earlier line. But the decoded entries are
+ * not kept. The entries of a line are decoded again into an int array the first time the line is
+ * looked up. The index can be saved with {@link #writeIndex} and loaded again with {@link
+ * #readIndex}, which skips decoding the entries altogether.
  */
 public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappingReversable {
   static final int UNMAPPED = -1;
 
+  // The values stored for each line in lineIndex: where the line starts and ends in the mappings,
+  // and the values that the line's first entry is relative to.
+  private static final int LINE_START = 0;
+  private static final int LINE_END = 1;
+  private static final int LINE_SOURCE_ID = 2;
+  private static final int LINE_SOURCE_LINE = 3;
+  private static final int LINE_SOURCE_COLUMN = 4;
+  private static final int LINE_NAME_ID = 5;
+  private static final int LINE_INDEX_SIZE = 6;
+
+  // The values stored for each entry of a decoded line.
+  private static final int ENTRY_COLUMN = 0;
+  private static final int ENTRY_SOURCE_ID = 1;
+  private static final int ENTRY_SOURCE_LINE = 2;
+  private static final int ENTRY_SOURCE_COLUMN = 3;
+  private static final int ENTRY_NAME_ID = 4;
+  private static final int ENTRY_SIZE = 5;
+
+  // Identifies data written by writeIndex, and the version of its format.
+  private static final int INDEX_MAGIC = 0x534d4931;
+
   private String[] sources;
   private String[] sourcesContent;
   private String[] names;
   private int lineCount;
-  // Slots in the lines list will be null if the line does not have any entries.
-  private @Nullable ArrayList<ArrayList<Entry>> lines = null;
+  private @Nullable String mappings = null;
+  private int numLines = 0;
+  // LINE_INDEX_SIZE values for each generated line.
+  private int[] lineIndex = new int[0];
+  // The decoded entries of each line, ENTRY_SIZE values per entry. Slots are null until the line
+  // is first looked up. An atomic array so that lookups can be done from several threads.
+  private AtomicReferenceArray<int[]> decodedLines = new AtomicReferenceArray<>(0);
   /** originalFile path ==> original line ==> target mappings */
   private Map<String, Map<Integer, Collection<OriginalMapping>>>
       reverseSourceMapping;
@@ -86,22 +126,154 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
       return;
     }
 
+    reset();
     lineCount = sourceMapObject.getLineCount();
     sourceRoot = sourceMapObject.getSourceRoot();
     sources = sourceMapObject.getSources();
     sourcesContent = sourceMapObject.getSourcesContent();
     names = sourceMapObject.getNames();
 
-    if (lineCount >= 0) {
-      lines = new ArrayList<>(lineCount);
-    } else {
-      lines = new ArrayList<>();
-    }
-
     // The value type of each extension is the native JSON type (e.g. JsonObject, or JSONObject
     // when compiled with GWT).
     extensions.putAll(sourceMapObject.getExtensions());
-    new MappingBuilder(sourceMapObject.getMappings()).build();
+    indexMappings(sourceMapObject.getMappings());
+  }
+
+  /**
+   * Writes the parsed source map in a binary form that {@link #readIndex} loads without parsing
+   * JSON or scanning the mappings again. Extensions are not written.
+   */
+  public void writeIndex(OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+    data.writeInt(INDEX_MAGIC);
+    writeString(data, sourceRoot);
+    writeStrings(data, sources);
+    writeStrings(data, sourcesContent);
+    writeStrings(data, names);
+    data.writeInt(lineCount);
+    writeString(data, mappings);
+    data.writeInt(numLines);
+    for (int i = 0; i < numLines * LINE_INDEX_SIZE; i++) {
+      data.writeInt(lineIndex[i]);
+    }
+    data.flush();
+  }
+
+  /** Loads a source map written by {@link #writeIndex}. */
+  public void readIndex(InputStream in) throws IOException, SourceMapParseException {
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    if (data.readInt() != INDEX_MAGIC) {
+      throw new SourceMapParseException("Not a source map index");
+    }
+    reset();
+    sourceRoot = readString(data);
+    sources = readStrings(data);
+    sourcesContent = readStrings(data);
+    names = readStrings(data);
+    lineCount = data.readInt();
+    mappings = readString(data);
+    numLines = data.readInt();
+    if (numLines < 0 || (numLines > 0 && mappings == null)) {
+      throw new SourceMapParseException("Invalid source map index");
+    }
+    lineIndex = new int[numLines * LINE_INDEX_SIZE];
+    for (int i = 0; i < lineIndex.length; i++) {
+      lineIndex[i] = data.readInt();
+    }
+    validateLineIndex();
+    decodedLines = new AtomicReferenceArray<>(numLines);
+  }
+
+  /**
+   * Checks that the lines of a loaded index follow each other in the mappings, each between two
+   * line separators, and that the values their first entries are relative to are in range.
+   */
+  private void validateLineIndex() throws SourceMapParseException {
+    int sourceCount = sources == null ? 0 : sources.length;
+    int nameCount = names == null ? 0 : names.length;
+    int previousEnd = -1;
+    for (int line = 0; line < numLines; line++) {
+      int offset = line * LINE_INDEX_SIZE;
+      int start = lineIndex[offset + LINE_START];
+      int end = lineIndex[offset + LINE_END];
+      if (start <= previousEnd
+          || end < start
+          || end > mappings.length()
+          || (start > 0 && mappings.charAt(start - 1) != ';')
+          || (end < mappings.length() && mappings.charAt(end) != ';')
+          || !isInRange(lineIndex[offset + LINE_SOURCE_ID], sourceCount)
+          || lineIndex[offset + LINE_SOURCE_LINE] < 0
+          || lineIndex[offset + LINE_SOURCE_COLUMN] < 0
+          || !isInRange(lineIndex[offset + LINE_NAME_ID], nameCount)) {
+        throw new SourceMapParseException("Invalid source map index for line " + line);
+      }
+      previousEnd = end;
+    }
+  }
+
+  /** Whether an id that entries are relative to is valid. It is 0 before the first entry. */
+  private static boolean isInRange(int id, int count) {
+    return id >= 0 && (id < count || id == 0);
+  }
+
+  /** Forgets the previously parsed or loaded source map. */
+  private void reset() {
+    sources = null;
+    sourcesContent = null;
+    names = null;
+    lineCount = -1;
+    mappings = null;
+    numLines = 0;
+    lineIndex = new int[0];
+    decodedLines = new AtomicReferenceArray<>(0);
+    reverseSourceMapping = null;
+    sourceRoot = null;
+    extensions.clear();
+  }
+
+  private static void writeString(DataOutputStream data, @Nullable String value)
+      throws IOException {
+    if (value == null) {
+      data.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(UTF_8);
+    data.writeInt(bytes.length);
+    data.write(bytes);
+  }
+
+  private static @Nullable String readString(DataInputStream data) throws IOException {
+    int length = data.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    data.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  private static void writeStrings(DataOutputStream data, String @Nullable [] values)
+      throws IOException {
+    if (values == null) {
+      data.writeInt(-1);
+      return;
+    }
+    data.writeInt(values.length);
+    for (String value : values) {
+      writeString(data, value);
+    }
+  }
+
+  private static String @Nullable [] readStrings(DataInputStream data) throws IOException {
+    int length = data.readInt();
+    if (length < 0) {
+      return null;
+    }
+    String[] values = new String[length];
+    for (int i = 0; i < length; i++) {
+      values[i] = readString(data);
+    }
+    return values;
   }
 
   /** */
@@ -148,7 +320,7 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
     lineNumber--;
     column--;
 
-    if (lineNumber < 0 || lineNumber >= lines.size()) {
+    if (lineNumber < 0 || lineNumber >= numLines) {
       return null;
     }
 
@@ -156,20 +328,20 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
     checkState(column >= 0);
 
     // If the line is empty return the previous mapping.
-    if (lines.get(lineNumber) == null) {
+    if (!hasEntries(lineNumber)) {
       return getPreviousMapping(lineNumber);
     }
 
-    ArrayList<Entry> entries = lines.get(lineNumber);
-    // No empty lists.
-    checkState(!entries.isEmpty());
-    if (entries.get(0).getGeneratedColumn() > column) {
+    int[] entries = getDecodedLine(lineNumber);
+    // No empty lines.
+    checkState(entries.length > 0);
+    if (entries[ENTRY_COLUMN] > column) {
       return getPreviousMapping(lineNumber);
     }
 
-    int index = search(entries, column, 0, entries.size() - 1);
+    int index = search(entries, column, 0, entries.length / ENTRY_SIZE - 1);
     Preconditions.checkState(index >= 0, "unexpected:%s", index);
-    return getOriginalMappingForEntry(entries.get(index), Precision.EXACT);
+    return getOriginalMappingForEntry(entries, index, Precision.EXACT);
   }
 
   @Override
@@ -228,140 +400,216 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
   }
 
 
-  private class MappingBuilder {
-    private static final int MAX_ENTRY_VALUES = 5;
-    private final StringCharIterator content;
-    private int line = 0;
-    private int previousCol = 0;
-    private int previousSrcId = 0;
-    private int previousSrcLine = 0;
-    private int previousSrcColumn = 0;
-    private int previousNameId = 0;
-
-    MappingBuilder(String lineMap) {
-      this.content = new StringCharIterator(lineMap);
+  /**
+   * Records where each line starts in the mappings, and the values its first entry is relative to.
+   * Every entry is decoded to check it, but the entries are not kept.
+   */
+  private void indexMappings(String lineMap) throws SourceMapParseException {
+    int[] index = new int[LINE_INDEX_SIZE * Math.max(lineCount, 1)];
+    EntryDecoder decoder = new EntryDecoder(lineMap, 0, 0, 0, 0, 0);
+    int line = 0;
+    while (decoder.hasNext()) {
+      int offset = line * LINE_INDEX_SIZE;
+      if (offset + LINE_INDEX_SIZE > index.length) {
+        index = Arrays.copyOf(index, index.length * 2);
+      }
+      index[offset + LINE_START] = decoder.getPosition();
+      index[offset + LINE_SOURCE_ID] = decoder.sourceId;
+      index[offset + LINE_SOURCE_LINE] = decoder.sourceLine;
+      index[offset + LINE_SOURCE_COLUMN] = decoder.sourceColumn;
+      index[offset + LINE_NAME_ID] = decoder.nameId;
+      while (!decoder.isLineEnd()) {
+        int entryValues = decoder.decodeNext();
+        if (!EntryDecoder.isValidEntry(entryValues)) {
+          throw new SourceMapParseException(
+              "Unexpected number of values for entry:" + entryValues);
+        }
+        validateEntry(line, decoder);
+      }
+      index[offset + LINE_END] = decoder.getPosition();
+      // ';' denotes a new line. Some source map generators (e.g. UglifyJS) generate lines without
+      // a trailing line separator, so the content may also end here.
+      decoder.nextLine();
+      line++;
     }
 
-    void build() throws SourceMapParseException {
-      int [] temp = new int[MAX_ENTRY_VALUES];
-      ArrayList<Entry> entries = new ArrayList<>();
-      while (content.hasNext()) {
-        // ';' denotes a new line.
-        if (tryConsumeToken(';')) {
-          // The line is complete, store the result
-          completeLine(entries);
-          if (!entries.isEmpty()) {
-            // A new array list for the next line.
-            entries = new ArrayList<>();
-          }
-        } else {
-          // grab the next entry for the current line.
-          int entryValues = 0;
-          while (!entryComplete()) {
-            temp[entryValues] = nextValue();
-            entryValues++;
-          }
-          Entry entry = decodeEntry(temp, entryValues);
+    mappings = lineMap;
+    numLines = line;
+    lineIndex = Arrays.copyOf(index, line * LINE_INDEX_SIZE);
+    decodedLines = new AtomicReferenceArray<>(line);
+  }
 
-          validateEntry(entry);
-          entries.add(entry);
+  private void validateEntry(int line, EntryDecoder entry) {
+    Preconditions.checkState((lineCount < 0) || (line < lineCount),
+        "line=%s, lineCount=%s", line, lineCount);
+    checkState(
+        entry.getSourceFileId() == UNMAPPED
+            || (entry.getSourceFileId() >= 0 && entry.getSourceFileId() < sources.length));
+    checkState(
+        entry.getNameId() == UNMAPPED
+            || (entry.getNameId() >= 0 && entry.getNameId() < names.length));
+  }
 
-          // Consume the separating token, if there is one.
-          tryConsumeToken(',');
-        }
-      }
+  private boolean hasEntries(int line) {
+    int offset = line * LINE_INDEX_SIZE;
+    return lineIndex[offset + LINE_END] > lineIndex[offset + LINE_START];
+  }
 
-      // Some source map generator (e.g.UglifyJS) generates lines without
-      // a trailing line separator. So add the rest of the content.
-      if (!entries.isEmpty()) {
-        completeLine(entries);
-      }
+  /** Returns the entries of a line, decoding them the first time the line is looked up. */
+  private int[] getDecodedLine(int line) {
+    int[] entries = decodedLines.get(line);
+    if (entries == null) {
+      entries = decodeLine(line);
+      decodedLines.set(line, entries);
     }
+    return entries;
+  }
 
-    private void completeLine(ArrayList<Entry> entries) {
-      // The line is complete, store the result for the line,
-      // null if the line is empty.
-      if (!entries.isEmpty()) {
-        lines.add(entries);
-      } else {
-        lines.add(null);
+  /**
+   * Returns the entries of a line, without keeping them if they weren't decoded yet. For visiting
+   * every line, which would otherwise end up keeping the whole map decoded.
+   */
+  private int[] getLineForVisit(int line) {
+    int[] entries = decodedLines.get(line);
+    return entries != null ? entries : decodeLine(line);
+  }
+
+  private int[] decodeLine(int line) {
+    int offset = line * LINE_INDEX_SIZE;
+    EntryDecoder decoder =
+        new EntryDecoder(
+            mappings,
+            lineIndex[offset + LINE_START],
+            lineIndex[offset + LINE_SOURCE_ID],
+            lineIndex[offset + LINE_SOURCE_LINE],
+            lineIndex[offset + LINE_SOURCE_COLUMN],
+            lineIndex[offset + LINE_NAME_ID]);
+    int end = lineIndex[offset + LINE_END];
+    int[] entries = new int[ENTRY_SIZE * 8];
+    int size = 0;
+    while (decoder.getPosition() < end) {
+      checkState(EntryDecoder.isValidEntry(decoder.decodeNext()));
+      validateEntry(line, decoder);
+      if (size + ENTRY_SIZE > entries.length) {
+        entries = Arrays.copyOf(entries, entries.length * 2);
       }
-      line++;
-      previousCol = 0;
+      entries[size + ENTRY_COLUMN] = decoder.column;
+      entries[size + ENTRY_SOURCE_ID] = decoder.getSourceFileId();
+      entries[size + ENTRY_SOURCE_LINE] = decoder.getSourceLine();
+      entries[size + ENTRY_SOURCE_COLUMN] = decoder.getSourceColumn();
+      entries[size + ENTRY_NAME_ID] = decoder.getNameId();
+      size += ENTRY_SIZE;
+    }
+    return Arrays.copyOf(entries, size);
+  }
+
+  /** Decodes the entries of the mappings one at a time. */
+  private static final class EntryDecoder {
+    private static final int MAX_ENTRY_VALUES = 5;
+    private final StringCharIterator content;
+    private final int[] temp = new int[MAX_ENTRY_VALUES];
+
+    // The values of the last decoded entry. The next entry is relative to them. The previous
+    // column value for the generated file is reset to '0' when a new line is encountered.
+    int column = 0;
+    int sourceId;
+    int sourceLine;
+    int sourceColumn;
+    int nameId;
+    // The number of values in the last decoded entry.
+    private int entryValues = 0;
+
+    EntryDecoder(
+        String lineMap,
+        int position,
+        int sourceId,
+        int sourceLine,
+        int sourceColumn,
+        int nameId) {
+      this.content = new StringCharIterator(lineMap);
+      this.content.current = position;
+      this.sourceId = sourceId;
+      this.sourceLine = sourceLine;
+      this.sourceColumn = sourceColumn;
+      this.nameId = nameId;
+    }
+
+    int getPosition() {
+      return content.current;
+    }
+
+    boolean hasNext() {
+      return content.hasNext();
+    }
+
+    boolean isLineEnd() {
+      return !content.hasNext() || content.peek() == ';';
     }
 
-    private void validateEntry(Entry entry) {
-      Preconditions.checkState((lineCount < 0) || (line < lineCount),
-          "line=%s, lineCount=%s", line, lineCount);
-      checkState(entry.getSourceFileId() == UNMAPPED || entry.getSourceFileId() < sources.length);
-      checkState(entry.getNameId() == UNMAPPED || entry.getNameId() < names.length);
+    void nextLine() {
+      tryConsumeToken(';');
+      column = 0;
     }
 
     /**
-     * Decodes the next entry, using the previous encountered values to
-     * decode the relative values.
+     * Decodes the next entry, and consumes the separating token if there is one.
      *
-     * @param vals An array of integers that represent values in the entry.
-     * @param entryValues The number of entries in the array.
-     * @return The entry object.
+     * @return the number of values in the entry. If it isn't valid, the entry is not decoded.
      */
-    private Entry decodeEntry(int[] vals, int entryValues) throws SourceMapParseException {
-      Entry entry;
-      switch (entryValues) {
-        // The first values, if present are in the following order:
-        //   0: the starting column in the current line of the generated file
-        //   1: the id of the original source file
-        //   2: the starting line in the original source
-        //   3: the starting column in the original source
-        //   4: the id of the original symbol name
-        // The values are relative to the last encountered value for that field.
-        // Note: the previously column value for the generated file is reset
-        // to '0' when a new line is encountered.  This is done in the 'build'
-        // method.
-
-        case 1:
-          // An unmapped section of the generated file.
-          entry = new UnmappedEntry(
-              vals[0] + previousCol);
-          // Set the values see for the next entry.
-          previousCol = entry.getGeneratedColumn();
-          return entry;
-
-        case 4:
-          // A mapped section of the generated file.
-          entry = new UnnamedEntry(
-              vals[0] + previousCol,
-              vals[1] + previousSrcId,
-              vals[2] + previousSrcLine,
-              vals[3] + previousSrcColumn);
-          // Set the values see for the next entry.
-          previousCol = entry.getGeneratedColumn();
-          previousSrcId = entry.getSourceFileId();
-          previousSrcLine = entry.getSourceLine();
-          previousSrcColumn = entry.getSourceColumn();
-          return entry;
-
-        case 5:
-          // A mapped section of the generated file, that has an associated
-          // name.
-          entry = new NamedEntry(
-              vals[0] + previousCol,
-              vals[1] + previousSrcId,
-              vals[2] + previousSrcLine,
-              vals[3] + previousSrcColumn,
-              vals[4] + previousNameId);
-          // Set the values see for the next entry.
-          previousCol = entry.getGeneratedColumn();
-          previousSrcId = entry.getSourceFileId();
-          previousSrcLine = entry.getSourceLine();
-          previousSrcColumn = entry.getSourceColumn();
-          previousNameId = entry.getNameId();
-          return entry;
-
-        default:
-          throw new SourceMapParseException(
-              "Unexpected number of values for entry:" + entryValues);
+    int decodeNext() {
+      int values = 0;
+      while (!entryComplete()) {
+        int value = Base64VLQ.decode(content);
+        if (values < MAX_ENTRY_VALUES) {
+          temp[values] = value;
+        }
+        values++;
+      }
+      // The first values, if present are in the following order:
+      //   0: the starting column in the current line of the generated file
+      //   1: the id of the original source file
+      //   2: the starting line in the original source
+      //   3: the starting column in the original source
+      //   4: the id of the original symbol name
+      // The values are relative to the last encountered value for that field.
+      if (isValidEntry(values)) {
+        column += temp[0];
+        if (values >= 4) {
+          sourceId += temp[1];
+          sourceLine += temp[2];
+          sourceColumn += temp[3];
+        }
+        if (values == 5) {
+          nameId += temp[4];
+        }
+        entryValues = values;
       }
+      tryConsumeToken(',');
+      return values;
+    }
+
+    /**
+     * Returns whether an entry has a valid number of values: 1 for an unmapped section of the
+     * generated file, 4 for a mapped section, and 5 for a mapped section with an associated name.
+     */
+    static boolean isValidEntry(int values) {
+      return values == 1 || values == 4 || values == 5;
+    }
+
+    int getSourceFileId() {
+      return entryValues >= 4 ? sourceId : UNMAPPED;
+    }
+
+    int getSourceLine() {
+      return entryValues >= 4 ? sourceLine : UNMAPPED;
+    }
+
+    int getSourceColumn() {
+      return entryValues >= 4 ? sourceColumn : UNMAPPED;
+    }
+
+    int getNameId() {
+      return entryValues == 5 ? nameId : UNMAPPED;
     }
 
     private boolean tryConsumeToken(char token) {
@@ -381,17 +629,13 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
       char c = content.peek();
       return (c == ';' || c == ',');
     }
-
-    private int nextValue() {
-      return Base64VLQ.decode(content);
-    }
   }
 
   /**
-   * Perform a binary search on the array to find a section that covers
+   * Perform a binary search on the entries to find a section that covers
    * the target column.
    */
-  private static int search(ArrayList<Entry> entries, int target, int start, int end) {
+  private static int search(int[] entries, int target, int start, int end) {
     while (true) {
       int mid = ((end - start) / 2) + start;
       int compare = compareEntry(entries, mid, target);
@@ -414,10 +658,10 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
   }
 
   /**
-   * Compare an array entry's column value to the target column value.
+   * Compare an entry's column value to the target column value.
    */
-  private static int compareEntry(ArrayList<Entry> entries, int entry, int target) {
-    return entries.get(entry).getGeneratedColumn() - target;
+  private static int compareEntry(int[] entries, int entry, int target) {
+    return entries[entry * ENTRY_SIZE + ENTRY_COLUMN] - target;
   }
 
   /** Returns the mapping entry that proceeds the supplied line or null if no such entry exists. */
@@ -427,25 +671,30 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
         return null;
       }
       lineNumber--;
-    } while (lines.get(lineNumber) == null);
-    ArrayList<Entry> entries = lines.get(lineNumber);
-    return getOriginalMappingForEntry(Iterables.getLast(entries), Precision.APPROXIMATE_LINE);
+    } while (!hasEntries(lineNumber));
+    int[] entries = getDecodedLine(lineNumber);
+    return getOriginalMappingForEntry(
+        entries, entries.length / ENTRY_SIZE - 1, Precision.APPROXIMATE_LINE);
   }
 
-  /** Creates an "OriginalMapping" object for the given entry object. */
-  private @Nullable OriginalMapping getOriginalMappingForEntry(Entry entry, Precision precision) {
-    if (entry.getSourceFileId() == UNMAPPED) {
+  /** Creates an "OriginalMapping" object for the given entry of a decoded line. */
+  private @Nullable OriginalMapping getOriginalMappingForEntry(
+      int[] entries, int entry, Precision precision) {
+    int offset = entry * ENTRY_SIZE;
+    int sourceFileId = entries[offset + ENTRY_SOURCE_ID];
+    if (sourceFileId == UNMAPPED) {
       return null;
     } else {
       // Adjust the line/column here to be start at 1.
       OriginalMapping.Builder x =
           OriginalMapping.newBuilder()
-              .setOriginalFile(sources[entry.getSourceFileId()])
-              .setLineNumber(entry.getSourceLine() + 1)
-              .setColumnPosition(entry.getSourceColumn() + 1)
+              .setOriginalFile(sources[sourceFileId])
+              .setLineNumber(entries[offset + ENTRY_SOURCE_LINE] + 1)
+              .setColumnPosition(entries[offset + ENTRY_SOURCE_COLUMN] + 1)
               .setPrecision(precision);
-      if (entry.getNameId() != UNMAPPED) {
-        x.setIdentifier(names[entry.getNameId()]);
+      int nameId = entries[offset + ENTRY_NAME_ID];
+      if (nameId != UNMAPPED) {
+        x.setIdentifier(names[nameId]);
       }
       return x.build();
     }
@@ -459,13 +708,14 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
   private void createReverseMapping() {
     reverseSourceMapping = new LinkedHashMap<>();
 
-    for (int targetLine = 0; targetLine < lines.size(); targetLine++) {
-      ArrayList<Entry> entries = lines.get(targetLine);
-
-      if (entries != null) {
-        for (Entry entry : entries) {
-          if (entry.getSourceFileId() != UNMAPPED && entry.getSourceLine() != UNMAPPED) {
-            String originalFile = sources[entry.getSourceFileId()];
+    for (int targetLine = 0; targetLine < numLines; targetLine++) {
+      if (hasEntries(targetLine)) {
+        int[] entries = getLineForVisit(targetLine);
+        for (int offset = 0; offset < entries.length; offset += ENTRY_SIZE) {
+          int sourceFileId = entries[offset + ENTRY_SOURCE_ID];
+          int sourceLine = entries[offset + ENTRY_SOURCE_LINE];
+          if (sourceFileId != UNMAPPED && sourceLine != UNMAPPED) {
+            String originalFile = sources[sourceFileId];
 
             reverseSourceMapping.computeIfAbsent(
                 originalFile,
@@ -474,8 +724,6 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
             Map<Integer, Collection<OriginalMapping>> lineToCollectionMap =
                 reverseSourceMapping.get(originalFile);
 
-            int sourceLine = entry.getSourceLine();
-
             if (!lineToCollectionMap.containsKey(sourceLine)) {
               lineToCollectionMap.put(sourceLine,
                   new ArrayList<OriginalMapping>(1));
@@ -487,7 +735,7 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
             OriginalMapping.Builder builder =
                 OriginalMapping.newBuilder()
                     .setLineNumber(targetLine)
-                    .setColumnPosition(entry.getGeneratedColumn());
+                    .setColumnPosition(entries[offset + ENTRY_COLUMN]);
 
             mappings.add(builder.build());
           }
@@ -525,109 +773,6 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
     }
   }
 
-  /**
-   * Represents a mapping entry in the source map.
-   */
-  private interface Entry {
-    int getGeneratedColumn();
-    int getSourceFileId();
-    int getSourceLine();
-    int getSourceColumn();
-    int getNameId();
-  }
-
-  /**
-   * This class represents a portion of the generated file, that is not mapped
-   * to a section in the original source.
-   */
-  private static class UnmappedEntry implements Entry {
-    private final int column;
-
-    UnmappedEntry(int column) {
-      this.column = column;
-    }
-
-    @Override
-    public int getGeneratedColumn() {
-      return column;
-    }
-
-    @Override
-    public int getSourceFileId() {
-      return UNMAPPED;
-    }
-
-    @Override
-    public int getSourceLine() {
-      return UNMAPPED;
-    }
-
-    @Override
-    public int getSourceColumn() {
-      return UNMAPPED;
-    }
-
-    @Override
-    public int getNameId() {
-      return UNMAPPED;
-    }
-  }
-
-  /**
-   * This class represents a portion of the generated file, that is mapped
-   * to a section in the original source.
-   */
-  private static class UnnamedEntry extends UnmappedEntry {
-    private final int srcFile;
-    private final int srcLine;
-    private final int srcColumn;
-
-    UnnamedEntry(int column, int srcFile, int srcLine, int srcColumn) {
-      super(column);
-      this.srcFile = srcFile;
-      this.srcLine = srcLine;
-      this.srcColumn = srcColumn;
-    }
-
-    @Override
-    public int getSourceFileId() {
-      return srcFile;
-    }
-
-    @Override
-    public int getSourceLine() {
-      return srcLine;
-    }
-
-    @Override
-    public int getSourceColumn() {
-      return srcColumn;
-    }
-
-    @Override
-    public int getNameId() {
-      return UNMAPPED;
-    }
-  }
-
-  /**
-   * This class represents a portion of the generated file, that is mapped
-   * to a section in the original source, and is associated with a name.
-   */
-  private static class NamedEntry extends UnnamedEntry {
-    private final int name;
-
-    NamedEntry(int column, int srcFile, int srcLine, int srcColumn, int name) {
-      super(column, srcFile, srcLine, srcColumn);
-      this.name = name;
-    }
-
-    @Override
-    public int getNameId() {
-      return name;
-    }
-  }
-
   public static interface EntryVisitor {
     void visit(String sourceName,
                String symbolName,
@@ -643,16 +788,14 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
     FilePosition sourceStartPosition = null;
     FilePosition startPosition = null;
 
-    final int lineCount = lines.size();
-    for (int i = 0; i < lineCount; i++) {
-      ArrayList<Entry> line = lines.get(i);
-      if (line != null) {
-        final int entryCount = line.size();
-        for (int j = 0; j < entryCount; j++) {
-          Entry entry = line.get(j);
+    for (int i = 0; i < numLines; i++) {
+      if (hasEntries(i)) {
+        int[] line = getLineForVisit(i);
+        for (int offset = 0; offset < line.length; offset += ENTRY_SIZE) {
+          int column = line[offset + ENTRY_COLUMN];
+          int sourceFileId = line[offset + ENTRY_SOURCE_ID];
           if (pending) {
-            FilePosition endPosition = new FilePosition(
-                i, entry.getGeneratedColumn());
+            FilePosition endPosition = new FilePosition(i, column);
             visitor.visit(
                 sourceName,
                 symbolName,
@@ -662,15 +805,15 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
             pending = false;
           }
 
-          if (entry.getSourceFileId() != UNMAPPED) {
+          if (sourceFileId != UNMAPPED) {
             pending = true;
-            sourceName = sources[entry.getSourceFileId()];
-            symbolName = (entry.getNameId() != UNMAPPED)
-                ? names[entry.getNameId()] : null;
-            sourceStartPosition = new FilePosition(
-                entry.getSourceLine(), entry.getSourceColumn());
-            startPosition = new FilePosition(
-                i, entry.getGeneratedColumn());
+            sourceName = sources[sourceFileId];
+            int nameId = line[offset + ENTRY_NAME_ID];
+            symbolName = (nameId != UNMAPPED) ? names[nameId] : null;
+            sourceStartPosition =
+                new FilePosition(
+                    line[offset + ENTRY_SOURCE_LINE], line[offset + ENTRY_SOURCE_COLUMN]);
+            startPosition = new FilePosition(i, column);
           }
         }
       }
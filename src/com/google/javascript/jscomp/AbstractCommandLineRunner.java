@@ -56,6 +56,8 @@ import com.google.javascript.jscomp.parsing.Config;
 import com.google.javascript.rhino.Node;
 import com.google.javascript.rhino.StaticSourceFile.SourceKind;
 import com.google.javascript.rhino.TokenStream;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
@@ -73,7 +75,11 @@ import java.io.PrintStream;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -1006,6 +1012,16 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
   @VisibleForTesting
   void writeModuleOutput(String fileName, Appendable out, LicenseTracker lt, JSChunk m)
       throws IOException {
+    writeModuleOutput(fileName, out, lt, m, null);
+  }
+
+  private void writeModuleOutput(
+      String fileName,
+      Appendable out,
+      LicenseTracker lt,
+      JSChunk m,
+      @Nullable ParallelChunkPrinter chunkPrinter)
+      throws IOException {
     if (parsedModuleWrappers == null) {
       parsedModuleWrappers =
           parseModuleWrappers(
@@ -1021,6 +1037,7 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
         compiler,
         lt,
         m,
+        chunkPrinter,
         parsedModuleWrappers.get(m.getName()).replace("%basename%", baseName),
         "%s",
         null,
@@ -1032,12 +1049,14 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
    * placeholder where the code should be inserted.
    *
    * @param chunk Which chunk to write. If this is null, write the entire AST.
+   * @param chunkPrinter If not null, the printer that already printed the chunk's code.
    */
   void writeOutput(
       Appendable out,
       Compiler compiler,
       LicenseTracker licenseTracker,
       @Nullable JSChunk chunk,
+      @Nullable ParallelChunkPrinter chunkPrinter,
       String wrapper,
       String codePlaceholder,
       @Nullable Function<String, String> escaper,
@@ -1049,8 +1068,28 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
     }
     checkState(compiler.getOptions().outputJs == OutputJs.NORMAL);
 
-    String code = chunk == null ? compiler.toSource() : compiler.toSource(licenseTracker, chunk);
-    writeOutput(out, compiler, code, wrapper, codePlaceholder, escaper, filename);
+    if (escaper != null) {
+      checkState(chunkPrinter == null);
+      String code = chunk == null ? compiler.toSource() : compiler.toSource(licenseTracker, chunk);
+      writeOutput(out, compiler, code, wrapper, codePlaceholder, escaper, filename);
+      return;
+    }
+    // Without an escaper, write the code as it is printed instead of building one string for the
+    // whole output.
+    writeWrappedOutput(
+        out,
+        compiler,
+        wrapper,
+        codePlaceholder,
+        codeOut -> {
+          if (chunk == null) {
+            compiler.toSource(codeOut);
+          } else if (chunkPrinter == null) {
+            compiler.toSource(licenseTracker, chunk, codeOut);
+          } else {
+            compiler.toSource(licenseTracker, chunk, chunkPrinter, codeOut);
+          }
+        });
   }
 
   /**
@@ -1067,6 +1106,26 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
       @Nullable Function<String, String> escaper,
       String filename)
       throws IOException {
+    writeWrappedOutput(
+        out,
+        compiler,
+        wrapper,
+        codePlaceholder,
+        codeOut -> codeOut.append(escaper == null ? code : escaper.apply(code)));
+  }
+
+  /** Writes the output code to an {@link Appendable}. */
+  private interface CodeWriter {
+    void writeTo(Appendable out) throws IOException;
+  }
+
+  private static void writeWrappedOutput(
+      Appendable out,
+      Compiler compiler,
+      String wrapper,
+      String codePlaceholder,
+      CodeWriter codeWriter)
+      throws IOException {
     int pos = wrapper.indexOf(codePlaceholder);
     if (pos != -1) {
       String prefix = "";
@@ -1076,7 +1135,7 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
         out.append(prefix);
       }
 
-      out.append(escaper == null ? code : escaper.apply(code));
+      codeWriter.writeTo(out);
 
       int suffixStart = pos + codePlaceholder.length();
       if (suffixStart != wrapper.length()) {
@@ -1093,7 +1152,7 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
       }
 
     } else {
-      out.append(code);
+      codeWriter.writeTo(out);
       out.append('\n');
     }
   }
@@ -1406,6 +1465,16 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
       List<SourceFile> sources,
       CompilerOptions options,
       String filename) {
+    try {
+      ByteString typedAstList = mapUncompressedTypedAstList(filename);
+      if (typedAstList != null) {
+        compiler.initWithTypedAstFilesystem(externs, sources, options, typedAstList);
+        return;
+      }
+    } catch (IOException e) {
+      compiler.report(JSError.make(COULD_NOT_DESERIALIZE_AST, filename));
+      return;
+    }
     try (GZIPInputStream typedAstListStream =
         new GZIPInputStream(new FileInputStream(filename), GZIPPED_TYPEDAST_BUFFER_SIZE)) {
       compiler.initWithTypedAstFilesystem(externs, sources, options, typedAstListStream);
@@ -1416,6 +1485,16 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
 
   private void initChunksWithTypedAstFilesystem(
       List<SourceFile> externs, List<JSChunk> chunks, CompilerOptions options, String filename) {
+    try {
+      ByteString typedAstList = mapUncompressedTypedAstList(filename);
+      if (typedAstList != null) {
+        compiler.initChunksWithTypedAstFilesystem(externs, chunks, options, typedAstList);
+        return;
+      }
+    } catch (IOException e) {
+      compiler.report(JSError.make(COULD_NOT_DESERIALIZE_AST, filename));
+      return;
+    }
     try (GZIPInputStream typedAstListStream =
         new GZIPInputStream(new FileInputStream(filename), GZIPPED_TYPEDAST_BUFFER_SIZE)) {
       compiler.initChunksWithTypedAstFilesystem(externs, chunks, options, typedAstListStream);
@@ -1424,6 +1503,27 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
     }
   }
 
+  /**
+   * Maps a TypedAst.List file into memory, so that scripts are only read from it when they are
+   * deserialized. Returns null if the file is gzipped, or too large to map, and must be streamed.
+   */
+  private static @Nullable ByteString mapUncompressedTypedAstList(String filename)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        return null;
+      }
+      // The mapping stays valid after the channel is closed.
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      if (size >= 2
+          && ((buffer.get(0) & 0xFF) | (buffer.get(1) & 0xFF) << 8) == GZIPInputStream.GZIP_MAGIC) {
+        return null;
+      }
+      return UnsafeByteOperations.unsafeWrap(buffer);
+    }
+  }
+
   /**
    * Call at the beginning of compilation to initialize the compiler state.
    *
@@ -1591,6 +1691,7 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
           // Use single-binary license tracking to dedupe licenses among all the inputs
           new SingleBinaryLicenseTracker(compiler),
           (JSChunk) null,
+          null,
           config.outputWrapper,
           marker,
           escaper,
@@ -1610,6 +1711,7 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
         // Use single-binary license tracking to dedupe licenses among all the inputs
         new SingleBinaryLicenseTracker(compiler),
         (JSChunk) null,
+        null,
         config.outputWrapper,
         outputMarker,
         escaper,
@@ -1662,35 +1764,48 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
       return INVALID_MODULE_SOURCEMAP_PATTERN;
     }
 
-    ChunkGraphAwareLicenseTracker mlicenseTracker = new ChunkGraphAwareLicenseTracker(compiler);
+    ImmutableList.Builder<JSChunk> chunksToWriteBuilder = ImmutableList.builder();
     for (JSChunk m : modules) {
-      if (m.getName().equals(JSChunk.WEAK_CHUNK_NAME)) {
-        // Skip the weak module, which is always empty.
-        continue;
+      // Skip the weak module, which is always empty.
+      if (!m.getName().equals(JSChunk.WEAK_CHUNK_NAME)) {
+        chunksToWriteBuilder.add(m);
       }
-      if (isOutputInJson()) {
-        this.filesToStreamOut.add(createJsonFileFromModule(m));
-      } else {
-        if (shouldGenerateMapPerModule(options)) {
-          mapFileOut = fileNameToOutputWriter2(expandSourceMapPath(options, m));
-        }
+    }
+    ImmutableList<JSChunk> chunksToWrite = chunksToWriteBuilder.build();
 
-        String moduleFilename = getChunkOutputFileName(m);
-        maybeCreateDirsForPath(moduleFilename);
-        try (Writer writer = fileNameToLegacyOutputWriter(moduleFilename)) {
-          if (options.shouldGatherSourceMapInfo()) {
-            compiler.resetAndIntitializeSourceMap();
+    ChunkGraphAwareLicenseTracker mlicenseTracker = new ChunkGraphAwareLicenseTracker(compiler);
+    // With several threads, print the chunks ahead while they are written out one by one.
+    try (ParallelChunkPrinter chunkPrinter =
+        !isOutputInJson()
+                && options.numParallelThreads > 1
+                && options.outputJs == OutputJs.NORMAL
+            ? new ParallelChunkPrinter(compiler, chunksToWrite, options.numParallelThreads)
+            : null) {
+      for (JSChunk m : chunksToWrite) {
+        if (isOutputInJson()) {
+          this.filesToStreamOut.add(createJsonFileFromModule(m));
+        } else {
+          if (shouldGenerateMapPerModule(options)) {
+            mapFileOut = fileNameToOutputWriter2(expandSourceMapPath(options, m));
           }
-          mlicenseTracker.setCurrentChunkContext(m);
-          writeModuleOutput(moduleFilename, writer, mlicenseTracker, m);
-          if (options.shouldGatherSourceMapInfo()) {
-            compiler.getSourceMap().appendTo(mapFileOut, moduleFilename);
+
+          String moduleFilename = getChunkOutputFileName(m);
+          maybeCreateDirsForPath(moduleFilename);
+          try (Writer writer = fileNameToLegacyOutputWriter(moduleFilename)) {
+            if (options.shouldGatherSourceMapInfo()) {
+              compiler.resetAndIntitializeSourceMap();
+            }
+            mlicenseTracker.setCurrentChunkContext(m);
+            writeModuleOutput(moduleFilename, writer, mlicenseTracker, m, chunkPrinter);
+            if (options.shouldGatherSourceMapInfo()) {
+              compiler.getSourceMap().appendTo(mapFileOut, moduleFilename);
+            }
           }
-        }
 
-        if (shouldGenerateMapPerModule(options) && mapFileOut != null) {
-          mapFileOut.close();
-          mapFileOut = null;
+          if (shouldGenerateMapPerModule(options) && mapFileOut != null) {
+            mapFileOut.close();
+            mapFileOut = null;
+          }
         }
       }
     }
@@ -2226,7 +2341,7 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
     // Prebuild ASTs before they're needed in getLoadFlags, for performance and because
     // StackOverflowErrors can be hit if not prebuilt.
     if (compiler.getOptions().numParallelThreads > 1) {
-      new PrebuildAst(compiler, compiler.getOptions().numParallelThreads).prebuild(inputs);
+      new PrebuildAst(compiler).prebuild(inputs);
     }
     if (!compiler.getOptions().preventLibraryInjection) {
       // ES6 modules will need a runtime in a bundle. Skip appending this runtime if there are no
@@ -202,6 +202,15 @@ public abstract class AbstractCompiler implements SourceExcerptProvider, Compile
   /** Report an error or warning. */
   public abstract void report(JSError error);
 
+  /**
+   * Runs the given action on the current thread, collecting the errors it reports instead of
+   * passing them to the error manager.
+   *
+   * <p>The caller is responsible for reporting the returned errors, usually from the compiler
+   * thread once the action has finished.
+   */
+  abstract ImmutableList<JSError> runAndBufferErrors(Runnable action);
+
   /** Report an internal error. */
   abstract void throwInternalError(String msg, Throwable cause);
 
@@ -346,6 +355,12 @@ public abstract class AbstractCompiler implements SourceExcerptProvider, Compile
    */
   abstract boolean hasHaltingErrors();
 
+  /**
+   * Returns the threads used to parse inputs in parallel, sized by {@link
+   * CompilerOptions#setNumParallelThreads}. All parallel parsing phases share them.
+   */
+  abstract ParallelInputScheduler getParallelInputScheduler();
+
   /** Register a listener for code change events. */
   abstract void addChangeHandler(CodeChangeHandler handler);
 
@@ -371,6 +386,12 @@ public abstract class AbstractCompiler implements SourceExcerptProvider, Compile
    */
   abstract List<Node> getChangedScopeNodesForPass(String passName);
 
+  /**
+   * Marks all changes so far as seen by the given pass, so that {@link
+   * #getChangedScopeNodesForPass} only returns the scopes changed after this call.
+   */
+  abstract void markChangesSeenByPass(String passName);
+
   /** Called to indicate that the current change stamp has been used */
   abstract void incrementChangeStamp();
 
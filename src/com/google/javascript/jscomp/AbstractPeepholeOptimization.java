@@ -18,13 +18,19 @@ package com.google.javascript.jscomp;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Sets;
 import com.google.javascript.jscomp.base.Tri;
 import com.google.javascript.jscomp.parsing.parser.FeatureSet;
 import com.google.javascript.jscomp.parsing.parser.FeatureSet.Feature;
 import com.google.javascript.rhino.Node;
 import com.google.javascript.rhino.StaticSourceFile;
+import com.google.javascript.rhino.Token;
 import java.math.BigInteger;
+import java.util.EnumSet;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
 
 /**
  * An abstract class whose implementations run peephole optimizations:
@@ -32,12 +38,17 @@ import java.math.BigInteger;
  * that code (if it is not needed) or replaces it with smaller code.
  */
 abstract class AbstractPeepholeOptimization {
+  private static final ImmutableSet<Token> ALL_TOKENS =
+      Sets.immutableEnumSet(EnumSet.allOf(Token.class));
 
   /** Intentionally not exposed to subclasses */
   private AbstractCompiler compiler;
   /** Intentionally not exposed to subclasses */
   private AstAnalyzer astAnalyzer;
 
+  /** Where to record the nodes reported as changed, with their parents, if anywhere. */
+  private @Nullable Map<Node, Node> changedNodes;
+
   /** Features added to scripts during the optimization. */
   private final LinkedHashMultimap<StaticSourceFile, Feature> newFeatures =
       LinkedHashMultimap.create();
@@ -53,6 +64,14 @@ abstract class AbstractPeepholeOptimization {
    */
   abstract Node optimizeSubtree(Node subtree);
 
+  /**
+   * Returns the tokens of the nodes that {@link #optimizeSubtree} may optimize. {@link
+   * PeepholeOptimizationsPass} doesn't pass it nodes with other tokens. By default, all tokens.
+   */
+  ImmutableSet<Token> getTokensToOptimize() {
+    return ALL_TOKENS;
+  }
+
   /**
    * Helper method for reporting an error to the compiler when applying a
    * peephole optimization.
@@ -100,6 +119,7 @@ abstract class AbstractPeepholeOptimization {
    * called again.
    */
   void endTraversal() {
+    changedNodes = null;
     for (StaticSourceFile file : newFeatures.keySet()) {
       Node script = compiler.getScriptNode(file.getName());
       NodeUtil.addFeaturesToScript(
@@ -109,6 +129,15 @@ abstract class AbstractPeepholeOptimization {
     astAnalyzer = null;
   }
 
+  /**
+   * Records the nodes that the optimization reports as changed in the given map, until the
+   * traversal ends. Each node is mapped to its parent at the time, as it may be removed afterwards.
+   * Functions added to the AST are recorded themselves.
+   */
+  void recordChangedNodes(Map<Node, Node> changedNodes) {
+    this.changedNodes = changedNodes;
+  }
+
   /** Returns whether the node may create new mutable state, or change existing state. */
   protected boolean mayEffectMutableState(Node n) {
     return astAnalyzer.mayEffectMutableState(n);
@@ -224,11 +253,18 @@ abstract class AbstractPeepholeOptimization {
 
   protected final void reportChangeToEnclosingScope(Node n) {
     compiler.reportChangeToEnclosingScope(n);
+    if (changedNodes != null) {
+      changedNodes.put(n, n.getParent());
+    }
   }
 
   /** Calls {@link NodeUtil#deleteNode(Node, AbstractCompiler)} */
   protected final void deleteNode(Node property) {
     checkNotNull(compiler);
+    if (changedNodes != null) {
+      Node parent = property.getParent();
+      changedNodes.put(parent, parent.getParent());
+    }
     NodeUtil.deleteNode(property, compiler);
   }
 
@@ -242,6 +278,15 @@ abstract class AbstractPeepholeOptimization {
   protected final void markNewScopesChanged(Node n) {
     checkNotNull(compiler);
     NodeUtil.markNewScopesChanged(n, compiler);
+    if (changedNodes != null) {
+      NodeUtil.visitPreOrder(
+          n,
+          (Node node) -> {
+            if (node.isFunction()) {
+              changedNodes.put(node, node.getParent());
+            }
+          });
+    }
   }
 
   protected final void addFeatureToEnclosingScript(Node n, Feature feature) {
@@ -26,12 +26,11 @@ import com.google.javascript.jscomp.ControlFlowGraph.Branch;
 import com.google.javascript.jscomp.DataFlowAnalysis.LinearFlowState;
 import com.google.javascript.jscomp.LiveVariablesAnalysis.LiveVariableLattice;
 import com.google.javascript.jscomp.NodeUtil.AllVarsDeclaredInFunction;
+import com.google.javascript.jscomp.graph.BitSetAdjacencyGraph;
 import com.google.javascript.jscomp.graph.DiGraph.DiGraphNode;
 import com.google.javascript.jscomp.graph.GraphColoring;
 import com.google.javascript.jscomp.graph.GraphColoring.GreedyGraphColoring;
 import com.google.javascript.jscomp.graph.GraphNode;
-import com.google.javascript.jscomp.graph.LinkedUndirectedGraph;
-import com.google.javascript.jscomp.graph.UndiGraph;
 import com.google.javascript.jscomp.parsing.parser.FeatureSet;
 import com.google.javascript.rhino.IR;
 import com.google.javascript.rhino.Node;
@@ -169,7 +168,7 @@ class CoalesceVariableNames extends NodeTraversal.AbstractCfgCallback implements
     // The interference graph has the function's variables as its nodes and any interference
     // between the variables as the edges. Interference between two variables means that they are
     // alive at overlapping times, which means that their variable names cannot be coalesced.
-    UndiGraph<Var, Void> interferenceGraph =
+    BitSetAdjacencyGraph<Var> interferenceGraph =
         computeVariableNamesInterferenceGraph(cfg, liveness.getEscapedLocals());
 
     // Color any interfering variables with different colors and any variables that can be safely
@@ -322,9 +321,9 @@ class CoalesceVariableNames extends NodeTraversal.AbstractCfgCallback implements
    * @param escaped we don't want to coalesce any escaped variables
    * @return graph with variable nodes and edges representing variable interference
    */
-  private UndiGraph<Var, Void> computeVariableNamesInterferenceGraph(
+  private BitSetAdjacencyGraph<Var> computeVariableNamesInterferenceGraph(
       ControlFlowGraph<Node> cfg, Set<? extends Var> escaped) {
-    UndiGraph<Var, Void> interferenceGraph = LinkedUndirectedGraph.create();
+    BitSetAdjacencyGraph<Var> interferenceGraph = BitSetAdjacencyGraph.create();
 
     // First create a node for each non-escaped variable. We add these nodes in the order in which
     // they appear in the code because we want the names that appear earlier in the code to be used
@@ -409,29 +408,32 @@ class CoalesceVariableNames extends NodeTraversal.AbstractCfgCallback implements
       liveRangeChecker.setCrossingVariables(interferenceBitSet);
     }
 
-    // Go through each variable and try to connect them.
-    int v1Index = -1;
-    for (Var v1 : orderedVariables) {
-      v1Index++;
-
-      int v2Index = -1;
-      for (Var v2 : orderedVariables) {
-        v2Index++;
-        // Skip duplicate pairs. Also avoid merging a variable with itself.
-        if (v1Index > v2Index) {
-          continue;
-        }
-
-        if (!interferenceGraphNodes.get(v1Index) || !interferenceGraphNodes.get(v2Index)) {
-          // Skip nodes that were not added. They are globals and escaped locals.
-          continue;
-        }
+    // index i in params is set to true when orderedVariables[i] is a parameter in the graph
+    BitSet params = new BitSet();
+    for (int i = interferenceGraphNodes.nextSetBit(0);
+        i >= 0;
+        i = interferenceGraphNodes.nextSetBit(i + 1)) {
+      if (orderedVariables[i].isParam()) {
+        params.set(i);
+      }
+    }
 
-        if ((v1.isParam() && v2.isParam()) || interferenceBitSet[v1Index].get(v2Index)) {
-          // Add an edge between variable pairs that are both parameters
-          // because we don't want parameters to share a name.
-          interferenceGraph.connectIfNotFound(v1, null, v2);
-        }
+    // Go through each variable and connect it to the variables after it that it interferes with.
+    // Skip nodes that were not added. They are globals and escaped locals.
+    for (int v1Index = interferenceGraphNodes.nextSetBit(0);
+        v1Index >= 0;
+        v1Index = interferenceGraphNodes.nextSetBit(v1Index + 1)) {
+      BitSet neighbors = interferenceBitSet[v1Index];
+      if (params.get(v1Index)) {
+        // Add an edge between variable pairs that are both parameters
+        // because we don't want parameters to share a name.
+        neighbors.or(params);
+      }
+      neighbors.and(interferenceGraphNodes);
+      for (int v2Index = neighbors.nextSetBit(v1Index);
+          v2Index >= 0;
+          v2Index = neighbors.nextSetBit(v2Index + 1)) {
+        interferenceGraph.connect(orderedVariables[v1Index], orderedVariables[v2Index]);
       }
     }
     return interferenceGraph;
@@ -59,7 +59,7 @@ public final class CodePrinter {
     private int firstCandidateMappingForCut = 0;
     private final boolean createSrcMap;
     private final SourceMap.DetailLevel sourceMapDetailLevel;
-    private final @Nullable LicenseTracker licenseTracker;
+    private final @Nullable PrintedNodeTracker licenseTracker;
     protected final StringBuilder code = new StringBuilder(1024);
     protected final int lineLengthThreshold;
     protected int lineLength = 0;
@@ -69,7 +69,7 @@ public final class CodePrinter {
         int lineLengthThreshold,
         boolean createSrcMap,
         SourceMap.DetailLevel sourceMapDetailLevel,
-        @Nullable LicenseTracker licenseTracker) {
+        @Nullable PrintedNodeTracker licenseTracker) {
       checkState(sourceMapDetailLevel != null);
       this.lineLengthThreshold = lineLengthThreshold <= 0 ? Integer.MAX_VALUE :
         lineLengthThreshold;
@@ -291,7 +291,7 @@ public final class CodePrinter {
         int lineLengthThreshold,
         boolean createSourceMap,
         SourceMap.DetailLevel sourceMapDetailLevel,
-        @Nullable LicenseTracker licenseTracker) {
+        @Nullable PrintedNodeTracker licenseTracker) {
       super(lineLengthThreshold, createSourceMap, sourceMapDetailLevel, licenseTracker);
     }
 
@@ -558,7 +558,7 @@ public final class CodePrinter {
           // source file is a stub file, so we can not get number from source.
           return null;
         }
-        srcCode = src.getCode();
+        srcCode = src.getCodeWithoutRetaining();
       } catch (IOException e) {
         return null;
       }
@@ -608,7 +608,7 @@ public final class CodePrinter {
         int lineLengthThreshold,
         boolean createSrcMap,
         SourceMap.DetailLevel sourceMapDetailLevel,
-        LicenseTracker licenseTracker) {
+        PrintedNodeTracker licenseTracker) {
       super(lineLengthThreshold, createSrcMap, sourceMapDetailLevel, licenseTracker);
       this.lineBreak = lineBreak;
     }
@@ -689,12 +689,18 @@ public final class CodePrinter {
    * what is relevant varies between implementations of License Trackers - read their javadoc to
    * determine how they are intended to be used.
    */
-  public interface LicenseTracker {
-    void trackLicensesForNode(Node node);
-
+  public interface LicenseTracker extends PrintedNodeTracker {
     ImmutableSet<String> emitLicenses();
   }
 
+  /**
+   * The part of a {@link LicenseTracker} that the Code Printer uses: it is shown every node being
+   * printed.
+   */
+  public interface PrintedNodeTracker {
+    void trackLicensesForNode(Node node);
+  }
+
   public static final class Builder {
     private final Node root;
     private CompilerOptions options = new CompilerOptions();
@@ -703,7 +709,7 @@ public final class CodePrinter {
     private boolean outputTypes = false;
     private boolean tagAsTypeSummary;
     private boolean tagAsStrict;
-    private @Nullable LicenseTracker licenseTracker;
+    private @Nullable PrintedNodeTracker licenseTracker;
     private @Nullable JSTypeRegistry registry; // may be null unless using Format.TYPED
     private CodeGeneratorFactory codeGeneratorFactory =
         new CodeGeneratorFactory() {
@@ -777,7 +783,7 @@ public final class CodePrinter {
      * @param licenseTracker The tracker to use. Can be null to disable license tracking.
      */
     @CanIgnoreReturnValue
-    public Builder setLicenseTracker(LicenseTracker licenseTracker) {
+    public Builder setLicenseTracker(PrintedNodeTracker licenseTracker) {
       this.licenseTracker = licenseTracker;
       return this;
     }
@@ -863,7 +869,7 @@ public final class CodePrinter {
       Node root,
       Format outputFormat,
       CompilerOptions options,
-      @Nullable LicenseTracker licenseTracker,
+      @Nullable PrintedNodeTracker licenseTracker,
       boolean tagAsTypeSummary,
       boolean tagAsStrict,
       boolean lineBreak,
@@ -549,6 +549,15 @@ public class CommandLineRunner extends AbstractCommandLineRunner<Compiler, Compi
         usage = "Use multiple threads to parallelize parts of the compilation.")
     private int numParallelThreads = 1;
 
+    @Option(
+        name = "--reuse_parsed_inputs_across_compilations",
+        hidden = true,
+        handler = BooleanOptionHandler.class,
+        usage =
+            "Cache parsed inputs by content so that later compilations in the same process, e.g."
+                + " in a persistent worker, don't parse unchanged files again.")
+    private boolean reuseParsedInputsAcrossCompilations = false;
+
     @Option(
         name = "--checks_only",
         aliases = {"--checks-only"},
@@ -607,6 +616,21 @@ public class CommandLineRunner extends AbstractCommandLineRunner<Compiler, Compi
         hidden = true)
     private @Nullable String typedAstOutputFile = null;
 
+    @Option(
+        name = "--typed_ast_cache_dir__INTERNAL_USE_ONLY",
+        usage =
+            "Sets a directory to reuse the typedAST output of earlier compilations of the same "
+                + "inputs from. DO NOT USE!",
+        hidden = true)
+    private @Nullable String typedAstCacheDir = null;
+
+    @Option(
+        name = "--typed_ast_cache_max_size_mb__INTERNAL_USE_ONLY",
+        usage =
+            "Sets the size in megabytes beyond which the typedAST cache is trimmed. DO NOT USE!",
+        hidden = true)
+    private long typedAstCacheMaxSizeMb = 1024;
+
     @Option(
         name = "--generate_exports",
         handler = BooleanOptionHandler.class,
@@ -1943,6 +1967,7 @@ public class CommandLineRunner extends AbstractCommandLineRunner<Compiler, Compi
     }
 
     options.setNumParallelThreads(flags.numParallelThreads);
+    options.setReuseParsedInputsAcrossCompilations(flags.reuseParsedInputsAcrossCompilations);
 
     options.setEnvironment(flags.environment);
 
@@ -1968,6 +1993,10 @@ public class CommandLineRunner extends AbstractCommandLineRunner<Compiler, Compi
     if (flags.typedAstOutputFile != null) {
       options.setTypedAstOutputFile(Path.of(flags.typedAstOutputFile));
     }
+    if (flags.typedAstCacheDir != null) {
+      options.setTypedAstCacheDirectory(Path.of(flags.typedAstCacheDir));
+      options.setTypedAstCacheMaxSizeInBytes(flags.typedAstCacheMaxSizeMb << 20);
+    }
     options.setGenerateExports(flags.generateExports);
     options.setExportLocalPropertyDefinitions(flags.exportLocalPropertyDefinitions);
 
@@ -90,6 +90,7 @@ import com.google.javascript.rhino.Node;
 import com.google.javascript.rhino.StaticScope;
 import com.google.javascript.rhino.StaticSourceFile.SourceKind;
 import com.google.javascript.rhino.jstype.JSTypeRegistry;
+import com.google.protobuf.ByteString;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
@@ -97,6 +98,7 @@ import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.util.AbstractSet;
 import java.util.ArrayList;
@@ -172,6 +174,15 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
   // error manager to which error management is delegated
   private ErrorManager errorManager;
 
+  /**
+   * Errors reported on the current thread while {@link #runAndBufferErrors} is running, or null if
+   * errors reported on the current thread go straight to the error manager.
+   */
+  private final ThreadLocal<List<JSError>> bufferedErrors = new ThreadLocal<>();
+
+  /** Shared by all parallel parsing phases. Created on first use. */
+  private @Nullable ParallelInputScheduler parallelInputScheduler;
+
   // Warnings guard for filtering warnings.
   private WarningsGuard warningsGuard;
 
@@ -601,7 +612,51 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
       List<SourceFile> sources,
       CompilerOptions options,
       InputStream typedAstListStream) {
+    ImmutableSet<SourceFile> files = initForTypedAstFilesystem(externs, sources, options);
+    this.mergeAndDeserializeTypedAsts(
+        options,
+        (includeTypeInformation) ->
+            TypedAstDeserializer.deserializeFullAst(
+                this,
+                SYNTHETIC_EXTERNS_FILE,
+                files,
+                typedAstListStream,
+                includeTypeInformation,
+                options.resolveSourceMapAnnotations,
+                options.parseInlineSourceMaps));
+  }
 
+  /**
+   * Initializes a compiler with deserialized state from the given TypedAst.List
+   *
+   * <p>Like {@link #initWithTypedAstFilesystem(List, List, CompilerOptions, InputStream)}, but the
+   * scripts are deserialized from {@code typedAstList} only when needed.
+   *
+   * @param typedAstList a binary-serialized TypedAst.List proto, for example an uncompressed file
+   *     mapped into memory. It must not change while the compiler is in use.
+   */
+  public final void initWithTypedAstFilesystem(
+      List<SourceFile> externs,
+      List<SourceFile> sources,
+      CompilerOptions options,
+      ByteString typedAstList) {
+    ImmutableSet<SourceFile> files = initForTypedAstFilesystem(externs, sources, options);
+    this.mergeAndDeserializeTypedAsts(
+        options,
+        (includeTypeInformation) ->
+            TypedAstDeserializer.deserializeFullAst(
+                this,
+                SYNTHETIC_EXTERNS_FILE,
+                files,
+                typedAstList,
+                includeTypeInformation,
+                options.resolveSourceMapAnnotations,
+                options.parseInlineSourceMaps));
+  }
+
+  /** Initializes the inputs and returns the files that must be in the TypedAST filesystem. */
+  private ImmutableSet<SourceFile> initForTypedAstFilesystem(
+      List<SourceFile> externs, List<SourceFile> sources, CompilerOptions options) {
     ImmutableSet<SourceFile> files =
         ImmutableSet.<SourceFile>builder().addAll(externs).addAll(sources).build();
 
@@ -609,7 +664,7 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
 
     this.initOptions(options);
     this.init(externs, sources, options);
-    this.mergeAndDeserializeTypedAsts(files, typedAstListStream, options);
+    return files;
   }
 
   /**
@@ -625,7 +680,51 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
       List<JSChunk> chunks,
       CompilerOptions options,
       InputStream typedAstListStream) {
+    ImmutableSet<SourceFile> files = initChunksForTypedAstFilesystem(externs, chunks, options);
+    this.mergeAndDeserializeTypedAsts(
+        options,
+        (includeTypeInformation) ->
+            TypedAstDeserializer.deserializeFullAst(
+                this,
+                SYNTHETIC_EXTERNS_FILE,
+                files,
+                typedAstListStream,
+                includeTypeInformation,
+                options.resolveSourceMapAnnotations,
+                options.parseInlineSourceMaps));
+  }
 
+  /**
+   * Initializes a compiler with deserialized state from the given TypedAst.List
+   *
+   * <p>Like {@link #initChunksWithTypedAstFilesystem(List, List, CompilerOptions, InputStream)},
+   * but the scripts are deserialized from {@code typedAstList} only when needed.
+   *
+   * @param typedAstList a binary-serialized TypedAst.List proto, for example an uncompressed file
+   *     mapped into memory. It must not change while the compiler is in use.
+   */
+  public void initChunksWithTypedAstFilesystem(
+      List<SourceFile> externs,
+      List<JSChunk> chunks,
+      CompilerOptions options,
+      ByteString typedAstList) {
+    ImmutableSet<SourceFile> files = initChunksForTypedAstFilesystem(externs, chunks, options);
+    this.mergeAndDeserializeTypedAsts(
+        options,
+        (includeTypeInformation) ->
+            TypedAstDeserializer.deserializeFullAst(
+                this,
+                SYNTHETIC_EXTERNS_FILE,
+                files,
+                typedAstList,
+                includeTypeInformation,
+                options.resolveSourceMapAnnotations,
+                options.parseInlineSourceMaps));
+  }
+
+  /** Initializes the chunks and returns the files that must be in the TypedAST filesystem. */
+  private ImmutableSet<SourceFile> initChunksForTypedAstFilesystem(
+      List<SourceFile> externs, List<JSChunk> chunks, CompilerOptions options) {
     ImmutableSet.Builder<SourceFile> filesBuilder = ImmutableSet.builder();
     filesBuilder.addAll(externs);
     for (JSChunk chunk : chunks) {
@@ -639,13 +738,17 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
 
     this.initOptions(options);
     this.initChunks(externs, chunks, options);
-    this.mergeAndDeserializeTypedAsts(files, typedAstListStream, options);
+    return files;
+  }
+
+  /** Deserializes the TypedAst.List that the compiler was initialized with. */
+  @FunctionalInterface
+  private interface TypedAstListDeserializer {
+    TypedAstDeserializer.DeserializedAst deserialize(boolean includeTypeInformation);
   }
 
   private void mergeAndDeserializeTypedAsts(
-      ImmutableSet<SourceFile> requiredInputFiles,
-      InputStream typedAstListStream,
-      CompilerOptions options) {
+      CompilerOptions options, TypedAstListDeserializer typedAstListDeserializer) {
     checkState(this.typedAstFilesystem == null);
     maybeSetTracker();
 
@@ -658,14 +761,7 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
             () -> {
               Tracer tracer = newTracer("deserializeTypedAst");
               try {
-                return TypedAstDeserializer.deserializeFullAst(
-                    this,
-                    SYNTHETIC_EXTERNS_FILE,
-                    requiredInputFiles,
-                    typedAstListStream,
-                    deserializeTypes,
-                    options.resolveSourceMapAnnotations,
-                    options.parseInlineSourceMaps);
+                return typedAstListDeserializer.deserialize(deserializeTypes);
               } finally {
                 stopTracer(tracer, "deserializeTypedAst");
               }
@@ -1930,7 +2026,11 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
     try {
       // Parse externs sources.
       if (options.numParallelThreads > 1) {
-        new PrebuildAst(this, options.numParallelThreads).prebuild(externs);
+        new PrebuildAst(this).prebuild(externs);
+        // PrebuildAst stops at the first halting error. Don't parse the rest of the inputs here.
+        if (hasErrors()) {
+          return null;
+        }
       }
       for (CompilerInput input : externs) {
         Node n = checkNotNull(input.getAstRoot(this));
@@ -1991,6 +2091,10 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
       }
 
       orderInputs();
+      if (options.numParallelThreads > 1 && hasErrors()) {
+        // Parallel parsing stopped at a halting error. Don't parse the rest of the inputs here.
+        return null;
+      }
       markClosureUnawareCode();
 
       // If in IDE mode, we ignore the error and keep going.
@@ -2000,7 +2104,10 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
 
       // Build the AST.
       if (options.numParallelThreads > 1) {
-        new PrebuildAst(this, options.numParallelThreads).prebuild(chunkGraph.getAllInputs());
+        new PrebuildAst(this).prebuild(chunkGraph.getAllInputs());
+        if (hasErrors()) {
+          return null;
+        }
       }
 
       for (CompilerInput input : chunkGraph.getAllInputs()) {
@@ -2092,7 +2199,9 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
   }
 
   void orderInputs() {
-    maybeDoThreadedParsing();
+    if (maybeDoThreadedParsing()) {
+      return;
+    }
 
     // Before dependency pruning, save a copy of the original inputs to use for externs hoisting.
     ImmutableList<CompilerInput> originalInputs = ImmutableList.copyOf(chunkGraph.getAllInputs());
@@ -2135,7 +2244,9 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
    */
   private void findModulesFromEntryPoints(
       boolean supportEs6Modules, boolean supportCommonJSModules) {
-    maybeDoThreadedParsing();
+    if (maybeDoThreadedParsing()) {
+      return;
+    }
     List<CompilerInput> entryPoints = new ArrayList<>();
     Map<String, CompilerInput> inputsByProvide = new LinkedHashMap<>();
     Map<String, CompilerInput> inputsByIdentifier = new LinkedHashMap<>();
@@ -2315,10 +2426,21 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
     }
   }
 
-  private void maybeDoThreadedParsing() {
-    if (options.numParallelThreads > 1) {
-      new PrebuildDependencyInfo(options.numParallelThreads).prebuild(chunkGraph.getAllInputs());
+  /**
+   * Generates the dependency info of all inputs in parallel, if the options ask for it.
+   *
+   * @return whether parallel parsing stopped at a halting error. The caller should then give up
+   *     rather than parse the remaining inputs one at a time.
+   */
+  @CanIgnoreReturnValue
+  private boolean maybeDoThreadedParsing() {
+    if (options.numParallelThreads <= 1) {
+      return false;
+    }
+    if (!hasErrors()) {
+      new PrebuildDependencyInfo(this).prebuild(chunkGraph.getAllInputs());
     }
+    return hasErrors();
   }
 
   private void repartitionInputs() {
@@ -2363,7 +2485,7 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
       }
     }
     if (options.numParallelThreads > 1) {
-      new PrebuildAst(this, options.numParallelThreads).prebuild(filteredInputs);
+      new PrebuildAst(this).prebuild(filteredInputs);
     }
     for (CompilerInput input : filteredInputs) {
       input.setCompiler(this);
@@ -2448,11 +2570,28 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
   /** Converts the main parse tree back to JS code. */
   @Override
   public String toSource() {
-    return runInCompilerThread(
+    CodeBuilder cb = new CodeBuilder();
+    toSource(cb);
+    return cb.toString();
+  }
+
+  /**
+   * Writes the JS code for the main parse tree to {@code out}, one input at a time, so that the
+   * code of the whole program is never held in memory.
+   */
+  public void toSource(Appendable out) throws IOException {
+    try {
+      toSource(new CodeBuilder(out));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private void toSource(CodeBuilder cb) {
+    runInCompilerThread(
         () -> {
           Tracer tracer = newTracer("toSource");
           try {
-            CodeBuilder cb = new CodeBuilder();
             // We are emitting all the sources at once, so use the SingleBinaryLicenseTracker
             // to de-dupe seen licenses across all inputs.
             SingleBinaryLicenseTracker lt = new SingleBinaryLicenseTracker(this);
@@ -2471,7 +2610,7 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
                 toSource(cb, lt, i++, scriptNode);
               }
             }
-            return cb.toString();
+            return null;
           } finally {
             stopTracer(tracer, "toSource");
           }
@@ -2500,22 +2639,60 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
    *     called on each chunk in the chunk graph in dependency order.
    */
   public String toSource(final LicenseTracker licenseTracker, final JSChunk chunk) {
-    return runInCompilerThread(
+    CodeBuilder cb = new CodeBuilder();
+    toSource(cb, licenseTracker, chunk, null);
+    return cb.toString();
+  }
+
+  /**
+   * Writes the JS code for a chunk to {@code out}, one input at a time, so that the code of the
+   * whole chunk is never held in memory. Otherwise the same as {@link #toSource(LicenseTracker,
+   * JSChunk)}.
+   */
+  public void toSource(LicenseTracker licenseTracker, JSChunk chunk, Appendable out)
+      throws IOException {
+    try {
+      toSource(new CodeBuilder(out), licenseTracker, chunk, null);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Writes the JS code for a chunk to {@code out}, like {@link #toSource(LicenseTracker, JSChunk,
+   * Appendable)}, using the code that {@code printer} printed for it ahead of time.
+   */
+  void toSource(
+      LicenseTracker licenseTracker, JSChunk chunk, ParallelChunkPrinter printer, Appendable out)
+      throws IOException {
+    try {
+      toSource(new CodeBuilder(out), licenseTracker, chunk, printer.take(chunk));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private void toSource(
+      CodeBuilder cb,
+      LicenseTracker licenseTracker,
+      JSChunk chunk,
+      @Nullable ImmutableList<ParallelChunkPrinter.PrintedInput> printedInputs) {
+    runInCompilerThread(
         () -> {
           ImmutableList<CompilerInput> inputs = chunk.getInputs();
-          int numInputs = inputs.size();
-          if (numInputs == 0) {
-            return "";
-          }
-          CodeBuilder cb = new CodeBuilder();
-          for (int i = 0; i < numInputs; i++) {
+          for (int i = 0; i < inputs.size(); i++) {
             Node scriptNode = inputs.get(i).getAstRoot(Compiler.this);
             if (scriptNode == null) {
               throw new IllegalArgumentException("Bad module: " + chunk.getName());
             }
-            toSource(cb, licenseTracker, i, scriptNode);
+            appendInput(
+                cb,
+                licenseTracker,
+                i,
+                scriptNode,
+                printedInputs == null ? null : printedInputs.get(i));
           }
-          return cb.toString();
+          return null;
         });
   }
 
@@ -2536,75 +2713,93 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
       final Node root) {
     runInCompilerThread(
         () -> {
-          if (options.printInputDelimiter) {
-            if ((cb.getLength() > 0) && !cb.endsWith("\n")) {
-              cb.append("\n"); // Make sure that the label starts on a new line
-            }
-            checkState(root.isScript());
+          appendInput(cb, licenseTracker, inputSeqNum, root, null);
+          return null;
+        });
+  }
 
-            String delimiter = options.inputDelimiter;
+  /**
+   * Appends the code for one input, as described in {@link #toSource(CodeBuilder, LicenseTracker,
+   * int, Node)}. If {@code printedInput} is given, its code is used instead of printing the input.
+   */
+  private void appendInput(
+      CodeBuilder cb,
+      LicenseTracker licenseTracker,
+      int inputSeqNum,
+      Node root,
+      ParallelChunkPrinter.@Nullable PrintedInput printedInput) {
+    if (options.printInputDelimiter) {
+      if ((cb.getLength() > 0) && !cb.endsWith('\n')) {
+        cb.append("\n"); // Make sure that the label starts on a new line
+      }
+      checkState(root.isScript());
 
-            String inputName = root.getInputId().getIdName();
-            String sourceName = root.getSourceFileName();
-            checkState(sourceName != null);
-            checkState(!sourceName.isEmpty());
+      String delimiter = options.inputDelimiter;
 
-            delimiter =
-                delimiter
-                    .replace("%name%", inputName)
-                    .replace("%num%", String.valueOf(inputSeqNum))
-                    .replace("%n%", "\n");
+      String inputName = root.getInputId().getIdName();
+      String sourceName = root.getSourceFileName();
+      checkState(sourceName != null);
+      checkState(!sourceName.isEmpty());
 
-            cb.append(delimiter).append("\n");
-          }
+      delimiter =
+          delimiter
+              .replace("%name%", inputName)
+              .replace("%num%", String.valueOf(inputSeqNum))
+              .replace("%n%", "\n");
+
+      cb.append(delimiter).append("\n");
+    }
 
-          CodePrinter.SourceAndMappings sourceAndMappings =
-              toSourceAndMappings(root, inputSeqNum == 0, licenseTracker);
-          String code = sourceAndMappings.source;
+    CodePrinter.SourceAndMappings sourceAndMappings;
+    if (printedInput == null) {
+      sourceAndMappings = toSourceAndMappings(root, inputSeqNum == 0, licenseTracker);
+    } else {
+      printedInput.trackLicenses(licenseTracker);
+      sourceAndMappings = printedInput.sourceAndMappings;
+    }
+    String code = sourceAndMappings.source;
 
-          // Check whether there is any license information that should be emitted.
-          for (String license : licenseTracker.emitLicenses()) {
-            cb.append("/*\n").append(license).append("*/\n");
-          }
+    // Check whether there is any license information that should be emitted.
+    for (String license : licenseTracker.emitLicenses()) {
+      cb.append("/*\n").append(license).append("*/\n");
+    }
 
-          // Check whether there's any actual code to emit.
-          // This is deliberately done after the license tracker is given an opportunity to emit
-          // licenses, as some trackers might want to emit license info from this Node's tree
-          // regardless of whether it emits visible code. One example of this would be the case
-          // where inlining has moved the contents from this file to another file, but the license
-          // tracker can't be sure if the license for this code will ever be emitted.
-          if (code.isEmpty()) {
-            // Nothing to do.
-            return null;
-          }
+    // Check whether there's any actual code to emit.
+    // This is deliberately done after the license tracker is given an opportunity to emit
+    // licenses, as some trackers might want to emit license info from this Node's tree
+    // regardless of whether it emits visible code. One example of this would be the case
+    // where inlining has moved the contents from this file to another file, but the license
+    // tracker can't be sure if the license for this code will ever be emitted.
+    if (code.isEmpty()) {
+      // Nothing to do.
+      return;
+    }
 
-          // If there is a valid source map, then indicate to it that the current
-          // root node's mappings are offset by the given string builder buffer.
-          // This offset is a result of licenses being added to the output buffer.
-          if (options.shouldGatherSourceMapInfo()) {
-            sourceMap.setStartingPosition(cb.getLineIndex(), cb.getColumnIndex());
-          }
+    // If there is a valid source map, then indicate to it that the current
+    // root node's mappings are offset by the given string builder buffer.
+    // This offset is a result of licenses being added to the output buffer.
+    if (options.shouldGatherSourceMapInfo()) {
+      sourceMap.setStartingPosition(cb.getLineIndex(), cb.getColumnIndex());
+    }
 
-          cb.append(code);
-
-          // In order to avoid parse ambiguity when files are concatenated
-          // together, all files should end in a semi-colon. Do a quick
-          // heuristic check if there's an obvious semi-colon already there.
-          int length = code.length();
-          char lastChar = code.charAt(length - 1);
-          char secondLastChar = length >= 2 ? code.charAt(length - 2) : '\0';
-          boolean hasSemiColon = lastChar == ';' || (lastChar == '\n' && secondLastChar == ';');
-          if (!hasSemiColon) {
-            cb.append(";");
-          }
+    cb.append(code);
 
-          if (options.shouldGatherSourceMapInfo()) {
-            for (SourceMap.Mapping mapping : sourceAndMappings.mappings) {
-              sourceMap.addMapping(mapping);
-            }
-          }
-          return null;
-        });
+    // In order to avoid parse ambiguity when files are concatenated
+    // together, all files should end in a semi-colon. Do a quick
+    // heuristic check if there's an obvious semi-colon already there.
+    int length = code.length();
+    char lastChar = code.charAt(length - 1);
+    char secondLastChar = length >= 2 ? code.charAt(length - 2) : '\0';
+    boolean hasSemiColon = lastChar == ';' || (lastChar == '\n' && secondLastChar == ';');
+    if (!hasSemiColon) {
+      cb.append(";");
+    }
+
+    if (options.shouldGatherSourceMapInfo()) {
+      for (SourceMap.Mapping mapping : sourceAndMappings.mappings) {
+        sourceMap.addMapping(mapping);
+      }
+    }
   }
 
   /** Generates JavaScript source code for an AST, doesn't generate source map info. */
@@ -2844,8 +3039,8 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
   }
 
   /** Generates JavaScript source code for an AST. */
-  private CodePrinter.SourceAndMappings toSourceAndMappings(
-      Node n, boolean firstOutput, LicenseTracker licenseTracker) {
+  CodePrinter.SourceAndMappings toSourceAndMappings(
+      Node n, boolean firstOutput, CodePrinter.PrintedNodeTracker licenseTracker) {
     CodePrinter.Builder builder = new CodePrinter.Builder(n);
     builder.setCompilerOptions(options);
     builder.setTagAsTypeSummary(options.shouldGenerateTypedExterns());
@@ -2908,21 +3103,52 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
   /**
    * Stores a buffer of text to which more can be appended. This is just like a StringBuilder except
    * that we also track the number of lines.
+   *
+   * <p>A CodeBuilder created with an {@link Appendable} writes the text through to it instead of
+   * buffering it. An {@link IOException} from the Appendable is rethrown as an {@link
+   * UncheckedIOException}.
    */
   public static class CodeBuilder {
     private final StringBuilder sb = new StringBuilder();
+    private final @Nullable Appendable out;
+    private int length = 0;
+    private char lastChar = '\0';
     private int lineCount = 0;
     private int colCount = 0;
 
+    public CodeBuilder() {
+      this.out = null;
+    }
+
+    CodeBuilder(Appendable out) {
+      this.out = checkNotNull(out);
+    }
+
     /** Removes all text, but leaves the line count unchanged. */
     void reset() {
+      checkState(out == null, "Cannot reset text that was already written out");
       sb.setLength(0);
+      length = 0;
+      lastChar = '\0';
     }
 
     /** Appends the given string to the text buffer. */
     @CanIgnoreReturnValue
     CodeBuilder append(String str) {
-      sb.append(str);
+      if (str.isEmpty()) {
+        return this;
+      }
+      if (out == null) {
+        sb.append(str);
+      } else {
+        try {
+          out.append(str);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      length += str.length();
+      lastChar = str.charAt(str.length() - 1);
 
       // Adjust the line and column information for the new text.
       int index = -1;
@@ -2942,15 +3168,15 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
       return this;
     }
 
-    /** Returns all text in the text buffer. */
+    /** Returns all text in the text buffer, which is empty if the text was written out. */
     @Override
     public String toString() {
       return sb.toString();
     }
 
-    /** Returns the length of the text buffer. */
+    /** Returns the length of the text appended since the last reset. */
     public int getLength() {
-      return sb.length();
+      return length;
     }
 
     /** Returns the (zero-based) index of the last line in the text buffer. */
@@ -2963,10 +3189,9 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
       return colCount;
     }
 
-    /** Determines whether the text ends with the given suffix. */
-    boolean endsWith(String suffix) {
-      return (sb.length() > suffix.length())
-          && suffix.equals(sb.substring(sb.length() - suffix.length()));
+    /** Determines whether the text ends with the given character. */
+    boolean endsWith(char c) {
+      return length > 0 && lastChar == c;
     }
   }
 
@@ -3178,6 +3403,11 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
     return changedScopeNodes;
   }
 
+  @Override
+  void markChangesSeenByPass(String passName) {
+    changeTimeline.mark(passName);
+  }
+
   @Override
   public void incrementChangeStamp() {
     changeStamp++;
@@ -3353,6 +3583,12 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
 
   @Override
   public void report(JSError error) {
+    List<JSError> buffer = bufferedErrors.get();
+    if (buffer != null) {
+      buffer.add(error);
+      return;
+    }
+
     CheckLevel level = error.defaultLevel();
     if (warningsGuard != null) {
       CheckLevel newLevel = warningsGuard.level(error);
@@ -3375,6 +3611,19 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
     report(error);
   }
 
+  @Override
+  ImmutableList<JSError> runAndBufferErrors(Runnable action) {
+    checkState(bufferedErrors.get() == null, "Already buffering errors on this thread");
+    List<JSError> buffer = new ArrayList<>();
+    bufferedErrors.set(buffer);
+    try {
+      action.run();
+    } finally {
+      bufferedErrors.remove();
+    }
+    return ImmutableList.copyOf(buffer);
+  }
+
   @Override
   public CheckLevel getErrorLevel(JSError error) {
     checkNotNull(options);
@@ -3403,6 +3652,15 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
     return !getOptions().canContinueAfterErrors() && errorManager.hasHaltingErrors();
   }
 
+  @Override
+  ParallelInputScheduler getParallelInputScheduler() {
+    if (parallelInputScheduler == null
+        || parallelInputScheduler.getNumParallelThreads() != options.numParallelThreads) {
+      parallelInputScheduler = new ParallelInputScheduler(options.numParallelThreads);
+    }
+    return parallelInputScheduler;
+  }
+
   /**
    * Consults the {@link ErrorManager} to see if we've encountered errors that should halt
    * compilation.
@@ -3747,6 +4005,14 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
     return options;
   }
 
+  /**
+   * Returns the version of the compiler, filled in at build time, or "unspecified" for builds
+   * without one.
+   */
+  public static String getCompilerVersion() {
+    return CommandLineRunnerVersion.COMPILER_VERSION;
+  }
+
   /** Sets the logging level for the com.google.javascript.jscomp package. */
   public static void setLoggingLevel(Level level) {
     logger.setLevel(level);
@@ -4238,7 +4504,10 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
                   SerializationOptions.builder()
                       .setRuntimeLibraries(ImmutableList.of())
                       .setIncludeDebugInfo(this.getOptions().shouldSerializeExtraDebugInfo())
-                      .build())
+                      .build(),
+                  this.getOptions().numParallelThreads > 1
+                      ? this.getParallelInputScheduler().getExecutor()
+                      : null)
               .process(externsRoot, jsRoot);
           stopTracer(tracer, "serializeTypedAst");
           // Finish will flush all zip buffers and write out zip trailing bytes but it will not
@@ -253,6 +253,31 @@ public class CompilerOptions {
     return this.typedAstOutputFile;
   }
 
+  private @Nullable Path typedAstCacheDirectory = null;
+  private long typedAstCacheMaxSizeInBytes = 1L << 30;
+
+  /**
+   * Sets a directory in which to keep the TypedASTs output by earlier compilations, so that a
+   * compilation of the same inputs with the same options reuses the TypedAST instead of
+   * serializing it again. Only used by compiler builds with a version number.
+   */
+  public void setTypedAstCacheDirectory(@Nullable Path directory) {
+    this.typedAstCacheDirectory = directory;
+  }
+
+  @Nullable Path getTypedAstCacheDirectory() {
+    return this.typedAstCacheDirectory;
+  }
+
+  /** Sets the size that the least recently used TypedASTs are deleted beyond. */
+  public void setTypedAstCacheMaxSizeInBytes(long maxSizeInBytes) {
+    this.typedAstCacheMaxSizeInBytes = maxSizeInBytes;
+  }
+
+  long getTypedAstCacheMaxSizeInBytes() {
+    return this.typedAstCacheMaxSizeInBytes;
+  }
+
   private boolean mergedPrecompiledLibraries = false;
 
   void setMergedPrecompiledLibraries(boolean mergedPrecompiledLibraries) {
@@ -403,9 +428,9 @@ public class CompilerOptions {
   /**
    * Sets the level of parallelism for compilation passes that can exploit multi-threading.
    *
-   * <p>Some compiler passes may take advantage of multi-threading, for example, parsing inputs.
-   * This sets the level of parallelism. The compiler will not start more than this number of
-   * threads.
+   * <p>Some compiler passes may take advantage of multi-threading, for example, parsing inputs or
+   * running checks that only look at one script at a time. This sets the level of parallelism.
+   * The compiler will not start more than this number of threads.
    *
    * @param parallelism up to this number of parallel threads may be created.
    */
@@ -413,6 +438,18 @@ public class CompilerOptions {
     numParallelThreads = parallelism;
   }
 
+  /** Whether to reuse the ASTs of unchanged inputs parsed by earlier compilations. */
+  boolean reuseParsedInputsAcrossCompilations = false;
+
+  /**
+   * Keeps a copy of every parsed input in a process-wide cache keyed on its content, and copies
+   * the cached AST instead of parsing again when a later compilation in the same process sees an
+   * identical input. This is useful when the compiler runs as a long-lived worker.
+   */
+  public void setReuseParsedInputsAcrossCompilations(boolean reuse) {
+    reuseParsedInputsAcrossCompilations = reuse;
+  }
+
   // --------------------------------
   // Optimizations
   // --------------------------------
@@ -80,6 +80,11 @@ public class ControlFlowGraph<N> extends
   /**
    * Gets a comparator for the nodes. The default implementation returns
    * {@code null}. See {@link ControlFlowGraph#getOptionalNodeComparator}.
+   *
+   * <p>A comparator must order the nodes by their distinct {@link
+   * DiGraphNode#getPriority priorities}, as {@link DataFlowAnalysis} relies
+   * on that to visit the nodes in this order.
+   *
    * @param isForward Whether the comparator sorts the nodes in the direction of
    *    the flow.
    * @return a comparator or null (in particular, if not overridden)
@@ -29,12 +29,10 @@ import com.google.javascript.jscomp.graph.DiGraph.DiGraphNode;
 import com.google.javascript.jscomp.graph.LatticeElement;
 import com.google.javascript.rhino.Node;
 import java.util.ArrayDeque;
-import java.util.Comparator;
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
 import java.util.Set;
 import org.jspecify.annotations.Nullable;
 
@@ -89,7 +87,13 @@ import org.jspecify.annotations.Nullable;
 abstract class DataFlowAnalysis<N, L extends LatticeElement> {
 
   private final ControlFlowGraph<N> cfg;
-  private final UniqueQueue<DiGraphNode<N, Branch>> workQueue;
+  private final WorkQueue<N> workQueue;
+
+  // This analysis, if it is an InPlaceDataFlowAnalysis that updates the flow states in place.
+  private @Nullable InPlaceDataFlowAnalysis<N, L> inPlace;
+
+  // The entry lattice, which is never modified, if the flow states are updated in place.
+  private @Nullable L entryLattice;
 
   /**
    * The maximum number of steps per individual CFG node before we assume the analysis is divergent.
@@ -119,7 +123,10 @@ abstract class DataFlowAnalysis<N, L extends LatticeElement> {
    */
   DataFlowAnalysis(ControlFlowGraph<N> cfg) {
     this.cfg = cfg;
-    this.workQueue = new UniqueQueue<>(cfg.getOptionalNodeComparator(isForward()));
+    this.workQueue =
+        cfg.getOptionalNodeComparator(isForward()) == null
+            ? new FifoWorkQueue<>()
+            : new PriorityWorkQueue<>(isForward());
 
     if (this.isBranched()) {
       checkState(this.isForward());
@@ -253,12 +260,24 @@ abstract class DataFlowAnalysis<N, L extends LatticeElement> {
    */
   abstract L createEntryLattice();
 
+  /**
+   * Called at the start of each {@link #analyze()}, so that an analysis can drop anything it
+   * derived from an earlier version of the graph.
+   */
+  void startAnalysis() {}
+
   /** Initializes the work list and the control flow graph. */
   private void initialize() {
+    startAnalysis();
     // TODO(user): Calling clear doesn't deallocate the memory in a
     // LinkedHashSet. Consider creating a new work set if we plan to repeatedly
     // call analyze.
-    workQueue.clear();
+    workQueue.reset(cfg);
+    this.inPlace =
+        (this instanceof InPlaceDataFlowAnalysis<N, L> analysis && analysis.updatesInPlace())
+            ? analysis
+            : null;
+    this.entryLattice = this.inPlace != null ? this.createEntryLattice() : null;
     for (DiGraphNode<N, Branch> node : cfg.getNodes()) {
       node.setAnnotation(
           new LinearFlowState<>(createInitialEstimateLattice(), createInitialEstimateLattice()));
@@ -280,6 +299,11 @@ abstract class DataFlowAnalysis<N, L extends LatticeElement> {
    */
   private boolean flow(DiGraphNode<N, Branch> node) {
     LinearFlowState<L> state = node.getAnnotation();
+    if (this.inPlace != null) {
+      return isForward()
+          ? inPlace.flowThroughInPlace(node.getValue(), state.getIn(), state.getOut())
+          : inPlace.flowThroughInPlace(node.getValue(), state.getOut(), state.getIn());
+    }
     if (isForward()) {
       L outBefore = state.getOut();
       state.setOut(flowThrough(node.getValue(), state.getIn()));
@@ -313,12 +337,27 @@ abstract class DataFlowAnalysis<N, L extends LatticeElement> {
   private void joinInputs(DiGraphNode<N, Branch> node) {
     LinearFlowState<L> state = node.getAnnotation();
     if (this.isForward() && cfg.getEntry() == node) {
-      state.setIn(createEntryLattice());
+      if (this.inPlace != null) {
+        inPlace.copyInPlace(state.getIn(), this.entryLattice);
+      } else {
+        state.setIn(createEntryLattice());
+      }
       return;
     }
 
     List<? extends DiGraphEdge<N, Branch>> inEdges =
         this.isForward() ? node.getInEdges() : node.getOutEdges();
+    if (this.inPlace != null) {
+      if (inEdges.isEmpty()) {
+        return;
+      }
+      L target = this.isForward() ? state.getIn() : state.getOut();
+      inPlace.copyInPlace(target, this.getInputFromEdge(inEdges.get(0)));
+      for (int i = 1; i < inEdges.size(); i++) {
+        inPlace.joinInPlace(target, this.getInputFromEdge(inEdges.get(i)));
+      }
+      return;
+    }
 
     final L result;
     switch (inEdges.size()) {
@@ -355,7 +394,7 @@ abstract class DataFlowAnalysis<N, L extends LatticeElement> {
     } else {
       DiGraphNode<N, Branch> node = edge.getDestination();
       if (node == this.cfg.getImplicitReturn()) {
-        return this.createEntryLattice();
+        return this.inPlace != null ? this.entryLattice : this.createEntryLattice();
       }
       LinearFlowState<L> state = node.getAnnotation();
       return state.getIn();
@@ -472,33 +511,118 @@ abstract class DataFlowAnalysis<N, L extends LatticeElement> {
     }
   }
 
-  private static final class UniqueQueue<T> {
-    private final LinkedHashSet<T> seenSet = new LinkedHashSet<>();
-    private final Queue<T> queue;
+  /** The nodes whose flow state needs to be recomputed, without duplicates. */
+  private interface WorkQueue<N> {
+    /** Empties the queue, before nodes of the given graph are added. */
+    void reset(ControlFlowGraph<N> cfg);
 
-    UniqueQueue(@Nullable Comparator<T> priority) {
-      this.queue = (priority == null) ? new ArrayDeque<>() : new PriorityQueue<>(priority);
+    boolean isEmpty();
+
+    DiGraphNode<N, Branch> removeFirst();
+
+    void add(DiGraphNode<N, Branch> node);
+  }
+
+  /** Visits nodes in the order they were added. */
+  private static final class FifoWorkQueue<N> implements WorkQueue<N> {
+    private final LinkedHashSet<DiGraphNode<N, Branch>> seenSet = new LinkedHashSet<>();
+    private final ArrayDeque<DiGraphNode<N, Branch>> queue = new ArrayDeque<>();
+
+    @Override
+    public void reset(ControlFlowGraph<N> cfg) {
+      this.seenSet.clear();
+      this.queue.clear();
     }
 
-    boolean isEmpty() {
+    @Override
+    public boolean isEmpty() {
       return this.queue.isEmpty();
     }
 
-    T removeFirst() {
-      T t = this.queue.poll();
-      this.seenSet.remove(t);
-      return t;
+    @Override
+    public DiGraphNode<N, Branch> removeFirst() {
+      DiGraphNode<N, Branch> node = this.queue.poll();
+      this.seenSet.remove(node);
+      return node;
+    }
+
+    @Override
+    public void add(DiGraphNode<N, Branch> node) {
+      if (this.seenSet.add(node)) {
+        this.queue.add(node);
+      }
+    }
+  }
+
+  /**
+   * Visits nodes in the order of their priority, in the direction of the flow.
+   *
+   * <p>This is the order of {@link ControlFlowGraph#getOptionalNodeComparator}. The priorities of
+   * the nodes of a graph are distinct small numbers, so the queued nodes are kept as a bit set
+   * indexed by priority.
+   */
+  private static final class PriorityWorkQueue<N> implements WorkQueue<N> {
+    private final boolean isForward;
+    private final BitSet queued = new BitSet();
+    private DiGraphNode<N, Branch>[] nodesByPriority;
+    private int size = 0;
+
+    // No queued priority comes before this one in the direction of the flow.
+    private int first;
+
+    PriorityWorkQueue(boolean isForward) {
+      this.isForward = isForward;
     }
 
-    void add(T t) {
-      if (this.seenSet.add(t)) {
-        this.queue.add(t);
+    @Override
+    @SuppressWarnings("unchecked") // Generic array creation.
+    public void reset(ControlFlowGraph<N> cfg) {
+      int maxPriority = -1;
+      for (DiGraphNode<N, Branch> node : cfg.getNodes()) {
+        maxPriority = Math.max(maxPriority, node.getPriority());
+      }
+      this.nodesByPriority = (DiGraphNode<N, Branch>[]) new DiGraphNode<?, ?>[maxPriority + 1];
+      for (DiGraphNode<N, Branch> node : cfg.getNodes()) {
+        checkState(
+            this.nodesByPriority[node.getPriority()] == null,
+            "Nodes with the same priority: %s",
+            node);
+        this.nodesByPriority[node.getPriority()] = node;
       }
+      this.queued.clear();
+      this.size = 0;
+      this.first = this.isForward ? 0 : maxPriority;
     }
 
-    void clear() {
-      this.seenSet.clear();
-      this.queue.clear();
+    @Override
+    public boolean isEmpty() {
+      return this.size == 0;
+    }
+
+    @Override
+    public DiGraphNode<N, Branch> removeFirst() {
+      checkState(this.size > 0);
+      int priority =
+          this.isForward
+              ? this.queued.nextSetBit(this.first)
+              : this.queued.previousSetBit(this.first);
+      this.queued.clear(priority);
+      this.size--;
+      this.first = priority;
+      return this.nodesByPriority[priority];
+    }
+
+    @Override
+    public void add(DiGraphNode<N, Branch> node) {
+      int priority = node.getPriority();
+      if (this.queued.get(priority)) {
+        return;
+      }
+      this.queued.set(priority);
+      this.size++;
+      if (this.isForward ? priority < this.first : priority > this.first) {
+        this.first = priority;
+      }
     }
   }
 }
@@ -70,8 +70,10 @@ import com.google.javascript.jscomp.parsing.parser.FeatureSet.Feature;
 import com.google.javascript.jscomp.serialization.ConvertTypesToColors;
 import com.google.javascript.jscomp.serialization.SerializationOptions;
 import com.google.javascript.jscomp.serialization.SerializeTypedAstPass;
+import com.google.javascript.jscomp.serialization.TypedAstCache;
 import com.google.javascript.rhino.IR;
 import com.google.javascript.rhino.Node;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -80,6 +82,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -1088,7 +1091,8 @@ public final class DefaultPassConfig extends PassConfig {
   }
 
   /** Creates the passes for the main optimization loop. */
-  private PassListBuilder getMainOptimizationLoop() {
+  @VisibleForTesting
+  PassListBuilder getMainOptimizationLoop() {
     PassListBuilder passes = new PassListBuilder(options);
     if (options.inlineGetters) {
       passes.maybeAdd(inlineSimpleMethods);
@@ -1193,6 +1197,7 @@ public final class DefaultPassConfig extends PassConfig {
   private final PassFactory suspiciousCode =
       PassFactory.builder()
           .setName("suspiciousCode")
+          .setScriptLocal(true)
           .setInternalFactory(
               (compiler) -> {
                 List<NodeTraversal.Callback> sharedCallbacks = new ArrayList<>();
@@ -1378,6 +1383,7 @@ public final class DefaultPassConfig extends PassConfig {
   private final PassFactory checkJsDocAndEs6Modules =
       PassFactory.builder()
           .setName("checkJsDocAndEs6Modules")
+          .setScriptLocal(true)
           .setInternalFactory(
               (compiler) ->
                   combineChecks(
@@ -2228,7 +2234,10 @@ public final class DefaultPassConfig extends PassConfig {
           .setName(PassNames.DISAMBIGUATE_PROPERTIES)
           .setInternalFactory(
               (compiler) ->
-                  new DisambiguateProperties(compiler, options.getPropertiesThatMustDisambiguate()))
+                  new DisambiguateProperties(
+                      compiler,
+                      options.getPropertiesThatMustDisambiguate(),
+                      getParallelExecutor(compiler)))
           .build();
 
   /** Rewrite instance methods as static methods, to make them easier to inline. */
@@ -2853,9 +2862,39 @@ public final class DefaultPassConfig extends PassConfig {
                               compiler.getOptions().shouldSerializeExtraDebugInfo())
                           // set the runtime libraries to serialize in the TypedAST proto
                           .setRuntimeLibraries(compiler.getInjectedLibraries())
-                          .build()))
+                          .build(),
+                      createTypedAstCache(),
+                      getParallelExecutor(compiler)))
           .build();
 
+  /**
+   * Returns the cache to reuse TypedASTs from, if one was configured. Builds of the compiler
+   * without a version don't use it, since their output can change without anything in the key
+   * changing. Neither do compilations with options that can't be put in the key.
+   */
+  private @Nullable TypedAstCache createTypedAstCache() {
+    Path directory = options.getTypedAstCacheDirectory();
+    String version = CommandLineRunnerVersion.COMPILER_VERSION;
+    if (directory == null || version.equals("unspecified")) {
+      return null;
+    }
+    String configuration = TypedAstCacheConfiguration.describe(version, options);
+    if (configuration == null) {
+      return null;
+    }
+    return new TypedAstCache(directory, options.getTypedAstCacheMaxSizeInBytes(), configuration);
+  }
+
+  /**
+   * Returns the compiler's shared threads for passes that split their work over several threads, or
+   * null if the compilation runs on one thread.
+   */
+  private @Nullable ExecutorService getParallelExecutor(AbstractCompiler compiler) {
+    return options.numParallelThreads > 1
+        ? compiler.getParallelInputScheduler().getExecutor()
+        : null;
+  }
+
   private final PassFactory removeUnnecessarySyntheticExterns =
       PassFactory.builder()
           .setName("removeUnnecessarySyntheticExterns")
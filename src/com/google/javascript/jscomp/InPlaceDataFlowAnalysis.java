@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.javascript.jscomp.graph.LatticeElement;
+
+/**
+ * A data flow analysis that updates the flow states of nodes in place, using {@link #copyInPlace},
+ * {@link #joinInPlace} and {@link #flowThroughInPlace} instead of {@link #createFlowJoiner} and
+ * {@link #flowThrough}.
+ *
+ * <p>This avoids allocating new lattice elements at every step, for analyses like bit vector
+ * analyses whose elements are cheap to overwrite. Each node then has its own input and output
+ * elements, which aren't shared with other nodes. In-place analyses can't be branched.
+ *
+ * @param <N> The control flow graph's node value type.
+ * @param <L> Lattice element type.
+ */
+abstract class InPlaceDataFlowAnalysis<N, L extends LatticeElement>
+    extends DataFlowAnalysis<N, L> {
+
+  private final boolean updateInPlace;
+
+  InPlaceDataFlowAnalysis(ControlFlowGraph<N> cfg) {
+    this(cfg, true);
+  }
+
+  /**
+   * @param updateInPlace Whether to update the flow states in place. Tests turn it off to compare
+   *     against the allocating operations, which the analysis must implement as well.
+   */
+  @VisibleForTesting
+  InPlaceDataFlowAnalysis(ControlFlowGraph<N> cfg, boolean updateInPlace) {
+    super(cfg);
+    checkState(!isBranched());
+    this.updateInPlace = updateInPlace;
+  }
+
+  final boolean updatesInPlace() {
+    return updateInPlace;
+  }
+
+  /** Overwrites {@code target} with {@code source}. */
+  abstract void copyInPlace(L target, L source);
+
+  /** Joins {@code input} into {@code target}. */
+  abstract void joinInPlace(L target, L input);
+
+  /**
+   * Overwrites {@code output} with the output state of the node given its input state.
+   *
+   * @return whether {@code output} changed.
+   */
+  abstract boolean flowThroughInPlace(N node, L input, L output);
+}
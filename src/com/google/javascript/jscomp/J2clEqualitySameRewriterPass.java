@@ -17,14 +17,18 @@ package com.google.javascript.jscomp;
 
 import static com.google.common.base.Preconditions.checkState;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.javascript.jscomp.colors.Color;
 import com.google.javascript.jscomp.colors.StandardColors;
 import com.google.javascript.rhino.IR;
 import com.google.javascript.rhino.Node;
+import com.google.javascript.rhino.Token;
 import org.jspecify.annotations.Nullable;
 
 /** An optimization pass to re-write J2CL Equality.$same. */
 public class J2clEqualitySameRewriterPass extends AbstractPeepholeOptimization {
+  private static final ImmutableSet<Token> TOKENS_TO_OPTIMIZE = Sets.immutableEnumSet(Token.CALL);
 
   private final boolean useTypes;
   private boolean shouldRunJ2clPasses;
@@ -39,6 +43,11 @@ public class J2clEqualitySameRewriterPass extends AbstractPeepholeOptimization {
     shouldRunJ2clPasses = J2clSourceFileChecker.shouldRunJ2clPasses(compiler);
   }
 
+  @Override
+  ImmutableSet<Token> getTokensToOptimize() {
+    return TOKENS_TO_OPTIMIZE;
+  }
+
   @Override
   Node optimizeSubtree(Node node) {
     if (!shouldRunJ2clPasses) {
@@ -15,11 +15,15 @@
  */
 package com.google.javascript.jscomp;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.javascript.rhino.IR;
 import com.google.javascript.rhino.Node;
+import com.google.javascript.rhino.Token;
 
 /** An optimization pass to rewrite J2CL String.valueOf. */
 final class J2clStringValueOfRewriterPass extends AbstractPeepholeOptimization {
+  private static final ImmutableSet<Token> TOKENS_TO_OPTIMIZE = Sets.immutableEnumSet(Token.CALL);
 
   private static final String METHOD_NAME =
       "module$exports$java$lang$String$impl.m_valueOf__java_lang_Object__java_lang_String";
@@ -32,6 +36,11 @@ final class J2clStringValueOfRewriterPass extends AbstractPeepholeOptimization {
     shouldRunJ2clPasses = J2clSourceFileChecker.shouldRunJ2clPasses(compiler);
   }
 
+  @Override
+  ImmutableSet<Token> getTokensToOptimize() {
+    return TOKENS_TO_OPTIMIZE;
+  }
+
   @Override
   public Node optimizeSubtree(Node node) {
     if (!shouldRunJ2clPasses || !isStringValueOfCall(node)) {
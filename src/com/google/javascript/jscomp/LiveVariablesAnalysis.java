@@ -18,12 +18,14 @@ package com.google.javascript.jscomp;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.javascript.jscomp.ControlFlowGraph.Branch;
 import com.google.javascript.jscomp.NodeUtil.AllVarsDeclaredInFunction;
 import com.google.javascript.jscomp.graph.DiGraph.DiGraphEdge;
 import com.google.javascript.jscomp.graph.LatticeElement;
 import com.google.javascript.rhino.Node;
 import java.util.BitSet;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -45,7 +47,7 @@ import org.jspecify.annotations.Nullable;
  * #getEscapedLocals()}.
  */
 class LiveVariablesAnalysis
-    extends DataFlowAnalysis<Node, LiveVariablesAnalysis.LiveVariableLattice> {
+    extends InPlaceDataFlowAnalysis<Node, LiveVariablesAnalysis.LiveVariableLattice> {
 
   static final int MAX_VARIABLES_TO_ANALYZE = 100;
 
@@ -131,6 +133,14 @@ class LiveVariablesAnalysis
 
   private final Map<String, Var> allVarsInFn;
 
+  // The GEN and KILL sets of the CFG nodes visited so far in this analysis. They are recomputed
+  // when a variable escapes, because escaped variables are left out of them.
+  private final Map<Node, GenKill> genKillByNode = new HashMap<>();
+  private int escapedCountForGenKill = 0;
+
+  // Holds the new state of a node before it is compared with the old one.
+  private final BitSet scratch = new BitSet();
+
   /**
    * Live Variables Analysis using the ES6 scope creator. This analysis should only be done on
    * function where jsScope is the function scope. If we call LiveVariablesAnalysis from the
@@ -153,7 +163,19 @@ class LiveVariablesAnalysis
       AbstractCompiler compiler,
       ScopeCreator scopeCreator,
       AllVarsDeclaredInFunction allVarsDeclaredInFunction) {
-    super(cfg);
+    this(cfg, jsScope, jsScopeChild, compiler, scopeCreator, allVarsDeclaredInFunction, true);
+  }
+
+  @VisibleForTesting
+  LiveVariablesAnalysis(
+      ControlFlowGraph<Node> cfg,
+      Scope jsScope,
+      @Nullable Scope jsScopeChild,
+      AbstractCompiler compiler,
+      ScopeCreator scopeCreator,
+      AllVarsDeclaredInFunction allVarsDeclaredInFunction,
+      boolean updateInPlace) {
+    super(cfg, updateInPlace);
     checkState(jsScope.isFunctionScope(), jsScope);
 
     this.jsScope = jsScope;
@@ -219,9 +241,57 @@ class LiveVariablesAnalysis
 
   @Override
   LiveVariableLattice flowThrough(Node node, LiveVariableLattice input) {
-    final BitSet gen = new BitSet(input.liveSet.size());
-    final BitSet kill = new BitSet(input.liveSet.size());
+    GenKill genKill = getGenKill(node);
+    LiveVariableLattice result = new LiveVariableLattice(input);
+    // L_in = L_out - Kill + Gen
+    result.liveSet.andNot(genKill.kill);
+    result.liveSet.or(genKill.gen);
+    return result;
+  }
+
+  @Override
+  void copyInPlace(LiveVariableLattice target, LiveVariableLattice source) {
+    target.liveSet.clear();
+    target.liveSet.or(source.liveSet);
+  }
+
+  @Override
+  void joinInPlace(LiveVariableLattice target, LiveVariableLattice input) {
+    target.liveSet.or(input.liveSet);
+  }
+
+  @Override
+  boolean flowThroughInPlace(Node node, LiveVariableLattice input, LiveVariableLattice output) {
+    GenKill genKill = getGenKill(node);
+    // L_in = L_out - Kill + Gen
+    scratch.clear();
+    scratch.or(input.liveSet);
+    scratch.andNot(genKill.kill);
+    scratch.or(genKill.gen);
+    if (scratch.equals(output.liveSet)) {
+      return false;
+    }
+    output.liveSet.clear();
+    output.liveSet.or(scratch);
+    return true;
+  }
 
+  @Override
+  void startAnalysis() {
+    genKillByNode.clear();
+  }
+
+  private GenKill getGenKill(Node node) {
+    if (escaped.size() != escapedCountForGenKill) {
+      genKillByNode.clear();
+      escapedCountForGenKill = escaped.size();
+    }
+    GenKill genKill = genKillByNode.get(node);
+    if (genKill != null) {
+      return genKill;
+    }
+
+    genKill = new GenKill(orderedVars.size());
     // Make kills conditional if the node can end abruptly by an exception.
     boolean conditional = false;
     List<? extends DiGraphEdge<Node, Branch>> edgeList = getCfg().getOutEdges(node);
@@ -230,12 +300,20 @@ class LiveVariablesAnalysis
         conditional = true;
       }
     }
-    computeGenKill(node, gen, kill, conditional);
-    LiveVariableLattice result = new LiveVariableLattice(input);
-    // L_in = L_out - Kill + Gen
-    result.liveSet.andNot(kill);
-    result.liveSet.or(gen);
-    return result;
+    computeGenKill(node, genKill.gen, genKill.kill, conditional);
+    genKillByNode.put(node, genKill);
+    return genKill;
+  }
+
+  /** The variables read and the variables unconditionally assigned by a CFG node. */
+  private static final class GenKill {
+    final BitSet gen;
+    final BitSet kill;
+
+    GenKill(int numVars) {
+      this.gen = new BitSet(numVars);
+      this.kill = new BitSet(numVars);
+    }
   }
 
   /**
@@ -18,6 +18,8 @@ package com.google.javascript.jscomp;
 
 import static com.google.common.base.Preconditions.checkState;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.javascript.jscomp.base.Tri;
 import com.google.javascript.rhino.IR;
 import com.google.javascript.rhino.Node;
@@ -29,6 +31,23 @@ import org.jspecify.annotations.Nullable;
  * are minimized and instead flows to implicit exits conditions.
  */
 class MinimizeExitPoints extends AbstractPeepholeOptimization {
+  private static final ImmutableSet<Token> TOKENS_TO_OPTIMIZE =
+      Sets.immutableEnumSet(
+          Token.LABEL,
+          Token.FOR,
+          Token.FOR_IN,
+          Token.FOR_OF,
+          Token.FOR_AWAIT_OF,
+          Token.WHILE,
+          Token.DO,
+          Token.BLOCK,
+          Token.SWITCH);
+
+  @Override
+  ImmutableSet<Token> getTokensToOptimize() {
+    return TOKENS_TO_OPTIMIZE;
+  }
+
   @Override
   Node optimizeSubtree(Node n) {
     switch (n.getToken()) {
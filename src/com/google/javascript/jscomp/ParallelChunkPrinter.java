@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.javascript.jscomp.CodePrinter.LicenseTracker;
+import com.google.javascript.rhino.Node;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Prints the code of chunks on several threads, ahead of the chunks being written out one after
+ * another.
+ *
+ * <p>Printing only reads the AST, so chunks can be printed at the same time. Deciding which
+ * licenses to emit before each input can't be: a {@link LicenseTracker} like {@link
+ * Compiler.ChunkGraphAwareLicenseTracker} depends on the licenses of the chunks written before. So
+ * each input is printed with a tracker that records the nodes whose licenses a tracker looks at.
+ * When the chunk is written out, those nodes are passed to the real tracker. Building the source
+ * map also stays on the writing thread. The output is the same as printing the chunks one by one.
+ *
+ * <p>At most a few chunks per thread are printed ahead of the one being written, so that the code
+ * of all chunks isn't held in memory at once.
+ */
+final class ParallelChunkPrinter implements AutoCloseable {
+  private static final int CHUNKS_AHEAD_PER_THREAD = 2;
+
+  private final Compiler compiler;
+  private final ImmutableList<JSChunk> chunks;
+  private final int maxChunksAhead;
+  private final ThreadPoolExecutor poolExecutor;
+  private final Deque<Future<ImmutableList<PrintedInput>>> printing = new ArrayDeque<>();
+  private int nextChunkToPrint = 0;
+  private int nextChunkToTake = 0;
+
+  ParallelChunkPrinter(Compiler compiler, Iterable<JSChunk> chunks, int numParallelThreads) {
+    this.compiler = compiler;
+    this.chunks = ImmutableList.copyOf(chunks);
+    this.maxChunksAhead = numParallelThreads * CHUNKS_AHEAD_PER_THREAD;
+    this.poolExecutor = CompilerExecutor.newThreadPool("print", numParallelThreads);
+  }
+
+  /**
+   * Returns the printed inputs of the given chunk, waiting for them if needed. Chunks must be taken
+   * in the order they were passed to the constructor.
+   */
+  ImmutableList<PrintedInput> take(JSChunk chunk) {
+    checkArgument(
+        nextChunkToTake < chunks.size() && chunks.get(nextChunkToTake) == chunk,
+        "Chunk %s taken out of order",
+        chunk.getName());
+    nextChunkToTake++;
+    while (nextChunkToPrint < chunks.size()
+        && nextChunkToPrint - nextChunkToTake < maxChunksAhead) {
+      JSChunk chunkToPrint = chunks.get(nextChunkToPrint++);
+      printing.add(poolExecutor.submit(() -> print(chunkToPrint)));
+    }
+    try {
+      return printing.remove().get();
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    poolExecutor.shutdownNow();
+  }
+
+  private ImmutableList<PrintedInput> print(JSChunk chunk) {
+    ImmutableList<CompilerInput> inputs = chunk.getInputs();
+    ImmutableList.Builder<PrintedInput> printedInputs = ImmutableList.builder();
+    for (int i = 0; i < inputs.size(); i++) {
+      Node scriptNode = inputs.get(i).getAstRoot(compiler);
+      if (scriptNode == null) {
+        throw new IllegalArgumentException("Bad module: " + chunk.getName());
+      }
+      LicenseNodeRecorder recorder = new LicenseNodeRecorder();
+      CodePrinter.SourceAndMappings sourceAndMappings =
+          compiler.toSourceAndMappings(scriptNode, i == 0, recorder);
+      printedInputs.add(new PrintedInput(sourceAndMappings, ImmutableList.copyOf(recorder.nodes)));
+    }
+    return printedInputs.build();
+  }
+
+  /** The code of one input, and the nodes that the license tracker was shown while printing it. */
+  static final class PrintedInput {
+    final CodePrinter.SourceAndMappings sourceAndMappings;
+    private final ImmutableList<Node> licenseNodes;
+
+    private PrintedInput(
+        CodePrinter.SourceAndMappings sourceAndMappings, ImmutableList<Node> licenseNodes) {
+      this.sourceAndMappings = sourceAndMappings;
+      this.licenseNodes = licenseNodes;
+    }
+
+    void trackLicenses(LicenseTracker licenseTracker) {
+      for (Node node : licenseNodes) {
+        licenseTracker.trackLicensesForNode(node);
+      }
+    }
+  }
+
+  /**
+   * Records the nodes that a license tracker would look at.
+   *
+   * <p>The trackers only look at ROOT and SCRIPT nodes, and at the source file of other nodes,
+   * skipping a node whose source file is the same as the one of the node before it. So of the
+   * other nodes, only those starting a run of nodes from the same file are recorded.
+   */
+  private static final class LicenseNodeRecorder implements CodePrinter.PrintedNodeTracker {
+    private final List<Node> nodes = new ArrayList<>();
+    private @Nullable String lastSeenFile = null;
+
+    @Override
+    public void trackLicensesForNode(Node node) {
+      if (node.isRoot() || node.isScript()) {
+        nodes.add(node);
+        return;
+      }
+      String file = node.getSourceFileName();
+      if (file != null && !file.equals(lastSeenFile)) {
+        lastSeenFile = file;
+        nodes.add(node);
+      }
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static java.util.Comparator.comparingLong;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Runs a task, such as parsing, on many {@link CompilerInput}s using a fixed number of threads.
+ *
+ * <p>Inputs are handed out largest first. Input sizes vary a lot, and a few large generated files
+ * near the end of the input list would otherwise keep one thread busy long after the others ran
+ * out of work.
+ *
+ * <p>A compiler creates one scheduler and uses it for every phase that parses in parallel, so the
+ * threads are started once per compilation rather than once per phase. Passes that run many times
+ * can borrow the same threads. Idle threads exit after a few seconds.
+ */
+final class ParallelInputScheduler {
+  private static final int IDLE_THREAD_TIMEOUT_SECONDS = 10;
+
+  private final int numParallelThreads;
+  private final ThreadPoolExecutor poolExecutor;
+
+  ParallelInputScheduler(int numParallelThreads) {
+    this.numParallelThreads = numParallelThreads;
+    this.poolExecutor = CompilerExecutor.newThreadPool("worker", numParallelThreads);
+    this.poolExecutor.setKeepAliveTime(IDLE_THREAD_TIMEOUT_SECONDS, SECONDS);
+    this.poolExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  int getNumParallelThreads() {
+    return numParallelThreads;
+  }
+
+  /**
+   * Returns the threads of the scheduler, for passes that split other work over several threads and
+   * run often, so that they don't start threads of their own each time. The executor must not be
+   * shut down.
+   */
+  ExecutorService getExecutor() {
+    return poolExecutor;
+  }
+
+  /**
+   * Runs {@code task} on every input, until the compiler has a halting error.
+   *
+   * <p>Each task is checked as soon as it finishes. Once one of them leaves a halting error, inputs
+   * that haven't started yet are skipped and running ones are waited for. They aren't interrupted,
+   * because an interrupt can break reading the source file. So all errors are reported before this
+   * method returns.
+   */
+  void runUntilHaltingError(
+      AbstractCompiler compiler, Iterable<CompilerInput> inputs, Consumer<CompilerInput> task) {
+    ImmutableList<CompilerInput> largestFirst = sortLargestFirst(inputs);
+    AtomicBoolean stopped = new AtomicBoolean();
+    BlockingQueue<InputTask> finished = new LinkedBlockingQueue<>();
+    // The queue is FIFO, so the inputs start in the sorted order.
+    for (CompilerInput input : largestFirst) {
+      poolExecutor.execute(new InputTask(input, task, stopped, finished));
+    }
+
+    Throwable failure = null;
+    try {
+      for (int i = 0; i < largestFirst.size(); i++) {
+        InputTask finishedTask = finished.take();
+        if (failure == null && finishedTask.failure != null) {
+          failure = finishedTask.failure;
+          stopped.set(true);
+        } else if (compiler.hasHaltingErrors()) {
+          stopped.set(true);
+        }
+      }
+    } catch (InterruptedException e) {
+      stopped.set(true);
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    if (failure != null) {
+      throw new RuntimeException(failure);
+    }
+  }
+
+  @VisibleForTesting
+  static ImmutableList<CompilerInput> sortLargestFirst(Iterable<CompilerInput> inputs) {
+    // The sort is stable, so inputs of the same size keep their original order.
+    return ImmutableList.sortedCopyOf(
+        comparingLong((CompilerInput input) -> input.getSourceFile().estimateSize()).reversed(),
+        inputs);
+  }
+
+  private static final class InputTask implements Runnable {
+    private final CompilerInput input;
+    private final Consumer<CompilerInput> task;
+    private final AtomicBoolean stopped;
+    private final BlockingQueue<InputTask> finished;
+    private @Nullable Throwable failure;
+
+    InputTask(
+        CompilerInput input,
+        Consumer<CompilerInput> task,
+        AtomicBoolean stopped,
+        BlockingQueue<InputTask> finished) {
+      this.input = input;
+      this.task = task;
+      this.stopped = stopped;
+      this.finished = finished;
+    }
+
+    @Override
+    public void run() {
+      try {
+        if (!stopped.get()) {
+          task.accept(input);
+        }
+      } catch (Throwable t) {
+        failure = t;
+      } finally {
+        // The queue publishes the failure field to the waiting thread.
+        finished.add(this);
+      }
+    }
+  }
+}
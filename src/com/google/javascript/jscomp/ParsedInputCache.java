@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.javascript.jscomp.parsing.Config;
+import com.google.javascript.jscomp.parsing.ParserRunner;
+import com.google.javascript.jscomp.parsing.ParserRunner.ParseResult;
+import com.google.javascript.jscomp.parsing.parser.FeatureSet;
+import com.google.javascript.jscomp.parsing.parser.trees.Comment;
+import com.google.javascript.rhino.ErrorReporter;
+import com.google.javascript.rhino.JSDocInfo;
+import com.google.javascript.rhino.Node;
+import com.google.javascript.rhino.SimpleSourceFile;
+import com.google.javascript.rhino.StaticSourceFile;
+import com.google.javascript.rhino.StaticSourceFile.SourceKind;
+import com.google.javascript.rhino.Token;
+import java.util.ArrayList;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A process-wide cache of parse results, keyed on the name, kind and content hash of a source file
+ * and on the parser configuration.
+ *
+ * <p>When the compiler runs as a long-lived worker most inputs don't change between requests, so a
+ * later compilation can copy the cached AST instead of parsing the file again. The cached tree is
+ * never handed out. Every lookup returns a fresh copy, JSDoc included, because compiler passes
+ * modify both. Diagnostics from the original parse are recorded and reported again on every hit,
+ * so a cached parse reports exactly what a real one would. The cache is bounded by the total length
+ * of the cached code, set with the {@code jscomp.parsedinput.maxchars} system property.
+ */
+final class ParsedInputCache {
+
+  // The total length of the code whose ASTs are kept. An AST takes several times the memory of its
+  // code, so the default keeps a few hundred megabytes of ASTs.
+  private static final long PARSED_INPUT_CACHE_MAX_CHARS =
+      Long.parseLong(System.getProperty("jscomp.parsedinput.maxchars", "20000000"));
+
+  private static final Cache<Key, CachedParse> parsedInputCache =
+      CacheBuilder.newBuilder()
+          .maximumWeight(PARSED_INPUT_CACHE_MAX_CHARS)
+          .weigher((Key key, CachedParse parse) -> parse.codeLength)
+          .build();
+
+  /**
+   * Returns the result of parsing {@code code}, either by running the parser or by copying an
+   * earlier result for identical code.
+   */
+  static ParseResult parse(
+      SourceFile sourceFile, String code, Config config, ErrorReporter errorReporter) {
+    Key key = Key.create(sourceFile, code, config);
+    CachedParse cached = parsedInputCache.getIfPresent(key);
+    if (cached == null) {
+      RecordingErrorReporter recorder = new RecordingErrorReporter(errorReporter);
+      ParseResult result = ParserRunner.parse(sourceFile, code, config, recorder);
+      parsedInputCache.put(
+          key,
+          new CachedParse(
+              result.ast.cloneTree(/* cloneTypeExprs= */ true),
+              sourceFile,
+              code.length(),
+              ImmutableList.copyOf(result.comments),
+              result.features,
+              result.sourceMapURL,
+              recorder.build()));
+      return result;
+    }
+    return cached.copy(sourceFile, errorReporter);
+  }
+
+  /** Drops all cached parse results. */
+  static void clear() {
+    parsedInputCache.invalidateAll();
+  }
+
+  @AutoValue
+  abstract static class Key {
+    abstract String name();
+
+    abstract SourceKind kind();
+
+    abstract HashCode contentHash();
+
+    abstract Config config();
+
+    static Key create(SourceFile sourceFile, String code, Config config) {
+      return new AutoValue_ParsedInputCache_Key(
+          sourceFile.getName(),
+          sourceFile.getKind(),
+          Hashing.sha256().hashString(code, UTF_8),
+          config);
+    }
+  }
+
+  private static final class CachedParse {
+    private final Node ast;
+    // Stands in for the parsed source file in the cached tree, so that the cache doesn't keep the
+    // source file and its code.
+    private final StaticSourceFile sourceFile;
+    private final int codeLength;
+    private final ImmutableList<Comment> comments;
+    private final FeatureSet features;
+    private final @Nullable String sourceMapURL;
+    private final ImmutableList<Diagnostic> diagnostics;
+
+    CachedParse(
+        Node ast,
+        SourceFile parsedSourceFile,
+        int codeLength,
+        ImmutableList<Comment> comments,
+        FeatureSet features,
+        @Nullable String sourceMapURL,
+        ImmutableList<Diagnostic> diagnostics) {
+      this.ast = ast;
+      this.sourceFile =
+          new SimpleSourceFile(parsedSourceFile.getName(), parsedSourceFile.getKind());
+      this.codeLength = codeLength;
+      this.comments = comments;
+      this.features = features;
+      this.sourceMapURL = sourceMapURL;
+      this.diagnostics = diagnostics;
+      Node sourceFileTemplate = new Node(Token.EMPTY).setStaticSourceFile(sourceFile);
+      moveToSourceFile(ast, parsedSourceFile, sourceFileTemplate);
+    }
+
+    ParseResult copy(StaticSourceFile newSourceFile, ErrorReporter errorReporter) {
+      for (Diagnostic diagnostic : diagnostics) {
+        diagnostic.reportTo(errorReporter);
+      }
+      Node root = ast.cloneTree(/* cloneTypeExprs= */ true);
+      Node sourceFileTemplate = new Node(Token.EMPTY).setStaticSourceFile(newSourceFile);
+      moveToSourceFile(root, sourceFile, sourceFileTemplate);
+      return new ParseResult(root, comments, features, sourceMapURL);
+    }
+
+    /**
+     * Points every node of the tree that belongs to {@code from} at the source file of {@code
+     * sourceFileTemplate}.
+     */
+    private static void moveToSourceFile(
+        Node root, StaticSourceFile from, Node sourceFileTemplate) {
+      NodeUtil.visitPreOrder(
+          root,
+          (Node n) -> {
+            if (n.getStaticSourceFile() == from) {
+              n.setStaticSourceFileFrom(sourceFileTemplate);
+            }
+            JSDocInfo info = n.getJSDocInfo();
+            if (info != null) {
+              for (Node typeNode : info.getTypeNodes()) {
+                moveToSourceFile(typeNode, from, sourceFileTemplate);
+              }
+            }
+            Node shadow = n.getClosureUnawareShadow();
+            if (shadow != null) {
+              moveToSourceFile(shadow, from, sourceFileTemplate);
+            }
+          });
+    }
+  }
+
+  /** A warning or error reported while parsing. */
+  private static final class Diagnostic {
+    private final boolean isError;
+    private final String message;
+    private final String sourceName;
+    private final int line;
+    private final int lineOffset;
+
+    Diagnostic(boolean isError, String message, String sourceName, int line, int lineOffset) {
+      this.isError = isError;
+      this.message = message;
+      this.sourceName = sourceName;
+      this.line = line;
+      this.lineOffset = lineOffset;
+    }
+
+    void reportTo(ErrorReporter errorReporter) {
+      if (isError) {
+        errorReporter.error(message, sourceName, line, lineOffset);
+      } else {
+        errorReporter.warning(message, sourceName, line, lineOffset);
+      }
+    }
+  }
+
+  /** Passes diagnostics on to another reporter, remembering them so they can be replayed. */
+  private static final class RecordingErrorReporter implements ErrorReporter {
+    private final ErrorReporter delegate;
+    private final List<Diagnostic> diagnostics = new ArrayList<>();
+
+    RecordingErrorReporter(ErrorReporter delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void warning(String message, String sourceName, int line, int lineOffset) {
+      diagnostics.add(new Diagnostic(false, message, sourceName, line, lineOffset));
+      delegate.warning(message, sourceName, line, lineOffset);
+    }
+
+    @Override
+    public void error(String message, String sourceName, int line, int lineOffset) {
+      diagnostics.add(new Diagnostic(true, message, sourceName, line, lineOffset));
+      delegate.error(message, sourceName, line, lineOffset);
+    }
+
+    ImmutableList<Diagnostic> build() {
+      return ImmutableList.copyOf(diagnostics);
+    }
+  }
+
+  private ParsedInputCache() {
+    throw new AssertionError();
+  }
+}
@@ -39,6 +39,17 @@ public abstract class PassFactory {
   /** Whether this factory must or must not appear in a {@link PhaseOptimizer} loop. */
   public abstract boolean isRunInFixedPointLoop();
 
+  /**
+   * Whether the passes created by this factory only look at one script at a time.
+   *
+   * <p>A script-local pass may be run by the {@link PhaseOptimizer} as many separate pass instances,
+   * one per SCRIPT node, each called with that script as the {@code root} argument to {@link
+   * CompilerPass#process}, and possibly on several threads at once. Such a pass must ignore the
+   * externs, must not modify the AST or any other compiler state, and must only communicate its
+   * results by calling {@link AbstractCompiler#report}.
+   */
+  public abstract boolean isScriptLocal();
+
   /**
    * A simple factory function for creating actual pass instances.
    *
@@ -59,6 +70,8 @@ public abstract class PassFactory {
 
     public abstract Builder setRunInFixedPointLoop(boolean b);
 
+    public abstract Builder setScriptLocal(boolean b);
+
     public abstract Builder setCondition(Function<CompilerOptions, Boolean> cond);
 
     public abstract Builder setInternalFactory(
@@ -77,6 +90,7 @@ public abstract class PassFactory {
   public static Builder builder() {
     return new AutoValue_PassFactory.Builder()
         .setRunInFixedPointLoop(false)
+        .setScriptLocal(false)
         .setCondition((o) -> true);
   }
 
@@ -18,8 +18,11 @@ package com.google.javascript.jscomp;
 
 import static com.google.common.base.Preconditions.checkState;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.javascript.rhino.IR;
 import com.google.javascript.rhino.Node;
+import com.google.javascript.rhino.Token;
 
 /**
  * A pass that looks for assignments to properties of an object or array
@@ -29,6 +32,13 @@ import com.google.javascript.rhino.Node;
  * similarly for the object constructor.
  */
 final class PeepholeCollectPropertyAssignments extends AbstractPeepholeOptimization {
+  private static final ImmutableSet<Token> TOKENS_TO_OPTIMIZE =
+      Sets.immutableEnumSet(Token.SCRIPT, Token.BLOCK);
+
+  @Override
+  ImmutableSet<Token> getTokensToOptimize() {
+    return TOKENS_TO_OPTIMIZE;
+  }
 
   @Override
   Node optimizeSubtree(Node subtree) {
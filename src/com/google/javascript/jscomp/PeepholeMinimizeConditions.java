@@ -21,6 +21,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.javascript.jscomp.MinimizedCondition.MeasuredNode;
 import com.google.javascript.jscomp.MinimizedCondition.MinimizationStyle;
 import com.google.javascript.jscomp.base.Tri;
@@ -39,6 +41,18 @@ import org.jspecify.annotations.Nullable;
  */
 class PeepholeMinimizeConditions
   extends AbstractPeepholeOptimization {
+  private static final ImmutableSet<Token> TOKENS_TO_OPTIMIZE =
+      Sets.immutableEnumSet(
+          Token.THROW,
+          Token.RETURN,
+          Token.NOT,
+          Token.IF,
+          Token.EXPR_RESULT,
+          Token.HOOK,
+          Token.WHILE,
+          Token.DO,
+          Token.FOR,
+          Token.BLOCK);
 
   private static final int AND_PRECEDENCE = NodeUtil.precedence(Token.AND);
 
@@ -54,6 +68,11 @@ class PeepholeMinimizeConditions
     this.late = late;
   }
 
+  @Override
+  ImmutableSet<Token> getTokensToOptimize() {
+    return TOKENS_TO_OPTIMIZE;
+  }
+
   /** Tries to apply our various peephole minimizations on the passed in node. */
   @Override
   public Node optimizeSubtree(Node node) {
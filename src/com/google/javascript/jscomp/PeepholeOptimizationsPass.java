@@ -16,23 +16,38 @@
 
 package com.google.javascript.jscomp;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.google.common.annotations.VisibleForTesting;
 import com.google.javascript.jscomp.NodeTraversal.AbstractPostOrderCallback;
 import com.google.javascript.rhino.Node;
+import com.google.javascript.rhino.Token;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
 
 /**
  * A compiler pass to run various peephole optimizations (e.g. constant folding,
  * some useless code removal, some minimizations).
+ *
+ * <p>Each node is only passed to the optimizations that handle its token. After the changed scopes
+ * were traversed once, only the nodes that the optimizations changed are visited again, together
+ * with their ancestors, until the optimizations make no more changes.
  */
 class PeepholeOptimizationsPass implements CompilerPass {
+  private static final int MAX_OPTIMIZATIONS = Long.SIZE;
 
   private final AbstractCompiler compiler;
   private final String passName;
   // NOTE: Use a native array rather than a List to avoid creating iterators for every node in the
   // AST.
   private final AbstractPeepholeOptimization[] peepholeOptimizations;
+  // For each token, a bit set of the indices of the optimizations that handle it.
+  private final long[] optimizationsByToken = new long[Token.values().length];
   private boolean retraverseOnChange;
 
   /** Creates a peephole optimization pass that runs the given optimizations. */
@@ -45,10 +60,17 @@ class PeepholeOptimizationsPass implements CompilerPass {
       AbstractCompiler compiler,
       String passName,
       List<AbstractPeepholeOptimization> optimizations) {
+    checkArgument(
+        optimizations.size() <= MAX_OPTIMIZATIONS, "Too many optimizations: %s", optimizations);
     this.compiler = compiler;
     this.passName = passName;
     this.peepholeOptimizations = optimizations.toArray(new AbstractPeepholeOptimization[0]);
     this.retraverseOnChange = true;
+    for (int i = 0; i < peepholeOptimizations.length; i++) {
+      for (Token token : peepholeOptimizations[i].getTokensToOptimize()) {
+        optimizationsByToken[token.ordinal()] |= 1L << i;
+      }
+    }
   }
 
   @VisibleForTesting
@@ -58,41 +80,157 @@ class PeepholeOptimizationsPass implements CompilerPass {
 
   @Override
   public void process(Node externs, Node root) {
-    beginTraversal();
+    Map<Node, Node> changedNodes = new LinkedHashMap<>();
+    beginTraversal(changedNodes);
 
-    // Repeat to an internal fixed point.
-    for (List<Node> changedScopeNodes = compiler.getChangedScopeNodesForPass(passName);
-        changedScopeNodes == null || !changedScopeNodes.isEmpty();
-        changedScopeNodes = compiler.getChangedScopeNodesForPass(passName)) {
+    List<Node> changedScopeNodes = compiler.getChangedScopeNodesForPass(passName);
+    if (changedScopeNodes == null || !changedScopeNodes.isEmpty()) {
       NodeTraversal.traverseScopeRoots(
           compiler, root, changedScopeNodes, new PeepCallback(), false);
 
-      // Cancel the fixed point if requested.
-      if (!retraverseOnChange) {
-        break;
+      // Repeat to an internal fixed point, unless that was cancelled.
+      if (retraverseOnChange) {
+        while (!changedNodes.isEmpty()) {
+          Map<Node, Node> nodesToRevisit = new LinkedHashMap<>(changedNodes);
+          changedNodes.clear();
+          revisit(nodesToRevisit);
+        }
+        // The changes made above were all revisited.
+        compiler.markChangesSeenByPass(passName);
       }
     }
 
     endTraversal();
   }
 
+  /**
+   * Visits the changed nodes and their descendants again, as well as their ancestors up to the
+   * enclosing change scope, in the order of a traversal of the change scope. For changed nodes
+   * that were removed since, their parent at the time is visited again instead.
+   *
+   * <p>The siblings right before and after the changed nodes and their ancestors are visited again
+   * too, without their descendants, because optimizations may look at the neighbors of a node.
+   */
+  private void revisit(Map<Node, Node> nodes) {
+    // The nodes to visit again with all their descendants, and their ancestors, by change scope.
+    Set<Node> changedSubtrees = new LinkedHashSet<>();
+    Map<Node, Set<Node>> ancestorsByScope = new LinkedHashMap<>();
+    // The nodes to visit again without their descendants.
+    Set<Node> siblings = new LinkedHashSet<>();
+    for (Map.Entry<Node, Node> entry : nodes.entrySet()) {
+      if (!addChangedSubtree(entry.getKey(), changedSubtrees, ancestorsByScope, siblings)
+          && entry.getValue() != null) {
+        var unused =
+            addChangedSubtree(entry.getValue(), changedSubtrees, ancestorsByScope, siblings);
+      }
+    }
+    for (Map.Entry<Node, Set<Node>> entry : ancestorsByScope.entrySet()) {
+      Node scope = entry.getKey();
+      // The scope may have been removed by the optimizations run on an earlier scope.
+      if (isInAst(scope)) {
+        revisitRegion(
+            scope, changedSubtrees, entry.getValue(), siblings, changedSubtrees.contains(scope));
+      }
+    }
+  }
+
+  /** Adds the node to the nodes to visit again, unless it isn't in the AST anymore. */
+  private static boolean addChangedSubtree(
+      Node node,
+      Set<Node> changedSubtrees,
+      Map<Node, Set<Node>> ancestorsByScope,
+      Set<Node> siblings) {
+    Set<Node> ancestors = new LinkedHashSet<>();
+    Set<Node> neighbors = new LinkedHashSet<>();
+    Node scope = node;
+    while (!NodeUtil.isChangeScopeRoot(scope)) {
+      Node parent = scope.getParent();
+      if (parent == null) {
+        return false;
+      }
+      addIfNotNull(neighbors, scope.getPrevious());
+      addIfNotNull(neighbors, scope.getNext());
+      scope = parent;
+      ancestors.add(scope);
+    }
+    if (!isInAst(scope)) {
+      return false;
+    }
+    changedSubtrees.add(node);
+    ancestorsByScope.computeIfAbsent(scope, (Node k) -> new LinkedHashSet<>()).addAll(ancestors);
+    siblings.addAll(neighbors);
+    return true;
+  }
+
+  private static void addIfNotNull(Set<Node> nodes, @Nullable Node node) {
+    if (node != null) {
+      nodes.add(node);
+    }
+  }
+
+  private static boolean isInAst(Node scope) {
+    if (scope.isDeleted()) {
+      return false;
+    }
+    Node script = scope.isScript() ? scope : NodeUtil.getEnclosingScript(scope);
+    return script != null && script.hasParent();
+  }
+
+  private void revisitRegion(
+      Node n,
+      Set<Node> changedSubtrees,
+      Set<Node> ancestors,
+      Set<Node> siblings,
+      boolean inChangedSubtree) {
+    for (Node child = n.getFirstChild(); child != null; ) {
+      // The visit may remove the child.
+      Node next = child.getNext();
+      if (!NodeUtil.isChangeScopeRoot(child)) {
+        if (inChangedSubtree || changedSubtrees.contains(child)) {
+          revisitRegion(child, changedSubtrees, ancestors, siblings, true);
+        } else if (ancestors.contains(child)) {
+          revisitRegion(child, changedSubtrees, ancestors, siblings, false);
+        } else if (siblings.contains(child)) {
+          visit(child);
+        }
+      }
+      child = next;
+    }
+    visit(n);
+  }
+
   private class PeepCallback extends AbstractPostOrderCallback {
     @Override
     public void visit(NodeTraversal t, Node n, Node parent) {
-      Node currentNode = n;
-      for (AbstractPeepholeOptimization optim : peepholeOptimizations) {
-        currentNode = optim.optimizeSubtree(currentNode);
-        if (currentNode == null) {
-          return;
-        }
+      PeepholeOptimizationsPass.this.visit(n);
+    }
+  }
+
+  /** Runs the optimizations that handle the node, in order. */
+  private void visit(Node n) {
+    Node currentNode = n;
+    long optimizations = optimizationsByToken[n.getToken().ordinal()];
+    while (optimizations != 0) {
+      int index = Long.numberOfTrailingZeros(optimizations);
+      Token token = currentNode.getToken();
+      currentNode = peepholeOptimizations[index].optimizeSubtree(currentNode);
+      if (currentNode == null) {
+        return;
+      }
+      // Go on with the later optimizations that handle the new node.
+      long laterOptimizations = -2L << index;
+      if (currentNode.getToken() != token) {
+        optimizations = optimizationsByToken[currentNode.getToken().ordinal()];
       }
+      optimizations &= laterOptimizations;
     }
   }
 
   /** Make sure that all the optimizations have the current compiler so they can report errors. */
-  private void beginTraversal() {
+  private void beginTraversal(Map<Node, Node> changedNodes) {
     for (AbstractPeepholeOptimization optimization : peepholeOptimizations) {
       optimization.beginTraversal(compiler);
+      optimization.recordChangedNodes(changedNodes);
     }
   }
 
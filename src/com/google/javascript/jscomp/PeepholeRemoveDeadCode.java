@@ -21,6 +21,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.javascript.jscomp.base.Tri;
 import com.google.javascript.jscomp.parsing.parser.FeatureSet.Feature;
 import com.google.javascript.rhino.IR;
@@ -36,6 +38,34 @@ import org.jspecify.annotations.Nullable;
  * operator's left hand sides with no side effects, etc.
  */
 class PeepholeRemoveDeadCode extends AbstractPeepholeOptimization {
+  private static final ImmutableSet<Token> TOKENS_TO_OPTIMIZE =
+      Sets.immutableEnumSet(
+          Token.ASSIGN,
+          Token.COMMA,
+          Token.SCRIPT,
+          Token.BLOCK,
+          Token.EXPR_RESULT,
+          Token.HOOK,
+          Token.SWITCH,
+          Token.IF,
+          Token.FOR,
+          Token.DO,
+          Token.TRY,
+          Token.LABEL,
+          Token.ARRAY_PATTERN,
+          Token.OBJECT_PATTERN,
+          Token.VAR,
+          Token.CONST,
+          Token.LET,
+          Token.DEFAULT_VALUE,
+          Token.OPTCHAIN_GETPROP,
+          Token.OPTCHAIN_CALL,
+          Token.OPTCHAIN_GETELEM);
+
+  @Override
+  ImmutableSet<Token> getTokensToOptimize() {
+    return TOKENS_TO_OPTIMIZE;
+  }
 
   @Override
   Node optimizeSubtree(Node subtree) {
@@ -27,6 +27,8 @@ import static java.lang.Math.min;
 
 import com.google.common.base.Ascii;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.javascript.jscomp.colors.StandardColors;
 import com.google.javascript.rhino.IR;
 import com.google.javascript.rhino.Node;
@@ -38,6 +40,7 @@ import org.jspecify.annotations.Nullable;
 
 /** Just to fold known methods when they are called with constants. */
 class PeepholeReplaceKnownMethods extends AbstractPeepholeOptimization {
+  private static final ImmutableSet<Token> TOKENS_TO_OPTIMIZE = Sets.immutableEnumSet(Token.CALL);
 
   private final boolean late;
   private final boolean useTypes;
@@ -52,6 +55,11 @@ class PeepholeReplaceKnownMethods extends AbstractPeepholeOptimization {
     this.useTypes = useTypes;
   }
 
+  @Override
+  ImmutableSet<Token> getTokensToOptimize() {
+    return TOKENS_TO_OPTIMIZE;
+  }
+
   @Override
   Node optimizeSubtree(Node subtree) {
     if (NodeUtil.isGoogWeakUsageCall(subtree) && late) {
@@ -21,6 +21,7 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.javascript.jscomp.CodingConvention.Bind;
 import com.google.javascript.rhino.IR;
 import com.google.javascript.rhino.Node;
@@ -33,6 +34,26 @@ import com.google.javascript.rhino.Token;
  */
 class PeepholeSubstituteAlternateSyntax
   extends AbstractPeepholeOptimization {
+  private static final ImmutableSet<Token> TOKENS_TO_OPTIMIZE =
+      Sets.immutableEnumSet(
+          Token.ASSIGN_SUB,
+          Token.TRUE,
+          Token.FALSE,
+          Token.NEW,
+          Token.CALL,
+          Token.RETURN,
+          Token.EXPR_RESULT,
+          Token.NAME,
+          Token.ARRAYLIT,
+          Token.GETPROP,
+          Token.TEMPLATELIT,
+          Token.AND,
+          Token.OR,
+          Token.BITOR,
+          Token.BITXOR,
+          Token.BITAND,
+          Token.COALESCE,
+          Token.MUL);
 
   private final boolean late;
 
@@ -49,6 +70,11 @@ class PeepholeSubstituteAlternateSyntax
     this.late = late;
   }
 
+  @Override
+  ImmutableSet<Token> getTokensToOptimize() {
+    return TOKENS_TO_OPTIMIZE;
+  }
+
   /**
    * Tries apply our various peephole minimizations on the passed in node.
    */
@@ -237,7 +237,11 @@ class PhaseOptimizer implements CompilerPass {
       // Delay the creation of the actual pass until *after* all previous passes
       // have been processed.
       // Some precondition checks rely on this, eg, in CoalesceVariableNames.
-      factory.create(compiler).process(externs, root);
+      if (factory.isScriptLocal() && compiler.getOptions().numParallelThreads > 1) {
+        new ScriptLocalPassRunner(compiler).run(factory, externs, root);
+      } else {
+        factory.create(compiler).process(externs, root);
+      }
 
       compiler.afterPass(name);
 
@@ -344,7 +348,9 @@ class PhaseOptimizer implements CompilerPass {
       State state = State.RUN_PASSES_NOT_RUN_IN_PREV_ITER;
       boolean lastIterMadeChanges;
       int count = 1;
-      int astSize = NodeUtil.countAstSize(root);
+      // The size of the AST is only needed to stop code removal loops early.
+      boolean trackAstSize = useSizeHeuristicToStopOptimizationLoop && this.isCodeRemovalLoop;
+      int astSize = trackAstSize ? NodeUtil.countAstSize(root) : 0;
       int previousAstSize = astSize;
 
       // The loop starts at state RUN_PASSES_NOT_RUN_IN_PREV_ITER and runs all passes.
@@ -394,7 +400,9 @@ class PhaseOptimizer implements CompilerPass {
           }
 
           previousAstSize = astSize;
-          astSize = NodeUtil.countAstSize(root);
+          if (trackAstSize) {
+            astSize = NodeUtil.countAstSize(root);
+          }
           if (state == State.RUN_PASSES_NOT_RUN_IN_PREV_ITER) {
             if (lastIterMadeChanges && isAstSufficientlyChanging(previousAstSize, astSize)) {
               state = State.RUN_PASSES_THAT_CHANGED_STH_IN_PREV_ITER;
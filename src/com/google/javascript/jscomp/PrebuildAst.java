@@ -16,63 +16,25 @@
 
 package com.google.javascript.jscomp;
 
-import static java.util.concurrent.TimeUnit.SECONDS;
-
-import com.google.common.collect.Iterables;
-import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
-import com.google.common.util.concurrent.MoreExecutors;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
-
 /**
  * A helper class to prebuild ASTs from a list of {@link CompilerInput}. Inputs are parsed into ASTs
  * the first time we try to get them. Get them all now using multiple threads, so they'll be parsed
  * in parallel and already available during the rest of the compilation.
+ *
+ * <p>Parsing stops early once an input reports a halting error, because the compilation won't get
+ * past parsing anyway. Callers should check {@link AbstractCompiler#hasHaltingErrors()} afterwards
+ * and not ask for the ASTs of the remaining inputs.
  */
 class PrebuildAst {
   private final AbstractCompiler compiler;
-  private final int numParallelThreads;
 
-  PrebuildAst(AbstractCompiler compiler, int numParalleThreads) {
+  PrebuildAst(AbstractCompiler compiler) {
     this.compiler = compiler;
-    this.numParallelThreads = numParalleThreads;
   }
 
   void prebuild(Iterable<CompilerInput> allInputs) {
-    ThreadFactory threadFactory =
-        r -> {
-          Thread t =
-              new Thread(null, r, "jscompiler-PrebuildAst", CompilerExecutor.COMPILER_STACK_SIZE);
-          t.setDaemon(true); // Do not prevent the JVM from exiting.
-          return t;
-        };
-    ThreadPoolExecutor poolExecutor =
-        new ThreadPoolExecutor(
-            numParallelThreads,
-            numParallelThreads,
-            Integer.MAX_VALUE,
-            SECONDS,
-            new LinkedBlockingQueue<Runnable>(),
-            threadFactory);
-    ListeningExecutorService executorService = MoreExecutors.listeningDecorator(poolExecutor);
-    List<ListenableFuture<?>> futureList = new ArrayList<>(Iterables.size(allInputs));
-    // TODO(moz): Support canceling all parsing on the first halting error
-    for (final CompilerInput input : allInputs) {
-      futureList.add(executorService.submit(() -> input.getAstRoot(compiler)));
-    }
-
-    poolExecutor.shutdown();
-    try {
-      Futures.allAsList(futureList).get();
-    } catch (InterruptedException | ExecutionException e) {
-      throw new RuntimeException(e);
-    }
+    compiler
+        .getParallelInputScheduler()
+        .runUntilHaltingError(compiler, allInputs, input -> input.getAstRoot(compiler));
   }
-
 }
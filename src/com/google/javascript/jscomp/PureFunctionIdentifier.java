@@ -21,8 +21,11 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
@@ -45,6 +48,9 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 import org.jspecify.annotations.Nullable;
 
@@ -67,6 +73,10 @@ import org.jspecify.annotations.Nullable;
  * instance of the call to {@link NodeUtil#evaluatesToLocalValue(Node)} and {@link
  * NodeUtil#allArgsUnescapedLocal(Node)} do not actually take into account local variables. They
  * only assume literals, primitives, and operations on primitives are local.
+ *
+ * <p>When {@link CompilerOptions#numParallelThreads} is more than one, the function bodies of
+ * different scripts are analyzed on several threads. Propagating the side effects over the call
+ * graph is done on the calling thread afterwards.
  */
 class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
   // A prefix to differentiate property names from variable names.
@@ -166,7 +176,8 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
     populateDatastructuresForAnalysisTraversal(references);
 
     NodeTraversal.traverse(compiler, externs, new ExternFunctionAnnotationAnalyzer());
-    NodeTraversal.traverse(compiler, root, new FunctionBodyAnalyzer());
+    markArtificiallyPureFunctions();
+    analyzeFunctionBodies(root);
 
     propagateSideEffects();
 
@@ -342,7 +353,14 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
     return builder.build();
   }
 
-  private ImmutableList<AmbiguatedFunctionSummary> getSummariesForCallee(Node invocation) {
+  /**
+   * Returns the summaries of the functions that may be invoked.
+   *
+   * @param summariesOfUnnamedFunctions summaries of functions that aren't yet in {@link
+   *     #summariesForAllNamesOfFunctionByNode}
+   */
+  private ImmutableList<AmbiguatedFunctionSummary> getSummariesForCallee(
+      Node invocation, Multimap<Node, AmbiguatedFunctionSummary> summariesOfUnnamedFunctions) {
     checkArgument(NodeUtil.isInvocation(invocation), invocation);
 
     Cache cacheCall = compiler.getCodingConvention().describeCachingCall(invocation);
@@ -368,6 +386,9 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
 
         Collection<AmbiguatedFunctionSummary> summariesForFunction =
             summariesForAllNamesOfFunctionByNode.get(callee);
+        if (summariesForFunction.isEmpty()) {
+          summariesForFunction = summariesOfUnnamedFunctions.get(callee);
+        }
         checkState(!summariesForFunction.isEmpty(), "Function missed during analysis: %s", callee);
 
         results.addAll(summariesForFunction);
@@ -479,6 +500,91 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
     }
   }
 
+  /**
+   * Marks the summaries of the functions annotated {@code @nosideeffects} as having no side
+   * effects, whatever side effects other functions with the same names have.
+   *
+   * <p>This is done before the function bodies are analyzed, so that the summaries don't change
+   * from impure to pure while other function bodies are analyzed.
+   */
+  private void markArtificiallyPureFunctions() {
+    for (Node function : summariesForAllNamesOfFunctionByNode.keySet()) {
+      if (function.isFromExterns()) {
+        // The annotations of externs were already applied.
+        continue;
+      }
+      JSDocInfo jsdoc = NodeUtil.getBestJSDocInfo(function);
+      if (jsdoc != null && jsdoc.isNoSideEffects()) {
+        // Treat all names (both local aliases and exported names) as if they don't have side
+        // effects.
+        for (AmbiguatedFunctionSummary summary :
+            summariesForAllNamesOfFunctionByNode.get(function)) {
+          summary.markArtificiallyPure();
+        }
+      }
+    }
+  }
+
+  /** Analyzes the function bodies, on several threads if enabled, and records the results. */
+  private void analyzeFunctionBodies(Node root) {
+    int numParallelThreads = compiler.getOptions().numParallelThreads;
+    ImmutableList<FunctionBodyAnalyzer> analyzers;
+    if (numParallelThreads <= 1 || !root.hasMoreThanOneChild()) {
+      FunctionBodyAnalyzer analyzer = new FunctionBodyAnalyzer();
+      NodeTraversal.traverse(compiler, root, analyzer);
+      analyzers = ImmutableList.of(analyzer);
+    } else {
+      analyzers = analyzeScriptsInParallel(root);
+    }
+    // Add the results in script order, so that they don't depend on the scheduling of the threads.
+    for (FunctionBodyAnalyzer analyzer : analyzers) {
+      analyzer.addResults();
+    }
+  }
+
+  /**
+   * Analyzes the function bodies of each script on its own thread.
+   *
+   * <p>The analysis of a function body only reads the AST of its script and the summaries of the
+   * names, which are created beforehand. Side effects are recorded on the summaries, which is
+   * thread-safe. Everything else the analyzers find is only added to the pass state afterwards.
+   *
+   * <p>{@link OptimizeCalls} runs this pass many times per compilation, so it uses the threads of
+   * the compiler's {@link ParallelInputScheduler} rather than starting threads of its own.
+   */
+  private ImmutableList<FunctionBodyAnalyzer> analyzeScriptsInParallel(Node root) {
+    ExecutorService executor = compiler.getParallelInputScheduler().getExecutor();
+    List<Future<FunctionBodyAnalyzer>> futures = new ArrayList<>();
+    try {
+      for (Node script = root.getFirstChild(); script != null; script = script.getNext()) {
+        Node currentScript = script;
+        futures.add(
+            executor.submit(
+                () -> {
+                  FunctionBodyAnalyzer analyzer = new FunctionBodyAnalyzer();
+                  NodeTraversal.traverse(compiler, currentScript, analyzer);
+                  return analyzer;
+                }));
+      }
+      ImmutableList.Builder<FunctionBodyAnalyzer> analyzers = ImmutableList.builder();
+      for (Future<FunctionBodyAnalyzer> future : futures) {
+        analyzers.add(future.get());
+      }
+      return analyzers.build();
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } finally {
+      // Don't leave work behind on the shared threads if an analysis failed.
+      for (Future<FunctionBodyAnalyzer> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
   /**
    * Propagate side effect information in {@link #reverseCallGraph} from callees to callers.
    *
@@ -496,7 +602,8 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
   /** Set no side effect property at pure-function call sites. */
   private void markPureFunctionCalls() {
     for (Node callNode : allFunctionCalls) {
-      ImmutableList<AmbiguatedFunctionSummary> calleeSummaries = getSummariesForCallee(callNode);
+      ImmutableList<AmbiguatedFunctionSummary> calleeSummaries =
+          getSummariesForCallee(callNode, ImmutableMultimap.of());
 
       // Default to side effects, non-local results
       Node.SideEffectFlags flags = new Node.SideEffectFlags();
@@ -622,10 +729,18 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
    * Inspects function bodies for side effects and applies them to the associated {@link
    * AmbiguatedFunctionSummary}.
    *
-   * <p>This callback also fills {@link #allFunctionCalls}
+   * <p>This callback also collects the function calls, the summaries of unnamed functions and the
+   * edges of the call graph, which {@link #addResults} adds to {@link #allFunctionCalls}, {@link
+   * #summariesForAllNamesOfFunctionByNode} and {@link #reverseCallGraph}.
    */
   private final class FunctionBodyAnalyzer implements ScopedCallback {
 
+    private final List<Node> functionCalls = new ArrayList<>();
+    // Summaries of functions that are not part of a definition, for example anonymous functions.
+    private final Multimap<Node, AmbiguatedFunctionSummary> summariesOfUnnamedFunctions =
+        LinkedHashMultimap.create();
+    private final List<CallEdge> callEdges = new ArrayList<>();
+
     // Preloaded with an entry to represent the global scope.
     private final ArrayDeque<FunctionStackEntry> functionScopeStack =
         new ArrayDeque<>(ImmutableList.of(new FunctionStackEntry(null)));
@@ -655,24 +770,22 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
         // We collect these after filtering for side-effects because there's no point re-processing
         // a known pure call. This analysis is run multiple times, but no optimization will make a
         // pure function impure.
-        allFunctionCalls.add(node);
+        functionCalls.add(node);
       }
 
-      if (node.isFunction()) {
+      if (node.isFunction() && summariesOfUnnamedFunctions.containsKey(node)) {
+        // The summaries of named functions were marked by markArtificiallyPureFunctions.
         JSDocInfo jsdoc = NodeUtil.getBestJSDocInfo(node);
         if (jsdoc != null && jsdoc.isNoSideEffects()) {
-          // Treat all names (both local aliases and exported names) as if they don't have side
-          // effects.
-          for (AmbiguatedFunctionSummary summary : summariesForAllNamesOfFunctionByNode.get(node)) {
-            summary.setIsArtificiallyPure(true);
-            summary.bitmask = 0; // no side effects
+          for (AmbiguatedFunctionSummary summary : summariesOfUnnamedFunctions.get(node)) {
+            summary.markArtificiallyPure();
           }
         }
       }
 
       Node root = this.functionScopeStack.getLast().root;
       if (root != null) {
-        for (AmbiguatedFunctionSummary summary : summariesForAllNamesOfFunctionByNode.get(root)) {
+        for (AmbiguatedFunctionSummary summary : getSummaries(root)) {
           if (summary.isArtificiallyPure()) {
             // Ignore node side effects for summaries that have been marked as artificially pure.
             // We can't skip traversing the nodes in case an artificially pure node contains other
@@ -684,6 +797,24 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
       }
     }
 
+    private Collection<AmbiguatedFunctionSummary> getSummaries(Node function) {
+      Collection<AmbiguatedFunctionSummary> summaries =
+          summariesForAllNamesOfFunctionByNode.get(function);
+      return summaries.isEmpty() ? summariesOfUnnamedFunctions.get(function) : summaries;
+    }
+
+    /** Adds the results of the analysis to the state of the pass. */
+    void addResults() {
+      for (AmbiguatedFunctionSummary summary : summariesOfUnnamedFunctions.values()) {
+        summary.addToGraph(reverseCallGraph);
+      }
+      summariesForAllNamesOfFunctionByNode.putAll(summariesOfUnnamedFunctions);
+      for (CallEdge edge : callEdges) {
+        reverseCallGraph.connect(edge.callee.graphNode, edge.propagation, edge.caller.graphNode);
+      }
+      allFunctionCalls.addAll(functionCalls);
+    }
+
     /**
      * Updates the side effects of summary based on a given node.
      *
@@ -911,10 +1042,9 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
       if (!summariesForAllNamesOfFunctionByNode.containsKey(function)) {
         // This function was not part of a definition which is why it was not created by
         // {@link populateDatastructuresForAnalysisTraversal}. For example, an anonymous
-        // function.
-        AmbiguatedFunctionSummary summary =
-            AmbiguatedFunctionSummary.createInGraph(reverseCallGraph, "<anonymous>");
-        summariesForAllNamesOfFunctionByNode.put(function, summary);
+        // function. It is added to the graph by addResults.
+        summariesOfUnnamedFunctions.put(
+            function, AmbiguatedFunctionSummary.createOutsideGraph("<anonymous>"));
       }
     }
 
@@ -934,11 +1064,10 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
       }
 
       // Handle deferred local variable modifications:
-      for (AmbiguatedFunctionSummary sideEffectInfo :
-          summariesForAllNamesOfFunctionByNode.get(functionEntry.root)) {
+      for (AmbiguatedFunctionSummary sideEffectInfo : getSummaries(functionEntry.root)) {
         checkNotNull(sideEffectInfo, "%s has no side effect info.", functionEntry.root);
 
-        if (sideEffectInfo.mutatesGlobalState()) {
+        if (sideEffectInfo.isArtificiallyPure() || sideEffectInfo.mutatesGlobalState()) {
           continue;
         }
 
@@ -1046,7 +1175,8 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
         return;
       }
 
-      ImmutableList<AmbiguatedFunctionSummary> calleeSummaries = getSummariesForCallee(invocation);
+      ImmutableList<AmbiguatedFunctionSummary> calleeSummaries =
+          getSummariesForCallee(invocation, summariesOfUnnamedFunctions);
       if (calleeSummaries.isEmpty()) {
         callerInfo.setMutatesGlobalStateAndAllOtherFlags();
         return;
@@ -1056,7 +1186,7 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
       for (AmbiguatedFunctionSummary calleeInfo : calleeSummaries) {
         SideEffectPropagation edge =
             SideEffectPropagation.forInvocation(invocation, propatesThrows);
-        reverseCallGraph.connect(calleeInfo.graphNode, edge, callerInfo.graphNode);
+        callEdges.add(new CallEdge(calleeInfo, edge, callerInfo));
       }
     }
 
@@ -1112,6 +1242,22 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
         : compiler.getAccessorSummary().getKind(name);
   }
 
+  /** An edge of {@link #reverseCallGraph} that is yet to be added. */
+  private static final class CallEdge {
+    final AmbiguatedFunctionSummary callee;
+    final SideEffectPropagation propagation;
+    final AmbiguatedFunctionSummary caller;
+
+    CallEdge(
+        AmbiguatedFunctionSummary callee,
+        SideEffectPropagation propagation,
+        AmbiguatedFunctionSummary caller) {
+      this.callee = callee;
+      this.propagation = propagation;
+      this.caller = caller;
+    }
+  }
+
   /**
    * This class stores all the information about a connection between functions needed to propagate
    * side effects from one instance of {@link AmbiguatedFunctionSummary} to another.
@@ -1275,26 +1421,37 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
     // The name shared by the set of functions that defined this summary.
     private final String name;
     // The node holding this summary in the reverse call graph.
-    private final DiGraphNode<AmbiguatedFunctionSummary, SideEffectPropagation> graphNode;
-    // The side effect flags for this set of functions.
+    private @Nullable DiGraphNode<AmbiguatedFunctionSummary, SideEffectPropagation> graphNode;
+    // The side effect flags for this set of functions. Function bodies may be analyzed on several
+    // threads, so the flags are only set under the lock of the summary.
     // TODO(nickreid): Replace this with a `Node.SideEffectFlags`.
-    private int bitmask = 0;
+    private volatile int bitmask = 0;
     private boolean isArtificiallyPure = false;
 
     /** Adds a new summary node to {@code graph}, storing the node and returning the summary. */
     static AmbiguatedFunctionSummary createInGraph(
         DiGraph<AmbiguatedFunctionSummary, SideEffectPropagation> graph, String name) {
-      return new AmbiguatedFunctionSummary(graph, name);
+      AmbiguatedFunctionSummary summary = new AmbiguatedFunctionSummary(name);
+      summary.addToGraph(graph);
+      return summary;
     }
 
-    private AmbiguatedFunctionSummary(
-        DiGraph<AmbiguatedFunctionSummary, SideEffectPropagation> graph, String name) {
+    /** Creates a summary that must be added to the graph later using {@link #addToGraph}. */
+    static AmbiguatedFunctionSummary createOutsideGraph(String name) {
+      return new AmbiguatedFunctionSummary(name);
+    }
+
+    private AmbiguatedFunctionSummary(String name) {
       this.name = checkNotNull(name);
+    }
+
+    void addToGraph(DiGraph<AmbiguatedFunctionSummary, SideEffectPropagation> graph) {
+      checkState(graphNode == null, "Already in the graph: %s", name);
       this.graphNode = graph.createNode(this);
     }
 
     @CanIgnoreReturnValue
-    private AmbiguatedFunctionSummary setMask(int mask) {
+    private synchronized AmbiguatedFunctionSummary setMask(int mask) {
       checkState(!isArtificiallyPure, "Artificially pure summaries should not be modified");
       bitmask |= mask;
       return this;
@@ -1350,8 +1507,10 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
       return this.bitmask == 0;
     }
 
-    void setIsArtificiallyPure(boolean isArtificiallyPure) {
-      this.isArtificiallyPure = isArtificiallyPure;
+    /** Marks the functions as having no side effects, whatever their bodies do. */
+    void markArtificiallyPure() {
+      this.isArtificiallyPure = true;
+      this.bitmask = 0; // no side effects
     }
 
     boolean isArtificiallyPure() {
@@ -1365,7 +1524,7 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
           .add("name", name)
           // Passing `graphNode` directly causes recursion as its `toString` calls `toString` on the
           // summary it contains.
-          .add("graphNode", graphNode.hashCode())
+          .add("graphNode", graphNode != null ? graphNode.hashCode() : null)
           .add("sideEffects", sideEffectsToString())
           .toString();
     }
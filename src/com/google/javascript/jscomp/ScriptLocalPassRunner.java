@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.javascript.rhino.Node;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a script-local pass over every SCRIPT of the main AST on the threads of the compiler's
+ * {@link ParallelInputScheduler}, which are shared with other passes rather than started per run.
+ *
+ * <p>Each script gets its own pass instance, so no pass state is shared between threads. Errors
+ * reported on the worker threads are buffered and then reported on the calling thread in script
+ * order, so the diagnostics don't depend on how the work was scheduled.
+ *
+ * @see PassFactory#isScriptLocal()
+ */
+class ScriptLocalPassRunner {
+  private final AbstractCompiler compiler;
+
+  ScriptLocalPassRunner(AbstractCompiler compiler) {
+    this.compiler = compiler;
+  }
+
+  void run(PassFactory factory, Node externs, Node root) {
+    checkArgument(factory.isScriptLocal(), "Not a script-local pass: %s", factory.getName());
+    ExecutorService executor = compiler.getParallelInputScheduler().getExecutor();
+    List<Future<ImmutableList<JSError>>> futures = new ArrayList<>();
+    List<ImmutableList<JSError>> errorsPerScript = new ArrayList<>();
+    try {
+      for (Node script = root.getFirstChild(); script != null; script = script.getNext()) {
+        final Node currentScript = script;
+        futures.add(
+            executor.submit(
+                () ->
+                    compiler.runAndBufferErrors(
+                        () -> factory.create(compiler).process(externs, currentScript))));
+      }
+      for (Future<ImmutableList<JSError>> future : futures) {
+        errorsPerScript.add(future.get());
+      }
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } finally {
+      // The threads are shared, so don't leave scripts of a failed run on them.
+      for (Future<ImmutableList<JSError>> future : futures) {
+        future.cancel(false);
+      }
+    }
+
+    // The futures were waited for in script order.
+    for (ImmutableList<JSError> errors : errorsPerScript) {
+      for (JSError error : errors) {
+        compiler.report(error);
+      }
+    }
+  }
+}
@@ -38,6 +38,7 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.Serializable;
 import java.io.StringReader;
+import java.lang.ref.SoftReference;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
@@ -79,11 +80,17 @@ public final class SourceFile implements StaticSourceFile {
 
   private boolean isStubSourceFileForAlreadyProvidedInput = false;
 
-  // Source Line Information
-  private int @Nullable [] lineOffsets = null;
+  // Source Line Information. Volatile since line offsets may be looked up while printing chunks on
+  // several threads.
+  private volatile int @Nullable [] lineOffsets = null;
 
   private volatile @Nullable String code = null;
 
+  // Code that was read again after the cached code was cleared, for example to show an excerpt in
+  // an error message. It isn't kept for the rest of the compilation: the garbage collector may drop
+  // it, and then it is read again when needed.
+  private volatile @Nullable SoftReference<String> softCode = null;
+
   // Code statistics used for metrics.
   // For both of these, a negative value means we haven't counted yet.
   private int numLines = -1;
@@ -115,11 +122,12 @@ public final class SourceFile implements StaticSourceFile {
   @Override
   public int getLineOffset(int lineno) {
     findLineOffsets();
-    if (lineno < 1 || lineno > lineOffsets.length) {
+    int[] offsets = lineOffsets;
+    if (lineno < 1 || lineno > offsets.length) {
       throw new IllegalArgumentException(
-          "Expected line number between 1 and " + lineOffsets.length + "\nActual: " + lineno);
+          "Expected line number between 1 and " + offsets.length + "\nActual: " + lineno);
     }
-    return lineOffsets[lineno - 1];
+    return offsets[lineno - 1];
   }
 
   /**
@@ -167,23 +175,30 @@ public final class SourceFile implements StaticSourceFile {
     return numBytes;
   }
 
+  /**
+   * Returns roughly how large this file is, without reading the code if it hasn't been read yet.
+   *
+   * <p>This is meant for deciding which files to work on first. Returns 0 if the size can't be
+   * found cheaply.
+   */
+  long estimateSize() {
+    return numBytes >= 0 ? numBytes : loader.estimateSize();
+  }
+
   private void findLineOffsets() {
     if (this.lineOffsets != null) {
       return;
     }
 
-    String localCode = this.code;
-    if (localCode == null) {
-      try {
-        localCode = this.getCode();
-      } catch (IOException e) {
-        localCode = "";
-        this.lineOffsets = new int[1];
-        return;
-      }
+    String localCode;
+    try {
+      localCode = this.getCodeWithoutRetaining();
+    } catch (IOException e) {
+      this.lineOffsets = new int[1];
+      return;
     }
 
-    // getCode() updates numLines, so this is always in sync with the code.
+    // Reading the code updates numLines, so this is always in sync with the code.
     int[] offsets = new int[this.numLines];
     int index = 1; // start at 1 since the offset for line 0 is always at byte 0
     int offset = 0;
@@ -211,6 +226,34 @@ public final class SourceFile implements StaticSourceFile {
     return this.code;
   }
 
+  /**
+   * Gets all the code in this source file, like {@link #getCode}. But if the code has to be read
+   * again after {@link #clearCachedSource}, it is only kept for as long as memory allows.
+   *
+   * <p>This is meant for occasional reads after parsing, like showing the source of an error.
+   */
+  final String getCodeWithoutRetaining() throws IOException {
+    String localCode = this.code;
+    if (localCode != null) {
+      return localCode;
+    }
+    SoftReference<String> localSoftCode = this.softCode;
+    localCode = localSoftCode != null ? localSoftCode.get() : null;
+    if (localCode != null) {
+      return localCode;
+    }
+    synchronized (this) {
+      if (this.code == null) {
+        this.setCodeAndDoBookkeeping(this.loader.loadUncachedCode());
+        this.softCode = new SoftReference<>(this.code);
+        localCode = this.code;
+        this.code = null;
+        return localCode;
+      }
+      return this.code;
+    }
+  }
+
   @Deprecated
   final void setCodeDeprecated(String code) {
     this.setCodeAndDoBookkeeping(code);
@@ -236,10 +279,14 @@ public final class SourceFile implements StaticSourceFile {
 
   private void setCodeAndDoBookkeeping(@Nullable String sourceCode) {
     this.code = null;
-    // Force recalculation of all of these values when they are requested.
-    this.lineOffsets = null;
+    this.softCode = null;
 
+    // When only clearing the code, keep the line offsets, so that finding the position of a node
+    // doesn't read the file again. Like numLines, they may be stale if the file changed on disk.
     if (sourceCode != null) {
+      // Force recalculation of all of these values when they are requested.
+      this.lineOffsets = null;
+
       if (sourceCode.startsWith(UTF8_BOM)) {
         sourceCode = sourceCode.substring(UTF8_BOM.length());
       }
@@ -345,7 +392,7 @@ public final class SourceFile implements StaticSourceFile {
   public @Nullable String getLine(int lineNumber) {
     String js;
     try {
-      js = getCode();
+      js = getCodeWithoutRetaining();
     } catch (IOException e) {
       return null;
     }
@@ -387,7 +434,7 @@ public final class SourceFile implements StaticSourceFile {
   public @Nullable Region getLines(int lineNumber, int length) {
     String js;
     try {
-      js = getCode();
+      js = getCodeWithoutRetaining();
     } catch (IOException e) {
       return null;
     }
@@ -433,7 +480,7 @@ public final class SourceFile implements StaticSourceFile {
   public @Nullable Region getRegion(int lineNumber) {
     String js = "";
     try {
-      js = getCode();
+      js = getCodeWithoutRetaining();
     } catch (IOException e) {
       return null;
     }
@@ -829,6 +876,11 @@ public final class SourceFile implements StaticSourceFile {
       return null;
     }
 
+    /** Returns roughly how large the source text is, or 0 if that can't be found cheaply. */
+    long estimateSize() {
+      return 0;
+    }
+
     /**
      * Returns a representation of this loader that can be serialized/deserialized to reconstruct
      * this SourceFile
@@ -849,6 +901,11 @@ public final class SourceFile implements StaticSourceFile {
         return this.preloadedCode;
       }
 
+      @Override
+      long estimateSize() {
+        return this.preloadedCode.length();
+      }
+
       @Override
       SourceFileProto.Builder toProtoLocationBuilder(String fileName) {
         return SourceFileProto.newBuilder().setPreloadedContents(this.preloadedCode);
@@ -901,6 +958,15 @@ public final class SourceFile implements StaticSourceFile {
         return Files.newBufferedReader(this.relativePath, this.getCharset());
       }
 
+      @Override
+      long estimateSize() {
+        try {
+          return Files.size(this.relativePath);
+        } catch (IOException e) {
+          return 0;
+        }
+      }
+
       private Charset getCharset() {
         return Charset.forName(this.serializableCharset);
       }
@@ -18,7 +18,10 @@ package com.google.javascript.jscomp;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.javascript.rhino.Node;
+import com.google.javascript.rhino.Token;
 
 /**
  * Tries to fuse all the statements in a block into a one statement by using COMMAs or statements.
@@ -33,6 +36,12 @@ import com.google.javascript.rhino.Node;
  * This assumption has never been validated on a real program.
  */
 final class StatementFusion extends AbstractPeepholeOptimization {
+  private static final ImmutableSet<Token> TOKENS_TO_OPTIMIZE = Sets.immutableEnumSet(Token.BLOCK);
+
+  @Override
+  ImmutableSet<Token> getTokensToOptimize() {
+    return TOKENS_TO_OPTIMIZE;
+  }
 
   @Override
   Node optimizeSubtree(Node n) {
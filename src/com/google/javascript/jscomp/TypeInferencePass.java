@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.javascript.rhino.jstype.JSTypeNative.UNKNOWN_TYPE;
 import static java.util.Comparator.comparingInt;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
 import com.google.javascript.jscomp.CodingConvention.AssertionFunctionLookup;
@@ -33,12 +34,18 @@ import com.google.javascript.rhino.Token;
 import com.google.javascript.rhino.jstype.JSType;
 import com.google.javascript.rhino.jstype.JSTypeRegistry;
 import com.google.javascript.rhino.jstype.JSTypeResolver;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import org.jspecify.annotations.Nullable;
 
 /** A compiler pass to run the type inference analysis. */
 class TypeInferencePass {
+  private static final int CFGS_PER_THREAD_PER_BATCH = 16;
 
   private final AbstractCompiler compiler;
   private final JSTypeRegistry registry;
@@ -107,11 +114,13 @@ class TypeInferencePass {
     }
     scopeCreator.finishAndFreeze();
 
+    SecondScopeBuildingCallback secondScopeBuilding = new SecondScopeBuildingCallback();
     NodeTraversal.builder()
         .setCompiler(compiler)
-        .setCallback(new SecondScopeBuildingCallback())
+        .setCallback(secondScopeBuilding)
         .setScopeCreator(scopeCreator)
         .traverseWithScope(inferenceRoot, this.topScope);
+    inferScopes(secondScopeBuilding.scopesToInfer);
 
     // Normalize TypedVars to have the '?' type instead of null after inference is complete. This
     // currently cannot be done any earlier because it breaks inference of variables assigned in
@@ -149,8 +158,64 @@ class TypeInferencePass {
     return this.topScope;
   }
 
-  private void inferScope(Node n, TypedScope scope) {
-    ControlFlowGraph<Node> cfg = computeCfg(n);
+  /**
+   * Infers the given scopes in order.
+   *
+   * <p>Inferring a scope changes types that the scopes after it see, so the inference itself runs
+   * one scope at a time. With several threads, the control flow graphs of the scopes are computed
+   * on the compiler's shared threads, a batch at a time. Inference sets types on the nodes the
+   * graphs are built from, so all graphs of a batch are computed before any scope of the batch is
+   * inferred, and never while inference runs.
+   */
+  private void inferScopes(List<TypedScope> scopes) {
+    int numParallelThreads = compiler.getOptions().numParallelThreads;
+    if (numParallelThreads <= 1 || scopes.size() <= 1) {
+      for (TypedScope scope : scopes) {
+        inferScope(scope, computeCfg(scope.getRootNode()));
+      }
+      return;
+    }
+
+    ExecutorService executor = compiler.getParallelInputScheduler().getExecutor();
+    // Only a batch of graphs is held in memory at once, rather than the graphs of all scopes.
+    int batchSize = numParallelThreads * CFGS_PER_THREAD_PER_BATCH;
+    for (int start = 0; start < scopes.size(); start += batchSize) {
+      List<TypedScope> batch = scopes.subList(start, Math.min(start + batchSize, scopes.size()));
+      List<Future<ControlFlowGraph<Node>>> futures = new ArrayList<>();
+      List<ControlFlowGraph<Node>> cfgs = new ArrayList<>();
+      try {
+        for (TypedScope scope : batch) {
+          Node cfgRoot = scope.getRootNode();
+          futures.add(executor.submit(() -> computeCfg(cfgRoot)));
+        }
+        for (Future<ControlFlowGraph<Node>> future : futures) {
+          cfgs.add(getDone(future));
+        }
+      } finally {
+        // The threads are shared, so don't leave graphs of a failed batch on them.
+        for (Future<ControlFlowGraph<Node>> future : futures) {
+          future.cancel(false);
+        }
+      }
+      for (int i = 0; i < batch.size(); i++) {
+        inferScope(batch.get(i), cfgs.get(i));
+      }
+    }
+  }
+
+  private static <T> T getDone(Future<T> future) {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void inferScope(TypedScope scope, ControlFlowGraph<Node> cfg) {
     TypeInference typeInference =
         new TypeInference(
             compiler, cfg, reverseInterpreter, scope, scopeCreator, assertionFunctionLookup);
@@ -182,7 +247,10 @@ class TypeInferencePass {
     }
   }
 
-  private class SecondScopeBuildingCallback extends AbstractScopedCallback {
+  private static class SecondScopeBuildingCallback extends AbstractScopedCallback {
+    // The scopes to infer, in pre-order.
+    private final List<TypedScope> scopesToInfer = new ArrayList<>();
+
     @Override
     public void enterScope(NodeTraversal t) {
       // Only infer the entry root, rather than the scope root.
@@ -192,7 +260,8 @@ class TypeInferencePass {
       if (scope.isCfgRootScope() && !scope.isModuleScope()) {
         // ignore scopes that don't have their own CFGs and module scopes, which are visited
         // as if they were a regular script.
-        inferScope(t.getCurrentNode(), scope);
+        checkState(scope.getRootNode() == t.getCurrentNode());
+        scopesToInfer.add(scope);
       }
     }
 
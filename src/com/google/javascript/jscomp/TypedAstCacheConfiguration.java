@@ -0,0 +1,382 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimap;
+import com.google.javascript.jscomp.CompilerOptions.BrowserFeaturesetYear;
+import com.google.javascript.jscomp.parsing.parser.FeatureSet;
+import java.lang.reflect.Field;
+import java.lang.reflect.RecordComponent;
+import java.util.Collection;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Describes the compiler options that a serialized TypedAST depends on, for the configuration of a
+ * {@link com.google.javascript.jscomp.serialization.TypedAstCache}.
+ *
+ * <p>Every field of {@link CompilerOptions} is listed either in {@link #OPTIONS} or in {@link
+ * #IGNORED_OPTIONS}, which TypedAstCacheConfigurationTest checks. An option added to
+ * CompilerOptions has to be added to one of them.
+ */
+final class TypedAstCacheConfiguration {
+
+  /** The options that can change the TypedAST. */
+  static final ImmutableSet<String> OPTIONS =
+      ImmutableSet.of(
+          "aliasStringsMode",
+          "allowDynamicImport",
+          "ambiguateProperties",
+          "angularPass",
+          "applyInputSourceMaps",
+          "assumeClosuresOnlyCaptureReferences",
+          "assumeForwardDeclaredForMissingTypes",
+          "assumeGettersArePure",
+          "assumeStaticInheritanceIsNotUsed",
+          "assumeStrictThis",
+          "browserFeaturesetYear",
+          "browserResolverPrefixReplacements",
+          "checkSuspiciousCode",
+          "checkSymbols",
+          "checkTypes",
+          "checksOnly",
+          "chromePass",
+          "chunkIdHashFunction",
+          "chunkOutputType",
+          "closurePass",
+          "coalesceVariableNames",
+          "codingConvention",
+          "collapseAnonymousFunctions",
+          "collapseObjectLiterals",
+          "collapsePropertiesLevel",
+          "collapseVariableDeclarations",
+          "computeFunctionSideEffects",
+          "continueAfterErrors",
+          "convertToDottedProperties",
+          "crossChunkCodeMotion",
+          "crossChunkCodeMotionNoStubMethods",
+          "crossChunkMethodMotion",
+          "cssRenamingMap",
+          "cssRenamingSkiplist",
+          "customPasses",
+          "deadAssignmentElimination",
+          "defineReplacements",
+          "dependencyOptions",
+          "devMode",
+          "devirtualizeMethods",
+          "diagnoseAsyncContextSafariCrash",
+          "disambiguateProperties",
+          "doLateLocalization",
+          "dynamicImportAlias",
+          "emitUseStrict",
+          "enableModuleRewriting",
+          "enableZonesDefineName",
+          "environment",
+          "es6ModuleTranspilation",
+          "experimentalForceTranspiles",
+          "exportLocalPropertyDefinitions",
+          "exportTestFunctions",
+          "extraAnnotationNames",
+          "extractPrototypeMemberDeclarations",
+          "flowSensitiveInlineVariables",
+          "foldConstants",
+          "forceLibraryInjection",
+          "gatherCssNames",
+          "generateExports",
+          "generatePseudoNames",
+          "gentsMode",
+          "idGenerators",
+          "idGeneratorsMapSerialized",
+          "incrementalCheckMode",
+          "inferConsts",
+          "inferTypes",
+          "injectPolyfillsNewerThan",
+          "inlineConstantVars",
+          "inlineFunctionsLevel",
+          "inlineGetters",
+          "inlineLocalVariables",
+          "inlineProperties",
+          "inlineVariables",
+          "inputPropertyMap",
+          "inputVariableMap",
+          "instrumentAsyncContext",
+          "instrumentForCoverageOnly",
+          "instrumentForCoverageOption",
+          "isStrictModeInput",
+          "isolatePolyfills",
+          "j2clMinifierEnabled",
+          "j2clMinifierPruningManifest",
+          "j2clPassMode",
+          "labelRenaming",
+          "languageIn",
+          "languageOutIsDefaultStrict",
+          "locale",
+          "markAsCompiled",
+          "maxFunctionSizeAfterInlining",
+          "mergedPrecompiledLibraries",
+          "messageBundle",
+          "moduleResolutionMode",
+          "moduleRoots",
+          "optimizationLoopMaxIterations",
+          "optimizeCalls",
+          "optimizeESClassConstructors",
+          "outputFeatureSet",
+          "outputJs",
+          "outputJsStringUsage",
+          "packageJsonEntryNames",
+          "parentChunkCanSeeSymbolsDeclaredInChildren",
+          "parseInlineSourceMaps",
+          "parseJsDocDocumentation",
+          "pathEscaper",
+          "polymerPass",
+          "preferStableNames",
+          "preserveClosurePrimitives",
+          "preserveDetailedSourceInfo",
+          "preserveNonJSDocComments",
+          "preserveTypeAnnotations",
+          "preventLibraryInjection",
+          "processCommonJSModules",
+          "productionInstrumentationArrayName",
+          "propertiesThatMustDisambiguate",
+          "propertyRenaming",
+          "propertyRenamingOnlyCompilationMode",
+          "protectHiddenSideEffects",
+          "removeAbstractMethods",
+          "removeClosureAsserts",
+          "removeJ2clAsserts",
+          "removeUnusedClassProperties",
+          "removeUnusedConstructorProperties",
+          "removeUnusedLocalVars",
+          "removeUnusedPrototypeProperties",
+          "removeUnusedVars",
+          "renamePrefix",
+          "renamePrefixNamespace",
+          "renamePrefixNamespaceAssumeCrossChunkNames",
+          "replaceIdGenerators",
+          "replaceMessagesWithChromeI18n",
+          "replaceStringsFunctionDescriptions",
+          "replaceStringsInputMap",
+          "replaceStringsPlaceholderToken",
+          "reserveRawExports",
+          "resolveSourceMapAnnotations",
+          "rewriteFunctionExpressions",
+          "rewriteGlobalDeclarationsForTryCatchWrapping",
+          "rewriteModulesBeforeTypechecking",
+          "rewritePolyfills",
+          "serializeExtraDebugInfo",
+          "skipNonTranspilationPasses",
+          "smartNameRemoval",
+          "strictMessageReplacement",
+          "stripNamePrefixes",
+          "stripNameSuffixes",
+          "stripTypes",
+          "syntheticBlockEndMarker",
+          "syntheticBlockStartMarker",
+          "tcProjectId",
+          "tweakProcessing",
+          "unusedImportsToRemove",
+          "useSizeHeuristicToStopOptimizationLoop",
+          "useTypesForLocalOptimization",
+          "variableRenaming",
+          "wrapGoogModulesForWhitespaceOnly",
+          "xidHashFunction",
+          "zoneInputPattern");
+
+  /**
+   * The options that can't change the TypedAST: those for threads, logging, diagnostics, other
+   * outputs and printing, and those only read by optimizations.
+   */
+  static final ImmutableSet<String> IGNORED_OPTIONS =
+      ImmutableSet.of(
+          "aliasHandler",
+          "checkDeterminism",
+          "chunksToPrintAfterEachPassRegexList",
+          "colorizeErrorOutput",
+          "conformanceConfigs",
+          "conformanceRemoveRegexFromPath",
+          "conformanceReportingMode",
+          "debugLogDirectory",
+          "debugLogFilter",
+          "errorFormat",
+          "errorHandler",
+          "externExportsPath",
+          "extraReportGenerators",
+          "filesToPrintAfterEachPassRegexList",
+          "inputDelimiter",
+          "inputSourceMaps",
+          "lineBreak",
+          "lineLengthThreshold",
+          "nameGenerator",
+          "numParallelThreads",
+          "outputCharset",
+          "preferSingleQuotes",
+          "prettyPrint",
+          "printConfig",
+          "printExterns",
+          "printInputDelimiter",
+          "printSourceAfterEachPass",
+          "qnameUsesToPrintAfterEachPassList",
+          "quoteKeywordProperties",
+          "reuseParsedInputsAcrossCompilations",
+          "shouldAlwaysGatherSourceMapInfo",
+          "sourceMapDetailLevel",
+          "sourceMapFormat",
+          "sourceMapIncludeSourcesContent",
+          "sourceMapLocationMappings",
+          "sourceMapOutputPath",
+          "summaryDetailLevel",
+          "tracer",
+          "tracerOutput",
+          "trustedStrings",
+          "typedAstCacheDirectory",
+          "typedAstCacheMaxSizeInBytes",
+          "typedAstOutputFile",
+          "useOriginalNamesInOutput",
+          "warningsGuard");
+
+  private static final ImmutableList<Field> FIELDS =
+      OPTIONS.stream().map(TypedAstCacheConfiguration::getField).collect(toImmutableList());
+
+  private static Field getField(String name) {
+    try {
+      Field field = CompilerOptions.class.getDeclaredField(name);
+      field.setAccessible(true);
+      return field;
+    } catch (NoSuchFieldException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Returns the compiler version and the values of {@link #OPTIONS}, one per line, or null if an
+   * option has a value that can't be described in a way that is the same in every compilation,
+   * such as a custom coding convention or message bundle.
+   */
+  static @Nullable String describe(String compilerVersion, CompilerOptions options) {
+    StringBuilder sb = new StringBuilder(compilerVersion);
+    for (Field field : FIELDS) {
+      Object value;
+      try {
+        value = field.get(options);
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException(e);
+      }
+      if (!describeValue(value, sb.append('\n').append(field.getName()).append('='))) {
+        return null;
+      }
+    }
+    return sb.toString();
+  }
+
+  /** Appends a description of {@code value} to {@code sb}, or returns false if there is none. */
+  private static boolean describeValue(@Nullable Object value, StringBuilder sb) {
+    if (value instanceof String string) {
+      // Prefixed with the length, so that strings can't run into the next value.
+      sb.append(string.length()).append('"').append(string);
+      return true;
+    } else if (value == null
+        || value instanceof Boolean
+        || value instanceof Number) {
+      sb.append(value);
+      return true;
+    } else if (value instanceof Enum<?> e) {
+      sb.append(e.name());
+      return true;
+    } else if (value instanceof Pattern pattern) {
+      sb.append(pattern.pattern()).append('/').append(pattern.flags());
+      return true;
+    } else if (value instanceof FeatureSet featureSet) {
+      return describeValue(featureSet.getFeatures(), sb);
+    } else if (value instanceof BrowserFeaturesetYear year) {
+      sb.append(year.getYear());
+      return true;
+    } else if (value instanceof CodingConvention convention) {
+      return describeCodingConvention(convention, sb);
+    } else if (value instanceof Optional<?> optional) {
+      return describeValue(optional.orNull(), sb.append("Optional:"));
+    } else if (value instanceof Multimap<?, ?> multimap) {
+      return describeValue(multimap.asMap(), sb);
+    } else if (value instanceof Map<?, ?> map) {
+      sb.append('{');
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        if (!describeValue(entry.getKey(), sb)
+            || !describeValue(entry.getValue(), sb.append(':'))) {
+          return false;
+        }
+        sb.append(',');
+      }
+      sb.append('}');
+      return true;
+    } else if (value instanceof Collection<?> collection) {
+      sb.append('[');
+      for (Object element : collection) {
+        if (!describeValue(element, sb)) {
+          return false;
+        }
+        sb.append(',');
+      }
+      sb.append(']');
+      return true;
+    } else if (value.getClass().isRecord()) {
+      sb.append(value.getClass().getSimpleName()).append('(');
+      for (RecordComponent component : value.getClass().getRecordComponents()) {
+        Object componentValue;
+        try {
+          componentValue = component.getAccessor().invoke(value);
+        } catch (ReflectiveOperationException e) {
+          throw new IllegalStateException(e);
+        }
+        if (!describeValue(componentValue, sb.append(component.getName()).append('='))) {
+          return false;
+        }
+        sb.append(',');
+      }
+      sb.append(')');
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Describes the coding conventions of the compiler, which only depend on the conventions they
+   * wrap.
+   */
+  private static boolean describeCodingConvention(CodingConvention convention, StringBuilder sb) {
+    Class<?> type = convention.getClass();
+    if (type == CodingConventions.getDefault().getClass()) {
+      sb.append("default");
+      return true;
+    } else if (type == ClosureCodingConvention.class
+        || type == GoogleCodingConvention.class
+        || type == ChromeCodingConvention.class) {
+      sb.append(type.getSimpleName()).append('(');
+      boolean described =
+          describeCodingConvention(((CodingConventions.Proxy) convention).nextConvention, sb);
+      sb.append(')');
+      return described;
+    }
+    return false;
+  }
+
+  private TypedAstCacheConfiguration() {}
+}
@@ -16,14 +16,47 @@
 
 package com.google.javascript.jscomp.bundle;
 
+import static com.google.javascript.jscomp.bundle.PersistentCache.newKeyHasher;
+import static com.google.javascript.jscomp.bundle.PersistentCache.putString;
+import static com.google.javascript.jscomp.bundle.PersistentCache.readString;
+import static com.google.javascript.jscomp.bundle.PersistentCache.writeString;
+
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
 
-/** A Transformer that caches output from a delegate transformer. */
+/**
+ * A Transformer that caches output from a delegate transformer.
+ *
+ * <p>Sources that are not cached in memory can also be looked up in a {@link PersistentCache}, so
+ * that they survive restarts. Their keys are a hash of the version of the compiler, of every
+ * property of the input source and of a configuration describing the delegate.
+ */
 public class CachedTransformer implements Source.Transformer {
 
-  private static final String DEFAULT_CACHE_SPEC = "maximumSize=10000";
+  private static final String DEFAULT_CACHE_SPEC = "maximumWeight=50000000";
+
+  /**
+   * Weighs a cached transformation by the length of the input and output code and the output
+   * source map, to bound the memory used by a cache built with {@link CacheBuilder#maximumWeight}.
+   */
+  public static final Weigher<Source, Source> CODE_SIZE_WEIGHER =
+      (input, output) ->
+          input.code().length() + output.code().length() + output.sourceMap().length();
 
   private final LoadingCache<Source, Source> cache;
 
@@ -32,16 +65,124 @@ public class CachedTransformer implements Source.Transformer {
     this.cache = builder.build(CacheLoader.from(delegate::transform));
   }
 
+  /**
+   * Creates a transformer that looks sources missing from memory up in {@code persistentCache}
+   * before delegating.
+   *
+   * @param configuration describes how the delegate transforms sources, so that transformers with
+   *     different output don't share persistent entries.
+   */
+  public CachedTransformer(
+      Source.Transformer delegate,
+      CacheBuilder<? super Source, ? super Source> builder,
+      PersistentCache persistentCache,
+      String configuration) {
+    this.cache =
+        builder.build(
+            CacheLoader.from(
+                (Source input) ->
+                    persistentCache.get(
+                        hash(configuration, input),
+                        CachedTransformer::decode,
+                        () -> delegate.transform(input),
+                        CachedTransformer::encode)));
+  }
+
   public CachedTransformer(Source.Transformer delegate, String spec) {
     this(delegate, CacheBuilder.from(spec));
   }
 
   public CachedTransformer(Source.Transformer delegate) {
-    this(delegate, DEFAULT_CACHE_SPEC);
+    this(delegate, CacheBuilder.from(DEFAULT_CACHE_SPEC).weigher(CODE_SIZE_WEIGHER));
   }
 
   @Override
   public Source transform(Source input) {
     return cache.getUnchecked(input);
   }
+
+  /**
+   * Returns the statistics of the in-memory cache, which are only recorded if the cache builder
+   * was set to {@link CacheBuilder#recordStats}.
+   */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  private static HashCode hash(String configuration, Source source) {
+    Hasher hasher = newKeyHasher();
+    putString(hasher, configuration);
+    putString(hasher, source.path().toString());
+    putString(hasher, source.code());
+    putString(hasher, source.originalCode());
+    putString(hasher, source.sourceMap());
+    putString(hasher, source.sourceUrl());
+    putString(hasher, source.sourceMappingUrl());
+    hasher.putInt(source.runtimes().size());
+    for (String runtime : source.runtimes()) {
+      putString(hasher, runtime);
+    }
+    hasher.putInt(source.loadFlags().size());
+    for (Map.Entry<String, String> flag : source.loadFlags().entrySet()) {
+      putString(hasher, flag.getKey());
+      putString(hasher, flag.getValue());
+    }
+    return hasher.putInt(source.estimatedSize()).hash();
+  }
+
+  private static byte[] encode(Source source) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      writeString(out, source.path().toString());
+      writeString(out, source.code());
+      writeString(out, source.originalCode());
+      writeString(out, source.sourceMap());
+      writeString(out, source.sourceUrl());
+      writeString(out, source.sourceMappingUrl());
+      out.writeInt(source.runtimes().size());
+      for (String runtime : source.runtimes()) {
+        writeString(out, runtime);
+      }
+      out.writeInt(source.loadFlags().size());
+      for (Map.Entry<String, String> flag : source.loadFlags().entrySet()) {
+        writeString(out, flag.getKey());
+        writeString(out, flag.getValue());
+      }
+      out.writeInt(source.estimatedSize());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Source decode(byte[] entry) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry))) {
+      Source.Builder source =
+          Source.builder()
+              .setPath(Path.of(readString(in)))
+              .setCode(readString(in))
+              .setOriginalCode(readString(in))
+              .setSourceMap(readString(in))
+              .setSourceUrl(readString(in))
+              .setSourceMappingUrl(readString(in));
+      ImmutableSet.Builder<String> runtimes = ImmutableSet.builder();
+      for (int i = in.readInt(); i > 0; i--) {
+        runtimes.add(readString(in));
+      }
+      ImmutableMap.Builder<String, String> loadFlags = ImmutableMap.builder();
+      for (int i = in.readInt(); i > 0; i--) {
+        loadFlags.put(readString(in), readString(in));
+      }
+      return source
+          .setRuntimes(runtimes.build())
+          .setLoadFlags(loadFlags.buildOrThrow())
+          .setEstimatedSize(in.readInt())
+          .build();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (IllegalArgumentException e) {
+      // An invalid path or duplicate load flags.
+      throw new UncheckedIOException(new IOException("Corrupt cache entry", e));
+    }
+  }
 }
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.bundle;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.javascript.jscomp.Compiler;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The second tier of the transformation caches, which keeps transformed code across restarts.
+ *
+ * <p>{@link CachedTransformer} and {@link com.google.javascript.jscomp.transpile.CachingTranspiler}
+ * look a transformation up here when it is not in memory, and {@link
+ * com.google.javascript.jscomp.deps.DepsGenerator} keeps the dependencies it finds in each file
+ * here. Entries are keyed on a hash of the version of the compiler, of the content that was
+ * transformed and of everything else the output depends on, so an entry never needs to be
+ * invalidated. Failing to read or write an entry is logged and treated as a miss, since the
+ * transformation can always run again.
+ *
+ * <p>Safe to use from several threads.
+ */
+public final class PersistentCache {
+  private static final Logger logger = Logger.getLogger(PersistentCache.class.getName());
+
+  /** Where the entries are kept. */
+  public interface Storage {
+    /** Returns the entry for the key, or null if there is none. */
+    byte @Nullable [] read(HashCode key) throws IOException;
+
+    /** Stores the entry for the key, replacing any entry that is already there. */
+    void write(HashCode key, byte[] value) throws IOException;
+
+    /** Returns the number of entries deleted to keep the storage within its maximum size. */
+    default long evictionCount() {
+      return 0;
+    }
+  }
+
+  private static final long DEFAULT_MAX_SIZE_IN_BYTES = 1L << 30;
+
+  private final Storage storage;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder loadSuccesses = new LongAdder();
+  private final LongAdder loadExceptions = new LongAdder();
+  private final LongAdder totalLoadTime = new LongAdder();
+
+  public PersistentCache(Storage storage) {
+    this.storage = storage;
+  }
+
+  /**
+   * Returns a cache that keeps each entry in a file in {@code directory}, deleting the least
+   * recently used entries once the directory grows beyond 1 GiB.
+   */
+  public static PersistentCache inDirectory(Path directory) {
+    return inDirectory(directory, DEFAULT_MAX_SIZE_IN_BYTES);
+  }
+
+  /**
+   * Returns a cache that keeps each entry in a file in {@code directory}, deleting the least
+   * recently used entries once the directory grows beyond {@code maxSizeInBytes}. Builds of the
+   * compiler without a version share their entries, so their directory should be cleared when the
+   * compiler changes.
+   */
+  public static PersistentCache inDirectory(Path directory, long maxSizeInBytes) {
+    checkArgument(maxSizeInBytes > 0, "maxSizeInBytes must be positive: %s", maxSizeInBytes);
+    return new PersistentCache(new DirectoryStorage(directory, maxSizeInBytes));
+  }
+
+  /**
+   * Returns the value stored for the key, or loads, stores and returns it.
+   *
+   * @param decoder turns a stored entry back into a value, throwing {@link UncheckedIOException}
+   *     if the entry is corrupt
+   * @param loader computes the value on a miss; exceptions it throws are passed on and nothing is
+   *     stored
+   * @param encoder turns a loaded value into an entry to store
+   */
+  public <T> T get(
+      HashCode key, Function<byte[], T> decoder, Supplier<T> loader, Function<T, byte[]> encoder) {
+    T cached = getIfPresent(key, decoder);
+    if (cached != null) {
+      return cached;
+    }
+
+    long start = System.nanoTime();
+    T value;
+    try {
+      value = loader.get();
+    } catch (RuntimeException e) {
+      loadExceptions.increment();
+      throw e;
+    } finally {
+      totalLoadTime.add(System.nanoTime() - start);
+    }
+    loadSuccesses.increment();
+    write(key, encoder.apply(value));
+    return value;
+  }
+
+  /**
+   * Returns the value stored for the key, or null if there is none. Unlike {@link #get}, nothing is
+   * stored on a miss, so that the caller can decide with {@link #put} whether the value is worth
+   * keeping.
+   */
+  public <T> @Nullable T getIfPresent(HashCode key, Function<byte[], T> decoder) {
+    byte[] entry = read(key);
+    if (entry != null) {
+      try {
+        T value = decoder.apply(entry);
+        hits.increment();
+        return value;
+      } catch (UncheckedIOException e) {
+        logger.log(Level.WARNING, "Cannot decode cache entry " + key, e);
+      }
+    }
+    misses.increment();
+    return null;
+  }
+
+  /** Stores the entry for the key, replacing any entry that is already there. */
+  public void put(HashCode key, byte[] value) {
+    write(key, value);
+  }
+
+  /**
+   * Returns the number of lookups that found an entry and that had to load the value, the time
+   * spent loading, and the number of entries the storage deleted to stay within its maximum size.
+   */
+  public CacheStats stats() {
+    return new CacheStats(
+        hits.sum(),
+        misses.sum(),
+        loadSuccesses.sum(),
+        loadExceptions.sum(),
+        totalLoadTime.sum(),
+        storage.evictionCount());
+  }
+
+  /**
+   * Returns a hasher for the key of an entry, which already has the version of the compiler in it
+   * so that entries of other versions are never read.
+   */
+  public static Hasher newKeyHasher() {
+    Hasher hasher = Hashing.sha256().newHasher();
+    putString(hasher, Compiler.getCompilerVersion());
+    return hasher;
+  }
+
+  /**
+   * Hashes the length of the string before the string, so that the strings of a key made of several
+   * strings can't run together.
+   */
+  public static void putString(Hasher hasher, String string) {
+    hasher.putInt(string.length()).putString(string, UTF_8);
+  }
+
+  /** Writes the string as its length in UTF-8 bytes followed by the bytes. */
+  public static void writeString(DataOutputStream out, String string) throws IOException {
+    byte[] bytes = string.getBytes(UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /** Reads a string written by {@link #writeString}, checking that the entry is long enough. */
+  public static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0 || length > in.available()) {
+      throw new IOException("Corrupt cache entry");
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  private byte @Nullable [] read(HashCode key) {
+    try {
+      return storage.read(key);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Cannot read cache entry " + key, e);
+      return null;
+    }
+  }
+
+  private void write(HashCode key, byte[] value) {
+    try {
+      storage.write(key, value);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Cannot write cache entry " + key, e);
+    }
+  }
+
+  /** Returns the file that {@link #inDirectory} keeps the entry for the key in. */
+  @VisibleForTesting
+  static Path entryFile(Path directory, HashCode key) {
+    return directory.resolve(key + DirectoryStorage.ENTRY_FILE_SUFFIX);
+  }
+
+  /**
+   * Keeps each entry in a file named after its key. Reading an entry marks it as used, and writing
+   * one deletes the least recently used entries when the directory has grown too large.
+   *
+   * <p>Only files with the entry suffix count as entries, so other files in the directory are
+   * never deleted.
+   */
+  private static final class DirectoryStorage implements Storage {
+    private static final String ENTRY_FILE_SUFFIX = ".entry";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final long maxSizeInBytes;
+    private final LongAdder evictions = new LongAdder();
+
+    // The size of the entries when the directory was last listed, plus the size of those written
+    // since. Negative until the directory is first listed. Guarded by this.
+    private long sizeInBytes = -1;
+
+    DirectoryStorage(Path directory, long maxSizeInBytes) {
+      this.directory = directory;
+      this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    @Override
+    public byte @Nullable [] read(HashCode key) throws IOException {
+      Path entry = entryFile(directory, key);
+      byte[] value;
+      try {
+        value = Files.readAllBytes(entry);
+      } catch (NoSuchFileException e) {
+        return null;
+      }
+      try {
+        Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+      } catch (IOException e) {
+        // Evicted by another process, or the cache is read-only. The entry is still valid.
+      }
+      return value;
+    }
+
+    @Override
+    public void write(HashCode key, byte[] value) throws IOException {
+      Files.createDirectories(directory);
+      // Write to a new file first, so that other processes never read a partial entry.
+      Path tempFile = Files.createTempFile(directory, key.toString(), TEMP_FILE_SUFFIX);
+      try {
+        Files.write(tempFile, value);
+        Files.move(tempFile, entryFile(directory, key), REPLACE_EXISTING, ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tempFile);
+      }
+      addSize(value.length);
+    }
+
+    @Override
+    public long evictionCount() {
+      return evictions.sum();
+    }
+
+    private synchronized void addSize(long entrySizeInBytes) throws IOException {
+      if (sizeInBytes >= 0 && sizeInBytes + entrySizeInBytes <= maxSizeInBytes) {
+        sizeInBytes += entrySizeInBytes;
+        return;
+      }
+      sizeInBytes = evictLeastRecentlyUsed();
+    }
+
+    /**
+     * Lists the entries and, if they are larger than the maximum size, deletes the least recently
+     * used until they fit in nine tenths of it, so that the next writes don't list the directory
+     * again. Returns the size of the entries left.
+     */
+    private long evictLeastRecentlyUsed() throws IOException {
+      List<Entry> entries = new ArrayList<>();
+      long totalSize = 0;
+      try (Stream<Path> files = Files.list(directory)) {
+        for (Path file : (Iterable<Path>) files::iterator) {
+          if (!file.getFileName().toString().endsWith(ENTRY_FILE_SUFFIX)) {
+            continue;
+          }
+          try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            entries.add(new Entry(file, attributes.lastModifiedTime(), attributes.size()));
+            totalSize += attributes.size();
+          } catch (NoSuchFileException e) {
+            // Deleted by another process.
+          }
+        }
+      }
+      if (totalSize <= maxSizeInBytes) {
+        return totalSize;
+      }
+
+      entries.sort(Comparator.comparing(Entry::lastUsed));
+      long targetSize = maxSizeInBytes - maxSizeInBytes / 10;
+      for (int i = 0; i < entries.size() && totalSize > targetSize; i++) {
+        if (Files.deleteIfExists(entries.get(i).file())) {
+          evictions.increment();
+        }
+        totalSize -= entries.get(i).size();
+      }
+      return totalSize;
+    }
+
+    private record Entry(Path file, FileTime lastUsed, long size) {}
+  }
+}
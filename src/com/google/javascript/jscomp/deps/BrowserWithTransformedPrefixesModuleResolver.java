@@ -17,12 +17,14 @@
 package com.google.javascript.jscomp.deps;
 
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.javascript.jscomp.bundle.PersistentCache.putString;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.joining;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
 import com.google.javascript.jscomp.CheckLevel;
 import com.google.javascript.jscomp.DiagnosticType;
 import com.google.javascript.jscomp.ErrorHandler;
@@ -105,6 +107,16 @@ public class BrowserWithTransformedPrefixesModuleResolver extends ModuleResolver
             .collect(joining(", "));
   }
 
+  @Override
+  protected void hashResolution(Hasher hasher) {
+    super.hashResolution(hasher);
+    hasher.putInt(prefixReplacements.size());
+    for (PrefixReplacement replacement : prefixReplacements) {
+      putString(hasher, replacement.prefix());
+      putString(hasher, replacement.replacement());
+    }
+  }
+
   @Override
   public @Nullable String resolveJsModule(
       String scriptAddress, String moduleAddress, String sourcename, int lineno, int colno) {
@@ -82,7 +82,7 @@ public interface DependencyInfo {
       return builder().setRawText(symbol).setSymbol(symbol).setType(Type.PARSED_FROM_DEPS).build();
     }
 
-    private static Builder builder() {
+    static Builder builder() {
       return new AutoValue_DependencyInfo_Require.Builder();
     }
 
@@ -16,33 +16,56 @@
 
 package com.google.javascript.jscomp.deps;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.javascript.jscomp.bundle.PersistentCache.newKeyHasher;
+import static com.google.javascript.jscomp.bundle.PersistentCache.putString;
+import static com.google.javascript.jscomp.bundle.PersistentCache.readString;
+import static com.google.javascript.jscomp.bundle.PersistentCache.writeString;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimaps;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.javascript.jscomp.CheckLevel;
 import com.google.javascript.jscomp.Compiler;
 import com.google.javascript.jscomp.CompilerInput;
 import com.google.javascript.jscomp.CompilerOptions;
 import com.google.javascript.jscomp.DiagnosticType;
+import com.google.javascript.jscomp.ErrorHandler;
 import com.google.javascript.jscomp.ErrorManager;
 import com.google.javascript.jscomp.JSError;
 import com.google.javascript.jscomp.LazyParsedDependencyInfo;
+import com.google.javascript.jscomp.SortingErrorManager;
 import com.google.javascript.jscomp.SourceFile;
+import com.google.javascript.jscomp.bundle.PersistentCache;
 import com.google.javascript.jscomp.deps.DependencyInfo.Require;
 import com.google.javascript.jscomp.deps.ModuleLoader.ModulePath;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -62,6 +85,11 @@ public class DepsGenerator {
 
   private static final Logger logger = Logger.getLogger(DepsGenerator.class.getName());
 
+  // How many files each thread may have read ahead of the file whose results are added next.
+  private static final int PENDING_FILES_PER_THREAD = 4;
+  // Changes whenever the encoding of cached dependency information changes.
+  private static final int CACHE_FORMAT_VERSION = 1;
+
   // See the Flags in MakeJsDeps for descriptions of these.
   private final Collection<SourceFile> srcs;
   private final Collection<SourceFile> deps;
@@ -69,6 +97,12 @@ public class DepsGenerator {
   private final InclusionStrategy mergeStrategy;
   private final ModuleLoader loader;
   final ErrorManager errorManager;
+  private int numParallelThreads = 1;
+  private @Nullable PersistentCache cache;
+  // Hashes how the loader resolves module paths, once for all the cached files.
+  private @Nullable HashCode resolutionHash;
+  // What the loader reports while a thread parses a source file, which is kept with the file.
+  private final ThreadLocal<List<LoaderReport>> loaderReports = new ThreadLocal<>();
 
   static final DiagnosticType ES6_IMPORT_FOR_NON_ES6_MODULE =
       DiagnosticType.warning(
@@ -118,6 +152,33 @@ public class DepsGenerator {
     this.loader = loader;
   }
 
+  /**
+   * Sets the number of threads that parse the source files. With more than one thread, each file is
+   * also parsed for its load flags as soon as it is read, so that it is only read once, and only a
+   * few files per thread are in memory at a time.
+   */
+  public DepsGenerator setNumParallelThreads(int numParallelThreads) {
+    checkArgument(numParallelThreads > 0, "Expected a positive number: %s", numParallelThreads);
+    this.numParallelThreads = numParallelThreads;
+    return this;
+  }
+
+  /**
+   * Sets where the dependencies found in each source file are kept, so that files whose name and
+   * code haven't changed since an earlier run aren't parsed again. The entries are also keyed on
+   * the version of the compiler and on how the module loader resolves paths, so the cache can be
+   * shared with other generators.
+   */
+  public DepsGenerator setCache(@Nullable PersistentCache cache) {
+    this.cache = cache;
+    if (cache != null && resolutionHash == null) {
+      Hasher hasher = Hashing.sha256().newHasher();
+      loader.hashResolution(hasher);
+      resolutionHash = hasher.hash();
+    }
+    return this;
+  }
+
   /**
    * Performs the parsing inputs and writing of outputs.
    *
@@ -454,11 +515,8 @@ public class DepsGenerator {
    */
   private Map<String, DependencyInfo> parseSources(
       Set<String> preparsedFiles) throws IOException {
-    Map<String, DependencyInfo> parsedFiles = new LinkedHashMap<>();
-    JsFileRegexParser jsParser = new JsFileRegexParser(errorManager).setModuleLoader(loader);
-    Compiler compiler = new Compiler();
-    compiler.init(ImmutableList.of(), ImmutableList.of(), new CompilerOptions());
-
+    List<SourceFile> files = new ArrayList<>();
+    List<String> closureRelativePaths = new ArrayList<>();
     for (SourceFile file : srcs) {
       String closureRelativePath =
           PathUtil.makeRelative(
@@ -468,24 +526,283 @@ public class DepsGenerator {
       }
       if (InclusionStrategy.WHEN_IN_SRCS == mergeStrategy ||
           !preparsedFiles.contains(closureRelativePath)) {
-        DependencyInfo depInfo =
-            jsParser.parseFile(
-                file.getName(), closureRelativePath,
-                file.getCode());
-        depInfo = new LazyParsedDependencyInfo(depInfo, new CompilerInput(file), compiler);
-
-        // Skip externs files, which should never be loaded.
-        if (depInfo.getHasExternsAnnotation()) {
-          continue;
+        files.add(file);
+        closureRelativePaths.add(closureRelativePath);
+      }
+    }
+
+    Map<String, DependencyInfo> parsedFiles = new LinkedHashMap<>();
+    // The loader reports the imports it can't resolve while a file is parsed, possibly on another
+    // thread. Keep the reports with the file, so that a file with reports isn't cached and the
+    // reports are passed on in the order of the files.
+    ErrorHandler loaderErrorHandler = loader.getErrorHandler();
+    loader.setErrorHandler(
+        (CheckLevel level, JSError error) -> {
+          List<LoaderReport> reports = loaderReports.get();
+          if (reports != null) {
+            reports.add(new LoaderReport(level, error));
+          } else {
+            loaderErrorHandler.report(level, error);
+          }
+        });
+    try {
+      if (numParallelThreads > 1 && files.size() > 1) {
+        parseSourcesInParallel(files, closureRelativePaths, parsedFiles, loaderErrorHandler);
+      } else {
+        Compiler compiler = createCompiler();
+        for (int i = 0; i < files.size(); i++) {
+          String closureRelativePath = closureRelativePaths.get(i);
+          addParsedSource(
+              parsedFiles,
+              closureRelativePath,
+              parseSource(
+                  files.get(i), closureRelativePath, compiler, /* resolveLoadFlags= */ false),
+              loaderErrorHandler);
+        }
+      }
+    } finally {
+      loader.setErrorHandler(loaderErrorHandler);
+    }
+    return parsedFiles;
+  }
+
+  /**
+   * Parses the source files on several threads. Only a few files per thread are read ahead of the
+   * file whose results are added next, so the code of all files is never in memory at once.
+   */
+  private void parseSourcesInParallel(
+      List<SourceFile> files,
+      List<String> closureRelativePaths,
+      Map<String, DependencyInfo> parsedFiles,
+      ErrorHandler loaderErrorHandler)
+      throws IOException {
+    // Deps are generated outside a compilation, so there are no compiler threads to borrow.
+    ExecutorService poolExecutor =
+        Executors.newFixedThreadPool(
+            numParallelThreads,
+            (Runnable r) -> {
+              Thread t = new Thread(r, "DepsGenerator");
+              t.setDaemon(true); // Do not prevent the JVM from exiting.
+              return t;
+            });
+    // A Compiler can only parse one file at a time, so each thread has its own.
+    ThreadLocal<Compiler> compilers = ThreadLocal.withInitial(DepsGenerator::createCompiler);
+    int maxPendingFiles = PENDING_FILES_PER_THREAD * numParallelThreads;
+    Deque<Future<ParsedSource>> pendingFiles = new ArrayDeque<>();
+    try {
+      int next = 0;
+      for (int i = 0; i < files.size(); i++) {
+        for (; next < files.size() && pendingFiles.size() < maxPendingFiles; next++) {
+          SourceFile file = files.get(next);
+          String closureRelativePath = closureRelativePaths.get(next);
+          pendingFiles.add(
+              poolExecutor.submit(
+                  () ->
+                      parseSource(
+                          file,
+                          closureRelativePath,
+                          compilers.get(),
+                          /* resolveLoadFlags= */ true)));
         }
+        addParsedSource(
+            parsedFiles,
+            closureRelativePaths.get(i),
+            pendingFiles.remove().get(),
+            loaderErrorHandler);
+      }
+    } catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } finally {
+      poolExecutor.shutdownNow();
+    }
+  }
+
+  private static Compiler createCompiler() {
+    Compiler compiler = new Compiler();
+    compiler.init(ImmutableList.of(), ImmutableList.of(), new CompilerOptions());
+    return compiler;
+  }
 
-        // Kick the source out of memory.
+  /**
+   * Finds the dependency information of one source file. The problems found are kept in the result
+   * rather than reported, so that they are reported in the order of the files no matter which
+   * thread parsed them.
+   *
+   * @param compiler parses the file for its load flags, and must not be used by other threads
+   * @param resolveLoadFlags whether to parse the file for its load flags now, rather than when they
+   *     are written out. They are always found now when the dependencies are cached.
+   */
+  private ParsedSource parseSource(
+      SourceFile file, String closureRelativePath, Compiler compiler, boolean resolveLoadFlags)
+      throws IOException {
+    String code = file.getCode();
+    HashCode key = null;
+    if (cache != null) {
+      key = hash(file, closureRelativePath, code);
+      DependencyInfo cached = cache.getIfPresent(key, DepsGenerator::decode);
+      if (cached != null) {
         file.clearCachedSource();
-        parsedFiles.put(closureRelativePath, depInfo);
+        return new ParsedSource(cached, ImmutableList.of(), ImmutableList.of(), ImmutableList.of());
       }
     }
 
-    return parsedFiles;
+    SortingErrorManager diagnostics = new SortingErrorManager(ImmutableSet.of());
+    List<LoaderReport> fileLoaderReports = new ArrayList<>();
+    loaderReports.set(fileLoaderReports);
+    DependencyInfo depInfo;
+    try {
+      depInfo =
+          new JsFileRegexParser(diagnostics)
+              .setModuleLoader(loader)
+              .parseFile(file.getName(), closureRelativePath, code);
+    } finally {
+      loaderReports.remove();
+    }
+    if (!depInfo.getHasExternsAnnotation()) {
+      depInfo = new LazyParsedDependencyInfo(depInfo, new CompilerInput(file), compiler);
+      if (resolveLoadFlags || cache != null) {
+        // Copying the load flags parses the file while its code is still in memory.
+        depInfo = SimpleDependencyInfo.Builder.from(depInfo).build();
+      }
+    }
+
+    // Kick the source out of memory.
+    file.clearCachedSource();
+    // Files with problems are parsed again each time, so that the problems are reported again.
+    if (key != null
+        && diagnostics.getErrorCount() == 0
+        && diagnostics.getWarningCount() == 0
+        && fileLoaderReports.isEmpty()) {
+      cache.put(key, encode(depInfo));
+    }
+    return new ParsedSource(
+        depInfo,
+        diagnostics.getErrors(),
+        diagnostics.getWarnings(),
+        ImmutableList.copyOf(fileLoaderReports));
+  }
+
+  private void addParsedSource(
+      Map<String, DependencyInfo> parsedFiles,
+      String closureRelativePath,
+      ParsedSource parsed,
+      ErrorHandler loaderErrorHandler) {
+    for (JSError error : parsed.errors()) {
+      errorManager.report(CheckLevel.ERROR, error);
+    }
+    for (JSError warning : parsed.warnings()) {
+      errorManager.report(CheckLevel.WARNING, warning);
+    }
+    for (LoaderReport report : parsed.loaderReports()) {
+      loaderErrorHandler.report(report.level(), report.error());
+    }
+    // Skip externs files, which should never be loaded.
+    if (!parsed.depInfo().getHasExternsAnnotation()) {
+      parsedFiles.put(closureRelativePath, parsed.depInfo());
+    }
+  }
+
+  /**
+   * The dependency information of a source file, the problems found while parsing it, and what the
+   * module loader reported meanwhile.
+   */
+  private record ParsedSource(
+      DependencyInfo depInfo,
+      ImmutableList<JSError> errors,
+      ImmutableList<JSError> warnings,
+      ImmutableList<LoaderReport> loaderReports) {}
+
+  /** A problem that the module loader reported to its error handler. */
+  private record LoaderReport(CheckLevel level, JSError error) {}
+
+  /**
+   * Hashes everything the dependency information of a file depends on: the version of the compiler,
+   * how the module loader resolves paths, and the file.
+   */
+  private HashCode hash(SourceFile file, String closureRelativePath, String code) {
+    Hasher hasher = newKeyHasher().putInt(CACHE_FORMAT_VERSION).putBytes(resolutionHash.asBytes());
+    putString(hasher, file.getName());
+    putString(hasher, closureRelativePath);
+    putString(hasher, code);
+    return hasher.hash();
+  }
+
+  private static byte[] encode(DependencyInfo depInfo) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      writeString(out, depInfo.getName());
+      writeString(out, depInfo.getPathRelativeToClosureBase());
+      writeStrings(out, depInfo.getProvides());
+      out.writeInt(depInfo.getRequires().size());
+      for (Require require : depInfo.getRequires()) {
+        writeString(out, require.getType().name());
+        writeString(out, require.getRawText());
+        writeString(out, require.getSymbol());
+      }
+      writeStrings(out, depInfo.getTypeRequires());
+      out.writeInt(depInfo.getLoadFlags().size());
+      for (Map.Entry<String, String> flag : depInfo.getLoadFlags().entrySet()) {
+        writeString(out, flag.getKey());
+        writeString(out, flag.getValue());
+      }
+      out.writeBoolean(depInfo.getHasExternsAnnotation());
+      out.writeBoolean(depInfo.getHasNoCompileAnnotation());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static DependencyInfo decode(byte[] entry) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry))) {
+      String name = readString(in);
+      SimpleDependencyInfo.Builder depInfo =
+          SimpleDependencyInfo.builder(readString(in), name).setProvides(readStrings(in));
+      List<Require> requires = new ArrayList<>();
+      for (int i = in.readInt(); i > 0; i--) {
+        requires.add(
+            Require.builder()
+                .setType(Require.Type.valueOf(readString(in)))
+                .setRawText(readString(in))
+                .setSymbol(readString(in))
+                .build());
+      }
+      depInfo.setRequires(requires).setTypeRequires(readStrings(in));
+      Map<String, String> loadFlags = new LinkedHashMap<>();
+      for (int i = in.readInt(); i > 0; i--) {
+        loadFlags.put(readString(in), readString(in));
+      }
+      return depInfo
+          .setLoadFlags(loadFlags)
+          .setHasExternsAnnotation(in.readBoolean())
+          .setHasNoCompileAnnotation(in.readBoolean())
+          .build();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (IllegalArgumentException e) {
+      throw new UncheckedIOException(new IOException("Corrupt cache entry", e));
+    }
+  }
+
+  private static void writeStrings(DataOutputStream out, List<String> strings)
+      throws IOException {
+    out.writeInt(strings.size());
+    for (String string : strings) {
+      writeString(out, string);
+    }
+  }
+
+  private static List<String> readStrings(DataInputStream in) throws IOException {
+    List<String> strings = new ArrayList<>();
+    for (int i = in.readInt(); i > 0; i--) {
+      strings.add(readString(in));
+    }
+    return strings;
   }
 
   /**
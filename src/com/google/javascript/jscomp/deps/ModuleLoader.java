@@ -21,6 +21,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableMultiset.toImmutableMultiset;
 import static com.google.common.collect.ImmutableSortedSet.toImmutableSortedSet;
 import static com.google.common.collect.Streams.stream;
+import static com.google.javascript.jscomp.bundle.PersistentCache.putString;
 import static java.util.Comparator.naturalOrder;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -28,6 +29,7 @@ import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.javascript.jscomp.CheckLevel;
 import com.google.javascript.jscomp.DiagnosticType;
@@ -157,6 +159,16 @@ public final class ModuleLoader {
             modulePaths, this.moduleRootPaths, this.errorHandler, this.pathEscaper);
   }
 
+  /**
+   * Adds everything that resolving module paths depends on to the hasher: the module roots, how
+   * paths are resolved and escaped, and the resolver with the module paths it resolves against.
+   */
+  void hashResolution(Hasher hasher) {
+    putString(hasher, pathResolver.name());
+    // The resolver was given the module roots and path escaper of this loader.
+    moduleResolver.hashResolution(hasher);
+  }
+
   @VisibleForTesting
   public Map<String, String> getPackageJsonMainEntries() {
     return this.moduleResolver.getPackageJsonMainEntries();
@@ -16,9 +16,14 @@
 
 package com.google.javascript.jscomp.deps;
 
+import static com.google.javascript.jscomp.bundle.PersistentCache.putString;
+
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.hash.Hasher;
 import com.google.javascript.jscomp.ErrorHandler;
 import com.google.javascript.jscomp.deps.ModuleLoader.PathEscaper;
 import java.util.Map;
@@ -46,6 +51,32 @@ public abstract class ModuleResolver {
     this.pathEscaper = pathEscaper;
   }
 
+  /**
+   * Adds everything that resolution depends on to the hasher, so that whatever depends on it can be
+   * cached. Subclasses with options of their own must add them too.
+   */
+  protected void hashResolution(Hasher hasher) {
+    putString(hasher, getClass().getName());
+    putString(hasher, pathEscaper.name());
+    hasher.putInt(moduleRootPaths.size());
+    for (String moduleRootPath : moduleRootPaths) {
+      putString(hasher, moduleRootPath);
+    }
+    hasher.putInt(modulePaths.size());
+    for (String modulePath : ImmutableSortedSet.copyOf(modulePaths)) {
+      putString(hasher, modulePath);
+    }
+  }
+
+  /** Adds the entries of the map to the hasher, in the order of their keys. */
+  protected static void hashMap(Hasher hasher, Map<String, String> map) {
+    hasher.putInt(map.size());
+    for (Map.Entry<String, String> entry : ImmutableSortedMap.copyOf(map).entrySet()) {
+      putString(hasher, entry.getKey());
+      putString(hasher, entry.getValue());
+    }
+  }
+
   Map<String, String> getPackageJsonMainEntries() {
     return ImmutableMap.of();
   }
@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.hash.Hasher;
 import com.google.javascript.jscomp.CheckLevel;
 import com.google.javascript.jscomp.ErrorHandler;
 import com.google.javascript.jscomp.JSError;
@@ -182,6 +183,12 @@ public class NodeModuleResolver extends ModuleResolver {
     return builder.buildOrThrow();
   }
 
+  @Override
+  protected void hashResolution(Hasher hasher) {
+    super.hashResolution(hasher);
+    hashMap(hasher, packageJsonMainEntries);
+  }
+
   @Override
   Map<String, String> getPackageJsonMainEntries() {
     return this.packageJsonMainEntries;
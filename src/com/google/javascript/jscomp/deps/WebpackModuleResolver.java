@@ -19,6 +19,7 @@ package com.google.javascript.jscomp.deps;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
 import com.google.javascript.jscomp.ErrorHandler;
 import com.google.javascript.jscomp.deps.ModuleLoader.ModuleResolverFactory;
 import com.google.javascript.jscomp.deps.ModuleLoader.PathEscaper;
@@ -82,6 +83,12 @@ public class WebpackModuleResolver extends NodeModuleResolver {
     this.modulesById = ImmutableMap.copyOf(modulesById);
   }
 
+  @Override
+  protected void hashResolution(Hasher hasher) {
+    super.hashResolution(hasher);
+    hashMap(hasher, modulesById);
+  }
+
   @Override
   public @Nullable String resolveJsModule(
       String scriptAddress, String moduleAddress, String sourcename, int lineno, int colno) {
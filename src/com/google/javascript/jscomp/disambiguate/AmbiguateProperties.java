@@ -37,15 +37,17 @@ import com.google.javascript.jscomp.colors.StandardColors;
 import com.google.javascript.jscomp.diagnostic.LogFile;
 import com.google.javascript.jscomp.graph.AdjacencyGraph;
 import com.google.javascript.jscomp.graph.Annotation;
+import com.google.javascript.jscomp.graph.ColorInterference;
+import com.google.javascript.jscomp.graph.CompactDiGraph;
 import com.google.javascript.jscomp.graph.FixedPointGraphTraversal;
 import com.google.javascript.jscomp.graph.GraphColoring;
 import com.google.javascript.jscomp.graph.GraphColoring.GreedyGraphColoring;
 import com.google.javascript.jscomp.graph.GraphNode;
-import com.google.javascript.jscomp.graph.LinkedDirectedGraph;
 import com.google.javascript.jscomp.graph.LowestCommonAncestorFinder;
 import com.google.javascript.jscomp.graph.SubGraph;
 import com.google.javascript.rhino.Node;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
@@ -158,9 +160,9 @@ public class AmbiguateProperties implements CompilerPass {
         new ColorGraphBuilder(
             graphNodeFactory, LowestCommonAncestorFinder::new, this.colorRegistry);
     graphBuilder.addAll(graphNodeFactory.getAllKnownTypes());
-    LinkedDirectedGraph<ColorGraphNode, Object> colorGraph = graphBuilder.build();
+    CompactDiGraph<ColorGraphNode, Object> colorGraph = graphBuilder.build();
     try (LogFile chunkGraphLog = compiler.createOrReopenLog(this.getClass(), "color_graph.dot")) {
-      chunkGraphLog.log(DotFormatter.toDot(colorGraph));
+      chunkGraphLog.log(() -> DotFormatter.toDot(colorGraph));
     }
     for (ColorGraphNode node : graphNodeFactory.getAllKnownTypes()) {
       node.getSubtypeIndices().set(node.getIndex()); // Init subtyping as reflexive.
@@ -299,6 +301,11 @@ public class AmbiguateProperties implements CompilerPass {
       return new PropertySubGraph();
     }
 
+    @Override
+    public ColorInterference<Property> newColorInterference() {
+      return new PropertyColorInterference();
+    }
+
     @Override
     public void clearNodeAnnotations() {
       for (PropertyGraphNode node : nodes) {
@@ -339,6 +346,44 @@ public class AmbiguateProperties implements CompilerPass {
     }
   }
 
+  /**
+   * A {@link ColorInterference} for properties. Two properties interfere if their related types
+   * intersect, so this keeps the colors given to the properties related to each type. Properties
+   * are usually related to few types compared to the number of colors, so this is much faster than
+   * checking the related types of each color.
+   */
+  static class PropertyColorInterference implements ColorInterference<Property> {
+    /** The colors given to properties related to each type, by type index. */
+    private BitSet[] colorsByRelatedType = new BitSet[0];
+
+    @Override
+    public void addInterferingColors(Property prop, BitSet colors) {
+      BitSet relatedTypes = prop.relatedColors;
+      int end = Math.min(relatedTypes.length(), colorsByRelatedType.length);
+      for (int i = relatedTypes.nextSetBit(0);
+          i >= 0 && i < end;
+          i = relatedTypes.nextSetBit(i + 1)) {
+        if (colorsByRelatedType[i] != null) {
+          colors.or(colorsByRelatedType[i]);
+        }
+      }
+    }
+
+    @Override
+    public void recordColor(Property prop, int color) {
+      BitSet relatedTypes = prop.relatedColors;
+      if (relatedTypes.length() > colorsByRelatedType.length) {
+        colorsByRelatedType = Arrays.copyOf(colorsByRelatedType, relatedTypes.length());
+      }
+      for (int i = relatedTypes.nextSetBit(0); i >= 0; i = relatedTypes.nextSetBit(i + 1)) {
+        if (colorsByRelatedType[i] == null) {
+          colorsByRelatedType[i] = new BitSet();
+        }
+        colorsByRelatedType[i].set(color);
+      }
+    }
+  }
+
   static class PropertyGraphNode implements GraphNode<Property, Void> {
     Property property;
     protected Annotation annotation;
@@ -26,7 +26,9 @@ import com.google.javascript.jscomp.colors.Color;
 import com.google.javascript.jscomp.colors.StandardColors;
 import com.google.javascript.rhino.Node;
 import com.google.javascript.rhino.jstype.JSType;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.function.Function;
 import org.jspecify.annotations.Nullable;
 
@@ -62,10 +64,49 @@ final class ColorFindPropertyReferences extends AbstractPostOrderCallback {
   private final ColorGraphNodeFactory colorGraphNodeFactory;
   private final IsPropertyReflector isPropertyReflector;
 
+  /**
+   * The references found, in order, if this callback only records them. Then {@link #propIndex} is
+   * not used.
+   */
+  private final @Nullable List<Reference> recordedReferences;
+
   ColorFindPropertyReferences(
       ColorGraphNodeFactory colorGraphNodeFactory, IsPropertyReflector isPropertyReflector) {
+    this(colorGraphNodeFactory, isPropertyReflector, null);
+  }
+
+  private ColorFindPropertyReferences(
+      ColorGraphNodeFactory colorGraphNodeFactory,
+      IsPropertyReflector isPropertyReflector,
+      @Nullable List<Reference> recordedReferences) {
     this.colorGraphNodeFactory = colorGraphNodeFactory;
     this.isPropertyReflector = isPropertyReflector;
+    this.recordedReferences = recordedReferences;
+  }
+
+  /**
+   * Returns a callback that finds the same references as this one, but only records them. It
+   * doesn't change the index or the {@link ColorGraphNodeFactory}, so callbacks for different
+   * scripts can run on different threads.
+   *
+   * <p>Add what a recorder found with {@link #addRecordedReferences}. Adding the recorders of each
+   * script in order gives the same result as traversing the scripts with this callback.
+   */
+  ColorFindPropertyReferences createRecorder() {
+    return new ColorFindPropertyReferences(
+        this.colorGraphNodeFactory, this.isPropertyReflector, new ArrayList<>());
+  }
+
+  /** Adds the references found by a callback from {@link #createRecorder} to this callback. */
+  void addRecordedReferences(ColorFindPropertyReferences recorder) {
+    checkState(this.recordedReferences == null && recorder.recordedReferences != null);
+    for (Reference reference : recorder.recordedReferences) {
+      if (reference.site == null) {
+        this.colorGraphNodeFactory.createNode(reference.owner);
+      } else {
+        this.registerPropertyUse(reference.site, reference.owner, reference.isInExterns);
+      }
+    }
   }
 
   LinkedHashMap<String, PropertyClustering> getPropertyIndex() {
@@ -146,7 +187,7 @@ final class ColorFindPropertyReferences extends AbstractPostOrderCallback {
                 : Color.createUnion(classPrototypeType);
           }
         });
-    colorGraphNodeFactory.createNode(classType);
+    this.registerType(classType);
   }
 
   private void handleFunction(Node fnNode) {
@@ -156,7 +197,7 @@ final class ColorFindPropertyReferences extends AbstractPostOrderCallback {
     // e.g. `const /** !FooInterface */ x = new Foo(); x.method();`
     Color fnType = fnNode.getColor();
     if (fnType != null && !fnType.getInstanceColors().isEmpty()) {
-      this.colorGraphNodeFactory.createNode(fnType);
+      this.registerType(fnType);
     }
   }
 
@@ -224,6 +265,15 @@ final class ColorFindPropertyReferences extends AbstractPostOrderCallback {
    * owner}.
    */
   private void registerPropertyUse(NodeTraversal t, Node site, Color owner) {
+    boolean isInExterns = t.getCurrentScript().isFromExterns();
+    if (this.recordedReferences != null) {
+      this.recordedReferences.add(new Reference(site, owner, isInExterns));
+    } else {
+      this.registerPropertyUse(site, owner, isInExterns);
+    }
+  }
+
+  private void registerPropertyUse(Node site, Color owner, boolean isInExterns) {
     PropertyClustering prop =
         this.propIndex.computeIfAbsent(site.getString(), PropertyClustering::new);
     ColorGraphNode flatOwner = this.colorGraphNodeFactory.createNode(owner);
@@ -240,9 +290,30 @@ final class ColorFindPropertyReferences extends AbstractPostOrderCallback {
     // NOTE: we can't use site.isFromExterns() because sometimes nodes have source file information
     // that doesn't match the containing script. This could lead to renaming properties that are
     // in externs if the property node didn't have an externs source file. Related: b/186056977.
-    if (t.getCurrentScript().isFromExterns()
-        || (owner != null && owner.getPropertiesKeepOriginalName())) {
+    if (isInExterns || (owner != null && owner.getPropertiesKeepOriginalName())) {
       prop.registerOriginalNameType(flatOwner);
     }
   }
+
+  /** Makes sure there is a {@link ColorGraphNode} for {@code color}. */
+  private void registerType(Color color) {
+    if (this.recordedReferences != null) {
+      this.recordedReferences.add(new Reference(null, color, false));
+    } else {
+      this.colorGraphNodeFactory.createNode(color);
+    }
+  }
+
+  /** A property use site, or a type that needs a {@link ColorGraphNode} if the site is null. */
+  private static final class Reference {
+    final @Nullable Node site;
+    final @Nullable Color owner;
+    final boolean isInExterns;
+
+    Reference(@Nullable Node site, @Nullable Color owner, boolean isInExterns) {
+      this.site = site;
+      this.owner = owner;
+      this.isInExterns = isInExterns;
+    }
+  }
 }
@@ -24,11 +24,13 @@ import com.google.common.collect.ImmutableSet;
 import com.google.javascript.jscomp.colors.Color;
 import com.google.javascript.jscomp.colors.ColorRegistry;
 import com.google.javascript.jscomp.colors.StandardColors;
-import com.google.javascript.jscomp.graph.LinkedDirectedGraph;
-import com.google.javascript.jscomp.graph.LinkedDirectedGraph.LinkedDiGraphNode;
+import com.google.javascript.jscomp.graph.CompactDiGraph;
 import com.google.javascript.jscomp.graph.LowestCommonAncestorFinder;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import org.jspecify.annotations.Nullable;
+import java.util.HashMap;
+import java.util.function.Consumer;
 
 /** Builds a graph of the {@link Color}s on the AST from a specified set of seed colors. */
 final class ColorGraphBuilder {
@@ -43,10 +45,12 @@ final class ColorGraphBuilder {
     CAN_HOLD
   }
 
+  private static final int INITIAL_CAPACITY = 64;
+
   private final ColorRegistry registry;
   private final ColorGraphNodeFactory nodeFactory;
   private final LowestCommonAncestorFinder<ColorGraphNode, Object> lcaFinder;
-  private final LinkedDiGraphNode<ColorGraphNode, Object> topNode;
+  private final int topNode;
 
   /**
    * The graph of colors as defined by `holdsInstanceOf`.
@@ -65,12 +69,28 @@ final class ColorGraphBuilder {
    *   <li>Transitive edges (shortcut edges for which there exist alternate paths) are kept minimal.
    * </ul>
    *
-   * <p>In practice, this could be declared as taking an {@link EdgeReason} instead of an Object,
-   * but Object is used to indicate that EdgeReasons are only meant for debugging and not any actual
-   * logic in (dis)ambiguation.
+   * <p>The nodes are numbered in the order they are added, and the edges are kept as a list of
+   * source and destination node numbers, from which {@link #build} creates a {@link
+   * CompactDiGraph}. The in edges of each node are also chained together, in order, so that lowest
+   * common ancestors and existing edges can be found while the graph is being built.
+   *
+   * <p>In practice, the edge values could be {@link EdgeReason}s instead of Objects, but Object is
+   * used to indicate that EdgeReasons are only meant for debugging and not any actual logic in
+   * (dis)ambiguation.
    */
-  private @Nullable LinkedDirectedGraph<ColorGraphNode, Object> colorHoldsInstanceGraph =
-      LinkedDirectedGraph.createWithoutAnnotations();
+  private final ArrayList<ColorGraphNode> nodes = new ArrayList<>();
+  private final HashMap<ColorGraphNode, Integer> nodeIds = new HashMap<>();
+  private int[] outDegrees = new int[INITIAL_CAPACITY];
+  // The in edges of node n start at firstInEdge[n] and end at lastInEdge[n], or are -1 if none.
+  private int[] firstInEdge = new int[INITIAL_CAPACITY];
+  private int[] lastInEdge = new int[INITIAL_CAPACITY];
+
+  private int edgeCount = 0;
+  private int[] edgeSources = new int[INITIAL_CAPACITY];
+  private int[] edgeDestinations = new int[INITIAL_CAPACITY];
+  private Object[] edgeReasons = new Object[INITIAL_CAPACITY];
+  // The in edge of the same destination that follows each edge, or -1 for the last one.
+  private int[] nextInEdge = new int[INITIAL_CAPACITY];
 
   ColorGraphBuilder(
       ColorGraphNodeFactory nodeFactory,
@@ -78,11 +98,25 @@ final class ColorGraphBuilder {
       ColorRegistry registry) {
     this.registry = registry;
     this.nodeFactory = nodeFactory;
-    this.lcaFinder = lcaFinderFactory.create(this.colorHoldsInstanceGraph);
+    this.lcaFinder =
+        lcaFinderFactory.create(
+            new LowestCommonAncestorFinder.Parents<ColorGraphNode>() {
+              @Override
+              public boolean hasNode(ColorGraphNode node) {
+                return nodeIds.containsKey(node);
+              }
+
+              @Override
+              public void forEachParent(ColorGraphNode node, Consumer<ColorGraphNode> action) {
+                for (int edge = firstInEdge[nodeIds.get(node)];
+                    edge != -1;
+                    edge = nextInEdge[edge]) {
+                  action.accept(nodes.get(edgeSources[edge]));
+                }
+              }
+            });
 
-    this.topNode =
-        this.colorHoldsInstanceGraph.createNode(
-            this.nodeFactory.createNode(StandardColors.UNKNOWN));
+    this.topNode = this.createNode(this.nodeFactory.createNode(StandardColors.UNKNOWN));
   }
 
   public void add(ColorGraphNode flat) {
@@ -93,12 +127,23 @@ final class ColorGraphBuilder {
     flats.forEach(this::add);
   }
 
-  public LinkedDirectedGraph<ColorGraphNode, Object> build() {
-    this.colorHoldsInstanceGraph.getNodes().forEach(this::connectUnionWithAncestors);
+  /**
+   * Finishes the graph and returns it as a {@link CompactDiGraph}, which takes much less memory
+   * while the graph is used. Looking for lowest common ancestors and existing edges needs a graph
+   * that can change, so until then the graph is only kept as a list of edges.
+   */
+  public CompactDiGraph<ColorGraphNode, Object> build() {
+    // Connecting unions doesn't add nodes.
+    for (int node = 0; node < this.nodes.size(); node++) {
+      this.connectUnionWithAncestors(node);
+    }
 
-    LinkedDirectedGraph<ColorGraphNode, Object> temp = this.colorHoldsInstanceGraph;
-    this.colorHoldsInstanceGraph = null;
-    return temp;
+    return CompactDiGraph.fromEdges(
+        this.nodes,
+        this.edgeCount,
+        this.edgeSources,
+        this.edgeDestinations,
+        this.edgeReasons);
   }
 
   /**
@@ -108,8 +153,8 @@ final class ColorGraphBuilder {
    * <p>We defer this operation because adding union-to-union and common-supertype-to-union edges,
    * is a hard problem. Solving it after all other colors are in place makes it easier.
    */
-  private void connectUnionWithAncestors(LinkedDiGraphNode<ColorGraphNode, Object> unionNode) {
-    ColorGraphNode flatUnion = unionNode.getValue();
+  private void connectUnionWithAncestors(int unionNode) {
+    ColorGraphNode flatUnion = this.nodes.get(unionNode);
     if (!flatUnion.getColor().isUnion()) {
       return;
     }
@@ -124,29 +169,29 @@ final class ColorGraphBuilder {
      * actually care about will be maintained. If disambiguation is too slow and stricter invariants
      * would help, we could be more careful.
      */
-    checkState(!unionNode.getOutEdges().isEmpty());
+    checkState(this.outDegrees[unionNode] > 0);
     ImmutableSet<ColorGraphNode> graphNodes =
         flatUnion.getColor().getUnionElements().stream()
             .map(this.nodeFactory::createNode)
             .collect(toImmutableSet());
     for (ColorGraphNode lca : this.lcaFinder.findAll(graphNodes)) {
       this.connectSourceToDest(
-          checkNotNull(this.colorHoldsInstanceGraph.getNode(lca)), EdgeReason.ALGEBRAIC, unionNode);
+          checkNotNull(this.nodeIds.get(lca)), EdgeReason.ALGEBRAIC, unionNode);
     }
   }
 
   /** Insert {@code color} and all necessary related colors into the datastructures of this pass. */
-  private LinkedDiGraphNode<ColorGraphNode, Object> addInternal(Color color) {
+  private int addInternal(Color color) {
     return this.addInternal(this.nodeFactory.createNode(color));
   }
 
   /** Insert {@code node} and all necessary related colors into the datastructures of this pass. */
-  private LinkedDiGraphNode<ColorGraphNode, Object> addInternal(ColorGraphNode node) {
-    LinkedDiGraphNode<ColorGraphNode, Object> flatNode = this.colorHoldsInstanceGraph.getNode(node);
-    if (flatNode != null) {
-      return flatNode;
+  private int addInternal(ColorGraphNode node) {
+    Integer existingNode = this.nodeIds.get(node);
+    if (existingNode != null) {
+      return existingNode;
     }
-    flatNode = this.colorHoldsInstanceGraph.createNode(node);
+    int flatNode = this.createNode(node);
 
     if (node.getColor().isUnion()) {
       for (Color alt : node.getColor().getUnionElements()) {
@@ -182,15 +227,49 @@ final class ColorGraphBuilder {
     return flatNode;
   }
 
-  private void connectSourceToDest(
-      LinkedDiGraphNode<ColorGraphNode, Object> source,
-      EdgeReason reason,
-      LinkedDiGraphNode<ColorGraphNode, Object> dest) {
-    if (source.equals(dest)
-        || this.colorHoldsInstanceGraph.isConnectedInDirection(source, (t) -> true, dest)) {
+  private int createNode(ColorGraphNode value) {
+    int node = this.nodes.size();
+    this.nodes.add(value);
+    this.nodeIds.put(value, node);
+    if (node == this.outDegrees.length) {
+      int capacity = 2 * node;
+      this.outDegrees = Arrays.copyOf(this.outDegrees, capacity);
+      this.firstInEdge = Arrays.copyOf(this.firstInEdge, capacity);
+      this.lastInEdge = Arrays.copyOf(this.lastInEdge, capacity);
+    }
+    this.firstInEdge[node] = -1;
+    this.lastInEdge[node] = -1;
+    return node;
+  }
+
+  private void connectSourceToDest(int source, EdgeReason reason, int dest) {
+    if (source == dest) {
       return;
     }
+    for (int edge = this.firstInEdge[dest]; edge != -1; edge = this.nextInEdge[edge]) {
+      if (this.edgeSources[edge] == source) {
+        return;
+      }
+    }
 
-    this.colorHoldsInstanceGraph.connect(source, reason, dest);
+    int edge = this.edgeCount++;
+    if (edge == this.edgeSources.length) {
+      int capacity = 2 * edge;
+      this.edgeSources = Arrays.copyOf(this.edgeSources, capacity);
+      this.edgeDestinations = Arrays.copyOf(this.edgeDestinations, capacity);
+      this.edgeReasons = Arrays.copyOf(this.edgeReasons, capacity);
+      this.nextInEdge = Arrays.copyOf(this.nextInEdge, capacity);
+    }
+    this.edgeSources[edge] = source;
+    this.edgeDestinations[edge] = dest;
+    this.edgeReasons[edge] = reason;
+    this.nextInEdge[edge] = -1;
+    if (this.lastInEdge[dest] == -1) {
+      this.firstInEdge[dest] = edge;
+    } else {
+      this.nextInEdge[this.lastInEdge[dest]] = edge;
+    }
+    this.lastInEdge[dest] = edge;
+    this.outDegrees[source]++;
   }
 }
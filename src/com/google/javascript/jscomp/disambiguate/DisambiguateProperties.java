@@ -20,10 +20,12 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableSortedMap.toImmutableSortedMap;
 import static com.google.common.collect.ImmutableSortedSet.toImmutableSortedSet;
+import static java.lang.Math.max;
 import static java.util.Comparator.comparingInt;
 import static java.util.Comparator.naturalOrder;
 
 import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -31,6 +33,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Lists;
 import com.google.errorprone.annotations.Keep;
 import com.google.gson.Gson;
 import com.google.gson.stream.JsonWriter;
@@ -45,17 +48,23 @@ import com.google.javascript.jscomp.colors.Color;
 import com.google.javascript.jscomp.colors.ColorRegistry;
 import com.google.javascript.jscomp.diagnostic.LogFile;
 import com.google.javascript.jscomp.disambiguate.ColorGraphNode.PropAssociation;
+import com.google.javascript.jscomp.disambiguate.UseSiteRenamer.PropertyRenaming;
 import com.google.javascript.jscomp.disambiguate.UseSiteRenamer.RenameUsesResult;
-import com.google.javascript.jscomp.graph.DiGraph;
-import com.google.javascript.jscomp.graph.DiGraph.DiGraphEdge;
-import com.google.javascript.jscomp.graph.DiGraph.DiGraphNode;
+import com.google.javascript.jscomp.graph.CompactDiGraph;
 import com.google.javascript.jscomp.graph.FixedPointGraphTraversal;
 import com.google.javascript.jscomp.graph.LowestCommonAncestorFinder;
 import com.google.javascript.rhino.Node;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.jspecify.annotations.Nullable;
 
 /** Assembles the various parts of the diambiguator to execute them as a compiler pass. */
 public final class DisambiguateProperties implements CompilerPass {
@@ -68,21 +77,45 @@ public final class DisambiguateProperties implements CompilerPass {
 
   private static final Gson GSON = new Gson();
 
+  // The number of batches that the properties are split into when renaming on several threads.
+  private static final int RENAMING_BATCHES = 64;
+
   private final AbstractCompiler compiler;
   private final ImmutableSet<String> propertiesThatMustDisambiguate;
   private final ColorRegistry registry;
+  private final @Nullable ExecutorService executor;
 
   public DisambiguateProperties(
       AbstractCompiler compiler, ImmutableSet<String> propertiesThatMustDisambiguate) {
+    this(compiler, propertiesThatMustDisambiguate, null);
+  }
+
+  /**
+   * @param executor the threads to find references and rename use sites on, which are not shut
+   *     down, or null to do everything on the calling thread
+   */
+  public DisambiguateProperties(
+      AbstractCompiler compiler,
+      ImmutableSet<String> propertiesThatMustDisambiguate,
+      @Nullable ExecutorService executor) {
     this.compiler = compiler;
     this.propertiesThatMustDisambiguate = propertiesThatMustDisambiguate;
     this.registry = this.compiler.getColorRegistry();
+    this.executor = executor;
   }
 
   @Override
   public void process(Node externs, Node root) {
     checkArgument(externs.getParent() == root.getParent());
 
+    this.disambiguate(externs, root, this.executor);
+  }
+
+  /**
+   * Disambiguates the properties, finding references and renaming use sites on the threads of
+   * {@code executor} if there is one.
+   */
+  private void disambiguate(Node externs, Node root, @Nullable ExecutorService executor) {
     ColorGraphNodeFactory flattener = ColorGraphNodeFactory.createFactory(this.registry);
     ColorFindPropertyReferences findRefs =
         new ColorFindPropertyReferences(
@@ -93,7 +126,7 @@ public final class DisambiguateProperties implements CompilerPass {
     UseSiteRenamer renamer =
         new UseSiteRenamer(/* mutationCb= */ this.compiler::reportChangeToEnclosingScope);
 
-    NodeTraversal.traverse(this.compiler, externs.getParent(), findRefs);
+    this.findReferences(externs.getParent(), findRefs, executor);
     LinkedHashMap<String, PropertyClustering> propIndex = findRefs.getPropertyIndex();
 
     invalidateWellKnownProperties(propIndex);
@@ -118,12 +151,12 @@ public final class DisambiguateProperties implements CompilerPass {
         });
 
     graphBuilder.addAll(flattener.getAllKnownTypes());
-    DiGraph<ColorGraphNode, Object> graph = graphBuilder.build();
+    CompactDiGraph<ColorGraphNode, Object> graph = graphBuilder.build();
 
     // Model legacy behavior from the old (pre-January 2021) disambiguator.
     // TODO(b/177695515): delete this section.
     for (ColorGraphNode colorGraphNode : flattener.getAllKnownTypes()) {
-      if (graph.getOutEdges(colorGraphNode).isEmpty()) {
+      if (graph.getOutDegree(graph.getNodeId(colorGraphNode)) == 0) {
         // Skipping leaf types improves code size, especially as "namespace" types are all leaf
         // types and will often have their declared properties collapsed into variables.
         continue;
@@ -139,8 +172,8 @@ public final class DisambiguateProperties implements CompilerPass {
     this.logForDiagnostics(
         "graph",
         () ->
-            graph.getNodes().stream()
-                .map(TypeNodeJson::new)
+            IntStream.range(0, graph.getNodeCount())
+                .mapToObj((int node) -> new TypeNodeJson(graph, node))
                 .sorted(comparingInt((x) -> x.index))
                 .collect(toImmutableList()));
 
@@ -149,8 +182,12 @@ public final class DisambiguateProperties implements CompilerPass {
     FixedPointGraphTraversal.newTraversal(propagator).computeFixedPoint(graph);
 
     TrackerSummaryGenerator trackerSummaryGenerator = new TrackerSummaryGenerator();
-    for (PropertyClustering prop : propIndex.values()) {
-      RenameUsesResult renameUsesResult = renamer.renameUses(prop);
+    ImmutableList<PropertyClustering> props = ImmutableList.copyOf(propIndex.values());
+    ImmutableList<PropertyRenaming> renamings = renameSites(props, executor);
+    for (int i = 0; i < props.size(); i++) {
+      PropertyClustering prop = props.get(i);
+      // Report the changes on this thread, in the same order as if the sites were renamed here.
+      RenameUsesResult renameUsesResult = renamer.recordRenaming(renamings.get(i));
       trackerSummaryGenerator.addRenameUsesResult(renameUsesResult);
       if (prop.isInvalidated() && this.propertiesThatMustDisambiguate.contains(prop.getName())) {
         this.compiler.report(this.createInvalidationError(prop));
@@ -164,6 +201,88 @@ public final class DisambiguateProperties implements CompilerPass {
     GatherGetterAndSetterProperties.update(this.compiler, externs, root);
   }
 
+  /**
+   * Finds the property references in each script under {@code root}, on the threads of {@code
+   * executor} if there is one. The references found on other threads are added to {@code findRefs}
+   * in script order, so the result doesn't depend on how the work was scheduled.
+   */
+  private void findReferences(
+      Node root, ColorFindPropertyReferences findRefs, @Nullable ExecutorService executor) {
+    if (executor == null) {
+      NodeTraversal.traverse(this.compiler, root, findRefs);
+      return;
+    }
+
+    List<Future<ColorFindPropertyReferences>> futures = new ArrayList<>();
+    for (Node scriptRoot = root.getFirstChild();
+        scriptRoot != null;
+        scriptRoot = scriptRoot.getNext()) {
+      for (Node script = scriptRoot.getFirstChild(); script != null; script = script.getNext()) {
+        Node currentScript = script;
+        futures.add(
+            executor.submit(
+                () -> {
+                  ColorFindPropertyReferences recorder = findRefs.createRecorder();
+                  NodeTraversal.traverse(this.compiler, currentScript, recorder);
+                  return recorder;
+                }));
+      }
+    }
+    for (ColorFindPropertyReferences recorder : getAll(futures)) {
+      findRefs.addRecordedReferences(recorder);
+    }
+  }
+
+  /**
+   * Renames the use sites of each property, on the threads of {@code executor} if there is one.
+   *
+   * <p>The properties are split into contiguous batches, one task each. No two properties share a
+   * use site, so no two threads change the same node.
+   */
+  private static ImmutableList<PropertyRenaming> renameSites(
+      ImmutableList<PropertyClustering> props, @Nullable ExecutorService executor) {
+    if (executor == null) {
+      return props.stream().map(UseSiteRenamer::renameSites).collect(toImmutableList());
+    }
+
+    int batchSize = max(1, props.size() / RENAMING_BATCHES);
+    List<Future<ImmutableList<PropertyRenaming>>> futures = new ArrayList<>();
+    for (List<PropertyClustering> batch : Lists.partition(props, batchSize)) {
+      futures.add(
+          executor.submit(
+              () -> batch.stream().map(UseSiteRenamer::renameSites).collect(toImmutableList())));
+    }
+    ImmutableList.Builder<PropertyRenaming> renamings = ImmutableList.builder();
+    for (ImmutableList<PropertyRenaming> batchRenamings : getAll(futures)) {
+      renamings.addAll(batchRenamings);
+    }
+    return renamings.build();
+  }
+
+  /**
+   * Waits for the tasks and returns their results in order. If one fails, the others are cancelled,
+   * so that no work is left behind on the threads.
+   */
+  private static <T> ImmutableList<T> getAll(List<Future<T>> futures) {
+    try {
+      ImmutableList.Builder<T> results = ImmutableList.builder();
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results.build();
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } finally {
+      for (Future<T> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
   /** No-op class to use when tracer mode is not enabled. */
   private static class TrackerSummaryGenerator {
     int total = 0;
@@ -403,15 +522,15 @@ public final class DisambiguateProperties implements CompilerPass {
     @Keep final ImmutableSortedSet<TypeEdgeJson> edges;
     @Keep final ImmutableSortedMap<String, PropAssociation> props;
 
-    TypeNodeJson(DiGraphNode<ColorGraphNode, Object> n) {
-      ColorGraphNode t = n.getValue();
+    TypeNodeJson(CompactDiGraph<ColorGraphNode, Object> graph, int node) {
+      ColorGraphNode t = graph.getNodeValue(node);
 
       this.index = t.getIndex();
       this.colorId = t.getColor().getId().toString();
       this.invalidating = t.getColor().isInvalidating();
       this.edges =
-          n.getOutEdges().stream()
-              .map(TypeEdgeJson::new)
+          IntStream.range(0, graph.getOutDegree(node))
+              .mapToObj((int i) -> new TypeEdgeJson(graph, graph.getOutEdge(node, i)))
               .collect(toImmutableSortedSet(naturalOrder()));
       this.props =
           t.getAssociatedProps().entrySet().stream()
@@ -426,9 +545,9 @@ public final class DisambiguateProperties implements CompilerPass {
     // This field is used reflectively via GSON.
     @Keep final Object value;
 
-    TypeEdgeJson(DiGraphEdge<ColorGraphNode, Object> e) {
-      this.dest = e.getDestination().getValue().getIndex();
-      this.value = e.getValue();
+    TypeEdgeJson(CompactDiGraph<ColorGraphNode, Object> graph, int edge) {
+      this.dest = graph.getNodeValue(graph.getDestination(edge)).getIndex();
+      this.value = graph.getEdgeValue(edge);
     }
 
     @Override
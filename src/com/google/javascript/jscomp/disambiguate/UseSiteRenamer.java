@@ -19,10 +19,14 @@ package com.google.javascript.jscomp.disambiguate;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.util.function.Function.identity;
 
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.javascript.rhino.Node;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
@@ -48,9 +52,20 @@ final class UseSiteRenamer {
    */
   @CanIgnoreReturnValue
   RenameUsesResult renameUses(PropertyClustering prop) {
+    return this.recordRenaming(renameSites(prop));
+  }
+
+  /**
+   * Renames the use sites of {@code prop} without reporting the changes or recording the new names.
+   * Pass the result to {@link #recordRenaming} to do that.
+   *
+   * <p>Only changes the use sites of {@code prop}, which are not use sites of any other property,
+   * so different properties may be renamed on different threads.
+   */
+  static PropertyRenaming renameSites(PropertyClustering prop) {
     if (prop.isInvalidated()) {
-      this.renamingIndex.put(prop.getName(), INVALIDATED_NAME_VALUE);
-      return RenameUsesResult.INVALIDATED;
+      return new PropertyRenaming(
+          prop, RenameUsesResult.INVALIDATED, ImmutableList.of(INVALIDATED_NAME_VALUE));
     }
 
     ImmutableMap<ColorGraphNode, String> clusterNames = createAllClusterNames(prop);
@@ -60,21 +75,45 @@ final class UseSiteRenamer {
        * Don't bother renaming clusters with a single element. Renaming won't actaully disambiguate
        * anything in this case, so skip the work.
        */
-      this.renamingIndex.put(prop.getName(), prop.getName());
-      return RenameUsesResult.ONLY_ONE_CLUSTER;
+      return new PropertyRenaming(
+          prop, RenameUsesResult.ONLY_ONE_CLUSTER, ImmutableList.of(prop.getName()));
     }
 
-    this.renamingIndex.putAll(prop.getName(), clusterNames.values());
+    PropertyRenaming renaming =
+        new PropertyRenaming(prop, RenameUsesResult.DISAMBIGUATED, clusterNames.values());
     for (Map.Entry<Node, ColorGraphNode> usage : prop.getUseSites().entrySet()) {
       Node site = usage.getKey();
       ColorGraphNode flatRep = prop.getClusters().find(usage.getValue());
       String newName = clusterNames.get(flatRep);
       if (!Objects.equals(newName, site.getString())) {
         site.setString(newName);
-        this.mutationCb.accept(site);
+        renaming.changedSites.add(site);
       }
     }
-    return RenameUsesResult.DISAMBIGUATED;
+    return renaming;
+  }
+
+  /** Reports the changes made by {@link #renameSites} and records the new names. */
+  @CanIgnoreReturnValue
+  RenameUsesResult recordRenaming(PropertyRenaming renaming) {
+    this.renamingIndex.putAll(renaming.prop.getName(), renaming.newNames);
+    renaming.changedSites.forEach(this.mutationCb);
+    return renaming.result;
+  }
+
+  /** The new names of the use sites of a property, and the sites that were changed. */
+  static final class PropertyRenaming {
+    private final PropertyClustering prop;
+    private final RenameUsesResult result;
+    private final ImmutableCollection<String> newNames;
+    private final List<Node> changedSites = new ArrayList<>();
+
+    private PropertyRenaming(
+        PropertyClustering prop, RenameUsesResult result, ImmutableCollection<String> newNames) {
+      this.prop = prop;
+      this.result = result;
+      this.newNames = newNames;
+    }
   }
 
   public enum RenameUsesResult {
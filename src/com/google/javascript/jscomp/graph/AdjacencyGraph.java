@@ -48,6 +48,15 @@ public interface AdjacencyGraph<N, E> {
   /** Returns an empty SubGraph for this Graph. */
   SubGraph<N, E> newSubGraph();
 
+  /**
+   * Returns an empty {@link ColorInterference} for this graph. By default, it keeps a {@link
+   * SubGraph} for each color, so graphs that can find the neighbors of a node faster should
+   * override this.
+   */
+  default ColorInterference<N> newColorInterference() {
+    return new GraphColoring.SubGraphColorInterference<>(this);
+  }
+
   /** Makes each node's annotation null. */
   void clearNodeAnnotations();
 
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.graph;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An undirected graph without edge values that keeps the neighbors of each node in a {@link
+ * BitSet}, indexed by the order in which the nodes were created.
+ *
+ * <p>Connecting two nodes, checking whether they are connected and finding the nodes adjacent to a
+ * set of nodes are all done on bits, which makes this graph a good fit for dense graphs such as
+ * the interference graphs colored by {@link GraphColoring}.
+ *
+ * @param <N> Value type that the graph node stores.
+ */
+public final class BitSetAdjacencyGraph<N> implements AdjacencyGraph<N, Void> {
+  private final Map<N, IndexedNode<N>> nodes = new LinkedHashMap<>();
+  private final List<IndexedNode<N>> nodesByIndex = new ArrayList<>();
+
+  public static <N> BitSetAdjacencyGraph<N> create() {
+    return new BitSetAdjacencyGraph<>();
+  }
+
+  private BitSetAdjacencyGraph() {}
+
+  /**
+   * Gets the node for the value, creating it if the value has not been given a node yet.
+   *
+   * @param value The node's value.
+   * @return The corresponding node in the graph.
+   */
+  public GraphNode<N, Void> createNode(N value) {
+    return nodes.computeIfAbsent(
+        value,
+        (N v) -> {
+          IndexedNode<N> node = new IndexedNode<>(v, nodesByIndex.size());
+          nodesByIndex.add(node);
+          return node;
+        });
+  }
+
+  /** Connects two nodes, unless they are connected already. A node can be connected to itself. */
+  public void connect(N n1, N n2) {
+    IndexedNode<N> node1 = getNodeOrFail(n1);
+    IndexedNode<N> node2 = getNodeOrFail(n2);
+    node1.neighbors.set(node2.index);
+    node2.neighbors.set(node1.index);
+  }
+
+  public boolean isConnected(N n1, N n2) {
+    IndexedNode<N> node1 = nodes.get(n1);
+    IndexedNode<N> node2 = nodes.get(n2);
+    return node1 != null && node2 != null && node1.neighbors.get(node2.index);
+  }
+
+  /** Gets the degree of a node. A node connected to itself counts that edge twice. */
+  public int getNodeDegree(N value) {
+    IndexedNode<N> node = getNodeOrFail(value);
+    int degree = node.neighbors.cardinality();
+    return node.neighbors.get(node.index) ? degree + 1 : degree;
+  }
+
+  @Override
+  public Collection<? extends GraphNode<N, Void>> getNodes() {
+    return Collections.unmodifiableCollection(nodes.values());
+  }
+
+  @Override
+  public int getNodeCount() {
+    return nodes.size();
+  }
+
+  @Override
+  public @Nullable GraphNode<N, Void> getNode(N value) {
+    return nodes.get(value);
+  }
+
+  private IndexedNode<N> getNodeOrFail(N value) {
+    IndexedNode<N> node = nodes.get(value);
+    checkArgument(node != null, "%s not found in graph", value);
+    return node;
+  }
+
+  @Override
+  public SubGraph<N, Void> newSubGraph() {
+    return new BitSetSubGraph();
+  }
+
+  @Override
+  public ColorInterference<N> newColorInterference() {
+    return new BitSetColorInterference();
+  }
+
+  @Override
+  public void clearNodeAnnotations() {
+    for (IndexedNode<N> node : nodesByIndex) {
+      node.setAnnotation(null);
+    }
+  }
+
+  @Override
+  public int getWeight(N value) {
+    return getNodeDegree(value);
+  }
+
+  /** A set of nodes, along with the union of their neighbors. */
+  private final class BitSetSubGraph implements SubGraph<N, Void> {
+    private final BitSet neighbors = new BitSet();
+
+    @Override
+    public boolean isIndependentOf(N value) {
+      return !neighbors.get(getNodeOrFail(value).index);
+    }
+
+    @Override
+    public void addNode(N value) {
+      neighbors.or(getNodeOrFail(value).neighbors);
+    }
+  }
+
+  /** Keeps the color of each node by index, with -1 for the nodes that weren't colored yet. */
+  private final class BitSetColorInterference implements ColorInterference<N> {
+    private int[] colors = new int[0];
+
+    @Override
+    public void addInterferingColors(N value, BitSet interferingColors) {
+      BitSet neighbors = getNodeOrFail(value).neighbors;
+      int end = Math.min(neighbors.length(), colors.length);
+      for (int i = neighbors.nextSetBit(0); i >= 0 && i < end; i = neighbors.nextSetBit(i + 1)) {
+        if (colors[i] >= 0) {
+          interferingColors.set(colors[i]);
+        }
+      }
+    }
+
+    @Override
+    public void recordColor(N value, int color) {
+      int index = getNodeOrFail(value).index;
+      if (index >= colors.length) {
+        int oldLength = colors.length;
+        colors = Arrays.copyOf(colors, Math.max(index + 1, nodesByIndex.size()));
+        Arrays.fill(colors, oldLength, colors.length, -1);
+      }
+      colors[index] = color;
+    }
+  }
+
+  private static final class IndexedNode<N> implements GraphNode<N, Void> {
+    private final N value;
+    private final int index;
+    private final BitSet neighbors = new BitSet();
+    private @Nullable Annotation annotation;
+
+    IndexedNode(N value, int index) {
+      this.value = value;
+      this.index = index;
+    }
+
+    @Override
+    public N getValue() {
+      return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A extends Annotation> A getAnnotation() {
+      return (A) annotation;
+    }
+
+    @Override
+    public void setAnnotation(@Nullable Annotation data) {
+      annotation = data;
+    }
+  }
+}
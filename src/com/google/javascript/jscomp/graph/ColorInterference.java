@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.graph;
+
+import java.util.BitSet;
+
+/**
+ * Keeps track of the colors given to the nodes of a graph while it is colored one node at a time,
+ * so that the colors a node can't take are found without going through every color.
+ *
+ * <p>A node interferes with a color when it is adjacent to a node that was given that color.
+ *
+ * @param <N> Value type that the graph node stores.
+ */
+public interface ColorInterference<N> {
+  /** Adds the colors that {@code value} interferes with to {@code colors}. */
+  void addInterferingColors(N value, BitSet colors);
+
+  /** Records that {@code value} was given {@code color}. */
+  void recordColor(N value, int color);
+}
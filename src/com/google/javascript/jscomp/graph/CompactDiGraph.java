@@ -0,0 +1,324 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.graph;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.javascript.jscomp.graph.DiGraph.DiGraphEdge;
+import com.google.javascript.jscomp.graph.DiGraph.DiGraphNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An immutable directed graph that numbers its nodes and edges and keeps them in arrays.
+ *
+ * <p>Nodes are numbered from 0 in the order they are in the graph or node list it was created
+ * from. The out edges of each node are numbered consecutively, in order, so the edges of a node are
+ * a range of numbers. The in edges of each node are kept in order as well. There is no object for
+ * a node or an edge, so a graph with many edges takes much less memory than a {@link
+ * LinkedDirectedGraph}, and traversing it doesn't go through any hash lookups.
+ *
+ * <p>Use {@link FixedPointGraphTraversal#computeFixedPoint(CompactDiGraph)} to compute a fixed
+ * point over the graph.
+ *
+ * @param <N> Value type that the graph node stores.
+ * @param <E> Value type that the graph edge stores.
+ */
+public final class CompactDiGraph<N, E> implements GraphvizGraph {
+  private final Object[] nodeValues;
+  private final Map<N, Integer> nodeIds;
+
+  // The out edges of node n are numbered from outEdgeOffsets[n] to outEdgeOffsets[n + 1].
+  private final int[] outEdgeOffsets;
+  private final int[] edgeSources;
+  private final int[] edgeDestinations;
+  private final Object[] edgeValues;
+
+  // The in edges of node n are inEdges[inEdgeOffsets[n]] to inEdges[inEdgeOffsets[n + 1] - 1].
+  private final int[] inEdgeOffsets;
+  private final int[] inEdges;
+
+  private CompactDiGraph(
+      Object[] nodeValues,
+      Map<N, Integer> nodeIds,
+      int[] outEdgeOffsets,
+      int[] edgeSources,
+      int[] edgeDestinations,
+      Object[] edgeValues,
+      int[] inEdgeOffsets,
+      int[] inEdges) {
+    this.nodeValues = nodeValues;
+    this.nodeIds = nodeIds;
+    this.outEdgeOffsets = outEdgeOffsets;
+    this.edgeSources = edgeSources;
+    this.edgeDestinations = edgeDestinations;
+    this.edgeValues = edgeValues;
+    this.inEdgeOffsets = inEdgeOffsets;
+    this.inEdges = inEdges;
+  }
+
+  /** Copies the nodes and edges of the graph, keeping the order of the nodes and of their edges. */
+  public static <N, E> CompactDiGraph<N, E> copyOf(DiGraph<N, E> graph) {
+    int nodeCount = graph.getNodeCount();
+    Object[] nodeValues = new Object[nodeCount];
+    Map<N, Integer> nodeIds = new HashMap<>();
+    int edgeCount = 0;
+    for (DiGraphNode<N, E> node : graph.getNodes()) {
+      nodeValues[nodeIds.size()] = node.getValue();
+      nodeIds.put(node.getValue(), nodeIds.size());
+      edgeCount += node.getOutEdges().size();
+    }
+
+    int[] outEdgeOffsets = new int[nodeCount + 1];
+    int[] edgeSources = new int[edgeCount];
+    int[] edgeDestinations = new int[edgeCount];
+    Object[] edgeValues = new Object[edgeCount];
+    Map<DiGraphEdge<N, E>, Integer> edgeIds = new IdentityHashMap<>(edgeCount);
+    int edge = 0;
+    int source = 0;
+    for (DiGraphNode<N, E> node : graph.getNodes()) {
+      outEdgeOffsets[source] = edge;
+      for (DiGraphEdge<N, E> outEdge : node.getOutEdges()) {
+        edgeSources[edge] = source;
+        edgeDestinations[edge] = nodeIds.get(outEdge.getDestination().getValue());
+        edgeValues[edge] = outEdge.getValue();
+        edgeIds.put(outEdge, edge);
+        edge++;
+      }
+      source++;
+    }
+    outEdgeOffsets[nodeCount] = edgeCount;
+
+    int[] inEdgeOffsets = new int[nodeCount + 1];
+    int[] inEdges = new int[edgeCount];
+    int inEdge = 0;
+    int destination = 0;
+    for (DiGraphNode<N, E> node : graph.getNodes()) {
+      inEdgeOffsets[destination] = inEdge;
+      for (DiGraphEdge<N, E> edgeIn : node.getInEdges()) {
+        inEdges[inEdge++] = edgeIds.get(edgeIn);
+      }
+      destination++;
+    }
+    inEdgeOffsets[nodeCount] = edgeCount;
+
+    return new CompactDiGraph<>(
+        nodeValues,
+        nodeIds,
+        outEdgeOffsets,
+        edgeSources,
+        edgeDestinations,
+        edgeValues,
+        inEdgeOffsets,
+        inEdges);
+  }
+
+  /**
+   * Creates a graph from a list of nodes and a list of edges, where the edges are given by the
+   * indices of their source and destination nodes in {@code nodeValues}. Only the first {@code
+   * edgeCount} elements of the edge arrays are used.
+   *
+   * <p>The out edges and the in edges of each node keep the order they have in the edge list.
+   */
+  public static <N, E> CompactDiGraph<N, E> fromEdges(
+      List<N> nodeValues,
+      int edgeCount,
+      int[] edgeSources,
+      int[] edgeDestinations,
+      @Nullable Object[] edgeValues) {
+    int nodeCount = nodeValues.size();
+    Map<N, Integer> nodeIds = new HashMap<>();
+    for (N value : nodeValues) {
+      checkArgument(nodeIds.put(value, nodeIds.size()) == null, "Duplicate node %s", value);
+    }
+
+    // Number the edges by source node with a counting sort, which keeps the order of the edges of
+    // each node.
+    int[] outEdgeOffsets = new int[nodeCount + 1];
+    int[] inEdgeOffsets = new int[nodeCount + 1];
+    for (int edge = 0; edge < edgeCount; edge++) {
+      outEdgeOffsets[edgeSources[edge] + 1]++;
+      inEdgeOffsets[edgeDestinations[edge] + 1]++;
+    }
+    for (int node = 0; node < nodeCount; node++) {
+      outEdgeOffsets[node + 1] += outEdgeOffsets[node];
+      inEdgeOffsets[node + 1] += inEdgeOffsets[node];
+    }
+
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    Object[] values = new Object[edgeCount];
+    int[] inEdges = new int[edgeCount];
+    int[] nextOutEdge = Arrays.copyOf(outEdgeOffsets, nodeCount);
+    int[] nextInEdge = Arrays.copyOf(inEdgeOffsets, nodeCount);
+    for (int edge = 0; edge < edgeCount; edge++) {
+      int id = nextOutEdge[edgeSources[edge]]++;
+      sources[id] = edgeSources[edge];
+      destinations[id] = edgeDestinations[edge];
+      values[id] = edgeValues[edge];
+      inEdges[nextInEdge[edgeDestinations[edge]]++] = id;
+    }
+
+    return new CompactDiGraph<>(
+        nodeValues.toArray(),
+        nodeIds,
+        outEdgeOffsets,
+        sources,
+        destinations,
+        values,
+        inEdgeOffsets,
+        inEdges);
+  }
+
+  public int getNodeCount() {
+    return nodeValues.length;
+  }
+
+  public int getEdgeCount() {
+    return edgeDestinations.length;
+  }
+
+  public boolean hasNode(N value) {
+    return nodeIds.containsKey(value);
+  }
+
+  /** Returns the number of the node with the given value. */
+  public int getNodeId(N value) {
+    Integer id = nodeIds.get(value);
+    checkArgument(id != null, "%s not found in graph", value);
+    return id;
+  }
+
+  @SuppressWarnings("unchecked") // Only Ns are stored.
+  public N getNodeValue(int node) {
+    return (N) nodeValues[node];
+  }
+
+  public int getOutDegree(int node) {
+    return outEdgeOffsets[node + 1] - outEdgeOffsets[node];
+  }
+
+  /** Returns the number of the {@code i}th out edge of the node. */
+  public int getOutEdge(int node, int i) {
+    checkArgument(i >= 0 && i < getOutDegree(node), i);
+    return outEdgeOffsets[node] + i;
+  }
+
+  public int getInDegree(int node) {
+    return inEdgeOffsets[node + 1] - inEdgeOffsets[node];
+  }
+
+  /** Returns the number of the {@code i}th in edge of the node. */
+  public int getInEdge(int node, int i) {
+    checkArgument(i >= 0 && i < getInDegree(node), i);
+    return inEdges[inEdgeOffsets[node] + i];
+  }
+
+  /** Returns the number of the node that the edge comes from. */
+  public int getSource(int edge) {
+    return edgeSources[edge];
+  }
+
+  /** Returns the number of the node that the edge goes to. */
+  public int getDestination(int edge) {
+    return edgeDestinations[edge];
+  }
+
+  @SuppressWarnings("unchecked") // Only Es are stored.
+  public @Nullable E getEdgeValue(int edge) {
+    return (E) edgeValues[edge];
+  }
+
+  @Override
+  public String getName() {
+    return "CompactGraph";
+  }
+
+  @Override
+  public boolean isDirected() {
+    return true;
+  }
+
+  @Override
+  public List<GraphvizNode> getGraphvizNodes() {
+    List<GraphvizNode> nodes = new ArrayList<>(getNodeCount());
+    for (int node = 0; node < getNodeCount(); node++) {
+      String label = String.valueOf(nodeValues[node]);
+      String id = nodeGraphvizId(node);
+      nodes.add(
+          new GraphvizNode() {
+            @Override
+            public String getId() {
+              return id;
+            }
+
+            @Override
+            public String getColor() {
+              return "white";
+            }
+
+            @Override
+            public String getLabel() {
+              return label;
+            }
+          });
+    }
+    return nodes;
+  }
+
+  @Override
+  public List<GraphvizEdge> getGraphvizEdges() {
+    List<GraphvizEdge> edges = new ArrayList<>(getEdgeCount());
+    for (int edge = 0; edge < getEdgeCount(); edge++) {
+      String label = String.valueOf(edgeValues[edge]);
+      String sourceId = nodeGraphvizId(edgeSources[edge]);
+      String destinationId = nodeGraphvizId(edgeDestinations[edge]);
+      edges.add(
+          new GraphvizEdge() {
+            @Override
+            public String getColor() {
+              return "black";
+            }
+
+            @Override
+            public String getLabel() {
+              return label;
+            }
+
+            @Override
+            public String getNode1Id() {
+              return sourceId;
+            }
+
+            @Override
+            public String getNode2Id() {
+              return destinationId;
+            }
+          });
+    }
+    return edges;
+  }
+
+  private static String nodeGraphvizId(int node) {
+    return "CDN" + node;
+  }
+}
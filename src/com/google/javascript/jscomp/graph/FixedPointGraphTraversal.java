@@ -22,6 +22,7 @@ import static java.lang.Math.min;
 
 import com.google.javascript.jscomp.graph.DiGraph.DiGraphEdge;
 import com.google.javascript.jscomp.graph.DiGraph.DiGraphNode;
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -106,6 +107,12 @@ public final class FixedPointGraphTraversal<N, E> {
   // cube root of that number.
   private static final long MAX_NODE_COUNT_FOR_ITERATION_LIMIT = (long) Math.floor(Math.cbrt(60e9));
 
+  /** Chooses a bail-out heuristically in case the computation doesn't converge. */
+  private static long getMaxIterations(int graphNodeCount) {
+    long nodeCount = min(graphNodeCount, MAX_NODE_COUNT_FOR_ITERATION_LIMIT);
+    return max(nodeCount * nodeCount * nodeCount, 100L);
+  }
+
   /**
    * Compute a fixed point for the given graph, entering from the given nodes.
    * @param graph The graph to traverse.
@@ -113,11 +120,7 @@ public final class FixedPointGraphTraversal<N, E> {
    */
   public void computeFixedPoint(DiGraph<N, E> graph, Set<N> entrySet) {
     long cycleCount = 0;
-    long nodeCount = min(graph.getNodeCount(), MAX_NODE_COUNT_FOR_ITERATION_LIMIT);
-
-    // Choose a bail-out heuristically in case the computation
-    // doesn't converge.
-    long maxIterations = max(nodeCount * nodeCount * nodeCount, 100L);
+    long maxIterations = getMaxIterations(graph.getNodeCount());
 
     // Use a LinkedHashSet, so that the traversal is deterministic.
     LinkedHashSet<DiGraphNode<N, E>> workSet = new LinkedHashSet<>();
@@ -131,6 +134,53 @@ public final class FixedPointGraphTraversal<N, E> {
     checkState(cycleCount != maxIterations, NON_HALTING_ERROR_MSG);
   }
 
+  /**
+   * Compute a fixed point for the given graph, entering from all of its nodes in order.
+   *
+   * <p>Nodes are visited in the same order as for a {@link DiGraph} with the same nodes and edges,
+   * but the work list holds node numbers rather than nodes.
+   *
+   * @param graph The graph to traverse.
+   */
+  public void computeFixedPoint(CompactDiGraph<N, E> graph) {
+    int nodeCount = graph.getNodeCount();
+    long maxIterations = getMaxIterations(nodeCount);
+
+    // A queue of the nodes to visit, in a circular buffer. A node is in the queue at most once.
+    int[] queue = new int[max(nodeCount, 1)];
+    BitSet queued = new BitSet(nodeCount);
+    for (int node = 0; node < nodeCount; node++) {
+      queue[node] = node;
+    }
+    queued.set(0, nodeCount);
+    int head = 0;
+    int size = nodeCount;
+    boolean outwards = traversalDirection == TraversalDirection.OUTWARDS;
+
+    long cycleCount = 0;
+    for (; size > 0 && cycleCount < maxIterations; cycleCount++) {
+      int node = queue[head];
+      head = (head + 1) % queue.length;
+      size--;
+      queued.clear(node);
+
+      N sourceValue = graph.getNodeValue(node);
+      int degree = outwards ? graph.getOutDegree(node) : graph.getInDegree(node);
+      for (int i = 0; i < degree; i++) {
+        int edge = outwards ? graph.getOutEdge(node, i) : graph.getInEdge(node, i);
+        int dest = outwards ? graph.getDestination(edge) : graph.getSource(edge);
+        if (callback.traverseEdge(sourceValue, graph.getEdgeValue(edge), graph.getNodeValue(dest))
+            && !queued.get(dest)) {
+          queued.set(dest);
+          queue[(head + size) % queue.length] = dest;
+          size++;
+        }
+      }
+    }
+
+    checkState(cycleCount != maxIterations, NON_HALTING_ERROR_MSG);
+  }
+
   private void visitNode(DiGraphNode<N, E> node, LinkedHashSet<DiGraphNode<N, E>> workSet) {
     // For every out edge in the workSet, traverse that edge. If that
     // edge updates the state of the graph, then add the destination
@@ -20,9 +20,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The base generic class for graph-like data structure and algorithms in the compiler.
@@ -158,6 +161,12 @@ public abstract class Graph<N, E> implements AdjacencyGraph<N, E> {
     return getNodeDegree(value);
   }
 
+  /** Returns a {@link ColorInterference} that finds the colors of the neighbors of each node. */
+  @Override
+  public ColorInterference<N> newColorInterference() {
+    return new NeighborColorInterference<>(this);
+  }
+
   /**
    * Gets the neighboring nodes.
    *
@@ -321,6 +330,31 @@ public abstract class Graph<N, E> implements AdjacencyGraph<N, E> {
     }
   }
 
+  /** A {@link ColorInterference} that looks up the colors of the neighbors of a node. */
+  static final class NeighborColorInterference<N, E> implements ColorInterference<N> {
+    private final Graph<N, E> graph;
+    private final Map<N, Integer> colors = new HashMap<>();
+
+    NeighborColorInterference(Graph<N, E> graph) {
+      this.graph = graph;
+    }
+
+    @Override
+    public void addInterferingColors(N value, BitSet interferingColors) {
+      for (GraphNode<N, E> neighbor : graph.getNeighborNodes(value)) {
+        Integer color = colors.get(neighbor.getValue());
+        if (color != null) {
+          interferingColors.set(color);
+        }
+      }
+    }
+
+    @Override
+    public void recordColor(N value, int color) {
+      colors.put(value, color);
+    }
+  }
+
   /**
    * Pushes a new list on stack and stores nodes annotations in the new list.
    * Clears objects' annotations as well.
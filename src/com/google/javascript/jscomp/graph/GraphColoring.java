@@ -20,9 +20,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.Comparator.comparing;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
 import org.jspecify.annotations.Nullable;
 
@@ -117,6 +117,9 @@ public abstract class GraphColoring<N, E> {
 
   /**
    * Greedily assign nodes with high degree unique colors.
+   *
+   * <p>The colors that a node can't take are found with the {@link ColorInterference} of the
+   * graph.
    */
   public static class GreedyGraphColoring<N, E> extends GraphColoring<N, E> {
 
@@ -151,26 +154,58 @@ public abstract class GraphColoring<N, E> {
                     : result;
               }));
 
-      // Idea: From the highest to lowest degree, assign any uncolored node with
-      // a unique color if none of its neighbors has been assigned that color.
-      int count = 0;
-      do {
-        Color color = new Color(count);
-        SubGraph<N, E> subgraph = graph.newSubGraph();
-        for (Iterator<GraphNode<N, E>> i = worklist.iterator(); i.hasNext();) {
-          GraphNode<N, E> node = i.next();
-          if (subgraph.isIndependentOf(node.getValue())) {
-            subgraph.addNode(node.getValue());
-            node.setAnnotation(color);
-            i.remove();
-          }
+      // Idea: From the highest to lowest degree, assign each node the lowest color that none of
+      // its neighbors has been assigned yet. This gives the same coloring as assigning the first
+      // color to as many nodes as possible in that order, then the second color to as many of the
+      // remaining nodes, and so on, without going over the remaining nodes once for each color.
+      ColorInterference<N> interference = graph.newColorInterference();
+      BitSet interferingColors = new BitSet();
+      List<Color> colors = new ArrayList<>();
+      for (GraphNode<N, E> node : worklist) {
+        interferingColors.clear();
+        interference.addInterferingColors(node.getValue(), interferingColors);
+        int value = interferingColors.nextClearBit(0);
+        if (value == colors.size()) {
+          colors.add(new Color(value));
         }
-        count++;
-      } while (!worklist.isEmpty());
+        interference.recordColor(node.getValue(), value);
+        node.setAnnotation(colors.get(value));
+      }
+      int count = colors.size();
       @SuppressWarnings("unchecked")
       N[] map = (N[]) new Object[count];
       colorToNodeMap = map;
       return count;
     }
   }
+
+  /**
+   * A {@link ColorInterference} that keeps the nodes given each color in a {@link SubGraph}, for
+   * graphs that can't find the neighbors of a node.
+   */
+  static final class SubGraphColorInterference<N, E> implements ColorInterference<N> {
+    private final AdjacencyGraph<N, E> graph;
+    private final List<SubGraph<N, E>> subgraphsByColor = new ArrayList<>();
+
+    SubGraphColorInterference(AdjacencyGraph<N, E> graph) {
+      this.graph = graph;
+    }
+
+    @Override
+    public void addInterferingColors(N value, BitSet colors) {
+      for (int color = 0; color < subgraphsByColor.size(); color++) {
+        if (!subgraphsByColor.get(color).isIndependentOf(value)) {
+          colors.set(color);
+        }
+      }
+    }
+
+    @Override
+    public void recordColor(N value, int color) {
+      while (subgraphsByColor.size() <= color) {
+        subgraphsByColor.add(graph.newSubGraph());
+      }
+      subgraphsByColor.get(color).addNode(value);
+    }
+  }
 }
@@ -23,12 +23,11 @@ import static com.google.common.base.Preconditions.checkState;
 import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.annotations.Immutable;
 import com.google.javascript.jscomp.graph.DiGraph.DiGraphEdge;
-import com.google.javascript.jscomp.graph.DiGraph.DiGraphNode;
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Implements a lowest common ancestor search algorithm.
@@ -52,7 +51,15 @@ public class LowestCommonAncestorFinder<N, E> {
    */
   @FunctionalInterface
   public interface Factory<N, E> {
-    LowestCommonAncestorFinder<N, E> create(DiGraph<N, E> graph);
+    LowestCommonAncestorFinder<N, E> create(Parents<N> graph);
+  }
+
+  /** The parents of the nodes in a graph, which is all that the search needs from the graph. */
+  public interface Parents<N> {
+    boolean hasNode(N node);
+
+    /** Calls {@code action} with the source of each in edge of {@code node}, in order. */
+    void forEachParent(N node, Consumer<N> action);
   }
 
   /** A "color" for a node, encoded as a combination of other colors using a one-hot scheme. */
@@ -125,12 +132,29 @@ public class LowestCommonAncestorFinder<N, E> {
     }
   }
 
-  private final DiGraph<N, E> graph;
+  private final Parents<N> graph;
 
-  private final LinkedHashMap<DiGraphNode<N, E>, Color> searchColoring = new LinkedHashMap<>();
-  private final ArrayDeque<DiGraphNode<N, E>> searchQueue = new ArrayDeque<>();
+  private final LinkedHashMap<N, Color> searchColoring = new LinkedHashMap<>();
+  private final ArrayDeque<N> searchQueue = new ArrayDeque<>();
 
   public LowestCommonAncestorFinder(DiGraph<N, E> graph) {
+    this(
+        new Parents<N>() {
+          @Override
+          public boolean hasNode(N node) {
+            return graph.hasNode(node);
+          }
+
+          @Override
+          public void forEachParent(N node, Consumer<N> action) {
+            for (DiGraphEdge<N, E> inEdge : graph.getNode(node).getInEdges()) {
+              action.accept(inEdge.getSource().getValue());
+            }
+          }
+        });
+  }
+
+  public LowestCommonAncestorFinder(Parents<N> graph) {
     this.graph = graph;
   }
 
@@ -155,13 +179,12 @@ public class LowestCommonAncestorFinder<N, E> {
      */
     int bitForRoot = 1;
     for (N root : roots) {
-      DiGraphNode<N, E> rootNode = this.graph.getNode(root);
-      checkNotNull(rootNode, "Root not present in graph: %s", root);
+      checkArgument(this.graph.hasNode(root), "Root not present in graph: %s", root);
 
       Color color = Color.create(bitForRoot);
 
-      this.searchColoring.merge(rootNode, color, Color::mix); // Preserve any existing colors.
-      this.paintAncestors(rootNode, color);
+      this.searchColoring.merge(root, color, Color::mix); // Preserve any existing colors.
+      this.paintAncestors(root, color);
       bitForRoot <<= 1;
     }
 
@@ -180,7 +203,7 @@ public class LowestCommonAncestorFinder<N, E> {
     this.searchColoring.forEach(
         (node, color) -> {
           if (color.equals(allColor)) {
-            results.add(node.getValue());
+            results.add(node);
           }
         });
 
@@ -195,28 +218,27 @@ public class LowestCommonAncestorFinder<N, E> {
    * <p>{@code root} itself will not have its color changed. {@code color} will be mixed with all
    * existing colors on ancestor nodes.
    */
-  private void paintAncestors(DiGraphNode<N, E> root, Color color) {
+  private void paintAncestors(N root, Color color) {
     checkState(this.searchQueue.isEmpty());
 
     this.searchQueue.addLast(root);
 
     while (!this.searchQueue.isEmpty()) {
-      DiGraphNode<N, E> curr = this.searchQueue.removeFirst();
-      List<? extends DiGraphEdge<N, E>> parentEdges = curr.getInEdges();
-
-      for (DiGraphEdge<N, E> parentEdge : parentEdges) {
-        DiGraphNode<N, E> parent = parentEdge.getSource();
-        if (parent.equals(root)) {
-          continue; // Don't paint `root`.
-        }
-
-        Color oldColor = this.searchColoring.getOrDefault(parent, Color.BLANK);
-        if (!oldColor.contains(color)) {
-          // Only explore in directions that have not yet been painted.
-          this.searchQueue.addLast(parent);
-          this.searchColoring.put(parent, oldColor.mix(color));
-        }
-      }
+      N curr = this.searchQueue.removeFirst();
+      this.graph.forEachParent(
+          curr,
+          (parent) -> {
+            if (parent.equals(root)) {
+              return; // Don't paint `root`.
+            }
+
+            Color oldColor = this.searchColoring.getOrDefault(parent, Color.BLANK);
+            if (!oldColor.contains(color)) {
+              // Only explore in directions that have not yet been painted.
+              this.searchQueue.addLast(parent);
+              this.searchColoring.put(parent, oldColor.mix(color));
+            }
+          });
     }
   }
 }
@@ -114,6 +114,11 @@ class ColorSerializer {
         });
   }
 
+  /** Returns the `Integer` value that refers to `color`, which must have been added before. */
+  int getTypePointer(Color color) {
+    return checkNotNull(colorIdToTypePointer.get(color.getId()), "Color was not added: %s", color);
+  }
+
   /**
    * Generate a `TypePool` proto built from the previously added `Color`s and the arguments supplied
    * to this method.
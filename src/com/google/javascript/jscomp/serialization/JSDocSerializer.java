@@ -25,6 +25,7 @@ import com.google.javascript.rhino.JSTypeExpression;
 import com.google.javascript.rhino.Node;
 import com.google.javascript.rhino.Token;
 import java.util.TreeSet;
+import java.util.function.Function;
 import org.jspecify.annotations.Nullable;
 
 /** Utilities for serializing and deserializing JSDoc necessary for optimzations. */
@@ -42,11 +43,11 @@ public final class JSDocSerializer {
    */
   public static JSDocInfo convertJSDocInfoForOptimizations(JSDocInfo jsdoc) {
     StringPool.Builder stringPool = StringPool.builder();
-    return deserializeJsdoc(serializeJsdoc(jsdoc, stringPool), stringPool.build());
+    return deserializeJsdoc(serializeJsdoc(jsdoc, stringPool::put), stringPool.build());
   }
 
   static @Nullable OptimizationJsdoc serializeJsdoc(
-      JSDocInfo jsdoc, StringPool.Builder stringPool) {
+      JSDocInfo jsdoc, Function<String, Integer> stringPoolIndexFn) {
     if (jsdoc == null) {
       return null;
     }
@@ -58,7 +59,7 @@ public final class JSDocSerializer {
     }
 
     if (jsdoc.getLicense() != null) {
-      builder.setLicenseTextPointer(stringPool.put(jsdoc.getLicense()));
+      builder.setLicenseTextPointer(stringPoolIndexFn.apply(jsdoc.getLicense()));
     }
 
     if (jsdoc.isSassGeneratedCssTs()) {
@@ -156,13 +157,13 @@ public final class JSDocSerializer {
 
     // Used by ReplaceMessages
     if (jsdoc.getDescription() != null) {
-      builder.setDescriptionPointer(stringPool.put(jsdoc.getDescription()));
+      builder.setDescriptionPointer(stringPoolIndexFn.apply(jsdoc.getDescription()));
     }
     if (jsdoc.getAlternateMessageId() != null) {
-      builder.setAlternateMessageIdPointer(stringPool.put(jsdoc.getAlternateMessageId()));
+      builder.setAlternateMessageIdPointer(stringPoolIndexFn.apply(jsdoc.getAlternateMessageId()));
     }
     if (jsdoc.getMeaning() != null) {
-      builder.setMeaningPointer(stringPool.put(jsdoc.getMeaning()));
+      builder.setMeaningPointer(stringPoolIndexFn.apply(jsdoc.getMeaning()));
     }
     if (jsdoc.getSuppressions().contains("messageConventions")) {
       builder.addKind(JsdocTag.JSDOC_SUPPRESS_MESSAGE_CONVENTION);
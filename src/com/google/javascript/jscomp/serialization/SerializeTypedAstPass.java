@@ -16,6 +16,7 @@
 
 package com.google.javascript.jscomp.serialization;
 
+import com.google.common.hash.HashCode;
 import com.google.javascript.jscomp.AbstractCompiler;
 import com.google.javascript.jscomp.CompilerPass;
 import com.google.javascript.jscomp.RemoveCastNodes;
@@ -24,8 +25,10 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.zip.GZIPOutputStream;
+import org.jspecify.annotations.Nullable;
 
 /**
  * A compiler pass intended to serialize the types in the AST.
@@ -38,14 +41,35 @@ public final class SerializeTypedAstPass implements CompilerPass {
   private final AbstractCompiler compiler;
   private final Consumer<TypedAst> consumer;
   private final SerializationOptions serializationOptions;
+  private final @Nullable TypedAstCache cache;
+  private final @Nullable ExecutorService executor;
 
   SerializeTypedAstPass(
       AbstractCompiler compiler,
       Consumer<TypedAst> astConsumer,
       SerializationOptions serializationOptions) {
+    this(compiler, astConsumer, serializationOptions, null);
+  }
+
+  SerializeTypedAstPass(
+      AbstractCompiler compiler,
+      Consumer<TypedAst> astConsumer,
+      SerializationOptions serializationOptions,
+      @Nullable TypedAstCache cache) {
+    this(compiler, astConsumer, serializationOptions, cache, null);
+  }
+
+  SerializeTypedAstPass(
+      AbstractCompiler compiler,
+      Consumer<TypedAst> astConsumer,
+      SerializationOptions serializationOptions,
+      @Nullable TypedAstCache cache,
+      @Nullable ExecutorService executor) {
     this.compiler = compiler;
     this.consumer = astConsumer;
     this.serializationOptions = serializationOptions;
+    this.cache = cache;
+    this.executor = executor;
   }
 
   /**
@@ -56,6 +80,18 @@ public final class SerializeTypedAstPass implements CompilerPass {
    */
   public static SerializeTypedAstPass createFromOutputStream(
       AbstractCompiler c, OutputStream out, SerializationOptions serializationOptions) {
+    return createFromOutputStream(c, out, serializationOptions, null);
+  }
+
+  /**
+   * Serializes a TypedAst to the given output stream, serializing the scripts on the threads of
+   * {@code executor} if there is one. The executor is not shut down.
+   */
+  public static SerializeTypedAstPass createFromOutputStream(
+      AbstractCompiler c,
+      OutputStream out,
+      SerializationOptions serializationOptions,
+      @Nullable ExecutorService executor) {
     Consumer<TypedAst> toOutputStream =
         ast -> {
           try {
@@ -64,12 +100,26 @@ public final class SerializeTypedAstPass implements CompilerPass {
             throw new IllegalArgumentException("Cannot write to stream", e);
           }
         };
-    return new SerializeTypedAstPass(c, toOutputStream, serializationOptions);
+    return new SerializeTypedAstPass(c, toOutputStream, serializationOptions, null, executor);
   }
 
   /** Serializes a gzipped TypedAst to the specified outputPath */
   public static SerializeTypedAstPass createFromPath(
       AbstractCompiler compiler, Path outputPath, SerializationOptions serializationOptions) {
+    return createFromPath(compiler, outputPath, serializationOptions, null, null);
+  }
+
+  /**
+   * Serializes a gzipped TypedAst to the specified outputPath, reusing the TypedAst from the cache
+   * if an earlier compilation serialized the same inputs. The scripts are serialized on the threads
+   * of {@code executor} if there is one, which is not shut down.
+   */
+  public static SerializeTypedAstPass createFromPath(
+      AbstractCompiler compiler,
+      Path outputPath,
+      SerializationOptions serializationOptions,
+      @Nullable TypedAstCache cache,
+      @Nullable ExecutorService executor) {
     Consumer<TypedAst> toPath =
         ast -> {
           try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(outputPath))) {
@@ -78,14 +128,22 @@ public final class SerializeTypedAstPass implements CompilerPass {
             throw new IllegalArgumentException("Cannot create TypedAst output file", e);
           }
         };
-    return new SerializeTypedAstPass(compiler, toPath, serializationOptions);
+    return new SerializeTypedAstPass(compiler, toPath, serializationOptions, cache, executor);
   }
 
   @Override
   public void process(Node externs, Node root) {
     new RemoveCastNodes(compiler).process(externs, root);
-    TypedAstSerializer serializer = new TypedAstSerializer(this.compiler, serializationOptions);
-    TypedAst ast = serializer.serializeRoots(externs, root);
+    HashCode cacheKey = cache != null ? cache.keyFor(serializationOptions, externs, root) : null;
+    TypedAst ast = cacheKey != null ? cache.get(cacheKey) : null;
+    if (ast == null) {
+      TypedAstSerializer serializer =
+          new TypedAstSerializer(this.compiler, serializationOptions, this.executor);
+      ast = serializer.serializeRoots(externs, root);
+      if (cacheKey != null) {
+        cache.put(cacheKey, ast);
+      }
+    }
     consumer.accept(ast);
   }
 }
@@ -24,6 +24,7 @@ import com.google.javascript.rhino.RhinoStringPool;
 import com.google.protobuf.ByteString;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 
 /**
  * Aggregates strings into a {@link StringPool}
@@ -39,16 +40,29 @@ public final class StringPool {
   private final int maxLength; // max length of any individual string in the pool
   private final RhinoStringPool.LazyInternedStringList pool;
 
+  /**
+   * Creates a pool of the strings in the proto.
+   *
+   * <p>The strings are decoded when they are first used, so the bytes of the proto are kept until
+   * then. Strings that are never used are never decoded.
+   */
   public static StringPool fromProto(StringPoolProto proto) {
     Wtf8.Decoder decoder = Wtf8.decoder(proto.getMaxLength());
-
-    ArrayList<String> pool = new ArrayList<>();
-    pool.add("");
-    for (ByteString s : proto.getStringsList()) {
-      pool.add(decoder.decode(s));
-    }
-
-    return new StringPool(proto.getMaxLength(), pool);
+    List<ByteString> encoded = proto.getStringsList();
+
+    return new StringPool(
+        proto.getMaxLength(),
+        new RhinoStringPool.LazyInternedStringList(
+            encoded.size() + 1,
+            (int offset) -> {
+              if (offset == 0) {
+                return "";
+              }
+              // The decoder reuses its buffer, and scripts may be deserialized on several threads.
+              synchronized (decoder) {
+                return decoder.decode(encoded.get(offset - 1));
+              }
+            }));
   }
 
   public static StringPool empty() {
@@ -56,8 +70,12 @@ public final class StringPool {
   }
 
   private StringPool(int maxLength, ArrayList<String> pool) {
+    this(maxLength, new RhinoStringPool.LazyInternedStringList(pool));
+  }
+
+  private StringPool(int maxLength, RhinoStringPool.LazyInternedStringList pool) {
     this.maxLength = maxLength;
-    this.pool = new RhinoStringPool.LazyInternedStringList(pool);
+    this.pool = pool;
 
     checkState(pool.get(0).isEmpty());
   }
@@ -100,6 +118,11 @@ public final class StringPool {
       return this.pool.computeIfAbsent(string, (unused) -> this.pool.size());
     }
 
+    /** Returns the index of the given string, which must have been inserted before */
+    int indexOf(String string) {
+      return checkNotNull(this.pool.get(string), "String was not inserted: %s", string);
+    }
+
     @CanIgnoreReturnValue
     public Builder putAnd(String string) {
       this.put(string);
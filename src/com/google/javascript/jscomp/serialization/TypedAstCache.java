@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.serialization;
+
+import static com.google.javascript.jscomp.bundle.PersistentCache.putString;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.javascript.jscomp.SourceFile;
+import com.google.javascript.jscomp.bundle.PersistentCache;
+import com.google.javascript.rhino.Node;
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An on-disk cache of serialized TypedASTs, shared by compilations and processes that use the same
+ * directory.
+ *
+ * <p>An entry is keyed on the content of every script in the AST, externs and type summaries
+ * included, on the serialization options, and on a description of the compiler configuration. A
+ * compilation with the same key would produce the same TypedAST, so {@link SerializeTypedAstPass}
+ * can reuse the entry instead of serializing the AST again. Scripts aren't cached one by one,
+ * since a serialized script points into the string, type and source file pools of the whole
+ * TypedAST, and the types in them come from checking every script together.
+ *
+ * <p>The entries are kept in a {@link PersistentCache}, which deletes the least recently used ones
+ * to stay below a maximum total size. Failing to read or write the cache only loses the reuse, and
+ * is logged rather than reported.
+ */
+public final class TypedAstCache {
+  // Change this when the TypedAST format or the key change, so old entries are never read.
+  private static final int FORMAT_VERSION = 2;
+
+  private final PersistentCache cache;
+  private final String configuration;
+
+  /**
+   * Creates a cache in {@code directory}, which is created when the first entry is added.
+   *
+   * @param configuration describes everything other than the inputs that the serialized AST
+   *     depends on, such as the compiler version and options. Only compilations with the same
+   *     configuration share entries.
+   */
+  public TypedAstCache(Path directory, long maxSizeInBytes, String configuration) {
+    this.cache = PersistentCache.inDirectory(directory, maxSizeInBytes);
+    this.configuration = configuration;
+  }
+
+  /**
+   * Returns the key for the TypedAST serialized from the given roots, or null if the content of a
+   * script isn't available.
+   */
+  @Nullable HashCode keyFor(SerializationOptions serializationOptions, Node externs, Node root) {
+    Hasher hasher = PersistentCache.newKeyHasher().putInt(FORMAT_VERSION);
+    putString(hasher, configuration);
+    hasher.putBoolean(serializationOptions.getIncludeDebugInfo());
+    hasher.putInt(serializationOptions.getRuntimeLibraries().size());
+    for (String runtimeLibrary : serializationOptions.getRuntimeLibraries()) {
+      putString(hasher, runtimeLibrary);
+    }
+    for (Node scriptRoot : new Node[] {externs, root}) {
+      hasher.putInt(scriptRoot.getChildCount());
+      for (Node script = scriptRoot.getFirstChild(); script != null; script = script.getNext()) {
+        if (!(script.getStaticSourceFile() instanceof SourceFile sourceFile)) {
+          return null;
+        }
+        putString(hasher, sourceFile.getName());
+        putString(hasher, sourceFile.getKind().name());
+        try {
+          putString(hasher, sourceFile.getCode());
+        } catch (IOException e) {
+          return null;
+        }
+      }
+    }
+    return hasher.hash();
+  }
+
+  /** Returns the entry for the key, or null if there isn't one. */
+  @Nullable TypedAst get(HashCode key) {
+    return cache.getIfPresent(key, TypedAstCache::parse);
+  }
+
+  /** Adds the entry for the key. */
+  void put(HashCode key, TypedAst ast) {
+    cache.put(key, ast.toByteArray());
+  }
+
+  private static TypedAst parse(byte[] entry) {
+    try {
+      return TypedAst.parseFrom(entry);
+    } catch (InvalidProtocolBufferException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -34,6 +34,7 @@ import com.google.javascript.jscomp.colors.ColorRegistry;
 import com.google.javascript.jscomp.parsing.parser.FeatureSet;
 import com.google.javascript.rhino.IR;
 import com.google.javascript.rhino.Node;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.ExtensionRegistry;
 import com.google.protobuf.InvalidProtocolBufferException;
@@ -106,6 +107,54 @@ public final class TypedAstDeserializer {
       boolean includeTypeInformation,
       boolean resolveSourceMapAnnotations,
       boolean parseInlineSourceMaps) {
+    return deserializeFullAst(
+        compiler,
+        syntheticExterns,
+        requiredInputFiles,
+        CodedInputStream.newInstance(typedAstsStream),
+        includeTypeInformation,
+        resolveSourceMapAnnotations,
+        parseInlineSourceMaps);
+  }
+
+  /**
+   * Transforms a given TypedAst delimited byte string into a compiler AST
+   *
+   * <p>Unlike {@link #deserializeFullAst(AbstractCompiler, SourceFile, ImmutableSet, InputStream,
+   * boolean, boolean, boolean)}, the scripts and strings are not copied out of {@code typedAsts}.
+   * Each script is decoded when its supplier is first called, and each string when it is first
+   * used, so {@code typedAsts} may be a file mapped into memory. It must not change while the
+   * filesystem is in use.
+   */
+  public static DeserializedAst deserializeFullAst(
+      AbstractCompiler compiler,
+      SourceFile syntheticExterns,
+      ImmutableSet<SourceFile> requiredInputFiles,
+      ByteString typedAsts,
+      boolean includeTypeInformation,
+      boolean resolveSourceMapAnnotations,
+      boolean parseInlineSourceMaps) {
+    CodedInputStream codedInput = typedAsts.newCodedInput();
+    // Make the bytes fields of the protos, like LazyAst.script, views of typedAsts.
+    codedInput.enableAliasing(true);
+    return deserializeFullAst(
+        compiler,
+        syntheticExterns,
+        requiredInputFiles,
+        codedInput,
+        includeTypeInformation,
+        resolveSourceMapAnnotations,
+        parseInlineSourceMaps);
+  }
+
+  private static DeserializedAst deserializeFullAst(
+      AbstractCompiler compiler,
+      SourceFile syntheticExterns,
+      ImmutableSet<SourceFile> requiredInputFiles,
+      CodedInputStream typedAstsInput,
+      boolean includeTypeInformation,
+      boolean resolveSourceMapAnnotations,
+      boolean parseInlineSourceMaps) {
     ImmutableMap<String, SourceFile> sourceFilesByName =
         requiredInputFiles.stream()
             .collect(toImmutableMap(SourceFile::getName, Function.identity()));
@@ -115,7 +164,7 @@ public final class TypedAstDeserializer {
         Optional.of(requiredInputFiles),
         sourceFilesByName,
         Optional.absent(),
-        typedAstsStream,
+        typedAstsInput,
         Mode.FULL_AST,
         includeTypeInformation,
         resolveSourceMapAnnotations,
@@ -144,7 +193,7 @@ public final class TypedAstDeserializer {
         Optional.absent(),
         ImmutableMap.of(),
         colorPool,
-        typedAstsStream,
+        CodedInputStream.newInstance(typedAstsStream),
         Mode.RUNTIME_LIBRARY_ONLY,
         colorPool.isPresent(),
         resolveSourceMapAnnotations,
@@ -157,7 +206,7 @@ public final class TypedAstDeserializer {
       Optional<ImmutableSet<SourceFile>> requiredInputFiles,
       ImmutableMap<String, SourceFile> scriptSourceFiles,
       Optional<ColorPool.Builder> colorPool,
-      InputStream typedAstStream,
+      CodedInputStream typedAstsInput,
       Mode mode,
       boolean includeTypeInformation,
       boolean resolveSourceMapAnnotations,
@@ -179,7 +228,7 @@ public final class TypedAstDeserializer {
     }
 
     deserializeTypedAsts(
-        typedAstStream, deserializer, compiler, resolveSourceMapAnnotations, parseInlineSourceMaps);
+        typedAstsInput, deserializer, compiler, resolveSourceMapAnnotations, parseInlineSourceMaps);
 
     deserializer.typedAstFilesystem.put(
         syntheticExterns,
@@ -383,14 +432,13 @@ public final class TypedAstDeserializer {
   }
 
   private static void deserializeTypedAsts(
-      InputStream typedAstsStream,
+      CodedInputStream codedInput,
       TypedAstDeserializer deserializer,
       AbstractCompiler compiler,
       boolean resolveSourceMapAnnotations,
       boolean parseInlineSourceMaps) {
     try {
-      CodedInputStream codedInput = CodedInputStream.newInstance(typedAstsStream);
-      // The typedAstsStream is an encoded 'TypedAst.List' message:
+      // The codedInput is an encoded 'TypedAst.List' message:
       //  message TypedAst {
       //    // (other fields)
       //   message List {
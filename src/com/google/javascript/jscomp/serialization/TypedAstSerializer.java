@@ -21,6 +21,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.javascript.jscomp.AbstractCompiler;
@@ -33,26 +35,52 @@ import com.google.javascript.jscomp.colors.ColorId;
 import com.google.javascript.jscomp.colors.ColorRegistry;
 import com.google.javascript.rhino.Node;
 import com.google.javascript.rhino.jstype.JSType;
+import com.google.protobuf.ByteString;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import org.jspecify.annotations.Nullable;
 
-/** Transforms a compiler AST into a serialized TypedAst object. */
+/**
+ * Transforms a compiler AST into a serialized TypedAst object.
+ *
+ * <p>Given an executor, the scripts are serialized in parallel on its threads. The strings, colors
+ * and source files that the AST nodes point to are first collected from each script on a worker,
+ * and added to the shared pools in script order on the calling thread. Then the scripts are
+ * serialized on the workers, looking up the offsets in the shared pools. This gives the same output
+ * as serializing the scripts one after the other.
+ */
 final class TypedAstSerializer {
 
   private final AbstractCompiler compiler;
   private final SerializationOptions serializationMode;
+  private final @Nullable ExecutorService executor;
   private final StringPool.Builder stringPool = StringPool.builder();
-  private int previousLine;
-  private int previousColumn;
-  private final ArrayDeque<SourceFile> subtreeSourceFiles = new ArrayDeque<>();
   private final LinkedHashMap<SourceFile, Integer> sourceFilePointers = new LinkedHashMap<>();
 
   private @Nullable TypeSerializer typeSerializer = null;
+  private @Nullable ColorSerializer colorSerializer = null;
 
   TypedAstSerializer(AbstractCompiler compiler, SerializationOptions serializationMode) {
+    this(compiler, serializationMode, null);
+  }
+
+  /**
+   * @param executor the threads to serialize the scripts on, which are not shut down, or null to
+   *     serialize them on the calling thread
+   */
+  TypedAstSerializer(
+      AbstractCompiler compiler,
+      SerializationOptions serializationMode,
+      @Nullable ExecutorService executor) {
     this.compiler = compiler;
     this.serializationMode = serializationMode;
+    this.executor = executor;
   }
 
   /** Transforms the given compiler AST root nodes into into a serialized TypedAst object */
@@ -61,7 +89,7 @@ final class TypedAstSerializer {
     checkArgument(jsRoot.isRoot());
 
     if (this.compiler.hasOptimizationColors()) {
-      this.typeSerializer = createColorTypeSerializer(compiler, serializationMode, stringPool);
+      this.typeSerializer = createColorTypeSerializer(compiler, serializationMode);
     } else if (this.compiler.hasTypeCheckingRun()) {
       // The AST has JSTypes, but we want to serialize colors instead.
       // TODO(bradfordcsmith): Change this branch to throw an error and delete the related logic.
@@ -71,18 +99,17 @@ final class TypedAstSerializer {
       this.typeSerializer = new NoOpTypeSerializer();
     }
 
+    ImmutableList<Node> externs = collectScriptsToSerialize(externsRoot);
+    ImmutableList<Node> code = collectScriptsToSerialize(jsRoot);
+    ImmutableList<ByteString> scriptProtos =
+        serializeScripts(ImmutableList.<Node>builder().addAll(externs).addAll(code).build());
+
     TypedAst.Builder builder = TypedAst.newBuilder();
-    for (Node script = externsRoot.getFirstChild(); script != null; script = script.getNext()) {
-      if (NodeUtil.isFromTypeSummary(script)) {
-        continue;
-      }
-      builder.addExternAst(serializeScriptNode(script));
+    for (int i = 0; i < externs.size(); i++) {
+      builder.addExternAst(createLazyAst(externs.get(i), scriptProtos.get(i)));
     }
-    for (Node script = jsRoot.getFirstChild(); script != null; script = script.getNext()) {
-      if (NodeUtil.isFromTypeSummary(script)) {
-        continue;
-      }
-      builder.addCodeAst(serializeScriptNode(script));
+    for (int i = 0; i < code.size(); i++) {
+      builder.addCodeAst(createLazyAst(code.get(i), scriptProtos.get(externs.size() + i)));
     }
 
     SourceFilePool sourceFiles =
@@ -109,18 +136,80 @@ final class TypedAstSerializer {
         .build();
   }
 
-  private LazyAst serializeScriptNode(Node script) {
-    checkState(script.isScript());
-    previousLine = previousColumn = 0;
+  private static ImmutableList<Node> collectScriptsToSerialize(Node root) {
+    ImmutableList.Builder<Node> scripts = ImmutableList.builder();
+    for (Node script = root.getFirstChild(); script != null; script = script.getNext()) {
+      if (!NodeUtil.isFromTypeSummary(script)) {
+        scripts.add(script);
+      }
+    }
+    return scripts.build();
+  }
 
-    int sourceFile = getSourceFilePointer(script);
-    AstNode scriptProto = visit(script);
-    this.subtreeSourceFiles.clear();
+  /** Returns the serialized AstNode of each script. */
+  private ImmutableList<ByteString> serializeScripts(ImmutableList<Node> scripts) {
+    if (this.executor == null || scripts.size() <= 1) {
+      SharedPools pools = new SharedPools();
+      return scripts.stream()
+          .map((script) -> new ScriptSerializer(pools).serialize(script).toByteString())
+          .collect(toImmutableList());
+    }
 
+    // Find what each script points to, and add it to the shared pools in the serial order.
+    ImmutableList<LocalPools> localPools =
+        runOnEachScript(
+            this.executor,
+            scripts,
+            (script) -> {
+              LocalPools pools = new LocalPools();
+              new ScriptSerializer(pools).serialize(script);
+              return pools;
+            });
+    SharedPools sharedPools = new SharedPools();
+    for (LocalPools pools : localPools) {
+      pools.addTo(sharedPools);
+    }
+
+    // Now that the shared pools don't change anymore, they can be read from any thread.
+    LookupPools lookupPools = new LookupPools();
+    return runOnEachScript(
+        this.executor,
+        scripts,
+        (script) -> new ScriptSerializer(lookupPools).serialize(script).toByteString());
+  }
+
+  private static <T> ImmutableList<T> runOnEachScript(
+      ExecutorService executor, ImmutableList<Node> scripts, Function<Node, T> task) {
+    List<Future<T>> futures = new ArrayList<>();
+    try {
+      for (Node script : scripts) {
+        futures.add(executor.submit(() -> task.apply(script)));
+      }
+      ImmutableList.Builder<T> results = ImmutableList.builder();
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results.build();
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } finally {
+      // The executor isn't ours, so don't leave work behind on it if a script failed.
+      for (Future<T> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  private LazyAst createLazyAst(Node script, ByteString scriptProto) {
+    int sourceFile = this.sourceFilePointers.get((SourceFile) script.getStaticSourceFile());
     String encodedSourceMap = compiler.getBase64SourceMapContents(script.getSourceFileName());
 
     LazyAst.Builder lazyAstBuilder =
-        LazyAst.newBuilder().setScript(scriptProto.toByteString()).setSourceFile(sourceFile);
+        LazyAst.newBuilder().setScript(scriptProto).setSourceFile(sourceFile);
 
     if (encodedSourceMap != null) {
       // This is the encoded source map taken from the inline sourcemap comment. It does not include
@@ -133,128 +222,228 @@ final class TypedAstSerializer {
     return lazyAstBuilder.build();
   }
 
-  private AstNode.Builder createWithPositionInfo(Node n) {
-    checkState(n.getLength() >= 0);
-    int currentLine = n.getLineno();
-    int currentColumn = n.getCharno();
-    AstNode.Builder builder =
-        AstNode.newBuilder()
-            .setRelativeLine(currentLine - previousLine)
-            .setRelativeColumn(currentColumn - previousColumn);
-    previousLine = currentLine;
-    previousColumn = currentColumn;
-    return builder;
-  }
+  /** Gives out the offsets that AstNodes use to point to strings, colors and source files. */
+  interface ScriptPools {
+    int putString(String string);
+
+    int putColor(Color color);
 
-  private AstNode visit(Node n) {
-    AstNode.Builder builder = createWithPositionInfo(n);
-    addType(n, builder);
-    OptimizationJsdoc serializedJsdoc =
-        JSDocSerializer.serializeJsdoc(n.getJSDocInfo(), stringPool);
-    if (serializedJsdoc != null) {
-      builder.setJsdoc(serializedJsdoc);
-    }
-    builder.setKind(kindTranslator(n));
-    valueTranslator(builder, n);
-    builder.setBooleanProperties(n.serializeProperties());
-    int sourceFile = getSourceFilePointer(n);
-    builder.setSourceFile(sourceFile);
-
-    for (Node child = n.getFirstChild(); child != null; child = child.getNext()) {
-      builder.addChild(visit(child));
-    }
-    Node shadowedCode = n.getClosureUnawareShadow();
-    if (shadowedCode != null) {
-      // For Closure shadow hosts, the ASTNode will get a boolean property bit set
-      // (CLOSURE_UNAWARE_SHADOW) that indicates this child ASTNode is not a normal child, but is
-      // the contents of the shadow.
-      // Shadow roots are structured as
-      // ROOT -> SCRIPT -> EXPR_RESULT -> FUNCTION
-      // We avoid including the ROOT -> SCRIPT -> EXPR_RESULT structure in the serialization as it
-      // is all synthetic code that would unnecessarily bloat the TypedAST and is instead recreated
-      // upon deserialization.
-      // The child ASTNode is just the FUNCTION.
-      builder.addChild(visit(shadowedCode.getFirstFirstChild().getFirstChild()));
-    }
-
-    if (sourceFile != 0) {
-      subtreeSourceFiles.removeLast();
-    }
-    setOriginalName(builder, n);
-
-    return builder.build();
+    /** Returns an offset greater than 0. */
+    int putSourceFile(SourceFile sourceFile);
   }
 
-  private int getSourceFilePointer(Node n) {
-    SourceFile sourceFile = (SourceFile) n.getStaticSourceFile();
-    if (sourceFile == null) {
-      // TODO(b/186056977): enforce that SourceFile is not null in externs as well as code.
-      checkState(
-          subtreeSourceFiles.peekLast().isExtern(),
-          "Unexpected null SourceFile for node %s with parent %s",
-          n.toStringTree(),
-          n.getParent());
-      return 0; // not set
+  /** Adds to the pools of the TypedAst. Only used from one thread. */
+  private final class SharedPools implements ScriptPools {
+    @Override
+    public int putString(String string) {
+      return stringPool.put(string);
     }
 
-    if (sourceFile.equals(subtreeSourceFiles.peekLast())) {
-      // To save space, only serialize a SourceFile for a node if it is different than the parent's
-      // source.
-      return 0; // not set
+    @Override
+    public int putColor(Color color) {
+      return colorSerializer.addColor(color);
     }
 
-    subtreeSourceFiles.addLast(sourceFile);
-    return this.sourceFilePointers.computeIfAbsent(
-        sourceFile, (f) -> 1 + this.sourceFilePointers.size());
+    @Override
+    public int putSourceFile(SourceFile sourceFile) {
+      return sourceFilePointers.computeIfAbsent(sourceFile, (f) -> 1 + sourceFilePointers.size());
+    }
   }
 
-  private void addType(Node n, AstNode.Builder builder) {
-    typeSerializer.addTypeForNode(n, builder);
+  /** Finds the offsets in the pools of the TypedAst, once nothing is added to them anymore. */
+  private final class LookupPools implements ScriptPools {
+    @Override
+    public int putString(String string) {
+      return stringPool.indexOf(string);
+    }
+
+    @Override
+    public int putColor(Color color) {
+      return colorSerializer.getTypePointer(color);
+    }
+
+    @Override
+    public int putSourceFile(SourceFile sourceFile) {
+      return checkNotNull(sourceFilePointers.get(sourceFile), sourceFile);
+    }
   }
 
-  private void valueTranslator(AstNode.Builder builder, Node n) {
-    switch (n.getToken()) {
-      case GETPROP:
-      case OPTCHAIN_GETPROP:
-      case MEMBER_FUNCTION_DEF:
-      case MEMBER_FIELD_DEF:
-      case NAME:
-      case STRINGLIT:
-      case STRING_KEY:
-      case GETTER_DEF:
-      case SETTER_DEF:
-      case LABEL_NAME:
-      case IMPORT_STAR:
-        builder.setStringValuePointer(this.stringPool.put(n.getString()));
-        return;
-      case TEMPLATELIT_STRING:
-        builder.setTemplateStringValue(
-            TemplateStringValue.newBuilder()
-                .setRawStringPointer(this.stringPool.put(n.getRawString()))
-                .setCookedStringPointer(
-                    n.getCookedString() == null ? -1 : this.stringPool.put(n.getCookedString()))
-                .build());
-        return;
-      case NUMBER:
-        builder.setDoubleValue(n.getDouble());
-        return;
-      case BIGINT:
-        builder.setStringValuePointer(this.stringPool.put(n.getBigInt().toString()));
-        return;
-      default:
-        // No value
-        return;
+  /**
+   * Records what one script points to, in the order that the script is serialized in, and gives
+   * out offsets that are only meaningful within the script.
+   */
+  private static final class LocalPools implements ScriptPools {
+    private final LinkedHashMap<String, Integer> strings = new LinkedHashMap<>();
+    private final LinkedHashMap<ColorId, Color> colors = new LinkedHashMap<>();
+    private final LinkedHashMap<SourceFile, Integer> sourceFiles = new LinkedHashMap<>();
+
+    @Override
+    public int putString(String string) {
+      return strings.computeIfAbsent(string, (s) -> strings.size());
+    }
+
+    @Override
+    public int putColor(Color color) {
+      colors.putIfAbsent(color.getId(), color);
+      return 0;
+    }
+
+    @Override
+    public int putSourceFile(SourceFile sourceFile) {
+      return sourceFiles.computeIfAbsent(sourceFile, (f) -> 1 + sourceFiles.size());
+    }
+
+    /** Adds what the script points to, as serializing it with {@code pools} would. */
+    void addTo(SharedPools pools) {
+      this.strings.keySet().forEach(pools::putString);
+      this.colors.values().forEach(pools::putColor);
+      this.sourceFiles.keySet().forEach(pools::putSourceFile);
     }
   }
 
-  private void setOriginalName(AstNode.Builder builder, Node n) {
-    String originalName = n.getOriginalName();
-    if (originalName == null) {
-      builder.setOriginalNamePointer(0); // equivalent to 'not set'
-      return;
+  /** Serializes one script, using the offsets given out by a {@link ScriptPools}. */
+  private final class ScriptSerializer {
+    private final ScriptPools pools;
+    private int previousLine;
+    private int previousColumn;
+    private final ArrayDeque<SourceFile> subtreeSourceFiles = new ArrayDeque<>();
+
+    ScriptSerializer(ScriptPools pools) {
+      this.pools = pools;
+    }
+
+    AstNode serialize(Node script) {
+      checkState(script.isScript());
+      previousLine = previousColumn = 0;
+
+      getSourceFilePointer(script);
+      AstNode scriptProto = visit(script);
+      this.subtreeSourceFiles.clear();
+      return scriptProto;
+    }
+
+    private AstNode.Builder createWithPositionInfo(Node n) {
+      checkState(n.getLength() >= 0);
+      int currentLine = n.getLineno();
+      int currentColumn = n.getCharno();
+      AstNode.Builder builder =
+          AstNode.newBuilder()
+              .setRelativeLine(currentLine - previousLine)
+              .setRelativeColumn(currentColumn - previousColumn);
+      previousLine = currentLine;
+      previousColumn = currentColumn;
+      return builder;
     }
 
-    builder.setOriginalNamePointer(stringPool.put(originalName));
+    private AstNode visit(Node n) {
+      AstNode.Builder builder = createWithPositionInfo(n);
+      addType(n, builder);
+      OptimizationJsdoc serializedJsdoc =
+          JSDocSerializer.serializeJsdoc(n.getJSDocInfo(), pools::putString);
+      if (serializedJsdoc != null) {
+        builder.setJsdoc(serializedJsdoc);
+      }
+      builder.setKind(kindTranslator(n));
+      valueTranslator(builder, n);
+      builder.setBooleanProperties(n.serializeProperties());
+      int sourceFile = getSourceFilePointer(n);
+      builder.setSourceFile(sourceFile);
+
+      for (Node child = n.getFirstChild(); child != null; child = child.getNext()) {
+        builder.addChild(visit(child));
+      }
+      Node shadowedCode = n.getClosureUnawareShadow();
+      if (shadowedCode != null) {
+        // For Closure shadow hosts, the ASTNode will get a boolean property bit set
+        // (CLOSURE_UNAWARE_SHADOW) that indicates this child ASTNode is not a normal child, but is
+        // the contents of the shadow.
+        // Shadow roots are structured as
+        // ROOT -> SCRIPT -> EXPR_RESULT -> FUNCTION
+        // We avoid including the ROOT -> SCRIPT -> EXPR_RESULT structure in the serialization as
+        // it is all synthetic code that would unnecessarily bloat the TypedAST and is instead
+        // recreated upon deserialization.
+        // The child ASTNode is just the FUNCTION.
+        builder.addChild(visit(shadowedCode.getFirstFirstChild().getFirstChild()));
+      }
+
+      if (sourceFile != 0) {
+        subtreeSourceFiles.removeLast();
+      }
+      setOriginalName(builder, n);
+
+      return builder.build();
+    }
+
+    private int getSourceFilePointer(Node n) {
+      SourceFile sourceFile = (SourceFile) n.getStaticSourceFile();
+      if (sourceFile == null) {
+        // TODO(b/186056977): enforce that SourceFile is not null in externs as well as code.
+        checkState(
+            subtreeSourceFiles.peekLast().isExtern(),
+            "Unexpected null SourceFile for node %s with parent %s",
+            n.toStringTree(),
+            n.getParent());
+        return 0; // not set
+      }
+
+      if (sourceFile.equals(subtreeSourceFiles.peekLast())) {
+        // To save space, only serialize a SourceFile for a node if it is different than the
+        // parent's source.
+        return 0; // not set
+      }
+
+      subtreeSourceFiles.addLast(sourceFile);
+      return pools.putSourceFile(sourceFile);
+    }
+
+    private void addType(Node n, AstNode.Builder builder) {
+      typeSerializer.addTypeForNode(n, builder, pools);
+    }
+
+    private void valueTranslator(AstNode.Builder builder, Node n) {
+      switch (n.getToken()) {
+        case GETPROP:
+        case OPTCHAIN_GETPROP:
+        case MEMBER_FUNCTION_DEF:
+        case MEMBER_FIELD_DEF:
+        case NAME:
+        case STRINGLIT:
+        case STRING_KEY:
+        case GETTER_DEF:
+        case SETTER_DEF:
+        case LABEL_NAME:
+        case IMPORT_STAR:
+          builder.setStringValuePointer(pools.putString(n.getString()));
+          return;
+        case TEMPLATELIT_STRING:
+          builder.setTemplateStringValue(
+              TemplateStringValue.newBuilder()
+                  .setRawStringPointer(pools.putString(n.getRawString()))
+                  .setCookedStringPointer(
+                      n.getCookedString() == null ? -1 : pools.putString(n.getCookedString()))
+                  .build());
+          return;
+        case NUMBER:
+          builder.setDoubleValue(n.getDouble());
+          return;
+        case BIGINT:
+          builder.setStringValuePointer(pools.putString(n.getBigInt().toString()));
+          return;
+        default:
+          // No value
+          return;
+      }
+    }
+
+    private void setOriginalName(AstNode.Builder builder, Node n) {
+      String originalName = n.getOriginalName();
+      if (originalName == null) {
+        builder.setOriginalNamePointer(0); // equivalent to 'not set'
+        return;
+      }
+
+      builder.setOriginalNamePointer(pools.putString(originalName));
+    }
   }
 
   private NodeKind kindTranslator(Node n) {
@@ -602,8 +791,11 @@ final class TypedAstSerializer {
 
   /** Used to provide TypePointers for serializing Nodes and to generate the TypePool. */
   interface TypeSerializer {
-    /** If appropriate for `node` add a `Integer` to `astNodeBuilder` */
-    void addTypeForNode(Node node, AstNode.Builder astNodeBuilder);
+    /**
+     * If appropriate for `node` add a `Integer` to `astNodeBuilder`, using `pools` to get the
+     * pointers for colors.
+     */
+    void addTypeForNode(Node node, AstNode.Builder astNodeBuilder, ScriptPools pools);
 
     /** Returns a `TypePool` containing the types used by `addTypeForNode()` */
     TypePool generateTypePool();
@@ -613,7 +805,7 @@ final class TypedAstSerializer {
   private static class NoOpTypeSerializer implements TypeSerializer {
 
     @Override
-    public void addTypeForNode(Node node, AstNode.Builder astNodeBuilder) {
+    public void addTypeForNode(Node node, AstNode.Builder astNodeBuilder, ScriptPools pools) {
       // Do nothing.
     }
 
@@ -649,7 +841,7 @@ final class TypedAstSerializer {
     }
 
     @Override
-    public void addTypeForNode(Node node, AstNode.Builder astNodeBuilder) {
+    public void addTypeForNode(Node node, AstNode.Builder astNodeBuilder, ScriptPools pools) {
       JSType type = node.getJSType();
       if (type != null) {
         astNodeBuilder.setType(
@@ -665,16 +857,14 @@ final class TypedAstSerializer {
 
   /** Creates a `TypeSerializer` that knows how to serialize `Color`s from the AST. */
   private ColorTypeSerializer createColorTypeSerializer(
-      AbstractCompiler compiler,
-      SerializationOptions serializationMode,
-      StringPool.Builder stringPoolBuilder) {
+      AbstractCompiler compiler, SerializationOptions serializationMode) {
     // Gather all the property names that are actually used in the AST.
     final ImmutableSet<String> usedPropertyNames = collectUsedPropertyNames(compiler);
-    final ColorSerializer colorSerializer =
+    this.colorSerializer =
         new ColorSerializer(
             serializationMode,
             // lookup / allocate strings from the shared string pool
-            stringPoolBuilder::put,
+            this.stringPool::put,
             // only include property names known to be used in the AST
             usedPropertyNames::contains);
     return new ColorTypeSerializer(colorSerializer, compiler.getColorRegistry());
@@ -729,10 +919,10 @@ final class TypedAstSerializer {
     }
 
     @Override
-    public void addTypeForNode(Node node, AstNode.Builder astNodeBuilder) {
+    public void addTypeForNode(Node node, AstNode.Builder astNodeBuilder, ScriptPools pools) {
       Color color = node.getColor();
       if (color != null) {
-        astNodeBuilder.setType(colorSerializer.addColor(color));
+        astNodeBuilder.setType(pools.putColor(color));
       }
     }
 
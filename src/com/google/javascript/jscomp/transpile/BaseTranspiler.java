@@ -73,6 +73,14 @@ public final class BaseTranspiler implements Transpiler {
     return sb.toString();
   }
 
+  /**
+   * Describes the options that change the output of {@link #transpile}, so that persistently cached
+   * transpilations of differently configured transpilers are kept apart.
+   */
+  public String configuration() {
+    return compilerSupplier.configuration();
+  }
+
   public static final BaseTranspiler LATEST_TRANSPILER = to(FeatureSet.latest(), "");
 
   public static final BaseTranspiler ES5_TRANSPILER = to(LanguageMode.ECMASCRIPT5.toFeatureSet());
@@ -149,6 +157,33 @@ public final class BaseTranspiler implements Transpiler {
       return new CompileResult(source, transpiled, transpiled ? sourceMap.toString() : "");
     }
 
+    /**
+     * Describes the options that change the output of {@link #compile}. Subclasses that compile
+     * differently, for example by overriding {@link #setOptions}, must describe what they change.
+     */
+    public String configuration() {
+      StringBuilder sb = new StringBuilder();
+      appendValue(sb, getClass().getName());
+      appendValue(sb, outputFeatureSet.toString());
+      appendValue(sb, moduleResolution.name());
+      sb.append(moduleRoots.size()).append(':');
+      for (String moduleRoot : moduleRoots) {
+        appendValue(sb, moduleRoot);
+      }
+      sb.append(prefixReplacements.size()).append(':');
+      prefixReplacements.forEach(
+          (prefix, replacement) -> {
+            appendValue(sb, prefix);
+            appendValue(sb, replacement);
+          });
+      return sb.toString();
+    }
+
+    /** Appends the length of the value before it, so that values can't run together. */
+    protected static void appendValue(StringBuilder sb, String value) {
+      sb.append(value.length()).append(':').append(value);
+    }
+
     public String runtime(String library) {
       Compiler compiler = compiler();
       CompilerOptions options = options();
@@ -17,36 +17,87 @@
 package com.google.javascript.jscomp.transpile;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.javascript.jscomp.bundle.PersistentCache.newKeyHasher;
+import static com.google.javascript.jscomp.bundle.PersistentCache.putString;
+import static com.google.javascript.jscomp.bundle.PersistentCache.readString;
+import static com.google.javascript.jscomp.bundle.PersistentCache.writeString;
 
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
 import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.javascript.jscomp.bundle.PersistentCache;
 import com.google.javascript.jscomp.bundle.TranspilationException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.Objects;
+import org.jspecify.annotations.Nullable;
 
 /**
  * A transpiler implementation that delegates to a lower-level
  * implementation on a cache miss.  Passed a CacheBuilder to
  * allow specifying maximum size and other requirements externally.
+ *
+ * <p>Transpilations that are not in memory can also be looked up in a {@link PersistentCache}, so
+ * that they survive restarts. Their keys are a hash of the version of the compiler, of the path and
+ * code to transpile and of a configuration describing the delegate.
  */
 public final class CachingTranspiler implements Transpiler {
 
+  /**
+   * Weighs a cached transpilation by the length of its original and transpiled code and source map,
+   * to bound the memory used by a cache built with {@link CacheBuilder#maximumWeight}.
+   */
+  public static final Weigher<Object, TranspileResult> CODE_SIZE_WEIGHER =
+      (key, result) ->
+          result.original().length() + result.transpiled().length() + result.sourceMap().length();
+
   private final LoadingCache<Key, TranspileResult> cache;
   private final Supplier<String> runtime;
 
   public CachingTranspiler(
       final Transpiler delegate, CacheBuilder<Object, ? super TranspileResult> builder) {
+    this(delegate, builder, null, "");
+  }
+
+  /**
+   * Creates a transpiler that looks transpilations missing from memory up in {@code
+   * persistentCache} before delegating.
+   *
+   * @param configuration describes how the delegate transpiles, so that transpilers with different
+   *     output don't share persistent entries.
+   */
+  public CachingTranspiler(
+      final Transpiler delegate,
+      CacheBuilder<Object, ? super TranspileResult> builder,
+      final @Nullable PersistentCache persistentCache,
+      final String configuration) {
     checkNotNull(delegate);
+    checkNotNull(configuration);
     this.cache =
         builder.<Key, TranspileResult>build(
             new CacheLoader<Key, TranspileResult>() {
               @Override
               public TranspileResult load(Key key) {
-                return delegate.transpile(key.path, key.code);
+                if (persistentCache == null) {
+                  return delegate.transpile(key.path, key.code);
+                }
+                return persistentCache.get(
+                    key.hash(configuration),
+                    (entry) -> decode(key, entry),
+                    () -> delegate.transpile(key.path, key.code),
+                    CachingTranspiler::encode);
               }
             });
     this.runtime = Suppliers.memoize(delegate::runtime);
@@ -73,6 +124,36 @@ public final class CachingTranspiler implements Transpiler {
     return runtime.get();
   }
 
+  /**
+   * Returns the statistics of the in-memory cache, which are only recorded if the cache builder
+   * was set to {@link CacheBuilder#recordStats}.
+   */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /** The transpiled code and source map, since the key has the rest of the result. */
+  private static byte[] encode(TranspileResult result) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      writeString(out, result.transpiled());
+      writeString(out, result.sourceMap());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static TranspileResult decode(Key key, byte[] entry) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry))) {
+      String transpiled = readString(in);
+      String sourceMap = readString(in);
+      return new TranspileResult(key.path, key.code, transpiled, sourceMap);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   private static final class Key {
     private final URI path;
     private final String code;
@@ -82,6 +163,14 @@ public final class CachingTranspiler implements Transpiler {
       this.code = checkNotNull(code);
     }
 
+    HashCode hash(String configuration) {
+      Hasher hasher = newKeyHasher();
+      putString(hasher, configuration);
+      putString(hasher, path.toString());
+      putString(hasher, code);
+      return hasher.hash();
+    }
+
     @Override
     public boolean equals(Object other) {
       return other instanceof Key key && key.path.equals(path) && key.code.equals(code);
@@ -18,6 +18,7 @@ package com.google.javascript.jscomp.transpile;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.errorprone.annotations.CheckReturnValue;
+import com.google.javascript.jscomp.bundle.PersistentCache;
 
 /**
  * Basic Transpiler implementation for outputting ES5 code.
@@ -36,19 +37,27 @@ public final class TranspilerBuilder {
           new BaseTranspiler(new BaseTranspiler.CompilerSupplier(), "es6_runtime"));
 
   private final Transpiler transpiler;
+  // Describes how the transpiler transpiles, to key persistently cached transpilations on.
+  private final String configuration;
 
-  TranspilerBuilder(Transpiler transpiler) {
+  TranspilerBuilder(BaseTranspiler transpiler) {
+    this(transpiler, transpiler.configuration());
+  }
+
+  private TranspilerBuilder(Transpiler transpiler, String configuration) {
     this.transpiler = transpiler;
+    this.configuration = configuration;
   }
 
   /**
-   * Returns a TranspilerBuilder with cached transpilations, using the default
-   * cache settings (maximum size of 10,000).  Note that the builder itself is
-   * not changed.
+   * Returns a TranspilerBuilder with cached transpilations, using the default cache settings (at
+   * most 50 million characters of code and source maps, weighed by {@link
+   * CachingTranspiler#CODE_SIZE_WEIGHER}). Note that the builder itself is not changed.
    */
   @CheckReturnValue
   public TranspilerBuilder caching() {
-    return caching(DEFAULT_CACHE_SPEC);
+    return caching(
+        CacheBuilder.from(DEFAULT_CACHE_SPEC).weigher(CachingTranspiler.CODE_SIZE_WEIGHER));
   }
 
   /**
@@ -66,10 +75,23 @@ public final class TranspilerBuilder {
    */
   @CheckReturnValue
   public TranspilerBuilder caching(CacheBuilder<Object, ? super TranspileResult> builder) {
-    return new TranspilerBuilder(new CachingTranspiler(transpiler, builder));
+    return new TranspilerBuilder(new CachingTranspiler(transpiler, builder), configuration);
+  }
+
+  /**
+   * Returns a TranspilerBuilder with cached transpilations, using the given cache builder for the
+   * transpilations kept in memory, and looking the others up in the persistent cache. The
+   * persistent entries are keyed on the content of the transpiled file and on the options of this
+   * builder. Note that the builder itself is not changed.
+   */
+  @CheckReturnValue
+  public TranspilerBuilder caching(
+      CacheBuilder<Object, ? super TranspileResult> builder, PersistentCache persistentCache) {
+    return new TranspilerBuilder(
+        new CachingTranspiler(transpiler, builder, persistentCache, configuration), configuration);
   }
 
-  private static final String DEFAULT_CACHE_SPEC = "maximumSize=10000";
+  private static final String DEFAULT_CACHE_SPEC = "maximumWeight=50000000";
 
   /**
    * Returns the built Transpiler.
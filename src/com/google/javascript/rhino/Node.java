@@ -1144,6 +1144,12 @@ public class Node {
 
   @SuppressWarnings("EnumOrdinal") // performance tuning
   public final void putProp(Prop prop, @Nullable Object value) {
+    if (value != null) {
+      PropListItem existing = lookupProperty(prop);
+      if (existing instanceof ObjectPropListItem objectItem && objectItem.objectValue == value) {
+        return;
+      }
+    }
     this.propListHead = rebuildListWithoutProp(this.propListHead, prop);
     if (value != null) {
       this.propListHead = new ObjectPropListItem((byte) prop.ordinal(), value, this.propListHead);
@@ -1156,6 +1162,12 @@ public class Node {
 
   @SuppressWarnings("EnumOrdinal") // performance tuning
   public final void putIntProp(Prop prop, int value) {
+    if (value != 0) {
+      PropListItem existing = lookupProperty(prop);
+      if (existing instanceof IntPropListItem intItem && intItem.intValue == value) {
+        return;
+      }
+    }
     this.propListHead = rebuildListWithoutProp(this.propListHead, prop);
     if (value != 0) {
       this.propListHead = new IntPropListItem((byte) prop.ordinal(), value, this.propListHead);
@@ -1944,6 +1956,30 @@ public class Node {
     return propListHead;
   }
 
+  /** Receives the items of a node's property list. */
+  @VisibleForTesting
+  interface PropListItemVisitor {
+    /**
+     * @param item the list item, which may be shared with other nodes
+     * @param objectValue the value of an object property, or null for an int property
+     * @param intValue the value of an int property, or 0 for an object property
+     */
+    void visit(Object item, Prop prop, @Nullable Object objectValue, int intValue);
+  }
+
+  /** Calls {@code visitor} with each item of the property list, for memory footprint reports. */
+  @VisibleForTesting
+  final void forEachPropListItem(PropListItemVisitor visitor) {
+    Prop[] props = Prop.values();
+    for (PropListItem x = propListHead; x != null; x = x.next) {
+      if (x instanceof IntPropListItem intItem) {
+        visitor.visit(x, props[x.propType], null, intItem.intValue);
+      } else {
+        visitor.visit(x, props[x.propType], x.getObjectValue(), 0);
+      }
+    }
+  }
+
   final void setPropListHead(@Nullable PropListItem propListHead) {
     this.propListHead = propListHead;
   }
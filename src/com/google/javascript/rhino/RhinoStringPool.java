@@ -44,9 +44,13 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Interner;
 import com.google.common.collect.Interners;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
 
 /**
  * An interning pool for strings used by the Rhino package.
@@ -94,22 +98,36 @@ public final class RhinoStringPool {
    * performance win if creating a lot of string nodes with the same string.
    */
   public static final class LazyInternedStringList {
-    private final ArrayList<String> pool;
+    // Null for the strings that haven't been created by the decoder yet.
+    private final ArrayList<@Nullable String> pool;
+    private final @Nullable IntFunction<String> decoder;
 
     private final WriteOnlyBitset isInterned;
 
     public LazyInternedStringList(List<String> pool) {
       this.pool = new ArrayList<>(pool);
+      this.decoder = null;
       this.isInterned = new WriteOnlyBitset(pool.size());
     }
 
+    /**
+     * Creates a list of {@code size} strings that are only created when first accessed, by calling
+     * {@code decoder} with their offset.
+     *
+     * <p>{@code decoder} may be called from several threads, and more than once for an offset.
+     */
+    public LazyInternedStringList(int size, IntFunction<String> decoder) {
+      this.pool = new ArrayList<>(Collections.nCopies(size, null));
+      this.decoder = decoder;
+      this.isInterned = new WriteOnlyBitset(size);
+    }
+
     // if Java supported type-brands we would want to use one here to indicate that the returned
     // string is always interned but that's not possible without an expensive wrapper type - see
     // also the comment on uncheckedEquals().
     public String get(int offset) {
       if (!this.isInterned.get(offset)) {
-        String uninterned = this.pool.get(offset);
-        String interned = RhinoStringPool.addOrGet(uninterned);
+        String interned = RhinoStringPool.addOrGet(this.getUninterned(offset));
         this.pool.set(offset, interned);
         this.isInterned.set(offset); // must happen after this.pool.set() to avoid a race condition
         return interned;
@@ -118,7 +136,12 @@ public final class RhinoStringPool {
     }
 
     public Stream<String> stream() {
-      return this.pool.stream();
+      return IntStream.range(0, this.pool.size()).mapToObj(this::getUninterned);
+    }
+
+    private String getUninterned(int offset) {
+      String string = this.pool.get(offset);
+      return string != null ? string : this.decoder.apply(offset);
     }
   }
 
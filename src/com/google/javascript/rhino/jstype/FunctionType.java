@@ -480,6 +480,7 @@ public class FunctionType extends PrototypeObjectType implements JSType.WithSour
   }
 
   private void setPrototypeBasedOn(ObjectType baseType, @Nullable Node propertyNode) {
+    registry.invalidateTypeRelations();
     // First handle class-side inheritance for ES6 classes, before reassigning baseType.
     if (source != null && source.isClass()) {
       FunctionType superCtor = baseType.getConstructor();
@@ -553,6 +554,7 @@ public class FunctionType extends PrototypeObjectType implements JSType.WithSour
     if (replacedPrototype) {
       clearCachedValues();
     }
+    registry.invalidateTypeRelations();
 
     return true;
   }
@@ -624,6 +626,7 @@ public class FunctionType extends PrototypeObjectType implements JSType.WithSour
     checkState(isConstructor());
 
     this.implementedInterfaces = ImmutableList.copyOf(implementedInterfaces);
+    registry.invalidateTypeRelations();
     for (ObjectType type : implementedInterfaces) {
       typeOfThis.mergeSupertypeTemplateTypes(type);
     }
@@ -643,6 +646,7 @@ public class FunctionType extends PrototypeObjectType implements JSType.WithSour
     checkState(isInterface());
 
     this.extendedInterfaces = ImmutableList.copyOf(extendedInterfaces);
+    registry.invalidateTypeRelations();
     for (ObjectType extendedInterface : extendedInterfaces) {
       typeOfThis.mergeSupertypeTemplateTypes(extendedInterface);
     }
@@ -1174,6 +1178,7 @@ public class FunctionType extends PrototypeObjectType implements JSType.WithSour
   public final void setImplicitMatch(boolean flag) {
     checkState(isInterface());
     isStructuralInterface = flag;
+    registry.invalidateTypeRelations();
   }
 
   @Override
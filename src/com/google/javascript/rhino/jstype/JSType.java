@@ -579,6 +579,7 @@ public abstract class JSType {
       other = registry.createTemplatizedType(other, ImmutableList.of());
     }
     templateTypeMap = other.getTemplateTypeMap().copyWithExtension(this.getTemplateTypeMap());
+    registry.invalidateTypeRelations();
   }
 
   /**
@@ -1370,12 +1371,7 @@ public abstract class JSType {
    * cases.
    */
   public final boolean isSubtypeWithoutStructuralTyping(JSType supertype) {
-    return new SubtypeChecker(this.registry)
-        .setSubtype(this)
-        .setSupertype(supertype)
-        .setUsingStructuralSubtyping(false)
-        .setSubtypingMode(SubtypingMode.NORMAL)
-        .check();
+    return this.isSubtypeOf(supertype, false, SubtypingMode.NORMAL);
   }
 
   /** In files translated from Java, we typecheck null and undefined loosely. */
@@ -1427,21 +1423,46 @@ public abstract class JSType {
   }
 
   public final boolean isSubtypeOf(JSType supertype) {
-    return new SubtypeChecker(this.registry)
-        .setSubtype(this)
-        .setSupertype(supertype)
-        .setUsingStructuralSubtyping(true)
-        .setSubtypingMode(SubtypingMode.NORMAL)
-        .check();
+    return this.isSubtypeOf(supertype, true, SubtypingMode.NORMAL);
   }
 
   public final boolean isSubtypeOf(JSType supertype, SubtypingMode mode) {
+    return this.isSubtypeOf(supertype, true, mode);
+  }
+
+  private boolean isSubtypeOf(JSType supertype, boolean structural, SubtypingMode mode) {
+    if (!this.registry.canCacheRelation(this, supertype)) {
+      return this.newSubtypeChecker(supertype, structural, mode).check();
+    }
+    TypeRelationCache.Relation relation;
+    if (!structural) {
+      checkState(mode == SubtypingMode.NORMAL, mode);
+      relation = TypeRelationCache.Relation.SUBTYPE_WITHOUT_STRUCTURAL_TYPING;
+    } else if (mode == SubtypingMode.IGNORE_NULL_UNDEFINED) {
+      relation = TypeRelationCache.Relation.SUBTYPE_IGNORING_NULL_UNDEFINED;
+    } else {
+      relation = TypeRelationCache.Relation.SUBTYPE;
+    }
+    return this.registry
+        .getTypeRelationCache()
+        .check(
+            relation,
+            this,
+            supertype,
+            () -> {
+              SubtypeChecker checker = this.newSubtypeChecker(supertype, structural, mode);
+              boolean holds = checker.check();
+              return new TypeRelationCache.Result(holds, checker.hasComparedProperties());
+            });
+  }
+
+  private SubtypeChecker newSubtypeChecker(
+      JSType supertype, boolean structural, SubtypingMode mode) {
     return new SubtypeChecker(this.registry)
         .setSubtype(this)
         .setSupertype(supertype)
-        .setUsingStructuralSubtyping(true)
-        .setSubtypingMode(mode)
-        .check();
+        .setUsingStructuralSubtyping(structural)
+        .setSubtypingMode(mode);
   }
 
   /**
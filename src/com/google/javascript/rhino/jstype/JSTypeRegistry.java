@@ -54,15 +54,10 @@ import static com.google.javascript.rhino.jstype.JSTypeNative.VOID_TYPE;
 import com.google.auto.value.AutoValue;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
-import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.MultimapBuilder;
-import com.google.common.collect.SetMultimap;
-import com.google.common.collect.Table;
 import com.google.javascript.rhino.ErrorReporter;
 import com.google.javascript.rhino.HamtPMap;
 import com.google.javascript.rhino.JSDocInfo;
@@ -76,18 +71,21 @@ import com.google.javascript.rhino.StaticSlot;
 import com.google.javascript.rhino.Token;
 import com.google.javascript.rhino.jstype.NamedType.ResolutionKind;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jspecify.annotations.Nullable;
 
 /**
  * The type registry is used to resolve named types.
  *
- * <p>This class is not thread-safe.
+ * <p>Once the types are defined, the registry may be used from several threads: looking up types,
+ * creating new types and registering properties on types are thread-safe. Defining types must
+ * happen on one thread, as described in {@link JSTypeResolver}. The types themselves are not made
+ * thread-safe by this, e.g. defining properties on an {@link ObjectType} still needs a single
+ * writer.
  */
 public final class JSTypeRegistry {
   private static final Splitter DOT_SPLITTER = Splitter.on('.');
@@ -204,10 +202,13 @@ public final class JSTypeRegistry {
   // CPU time on bounds checking inside get().
   private final JSType[] nativeTypes;
 
-  private final Table<Node, String, JSType> scopedNameTable = HashBasedTable.create();
+  // Scope root -> type name -> type.
+  private final ConcurrentHashMap<Node, ConcurrentHashMap<String, JSType>> scopedNameTable =
+      new ConcurrentHashMap<>();
 
   // Only needed for type resolution at the moment
-  private final transient Map<String, ClosureNamespace> closureNamespaces = new LinkedHashMap<>();
+  private final transient Map<String, ClosureNamespace> closureNamespaces =
+      new ConcurrentHashMap<>();
 
   // NOTE: This would normally be "static final" but that causes unit test failures
   // when serializing and deserializing compiler state for multistage builds.
@@ -227,8 +228,8 @@ public final class JSTypeRegistry {
   // Also, note that this solution is buggy and the type resolution still gets default nullability
   // wrong in some cases. See b/116853368. Probably NamedType should be responsible for
   // applying nullability to forward references instead of the type expression evaluation.
-  private final Multimap<Node, String> nonNullableTypeNames =
-      MultimapBuilder.hashKeys().hashSetValues().build();
+  private final ConcurrentHashMap<Node, Set<String>> nonNullableTypeNames =
+      new ConcurrentHashMap<>();
 
   // Types that have been "forward-declared."
   // If these types are not declared anywhere in the binary, we shouldn't
@@ -238,10 +239,10 @@ public final class JSTypeRegistry {
   // A map of properties to the types on which those properties have been declared.
   // "Reference" types are excluded because those already exist in eachRefTypeIndexedByProperty to
   // avoid blowing up the size of this map.
-  private final transient SetMultimap<String, JSType> nonRefTypesIndexedByProperty =
-      MultimapBuilder.hashKeys().linkedHashSetValues().build();
+  private final transient PropertyTypeIndex<JSType> nonRefTypesIndexedByProperty =
+      new PropertyTypeIndex<>();
 
-  private JSType sentinelObjectLiteral;
+  private volatile JSType sentinelObjectLiteral;
 
   // To avoid blowing up the size of nonRefTypesIndexedByProperty, we use the sentinel object
   // literal instead of registering arbitrarily many types.
@@ -254,12 +255,12 @@ public final class JSTypeRegistry {
   // consider it to possibly have any property in droppedPropertiesOfUnions. This is a loose
   // check, but we restrict it to records that may be present in unions, and it allows us to
   // keep nonRefTypesIndexedByProperty small.
-  private final Set<String> propertiesOfSupertypesInUnions = new LinkedHashSet<>();
-  private final Set<String> droppedPropertiesOfUnions = new LinkedHashSet<>();
+  private final Set<String> propertiesOfSupertypesInUnions = ConcurrentHashMap.newKeySet();
+  private final Set<String> droppedPropertiesOfUnions = ConcurrentHashMap.newKeySet();
 
   // A map of properties to each reference type on which those properties have been declared.
-  private final SetMultimap<String, ObjectType> eachRefTypeIndexedByProperty =
-      MultimapBuilder.SetMultimapBuilder.hashKeys().linkedHashSetValues().build();
+  private final PropertyTypeIndex<ObjectType> eachRefTypeIndexedByProperty =
+      new PropertyTypeIndex<>();
 
   // A single empty TemplateTypeMap, which can be safely reused in cases where
   // there are no template types.
@@ -267,6 +268,9 @@ public final class JSTypeRegistry {
 
   private final JSTypeResolver resolver;
 
+  private final TypeRelationCache typeRelationCache =
+      new TypeRelationCache(TypeRelationCache.DEFAULT_CAPACITY);
+
   public JSTypeRegistry(ErrorReporter reporter) {
     this(reporter, ImmutableSet.<String>of());
   }
@@ -286,10 +290,17 @@ public final class JSTypeRegistry {
   }
 
   private JSType getSentinelObjectLiteral() {
-    if (sentinelObjectLiteral == null) {
-      sentinelObjectLiteral = createAnonymousObjectType(null);
+    JSType result = sentinelObjectLiteral;
+    if (result == null) {
+      synchronized (this) {
+        result = sentinelObjectLiteral;
+        if (result == null) {
+          result = createAnonymousObjectType(null);
+          sentinelObjectLiteral = result;
+        }
+      }
     }
-    return sentinelObjectLiteral;
+    return result;
   }
 
   /** Returns the template variable for the element type of Arrays. */
@@ -1251,8 +1262,8 @@ public final class JSTypeRegistry {
 
   private JSType getTypeForScopeInternal(StaticScope scope, String name) {
     Node rootNode = getRootNodeForScope(scope);
-    JSType type = scopedNameTable.get(rootNode, name);
-    return type;
+    Map<String, JSType> typesInScope = scopedNameTable.get(rootNode);
+    return typesInScope != null ? typesInScope.get(name) : null;
   }
 
   private void registerGlobalType(JSType type) {
@@ -1269,7 +1280,20 @@ public final class JSTypeRegistry {
   }
 
   private void registerForScope(StaticScope scope, JSType type, String name) {
-    scopedNameTable.put(getRootNodeForScope(scope), name, type);
+    registerForScopeRoot(getRootNodeForScope(scope), type, name);
+  }
+
+  private void registerForScopeRoot(Node scopeRoot, JSType type, String name) {
+    getTypesInScope(scopeRoot).put(name, type);
+  }
+
+  /** Registers the type unless another thread registered a type of the same name first. */
+  private boolean registerForScopeIfAbsent(StaticScope scope, JSType type, String name) {
+    return getTypesInScope(getRootNodeForScope(scope)).putIfAbsent(name, type) == null;
+  }
+
+  private Map<String, JSType> getTypesInScope(Node scopeRoot) {
+    return scopedNameTable.computeIfAbsent(scopeRoot, (Node k) -> new ConcurrentHashMap<>());
   }
 
   private void registerNativeType(JSTypeNative typeId, JSType type) {
@@ -1455,12 +1479,13 @@ public final class JSTypeRegistry {
    */
   public boolean declareType(StaticScope scope, String name, JSType type) {
     checkState(!name.isEmpty());
-    if (getTypeForScopeInternal(getLookupScope(scope, name), name) != null) {
+    StaticScope lookupScope = getLookupScope(scope, name);
+    if (getTypeForScopeInternal(lookupScope, name) != null) {
       return false;
     }
 
-    register(scope, type, name);
-    return true;
+    checkTypeName(name);
+    return registerForScopeIfAbsent(lookupScope, type, name);
   }
 
   /**
@@ -1477,8 +1502,7 @@ public final class JSTypeRegistry {
       return false;
     }
 
-    registerForScope(scope, type, name);
-    return true;
+    return registerForScopeIfAbsent(scope, type, name);
   }
 
   /**
@@ -1712,6 +1736,33 @@ public final class JSTypeRegistry {
     return this.resolver;
   }
 
+  TypeRelationCache getTypeRelationCache() {
+    return this.typeRelationCache;
+  }
+
+  /**
+   * Whether the relation between the two types may be looked up in the {@link TypeRelationCache}.
+   *
+   * <p>Only resolved types are cached, and only once the registry is no longer open for defining
+   * types. Types change too much before that for the results to be reused.
+   */
+  boolean canCacheRelation(JSType left, JSType right) {
+    return this.resolver.isClosed()
+        && left.isResolved()
+        && right.isResolved()
+        && TypeRelationCache.isWorthCaching(left, right);
+  }
+
+  /** Drops the cached relations between types, because the type hierarchy changed. */
+  void invalidateTypeRelations() {
+    this.typeRelationCache.invalidate();
+  }
+
+  /** Drops the cached relations that compared properties, because a property was defined. */
+  void invalidatePropertyTypeRelations() {
+    this.typeRelationCache.invalidatePropertyResults();
+  }
+
   public JSType evaluateTypeExpressionInGlobalScope(JSTypeExpression expr) {
     return expr.evaluate(null, this);
   }
@@ -1962,6 +2013,7 @@ public final class JSTypeRegistry {
     if (type instanceof PrototypeObjectType poType) {
       poType.clearCachedValues();
       poType.setImplicitPrototype(newImplicitProto);
+      invalidateTypeRelations();
     }
   }
 
@@ -2075,14 +2127,18 @@ public final class JSTypeRegistry {
   public void identifyNonNullableName(@Nullable StaticScope scope, String name) {
     checkNotNull(name);
     StaticScope lookupScope = getLookupScope(scope, name);
-    nonNullableTypeNames.put(getRootNodeForScope(lookupScope), name);
+    Set<String> names =
+        nonNullableTypeNames.computeIfAbsent(
+            getRootNodeForScope(lookupScope), (Node k) -> ConcurrentHashMap.newKeySet());
+    names.add(name);
   }
 
   /** Identifies the name of a typedef or enum before we actually declare it. */
   public boolean isNonNullableName(StaticScope scope, String name) {
     checkNotNull(name);
     scope = getLookupScope(scope, name);
-    return nonNullableTypeNames.containsEntry(getRootNodeForScope(scope), name);
+    Set<String> names = nonNullableTypeNames.get(getRootNodeForScope(scope));
+    return names != null && names.contains(name);
   }
 
   public JSType evaluateTypeExpression(JSTypeExpression expr, StaticTypedScope scope) {
@@ -2406,7 +2462,7 @@ public final class JSTypeRegistry {
    */
   public void registerTemplateTypeNamesInScope(Iterable<TemplateType> keys, Node scopeRoot) {
     for (TemplateType key : keys) {
-      scopedNameTable.put(scopeRoot, key.getReferenceName(), key);
+      registerForScopeRoot(scopeRoot, key, key.getReferenceName());
     }
   }
 
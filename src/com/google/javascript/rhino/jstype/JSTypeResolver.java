@@ -44,6 +44,7 @@ import static com.google.javascript.jscomp.base.JSCompObjects.identical;
 
 import com.google.errorprone.annotations.MustBeClosed;
 import java.util.ArrayDeque;
+import org.jspecify.annotations.Nullable;
 
 /**
  * A state machine for resolving all {@link JSType} instances.
@@ -54,6 +55,15 @@ import java.util.ArrayDeque;
  * <p>Every time a new type is constructed it is (by cooperation of the {@link JSType} subclasses}
  * added to this resolver. Depending on the state of the resolver at the time of addition, the type
  * will either be eagerly resolved, or stored for later resolution.
+ *
+ * <p>Types may be created on several threads while the resolver is closed: each type is resolved by
+ * the thread that creates it, before the type is visible to any other thread. Opening the resolver
+ * for definition, defining types and closing it must all happen on the same thread. The types that
+ * were created while open, including {@link NamedType} proxies, are resolved by that thread when
+ * the {@link Closer} is closed. Other threads may only use them once they were handed to those
+ * threads after that, for example by starting a thread or by submitting a task to an executor,
+ * which gives the other threads a happens-before edge with the resolution. Resolved types are not
+ * changed again by resolution.
  */
 public final class JSTypeResolver {
 
@@ -93,17 +103,22 @@ public final class JSTypeResolver {
   private final JSTypeRegistry registry;
 
   /**
-   * The sequence of instantiated types.
+   * The sequence of instantiated types, per thread creating types.
    *
    * <p>This allows verification that every new type is captured by this resolver. In general this
    * stack should never be more than a handful of types.
    */
-  private final ArrayDeque<JSType> captureStack = new ArrayDeque<>();
+  private final ThreadLocal<ArrayDeque<JSType>> captureStack =
+      ThreadLocal.withInitial(ArrayDeque::new);
 
   /** The sequence of types to resolve when the resolver is closed. */
   private ArrayDeque<JSType> resolutionQueue = new ArrayDeque<>();
 
-  private State state = State.CLOSED;
+  // Volatile so that a thread creating types sees that the resolver is no longer open.
+  private volatile State state = State.CLOSED;
+
+  // The thread that opened the resolver for definition, while it is open.
+  private @Nullable Thread definitionThread = null;
 
   private JSTypeResolver(JSTypeRegistry registry) {
     this.registry = registry;
@@ -124,7 +139,7 @@ public final class JSTypeResolver {
      * our invariants.
      */
     checkState(!captured.isResolved());
-    this.captureStack.addLast(captured);
+    this.captureStack.get().addLast(captured);
   }
 
   /**
@@ -142,7 +157,7 @@ public final class JSTypeResolver {
       return;
     }
 
-    JSType expected = this.captureStack.removeLast();
+    JSType expected = this.captureStack.get().removeLast();
     checkState(identical(captured, expected), "Captured %s; Expected %s", captured, expected);
 
     switch (this.state) {
@@ -152,6 +167,9 @@ public final class JSTypeResolver {
         break;
 
       case OPEN:
+        checkState(
+            Thread.currentThread() == this.definitionThread,
+            "Types can only be defined on the thread that opened the resolver");
         this.resolutionQueue.addLast(captured);
         break;
     }
@@ -167,15 +185,23 @@ public final class JSTypeResolver {
   @MustBeClosed
   public Closer openForDefinition() {
     checkState(this.state.equals(State.CLOSED));
-    checkState(this.captureStack.isEmpty());
+    checkState(this.captureStack.get().isEmpty());
 
+    this.definitionThread = Thread.currentThread();
     this.state = State.OPEN;
+    this.registry.invalidateTypeRelations();
     return new Closer();
   }
 
+  /** Whether the resolver is neither open for defining types nor resolving them. */
+  boolean isClosed() {
+    return this.state.equals(State.CLOSED);
+  }
+
   private void resolveAll() {
     checkState(this.state.equals(State.OPEN));
-    checkState(this.captureStack.isEmpty());
+    checkState(Thread.currentThread() == this.definitionThread);
+    checkState(this.captureStack.get().isEmpty());
 
     this.state = State.CLOSING;
 
@@ -186,6 +212,7 @@ public final class JSTypeResolver {
     // resolutionQueue scales with the size of the application, so it needs to be GC'd.
     this.resolutionQueue = new ArrayDeque<>();
 
+    this.definitionThread = null;
     this.state = State.CLOSED;
 
     // TODO(sdh): Stop doing this here. It's obviously the wrong place.
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.rhino.jstype;
+
+import com.google.common.collect.ImmutableList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A map from property names to the types that the property was registered on, in the order they
+ * were registered, without duplicates.
+ *
+ * <p>Safe to use from several threads. Adding a type locks only the types of that property. Reads
+ * don't lock: {@link #get} returns the types registered so far, and doesn't change when more types
+ * are added later.
+ */
+final class PropertyTypeIndex<T extends JSType> {
+  private final ConcurrentHashMap<String, TypeList<T>> typesByProperty = new ConcurrentHashMap<>();
+
+  /** Records that {@code type} has the property, unless it was already recorded. */
+  void put(String propertyName, T type) {
+    typesByProperty.computeIfAbsent(propertyName, (String k) -> new TypeList<>()).add(type);
+  }
+
+  boolean containsKey(String propertyName) {
+    return typesByProperty.containsKey(propertyName);
+  }
+
+  /** Returns the types recorded for the property so far. */
+  List<T> get(String propertyName) {
+    TypeList<T> types = typesByProperty.get(propertyName);
+    return types != null ? types.snapshot() : ImmutableList.of();
+  }
+
+  /**
+   * The types of one property.
+   *
+   * <p>Types are only ever appended. A writer fills in a grown array before it publishes the array,
+   * and stores the type before it publishes the new size, both with volatile writes. A reader reads
+   * the size first and then the array. Whichever array it gets was published after the contents
+   * up to that size were stored, so it sees them.
+   */
+  private static final class TypeList<T> {
+    // Only accessed while holding the lock on this list.
+    private final Set<T> members = new HashSet<>();
+    private volatile Object[] elements = new Object[2];
+    private volatile int size = 0;
+
+    synchronized void add(T type) {
+      if (!members.add(type)) {
+        return;
+      }
+      int currentSize = size;
+      Object[] currentElements = elements;
+      if (currentSize == currentElements.length) {
+        Object[] grownElements = Arrays.copyOf(currentElements, currentSize * 2);
+        grownElements[currentSize] = type;
+        elements = grownElements;
+      } else {
+        currentElements[currentSize] = type;
+      }
+      size = currentSize + 1;
+    }
+
+    List<T> snapshot() {
+      int snapshotSize = size;
+      Object[] snapshotElements = elements;
+      return new AbstractList<T>() {
+        @Override
+        @SuppressWarnings("unchecked") // Only Ts are added.
+        public T get(int index) {
+          if (index >= snapshotSize) {
+            throw new IndexOutOfBoundsException(index);
+          }
+          return (T) snapshotElements[index];
+        }
+
+        @Override
+        public int size() {
+          return snapshotSize;
+        }
+      };
+    }
+  }
+}
@@ -204,6 +204,7 @@ public class PrototypeObjectType extends ObjectType {
     Property newProp = new Property(
         name, type, inferred, propertyNode);
     properties.putProperty(name, newProp);
+    registry.invalidatePropertyTypeRelations();
     return true;
   }
 
@@ -87,6 +87,7 @@ final class SubtypeChecker {
   private LinkedHashMap<CacheKey, MatchStatus> subtypeCache;
 
   private boolean hasRun = false;
+  private boolean hasComparedProperties = false;
   private int recursionDepth = 0;
 
   SubtypeChecker setSupertype(JSType value) {
@@ -131,6 +132,15 @@ final class SubtypeChecker {
     return this.isSubtypeCaching(this.initialSubtype, this.initialSupertype);
   }
 
+  /**
+   * Whether the check compared the properties of the types structurally, so that its result may
+   * change when a property is defined.
+   */
+  boolean hasComparedProperties() {
+    checkState(this.hasRun);
+    return this.hasComparedProperties;
+  }
+
   /**
    * The top-level recursive entrypoint for subtyping logic.
    *
@@ -362,6 +372,7 @@ final class SubtypeChecker {
 
   private boolean isStructuralSubtypeHelper(
       ObjectType subtype, ObjectType supertype, PropertyOptionality optionality) {
+    this.hasComparedProperties = true;
 
     // subtype is a subtype of record type supertype iff:
     // 1) subtype has all the non-optional properties declared in supertype.
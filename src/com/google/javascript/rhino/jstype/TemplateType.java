@@ -139,6 +139,7 @@ public final class TemplateType extends ProxyObjectType {
   public void setBound(JSType bound) {
     this.bound = bound;
     this.setReferencedType(bound);
+    registry.invalidateTypeRelations();
   }
 
   @Override
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.rhino.jstype;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.javascript.jscomp.base.JSCompObjects.identical;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Remembers the results of subtyping checks between pairs of types, across checks.
+ *
+ * <p>{@link SubtypeChecker} only remembers results within one check. The same questions about
+ * large unions and templatized types are asked over and over, so the registry keeps the answers to
+ * the top-level questions here. Results of the recursive questions inside a check aren't kept:
+ * while a cycle is being checked they are only valid under the assumption that the outer question
+ * holds.
+ *
+ * <p>Types are compared by identity. Results are only valid as long as the types don't change.
+ * Anything that changes the type hierarchy, like changing a prototype or the implemented
+ * interfaces, must call {@link #invalidate}, which drops all results. Defining a property only
+ * changes the results that compared the properties of structural types, so it calls {@link
+ * #invalidatePropertyResults} instead, which leaves the other results in place. Those results are
+ * remembered with the property generation they were computed in, and are ignored once it is over.
+ *
+ * <p>The cache holds at most {@code capacity} results. Results are kept in two maps: new results
+ * go in the young map, and once it is half full it replaces the old map, dropping the results in
+ * there. Results found in the old map are moved back to the young map, so results that keep being
+ * used stay.
+ *
+ * <p>Safe to use from several threads. A result computed while the cache is invalidated is stored
+ * in the maps it was looked up in, which are discarded by the invalidation.
+ */
+final class TypeRelationCache {
+  static final int DEFAULT_CAPACITY = 1 << 16;
+
+  /** The question that was answered about the pair of types. */
+  enum Relation {
+    SUBTYPE,
+    SUBTYPE_IGNORING_NULL_UNDEFINED,
+    SUBTYPE_WITHOUT_STRUCTURAL_TYPING;
+  }
+
+  /** The answer to a question, and whether the properties of the types were compared for it. */
+  record Result(boolean holds, boolean comparedProperties) {}
+
+  /** The property generation of results that didn't compare properties. */
+  private static final long NO_PROPERTIES = -1;
+
+  private final int maxYoungSize;
+  private final AtomicReference<Generation> current = new AtomicReference<>(new Generation(null));
+  private final AtomicLong propertyGeneration = new AtomicLong();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+  private final LongAdder propertyInvalidations = new LongAdder();
+
+  TypeRelationCache(int capacity) {
+    checkArgument(capacity >= 2, "Capacity too small: %s", capacity);
+    this.maxYoungSize = capacity / 2;
+  }
+
+  /**
+   * Whether the relation between the two types is worth remembering.
+   *
+   * <p>Checks between other types are about as fast as looking up the result.
+   */
+  static boolean isWorthCaching(JSType left, JSType right) {
+    return isExpensiveToCompare(left) || isExpensiveToCompare(right);
+  }
+
+  private static boolean isExpensiveToCompare(JSType type) {
+    return type.isUnionType()
+        || type.isTemplatizedType()
+        || type.isRecordType()
+        || type.isFunctionType();
+  }
+
+  /** Returns the remembered result for the pair of types, or computes and remembers it. */
+  boolean check(Relation relation, JSType left, JSType right, Supplier<Result> computation) {
+    Generation generation = current.get();
+    // Read before computing, so that a result computed while a property is defined is stale.
+    long properties = propertyGeneration.get();
+    Key key = new Key(relation, left, right);
+    Entry entry = generation.young.get(key);
+    if (entry == null && generation.old != null) {
+      entry = generation.old.get(key);
+      if (entry != null && entry.isCurrent(properties)) {
+        put(generation, key, entry);
+      }
+    }
+    if (entry != null && entry.isCurrent(properties)) {
+      hits.increment();
+      return entry.holds;
+    }
+
+    misses.increment();
+    Result computed = computation.get();
+    put(
+        generation,
+        key,
+        new Entry(computed.holds(), computed.comparedProperties() ? properties : NO_PROPERTIES));
+    return computed.holds();
+  }
+
+  private void put(Generation generation, Key key, Entry entry) {
+    generation.young.put(key, entry);
+    if (generation.young.size() > maxYoungSize
+        && current.compareAndSet(generation, new Generation(generation.young))) {
+      if (generation.old != null) {
+        evictions.add(generation.old.size());
+      }
+    }
+  }
+
+  /** Drops all results, because the type hierarchy changed. */
+  void invalidate() {
+    Generation generation = current.get();
+    if (generation.young.isEmpty() && generation.old == null) {
+      return;
+    }
+    if (current.compareAndSet(generation, new Generation(null))) {
+      invalidations.increment();
+    }
+  }
+
+  /** Drops the results that compared properties, because a property was defined. */
+  void invalidatePropertyResults() {
+    propertyGeneration.incrementAndGet();
+    propertyInvalidations.increment();
+  }
+
+  long getHitCount() {
+    return hits.sum();
+  }
+
+  long getMissCount() {
+    return misses.sum();
+  }
+
+  /** The number of results dropped to stay within the capacity. */
+  long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  long getInvalidationCount() {
+    return invalidations.sum();
+  }
+
+  long getPropertyInvalidationCount() {
+    return propertyInvalidations.sum();
+  }
+
+  /** The fraction of checks answered from the cache, or 0 if there were none. */
+  double getHitRate() {
+    long hitCount = getHitCount();
+    long total = hitCount + getMissCount();
+    return total == 0 ? 0 : ((double) hitCount) / total;
+  }
+
+  private static final class Generation {
+    final ConcurrentHashMap<Key, Entry> young = new ConcurrentHashMap<>();
+    final @Nullable ConcurrentHashMap<Key, Entry> old;
+
+    Generation(@Nullable ConcurrentHashMap<Key, Entry> old) {
+      this.old = old;
+    }
+  }
+
+  private static final class Entry {
+    final boolean holds;
+    final long propertyGeneration;
+
+    Entry(boolean holds, long propertyGeneration) {
+      this.holds = holds;
+      this.propertyGeneration = propertyGeneration;
+    }
+
+    boolean isCurrent(long currentPropertyGeneration) {
+      return propertyGeneration == NO_PROPERTIES || propertyGeneration == currentPropertyGeneration;
+    }
+  }
+
+  private static final class Key {
+    final Relation relation;
+    final JSType left;
+    final JSType right;
+    final int hashCode; // Cache this calculation because it is made often.
+
+    Key(Relation relation, JSType left, JSType right) {
+      this.relation = relation;
+      this.left = left;
+      this.right = right;
+      this.hashCode =
+          31 * (31 * relation.ordinal() + System.identityHashCode(left))
+              + System.identityHashCode(right);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+      if (!(other instanceof Key that)) {
+        return false;
+      }
+      return this.relation == that.relation
+          && identical(this.left, that.left)
+          && identical(this.right, that.right);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
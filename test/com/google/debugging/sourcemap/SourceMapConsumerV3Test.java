@@ -17,6 +17,8 @@
 package com.google.debugging.sourcemap;
 
 import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
 
 import com.google.common.collect.ImmutableList;
 import com.google.debugging.sourcemap.proto.Mapping.OriginalMapping;
@@ -24,6 +26,12 @@ import com.google.debugging.sourcemap.proto.Mapping.OriginalMapping.Precision;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -190,4 +198,174 @@ public final class SourceMapConsumerV3Test {
     assertThat(mapping.getLineNumber()).isEqualTo(9);
     assertThat(mapping.getPrecision()).isEqualTo(Precision.APPROXIMATE_LINE);
   }
+
+  @Test
+  public void testInvalidEntryFailsParse() {
+    assertThrows(
+        SourceMapParseException.class,
+        () ->
+            consumer.parse(
+                GSON.toJson(
+                    TestJsonBuilder.create()
+                        .setVersion(3)
+                        .setFile("testcode")
+                        .setMappings("AAAAA;;AA")
+                        .setSources("testcode")
+                        .setNames("__BASIC__")
+                        .build())));
+  }
+
+  @Test
+  public void testReadIndex_sameMappingsAsParsedMap() throws Exception {
+    consumer.parse(
+        GSON.toJson(
+            TestJsonBuilder.create()
+                .setVersion(3)
+                .setFile("testcode")
+                .setMappings(
+                    ";;IAAMA,K,GACL,eAAaC,EAAb,EAAiB;AAAA;;AAAA;;"
+                        + "AAChB,OAAKA,EAAL,GAAUA,EAAV;AACA,C;;IAEIC,S;;;AACL,qBAAYD,EAAZ,EAAgB")
+                .setSourceRoot("http://server/path/")
+                .setSources("testcode", "other")
+                .setSourcesContent("class Shape {}", null)
+                .setNames("Shape", "id", "Rectangle", "s")
+                .build()));
+    // Decode some of the lines before writing the index.
+    var unused = consumer.getMappingForLine(3, 20);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    consumer.writeIndex(out);
+
+    SourceMapConsumerV3 loaded = new SourceMapConsumerV3();
+    loaded.readIndex(new ByteArrayInputStream(out.toByteArray()));
+
+    assertThat(loaded.getSourceRoot()).isEqualTo("http://server/path/");
+    assertThat(loaded.getOriginalSources()).containsExactly("testcode", "other").inOrder();
+    assertThat(loaded.getOriginalSourcesContent()).containsExactly("class Shape {}", null);
+    assertThat(loaded.getOriginalNames()).containsExactly("Shape", "id", "Rectangle", "s");
+    for (int line = 1; line <= 15; line++) {
+      for (int column = 1; column <= 60; column++) {
+        assertThat(loaded.getMappingForLine(line, column))
+            .isEqualTo(consumer.getMappingForLine(line, column));
+      }
+    }
+    assertThat(visitedMappings(loaded)).isEqualTo(visitedMappings(consumer));
+    assertThat(loaded.getReverseMapping("testcode", 1, 1))
+        .containsExactlyElementsIn(consumer.getReverseMapping("testcode", 1, 1));
+  }
+
+  @Test
+  public void testReadIndex_rejectsOtherData() {
+    SourceMapConsumerV3 loaded = new SourceMapConsumerV3();
+    assertThrows(
+        SourceMapParseException.class,
+        () -> loaded.readIndex(new ByteArrayInputStream(new byte[] {'{', '}', '\n', 0})));
+  }
+
+  @Test
+  public void testReadIndex_rejectsLinesOutsideTheMappings() throws Exception {
+    // A line ending past the mappings.
+    assertThrows(SourceMapParseException.class, () -> readIndex("AAAA", 0, 10));
+    // A line that doesn't start after a line separator.
+    assertThrows(SourceMapParseException.class, () -> readIndex("AAAA;AAAA", 1, 4));
+    // A line that ends before it starts.
+    assertThrows(SourceMapParseException.class, () -> readIndex("AAAA;AAAA", 5, 4));
+
+    readIndex("AAAA;AAAA", 5, 9);
+  }
+
+  @Test
+  public void testReusedConsumerForgetsThePreviousMap() throws Exception {
+    consumer.parse(
+        GSON.toJson(
+            TestJsonBuilder.create()
+                .setVersion(3)
+                .setFile("testcode")
+                .setLineCount(1)
+                .setMappings("AAAAA,QAASA,UAAS,EAAG;")
+                .setSources("testcode")
+                .setNames("__BASIC__")
+                .setCustomProperty("x_org_int", 2)
+                .build()));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    consumer.writeIndex(out);
+    assertThat(consumer.getReverseMapping("testcode", 0, 1)).isNotEmpty();
+
+    consumer.parse(
+        GSON.toJson(
+            TestJsonBuilder.create()
+                .setVersion(3)
+                .setFile("testcode")
+                .setLineCount(1)
+                .setMappings("AAAAA;")
+                .setSources("other")
+                .setNames("__BASIC__")
+                .build()));
+
+    assertThat(consumer.getExtensions()).isEmpty();
+    assertThat(consumer.getReverseMapping("testcode", 0, 1)).isEmpty();
+
+    consumer.parse(
+        GSON.toJson(
+            TestJsonBuilder.create()
+                .setVersion(3)
+                .setFile("testcode")
+                .setLineCount(1)
+                .setMappings("AAAAA;")
+                .setSources("other")
+                .setNames("__BASIC__")
+                .setCustomProperty("x_org_int", 2)
+                .build()));
+    consumer.readIndex(new ByteArrayInputStream(out.toByteArray()));
+
+    assertThat(consumer.getExtensions()).isEmpty();
+    assertThat(consumer.getReverseMapping("testcode", 0, 1)).isNotEmpty();
+  }
+
+  /** Loads an index of a map with one source and one line, found at the given offsets. */
+  private static void readIndex(String mappings, int lineStart, int lineEnd) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(0x534d4931);
+    out.writeInt(-1); // sourceRoot
+    out.writeInt(1); // sources
+    writeString(out, "testcode");
+    out.writeInt(-1); // sourcesContent
+    out.writeInt(0); // names
+    out.writeInt(-1); // lineCount
+    writeString(out, mappings);
+    out.writeInt(1); // lines
+    for (int value : new int[] {lineStart, lineEnd, 0, 0, 0, 0}) {
+      out.writeInt(value);
+    }
+    new SourceMapConsumerV3().readIndex(new ByteArrayInputStream(bytes.toByteArray()));
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static List<String> visitedMappings(SourceMapConsumerV3 consumer) {
+    List<String> visited = new ArrayList<>();
+    consumer.visitMappings(
+        (sourceName, symbolName, sourceStartPosition, startPosition, endPosition) ->
+            visited.add(
+                sourceName
+                    + ":"
+                    + symbolName
+                    + ":"
+                    + sourceStartPosition.getLine()
+                    + ","
+                    + sourceStartPosition.getColumn()
+                    + ":"
+                    + startPosition.getLine()
+                    + ","
+                    + startPosition.getColumn()
+                    + "-"
+                    + endPosition.getLine()
+                    + ","
+                    + endPosition.getColumn()));
+    return visited;
+  }
 }
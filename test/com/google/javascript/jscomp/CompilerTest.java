@@ -15,6 +15,7 @@
  */
 package com.google.javascript.jscomp;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
@@ -111,6 +112,52 @@ public final class CompilerTest {
     assertThat(cb.getColumnIndex()).isEqualTo(6);
   }
 
+  @Test
+  public void testCodeBuilderWritesThrough() {
+    StringBuilder out = new StringBuilder();
+    Compiler.CodeBuilder cb = new Compiler.CodeBuilder(out);
+    cb.append("foo();\n");
+    assertThat(cb.endsWith('\n')).isTrue();
+    cb.append("goo();");
+
+    assertThat(out.toString()).isEqualTo("foo();\ngoo();");
+    assertThat(cb.toString()).isEmpty();
+    assertThat(cb.getLength()).isEqualTo(13);
+    assertThat(cb.getLineIndex()).isEqualTo(1);
+    assertThat(cb.getColumnIndex()).isEqualTo(6);
+    assertThat(cb.endsWith('\n')).isFalse();
+  }
+
+  @Test
+  public void testChunkToSourceWrittenToAppendable() throws Exception {
+    ImmutableList<JSChunk> chunks = ImmutableList.of(new JSChunk("m1"), new JSChunk("m2"));
+    chunks.get(0).add(SourceFile.fromCode("in1", "/** @license L1 */ var a = 1;"));
+    chunks.get(0).add(SourceFile.fromCode("in2", "var b = a + 1;"));
+    chunks.get(1).add(SourceFile.fromCode("in3", "/** @license L2 */ alert(a, b);"));
+    chunks.get(1).addDependency(chunks.get(0));
+    CompilerOptions options = new CompilerOptions();
+    options.setPrintInputDelimiter(true);
+    options.setSourceMapOutputPath("out.js.map");
+    Compiler compiler = new Compiler();
+    compiler.compileChunks(EMPTY_EXTERNS, chunks, options);
+
+    for (JSChunk chunk : chunks) {
+      compiler.resetAndIntitializeSourceMap();
+      String expected = compiler.toSource(new ScriptNodeLicensesOnlyTracker(compiler), chunk);
+      StringBuilder expectedMap = new StringBuilder();
+      compiler.getSourceMap().appendTo(expectedMap, "out.js");
+
+      compiler.resetAndIntitializeSourceMap();
+      StringBuilder out = new StringBuilder();
+      compiler.toSource(new ScriptNodeLicensesOnlyTracker(compiler), chunk, out);
+      StringBuilder map = new StringBuilder();
+      compiler.getSourceMap().appendTo(map, "out.js");
+
+      assertThat(out.toString()).isEqualTo(expected);
+      assertThat(map.toString()).isEqualTo(expectedMap.toString());
+    }
+  }
+
   @Test
   public void testCyclicalDependencyInInputs() {
     ImmutableList<SourceFile> inputs =
@@ -134,6 +181,89 @@ public final class CompilerTest {
     assertThat(jsRoot.getChildCount()).isEqualTo(3);
   }
 
+  @Test
+  public void testParallelParsingStopsAtFirstHaltingError() {
+    // Every input ends in a syntax error, so every input that gets parsed reports one error.
+    String code = "var x = 1;\n".repeat(5000) + "var;";
+    List<SourceFile> inputs = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      inputs.add(SourceFile.fromCode("input" + i + ".js", code));
+    }
+    CompilerOptions options = new CompilerOptions();
+    options.setNumParallelThreads(2);
+    Compiler compiler = new Compiler();
+    compiler.init(ImmutableList.of(), inputs, options);
+
+    assertThat(compiler.parseInputs()).isNull();
+
+    assertThat(compiler.getErrors()).isNotEmpty();
+    assertThat(compiler.getErrors().size()).isLessThan(inputs.size() / 2);
+  }
+
+  @Test
+  public void testParallelTypeInferenceReportsSameWarnings() {
+    StringBuilder code = new StringBuilder("var ns = {};\n");
+    for (int i = 0; i < 50; i++) {
+      code.append(
+          String.format(
+              """
+              /** @param {number} x */
+              ns.f%1$d = function(x) {
+                var y = x;
+                ns.g%1$d = function() { return y; };
+                /** @type {string} */ var s = ns.g%1$d();
+                return (function() { /** @type {boolean} */ var b = s; return b; })();
+              };
+              ns.f%1$d('%1$d');
+              """,
+              i));
+    }
+
+    assertThat(typeCheckWarnings(code.toString(), 4))
+        .containsExactlyElementsIn(typeCheckWarnings(code.toString(), 1))
+        .inOrder();
+  }
+
+  @Test
+  public void testParallelLintChecksSeeOtherScripts() {
+    ImmutableList<SourceFile> inputs =
+        ImmutableList.of(
+            SourceFile.fromCode("foo.js", "/** @constructor */ function Foo() {}"),
+            SourceFile.fromCode("bar.js", "/** @private */ Foo.bar = 1;"));
+
+    ImmutableList<String> serialWarnings = lintWarnings(inputs, 1);
+
+    assertThat(String.join("\n", serialWarnings)).contains("JSC_UNUSED_PRIVATE_PROPERTY");
+    assertThat(lintWarnings(inputs, 4)).containsExactlyElementsIn(serialWarnings).inOrder();
+  }
+
+  private static ImmutableList<String> lintWarnings(
+      ImmutableList<SourceFile> inputs, int numParallelThreads) {
+    CompilerOptions options = new CompilerOptions();
+    options.setChecksOnly(true);
+    options.setWarningLevel(DiagnosticGroups.LINT_CHECKS, CheckLevel.WARNING);
+    options.setNumParallelThreads(numParallelThreads);
+    Compiler compiler = new Compiler();
+    compiler.compile(ImmutableList.of(), inputs, options);
+    return compiler.getWarnings().stream()
+        .map(JSError::toString)
+        .collect(toImmutableList());
+  }
+
+  private static ImmutableList<String> typeCheckWarnings(String code, int numParallelThreads) {
+    CompilerOptions options = new CompilerOptions();
+    options.setChecksOnly(true);
+    options.setCheckTypes(true);
+    options.setNumParallelThreads(numParallelThreads);
+    Compiler compiler = new Compiler();
+    compiler.compile(
+        ImmutableList.of(new TestExternsBuilder().addFunction().buildExternsFile("externs.js")),
+        ImmutableList.of(SourceFile.fromCode("input.js", code)),
+        options);
+    assertThat(compiler.getWarnings()).isNotEmpty();
+    return compiler.getWarnings().stream().map(JSError::toString).collect(toImmutableList());
+  }
+
   @Test
   public void testPrintExterns() {
     ImmutableList<SourceFile> externs =
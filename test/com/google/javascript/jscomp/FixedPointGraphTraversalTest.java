@@ -18,11 +18,15 @@ package com.google.javascript.jscomp;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.Assert.assertThrows;
 
+import com.google.javascript.jscomp.graph.CompactDiGraph;
 import com.google.javascript.jscomp.graph.DiGraph;
 import com.google.javascript.jscomp.graph.FixedPointGraphTraversal;
 import com.google.javascript.jscomp.graph.FixedPointGraphTraversal.EdgeCallback;
 import com.google.javascript.jscomp.graph.LinkedDirectedGraph;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -237,4 +241,95 @@ public final class FixedPointGraphTraversalTest {
     assertThat(D.value).isEqualTo(2);
     assertThat(E.value).isEqualTo(1);
   }
+
+  @Test
+  public void testCompactGraph() {
+    maxChange = 0;
+
+    // As for the DiGraph, this counts the number of "in" edges for each node.
+    traversal.computeFixedPoint(CompactDiGraph.copyOf(graph));
+
+    assertThat(A.value).isEqualTo(0);
+    assertThat(B.value).isEqualTo(1);
+    assertThat(C.value).isEqualTo(1);
+    assertThat(D.value).isEqualTo(3);
+    assertThat(E.value).isEqualTo(2);
+  }
+
+  @Test
+  public void testCompactGraphNotHalting() {
+    traversal = FixedPointGraphTraversal.newTraversal((source, e, dest) -> true);
+
+    IllegalStateException e =
+        assertThrows(
+            IllegalStateException.class,
+            () -> traversal.computeFixedPoint(CompactDiGraph.copyOf(graph)));
+    assertThat(e).hasMessageThat().isEqualTo(FixedPointGraphTraversal.NON_HALTING_ERROR_MSG);
+  }
+
+  @Test
+  public void testCompactGraphWithSelfEdges() {
+    maxChange = 5;
+
+    A = new Counter();
+    B = new Counter();
+
+    graph = LinkedDirectedGraph.create();
+    graph.createNode(A);
+    graph.createNode(B);
+
+    graph.connect(A, "->", A);
+    graph.connect(A, "->", B);
+
+    traversal.computeFixedPoint(CompactDiGraph.copyOf(graph));
+
+    assertThat(A.value).isEqualTo(6);
+    assertThat(B.value).isEqualTo(6);
+  }
+
+  @Test
+  public void testCompactGraphVisitsEdgesInTheSameOrder() {
+    maxChange = 3;
+    List<String> visits = new ArrayList<>();
+    List<String> compactVisits = new ArrayList<>();
+
+    FixedPointGraphTraversal.newTraversal(recordingCallback(visits)).computeFixedPoint(graph);
+    resetCounters();
+    FixedPointGraphTraversal.newTraversal(recordingCallback(compactVisits))
+        .computeFixedPoint(CompactDiGraph.copyOf(graph));
+    assertThat(compactVisits).containsExactlyElementsIn(visits).inOrder();
+
+    visits.clear();
+    compactVisits.clear();
+    resetCounters();
+    FixedPointGraphTraversal.newReverseTraversal(recordingCallback(visits))
+        .computeFixedPoint(graph);
+    resetCounters();
+    FixedPointGraphTraversal.newReverseTraversal(recordingCallback(compactVisits))
+        .computeFixedPoint(CompactDiGraph.copyOf(graph));
+    assertThat(compactVisits).containsExactlyElementsIn(visits).inOrder();
+  }
+
+  private EdgeCallback<Counter, String> recordingCallback(List<String> visits) {
+    return (Counter source, String e, Counter dest) -> {
+      visits.add(nameOf(source) + e + nameOf(dest));
+      return callback.traverseEdge(source, e, dest);
+    };
+  }
+
+  private String nameOf(Counter counter) {
+    Counter[] counters = {A, B, C, D, E};
+    for (int i = 0; i < counters.length; i++) {
+      if (counters[i] == counter) {
+        return String.valueOf((char) ('A' + i));
+      }
+    }
+    throw new AssertionError();
+  }
+
+  private void resetCounters() {
+    for (Counter counter : new Counter[] {A, B, C, D, E}) {
+      counter.value = 0;
+    }
+  }
 }
@@ -22,11 +22,15 @@ import static com.google.common.truth.Truth.assertWithMessage;
 
 import com.google.javascript.jscomp.AbstractCompiler.LifeCycleStage;
 import com.google.javascript.jscomp.CompilerOptions.LanguageMode;
+import com.google.javascript.jscomp.ControlFlowGraph.Branch;
 import com.google.javascript.jscomp.DataFlowAnalysis.LinearFlowState;
 import com.google.javascript.jscomp.NodeUtil.AllVarsDeclaredInFunction;
+import com.google.javascript.jscomp.graph.DiGraph.DiGraphNode;
 import com.google.javascript.rhino.InputId;
 import com.google.javascript.rhino.Node;
 import com.google.javascript.rhino.Token;
+import java.util.ArrayList;
+import java.util.List;
 import org.jspecify.annotations.Nullable;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -410,6 +414,33 @@ public final class LiveVariablesAnalysisTest {
     assertNotLiveBeforeX("X: a = function(){}; function a() {}; a()", "a");
   }
 
+  @Test
+  public void testInPlaceUpdatesGiveSameResult() {
+    String src =
+        """
+        var a = 1, b, c;
+        while (a) {
+          if (b) { c = a; a = b; } else { b = c; }
+          try { a = foo(); } catch (e) { c = e; }
+          for (var i = 0; i < a; i++) { if (i) break; b += i; }
+        }
+        do { a--; } while (a > b);
+        return c;
+        """;
+    ControlFlowGraph<Node> inPlaceCfg = computeLiveness(src, Wrapper.FUNCTION, true).getCfg();
+    ControlFlowGraph<Node> allocatingCfg = computeLiveness(src, Wrapper.FUNCTION, false).getCfg();
+
+    List<String> inPlaceStates = new ArrayList<>();
+    for (DiGraphNode<Node, Branch> node : inPlaceCfg.getNodes()) {
+      inPlaceStates.add(String.valueOf(node.<LinearFlowState<?>>getAnnotation()));
+    }
+    List<String> allocatingStates = new ArrayList<>();
+    for (DiGraphNode<Node, Branch> node : allocatingCfg.getNodes()) {
+      allocatingStates.add(String.valueOf(node.<LinearFlowState<?>>getAnnotation()));
+    }
+    assertThat(inPlaceStates).isEqualTo(allocatingStates);
+  }
+
   @Test
   public void testEscaped() {
     assertEscaped("var a;function b(){a()}", "a");
@@ -687,6 +718,11 @@ public final class LiveVariablesAnalysisTest {
 
   /** Optionally wraps the {@code src} in a function and computes a LiveVariablesAnalysis. */
   private static LiveVariablesAnalysis computeLiveness(String src, Wrapper wrapper) {
+    return computeLiveness(src, wrapper, /* inPlace= */ true);
+  }
+
+  private static LiveVariablesAnalysis computeLiveness(
+      String src, Wrapper wrapper, boolean inPlace) {
     // Set up compiler
     Compiler compiler = new Compiler();
     CompilerOptions options = new CompilerOptions();
@@ -732,7 +768,7 @@ public final class LiveVariablesAnalysisTest {
     // Compute liveness of variables
     LiveVariablesAnalysis analysis =
         new LiveVariablesAnalysis(
-            cfg, scope, childScope, compiler, scopeCreator, allVarsDeclaredInFunction);
+            cfg, scope, childScope, compiler, scopeCreator, allVarsDeclaredInFunction, inPlace);
     analysis.analyze();
     return analysis;
   }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.javascript.jscomp.Compiler.ChunkGraphAwareLicenseTracker;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link ParallelChunkPrinter}. */
+@RunWith(JUnit4.class)
+public final class ParallelChunkPrinterTest {
+
+  @Test
+  public void testSameOutputAsSerialPrinting() throws Exception {
+    // More chunks than are printed ahead, each depending on the one before. The licenses of
+    // earlier chunks must not be repeated in later ones.
+    ImmutableList.Builder<JSChunk> chunksBuilder = ImmutableList.builder();
+    JSChunk previous = null;
+    for (int i = 0; i < 10; i++) {
+      JSChunk chunk = new JSChunk("m" + i);
+      chunk.add(
+          SourceFile.fromCode(
+              "license" + i + ".js", "/** @license L" + (i % 3) + " */ var a" + i + " = " + i));
+      chunk.add(SourceFile.fromCode("code" + i + ".js", "function f" + i + "() { alert(a0); }"));
+      if (previous != null) {
+        chunk.addDependency(previous);
+      }
+      chunksBuilder.add(chunk);
+      previous = chunk;
+    }
+    ImmutableList<JSChunk> chunks = chunksBuilder.build();
+    CompilerOptions options = new CompilerOptions();
+    options.setPrintInputDelimiter(true);
+    options.setPrettyPrint(true);
+    options.setSourceMapOutputPath("out.js.map");
+    Compiler compiler = new Compiler();
+    compiler.compileChunks(ImmutableList.of(), chunks, options);
+
+    ChunkGraphAwareLicenseTracker serialTracker = new ChunkGraphAwareLicenseTracker(compiler);
+    ChunkGraphAwareLicenseTracker parallelTracker = new ChunkGraphAwareLicenseTracker(compiler);
+    try (ParallelChunkPrinter printer = new ParallelChunkPrinter(compiler, chunks, 2)) {
+      for (JSChunk chunk : chunks) {
+        compiler.resetAndIntitializeSourceMap();
+        serialTracker.setCurrentChunkContext(chunk);
+        StringBuilder expected = new StringBuilder();
+        compiler.toSource(serialTracker, chunk, expected);
+        StringBuilder expectedMap = new StringBuilder();
+        compiler.getSourceMap().appendTo(expectedMap, "out.js");
+
+        compiler.resetAndIntitializeSourceMap();
+        parallelTracker.setCurrentChunkContext(chunk);
+        StringBuilder out = new StringBuilder();
+        compiler.toSource(parallelTracker, chunk, printer, out);
+        StringBuilder map = new StringBuilder();
+        compiler.getSourceMap().appendTo(map, "out.js");
+
+        assertThat(out.toString()).isEqualTo(expected.toString());
+        assertThat(map.toString()).isEqualTo(expectedMap.toString());
+      }
+    }
+  }
+
+  @Test
+  public void testChunksMustBeTakenInOrder() {
+    JSChunk m1 = new JSChunk("m1");
+    m1.add(SourceFile.fromCode("in1.js", "var a = 1;"));
+    JSChunk m2 = new JSChunk("m2");
+    m2.add(SourceFile.fromCode("in2.js", "var b = 2;"));
+    Compiler compiler = new Compiler();
+    compiler.compileChunks(ImmutableList.of(), ImmutableList.of(m1, m2), new CompilerOptions());
+
+    try (ParallelChunkPrinter printer =
+        new ParallelChunkPrinter(compiler, ImmutableList.of(m1, m2), 2)) {
+      assertThrows(IllegalArgumentException.class, () -> printer.take(m2));
+      assertThat(printer.take(m1)).hasSize(1);
+      assertThat(printer.take(m2)).hasSize(1);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link ParallelInputScheduler}. */
+@RunWith(JUnit4.class)
+public final class ParallelInputSchedulerTest {
+
+  @Test
+  public void testSortLargestFirst() {
+    CompilerInput small = input("small.js", "a;");
+    CompilerInput large = input("large.js", "var largeFile = 1;");
+    CompilerInput medium1 = input("medium1.js", "var b;");
+    CompilerInput medium2 = input("medium2.js", "var c;");
+
+    assertThat(
+            ParallelInputScheduler.sortLargestFirst(
+                ImmutableList.of(small, medium1, large, medium2)))
+        .containsExactly(large, medium1, medium2, small)
+        .inOrder();
+  }
+
+  @Test
+  public void testRunsTaskOnEveryInput() {
+    ImmutableList.Builder<CompilerInput> inputs = ImmutableList.builder();
+    for (int i = 0; i < 20; i++) {
+      inputs.add(input("input" + i + ".js", "var x" + i + ";"));
+    }
+    Set<CompilerInput> visited = Collections.synchronizedSet(new LinkedHashSet<>());
+    ParallelInputScheduler scheduler = new ParallelInputScheduler(4);
+
+    // Run twice to check that the threads can be reused.
+    scheduler.runUntilHaltingError(newCompiler(), inputs.build(), visited::add);
+    assertThat(visited).containsExactlyElementsIn(inputs.build());
+    visited.clear();
+    scheduler.runUntilHaltingError(newCompiler(), inputs.build(), visited::add);
+    assertThat(visited).containsExactlyElementsIn(inputs.build());
+  }
+
+  @Test
+  public void testTaskFailureIsRethrown() {
+    ImmutableList<CompilerInput> inputs =
+        ImmutableList.of(input("a.js", "var a;"), input("b.js", "var b;"));
+    ParallelInputScheduler scheduler = new ParallelInputScheduler(2);
+
+    RuntimeException e =
+        assertThrows(
+            RuntimeException.class,
+            () ->
+                scheduler.runUntilHaltingError(
+                    newCompiler(),
+                    inputs,
+                    input -> {
+                      throw new IllegalStateException(input.getName());
+                    }));
+    assertThat(e).hasCauseThat().isInstanceOf(IllegalStateException.class);
+  }
+
+  private static Compiler newCompiler() {
+    Compiler compiler = new Compiler();
+    compiler.initOptions(new CompilerOptions());
+    return compiler;
+  }
+
+  private static CompilerInput input(String name, String code) {
+    return new CompilerInput(SourceFile.fromCode(name, code));
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.javascript.jscomp.parsing.Config;
+import com.google.javascript.jscomp.parsing.Config.LanguageMode;
+import com.google.javascript.jscomp.parsing.Config.StrictMode;
+import com.google.javascript.jscomp.parsing.ParserRunner;
+import com.google.javascript.jscomp.parsing.ParserRunner.ParseResult;
+import com.google.javascript.rhino.JSDocInfo;
+import com.google.javascript.rhino.Node;
+import com.google.javascript.rhino.testing.TestErrorReporter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link ParsedInputCache}. */
+@RunWith(JUnit4.class)
+public final class ParsedInputCacheTest {
+
+  private static final Config CONFIG =
+      ParserRunner.createConfig(
+          LanguageMode.ES_NEXT,
+          Config.JsDocParsing.INCLUDE_DESCRIPTIONS_NO_WHITESPACE,
+          Config.RunMode.KEEP_GOING,
+          null,
+          true,
+          StrictMode.STRICT);
+
+  @Before
+  public void setUp() {
+    ParsedInputCache.clear();
+  }
+
+  @Test
+  public void testCacheHitReturnsFreshCopyForNewSourceFile() {
+    String code = "/** @type {number} */ var x = 1; function f(a) { return a; }";
+    SourceFile first = SourceFile.fromCode("a.js", code);
+    SourceFile second = SourceFile.fromCode("a.js", code);
+
+    Node firstAst = ParsedInputCache.parse(first, code, CONFIG, new TestErrorReporter()).ast;
+    Node secondAst = ParsedInputCache.parse(second, code, CONFIG, new TestErrorReporter()).ast;
+
+    assertThat(secondAst).isNotSameInstanceAs(firstAst);
+    assertThat(secondAst.isEquivalentTo(firstAst)).isTrue();
+    assertThat(secondAst.getStaticSourceFile()).isSameInstanceAs(second);
+    Node var = secondAst.getFirstChild();
+    assertThat(var.getFirstChild().getStaticSourceFile()).isSameInstanceAs(second);
+    JSDocInfo info = var.getJSDocInfo();
+    assertThat(info).isNotSameInstanceAs(firstAst.getFirstChild().getJSDocInfo());
+    assertThat(info.getType().getRoot().getStaticSourceFile()).isSameInstanceAs(second);
+  }
+
+  @Test
+  public void testCacheHitReplaysDiagnostics() {
+    String code = "var x = 010;";
+    String error = "Octal integer literals are not supported in strict mode.";
+    SourceFile first = SourceFile.fromCode("a.js", code);
+    SourceFile second = SourceFile.fromCode("a.js", code);
+
+    TestErrorReporter firstReporter = new TestErrorReporter().expectAllErrors(error);
+    ParsedInputCache.parse(first, code, CONFIG, firstReporter);
+    firstReporter.verifyHasEncounteredAllWarningsAndErrors();
+
+    TestErrorReporter secondReporter = new TestErrorReporter().expectAllErrors(error);
+    ParsedInputCache.parse(second, code, CONFIG, secondReporter);
+    secondReporter.verifyHasEncounteredAllWarningsAndErrors();
+  }
+
+  @Test
+  public void testCacheHitPointsEveryNodeAtTheNewSourceFile() {
+    String code = "/** @type {number} */ var x = 1; class C { m() {} }";
+    SourceFile first = SourceFile.fromCode("a.js", code);
+    Node firstAst = ParsedInputCache.parse(first, code, CONFIG, new TestErrorReporter()).ast;
+
+    SourceFile second = SourceFile.fromCode("a.js", code);
+    Node secondAst = ParsedInputCache.parse(second, code, CONFIG, new TestErrorReporter()).ast;
+
+    assertThat(firstAst.getStaticSourceFile()).isSameInstanceAs(first);
+    NodeUtil.visitPreOrder(
+        secondAst, (Node n) -> assertThat(n.getStaticSourceFile()).isSameInstanceAs(second));
+  }
+
+  @Test
+  public void testChangedContentIsParsedAgain() {
+    SourceFile first = SourceFile.fromCode("a.js", "var x = 1;");
+    SourceFile second = SourceFile.fromCode("a.js", "var y = 2;");
+
+    ParsedInputCache.parse(first, "var x = 1;", CONFIG, new TestErrorReporter());
+    ParseResult result =
+        ParsedInputCache.parse(second, "var y = 2;", CONFIG, new TestErrorReporter());
+
+    assertThat(result.ast.getFirstFirstChild().getString()).isEqualTo("y");
+  }
+}
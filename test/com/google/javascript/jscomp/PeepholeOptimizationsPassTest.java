@@ -20,8 +20,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.truth.Truth.assertThat;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.javascript.jscomp.parsing.parser.FeatureSet;
 import com.google.javascript.jscomp.parsing.parser.FeatureSet.Feature;
+import com.google.javascript.rhino.IR;
 import com.google.javascript.rhino.Node;
 import com.google.javascript.rhino.Token;
 import java.util.ArrayList;
@@ -248,6 +250,124 @@ public final class PeepholeOptimizationsPassTest extends CompilerTestCase {
     test("var y; var z;", "var z;");
   }
 
+  @Test
+  public void testOptimizationsOnlyGetNodesWithTheirTokens() {
+    final List<String> visitationLog = new ArrayList<>();
+
+    AbstractPeepholeOptimization replaceNameWithNumber =
+        new AbstractPeepholeOptimization() {
+          @Override
+          ImmutableSet<Token> getTokensToOptimize() {
+            return ImmutableSet.of(Token.NAME);
+          }
+
+          @Override
+          public Node optimizeSubtree(Node node) {
+            visitationLog.add("replace " + node.getToken());
+            if (node.getParent().isExprResult()) {
+              Node replacement = IR.number(1);
+              node.replaceWith(replacement);
+              reportChangeToEnclosingScope(replacement);
+              return replacement;
+            }
+            return node;
+          }
+        };
+    AbstractPeepholeOptimization logNames =
+        new AbstractPeepholeOptimization() {
+          @Override
+          ImmutableSet<Token> getTokensToOptimize() {
+            return ImmutableSet.of(Token.NAME);
+          }
+
+          @Override
+          public Node optimizeSubtree(Node node) {
+            visitationLog.add("names " + node.getToken());
+            return node;
+          }
+        };
+    AbstractPeepholeOptimization logNumbers =
+        new AbstractPeepholeOptimization() {
+          @Override
+          ImmutableSet<Token> getTokensToOptimize() {
+            return ImmutableSet.of(Token.NUMBER);
+          }
+
+          @Override
+          public Node optimizeSubtree(Node node) {
+            visitationLog.add("numbers " + node.getToken());
+            return node;
+          }
+        };
+
+    currentPeepholePasses = ImmutableList.of(replaceNameWithNumber, logNames, logNumbers);
+
+    test("var x; y;", "var x; 1;");
+
+    // The number replacing the name is only passed to the optimizations after the one that
+    // replaced it, and then visited again because it changed.
+    assertThat(visitationLog)
+        .containsExactly(
+            "replace NAME", "names NAME", "replace NAME", "numbers NUMBER", "numbers NUMBER")
+        .inOrder();
+  }
+
+  @Test
+  public void testOnlyChangedNodesAreVisitedAgain() {
+    final List<String> visitationLog = new ArrayList<>();
+
+    AbstractPeepholeOptimization logNames =
+        new AbstractPeepholeOptimization() {
+          @Override
+          public Node optimizeSubtree(Node node) {
+            if (node.isName()) {
+              visitationLog.add(node.getString());
+            } else if (node.isVar()) {
+              visitationLog.add("var");
+            }
+            return node;
+          }
+        };
+
+    currentPeepholePasses = ImmutableList.of(new RenameYToX(), logNames);
+
+    test("var y; var z;", "var x; var z;");
+
+    // The new name and the VAR containing it are visited again. The VAR next to it is visited
+    // again too, but not the name in it.
+    assertThat(visitationLog)
+        .containsExactly("x", "var", "z", "var", "x", "var", "var")
+        .inOrder();
+  }
+
+  @Test
+  public void testSiblingsOfChangedNodesAreVisitedAgain() {
+    AbstractPeepholeOptimization removeVarsBeforeVarX =
+        new AbstractPeepholeOptimization() {
+          @Override
+          ImmutableSet<Token> getTokensToOptimize() {
+            return ImmutableSet.of(Token.VAR);
+          }
+
+          @Override
+          public Node optimizeSubtree(Node node) {
+            Node next = node.getNext();
+            if (next != null && next.isVar() && next.getFirstChild().matchesName("x")) {
+              Node parent = node.getParent();
+              node.detach();
+              reportChangeToEnclosingScope(parent);
+              return null;
+            }
+            return node;
+          }
+        };
+
+    currentPeepholePasses = ImmutableList.of(new RenameYToX(), removeVarsBeforeVarX);
+
+    // Renaming y only enables removing the VAR before it once that VAR is visited again.
+    test("var a; var y;", "var x;");
+  }
+
   @Test
   public void testAddFeatureToEnclosingScript() {
     currentPeepholePasses =
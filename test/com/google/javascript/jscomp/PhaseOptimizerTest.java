@@ -26,6 +26,7 @@ import com.google.javascript.rhino.IR;
 import com.google.javascript.rhino.Node;
 import com.google.javascript.rhino.Token;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
@@ -178,6 +179,42 @@ public final class PhaseOptimizerTest {
     }
   }
 
+  @Test
+  public void testScriptLocalPassRunsOncePerScriptInParallel() {
+    List<String> reported = new ArrayList<>();
+    compiler.getOptions().setErrorHandler((level, error) -> reported.add(error.description()));
+    compiler.getOptions().setNumParallelThreads(4);
+    optimizer = new PhaseOptimizer(compiler, tracker);
+    for (int i = 1; i < 20; i++) {
+      dummyRoot.addChildToBack(IR.script());
+    }
+    DiagnosticType warning = DiagnosticType.warning("JSC_SCRIPT_INDEX", "script {0}");
+    List<Node> scriptsSeen = Collections.synchronizedList(new ArrayList<>());
+    optimizer.addOneTimePass(
+        PassFactory.builder()
+            .setName("scriptLocal")
+            .setScriptLocal(true)
+            .setInternalFactory(
+                (compiler) ->
+                    (externs, root) -> {
+                      scriptsSeen.add(root);
+                      compiler.report(
+                          JSError.make(
+                              warning, String.valueOf(root.getParent().getIndexOfChild(root))));
+                    })
+            .build());
+
+    optimizer.process(null, dummyRoot);
+
+    assertThat(scriptsSeen).containsExactlyElementsIn(dummyRoot.children());
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      expected.add("script " + i);
+    }
+    // Errors are reported in script order, regardless of the order the scripts were checked in.
+    assertThat(reported).containsExactlyElementsIn(expected).inOrder();
+  }
+
   public void assertPasses(String... names) {
     optimizer.process(null, dummyRoot);
     assertThat(passesRun).isEqualTo(ImmutableList.copyOf(names));
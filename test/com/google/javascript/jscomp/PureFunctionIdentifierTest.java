@@ -40,6 +40,8 @@ public final class PureFunctionIdentifierTest extends CompilerTestCase {
 
   boolean regExpHaveSideEffects = true;
 
+  int numParallelThreads = 1;
+
   private static final String TEST_EXTERNS =
       CompilerTypeTestCase.DEFAULT_EXTERNS
           + """
@@ -168,6 +170,7 @@ public final class PureFunctionIdentifierTest extends CompilerTestCase {
   public void tearDown() throws Exception {
     super.tearDown();
     regExpHaveSideEffects = true;
+    numParallelThreads = 1;
   }
 
   /**
@@ -188,6 +191,7 @@ public final class PureFunctionIdentifierTest extends CompilerTestCase {
       // TODO(nickreid): Move these into 'getOptions' and 'getCompiler' overrides.
       compiler.setHasRegExpGlobalReferences(regExpHaveSideEffects);
       compiler.getOptions().setUseTypesForLocalOptimization(true);
+      compiler.getOptions().setNumParallelThreads(numParallelThreads);
 
       new PureFunctionIdentifier.Driver(compiler).process(externs, root);
       NodeTraversal.traverse(compiler, externs, this);
@@ -3411,6 +3415,56 @@ public final class PureFunctionIdentifierTest extends CompilerTestCase {
         ImmutableList.of("('', namespace.noSideEffects)"));
   }
 
+  @Test
+  public void testFunctionBodiesInSeveralScripts() {
+    assertPureCallsMarkedInScripts(1);
+  }
+
+  @Test
+  public void testFunctionBodiesInSeveralScripts_parallel() {
+    assertPureCallsMarkedInScripts(2);
+  }
+
+  private void assertPureCallsMarkedInScripts(int numParallelThreads) {
+    this.numParallelThreads = numParallelThreads;
+    testSame(
+        srcs(
+            """
+            var a = {};
+            function pure() { return 1; }
+            function impure() { externSef1(); }
+            /** @nosideeffects */
+            a.shared = function() { externSef1(); };
+            var x = (function() { return pure(); })();
+            """,
+            """
+            var b = {};
+            b.shared = function() { window.y = 1; };
+            function callsImpure() { impure(); }
+            function callsPure() { return pure(); }
+            function callsShared() { b.shared(); }
+            """,
+            """
+            impure();
+            callsImpure();
+            callsPure();
+            callsShared();
+            (function() { callsImpure(); })();
+            """),
+        postcondition(
+            compiler ->
+                assertThat(noSideEffectCalls)
+                    .comparingElementsUsing(
+                        JSCompCorrespondences.EQUALITY_WHEN_PARSED_AS_EXPRESSION)
+                    .containsExactly(
+                        "pure",
+                        "(function() { return pure(); })",
+                        "pure",
+                        "b.shared",
+                        "callsPure",
+                        "callsShared")));
+  }
+
   void assertCallableExpressionPure(boolean purity, String expression) {
     expression = "(" + expression + ")";
     String directInvocation = expression + "()";
@@ -290,6 +290,36 @@ public final class SourceFileTest {
     assertThat(actualContent).isEqualTo(expectedContent);
   }
 
+  @Test
+  public void testDiskFile_excerptsAfterClearingDoNotRetainCode() throws IOException {
+    Path tempFile = folder.newFile("test.js").toPath();
+    MoreFiles.asCharSink(tempFile, UTF_8).write("var a;\nvar b;\nvar c;");
+
+    SourceFile newFile = SourceFile.fromFile(tempFile.toString());
+    assertThat(newFile.getCode()).isEqualTo("var a;\nvar b;\nvar c;");
+    newFile.clearCachedSource();
+
+    assertThat(newFile.getLine(2)).isEqualTo("var b;");
+    assertThat(newFile.getRegion(2).getSourceExcerpt()).isEqualTo("var a;\nvar b;\nvar c;");
+    assertThat(newFile.getLineOffset(3)).isEqualTo(14);
+    assertThat(newFile.hasSourceInMemory()).isFalse();
+  }
+
+  @Test
+  public void testDiskFile_lineOffsetsKeptAfterClearing() throws IOException {
+    Path tempFile = folder.newFile("test.js").toPath();
+    MoreFiles.asCharSink(tempFile, UTF_8).write("var a;\nvar b;");
+
+    SourceFile newFile = SourceFile.fromFile(tempFile.toString());
+    assertThat(newFile.getLineOffset(2)).isEqualTo(7);
+    newFile.clearCachedSource();
+    Files.delete(tempFile);
+
+    // The offsets don't need the file anymore.
+    assertThat(newFile.getLineOffset(2)).isEqualTo(7);
+    assertThat(newFile.getLineOfOffset(8)).isEqualTo(2);
+  }
+
   @Test
   public void testDiskFileWithOriginalPath() throws IOException {
     String expectedContent = "var c;";
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.javascript.jscomp.CompilerOptions.LanguageMode;
+import com.google.javascript.jscomp.deps.ModuleLoader.ResolutionMode;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link TypedAstCacheConfiguration}. */
+@RunWith(JUnit4.class)
+public final class TypedAstCacheConfigurationTest {
+
+  @Test
+  public void testEveryOptionIsListed() {
+    ImmutableSet<String> fields =
+        Arrays.stream(CompilerOptions.class.getDeclaredFields())
+            .filter((field) -> !Modifier.isStatic(field.getModifiers()))
+            .map(Field::getName)
+            .collect(toImmutableSet());
+
+    // A new option has to be listed as one that can change the TypedAST, or as one that can't.
+    assertThat(
+            Sets.union(
+                TypedAstCacheConfiguration.OPTIONS, TypedAstCacheConfiguration.IGNORED_OPTIONS))
+        .containsExactlyElementsIn(fields);
+    assertThat(
+            Sets.intersection(
+                TypedAstCacheConfiguration.OPTIONS, TypedAstCacheConfiguration.IGNORED_OPTIONS))
+        .isEmpty();
+  }
+
+  @Test
+  public void testDefaultOptions() {
+    String configuration = describe(new CompilerOptions());
+
+    assertThat(configuration).startsWith("v1\n");
+    assertThat(configuration).isEqualTo(describe(new CompilerOptions()));
+    assertThat(TypedAstCacheConfiguration.describe("v2", new CompilerOptions()))
+        .isNotEqualTo(configuration);
+  }
+
+  @Test
+  public void testOutputAffectingOptions() {
+    assertChangesConfiguration((options) -> options.setChromePass(true));
+    assertChangesConfiguration(
+        (options) -> options.setModuleResolutionMode(ResolutionMode.NODE));
+    assertChangesConfiguration((options) -> options.setInstrumentAsyncContext(true));
+    assertChangesConfiguration((options) -> options.setBrowserFeaturesetYear(2020));
+    assertChangesConfiguration((options) -> options.setStrictModeInput(false));
+    assertChangesConfiguration((options) -> options.setDynamicImportAlias("imprt"));
+    assertChangesConfiguration(
+        (options) -> options.setAssumeForwardDeclaredForMissingTypes(true));
+    assertChangesConfiguration(
+        (options) -> options.setInjectPolyfillsNewerThan(LanguageMode.ECMASCRIPT_2015));
+    assertChangesConfiguration((options) -> options.setDefineToStringLiteral("FOO", "foo"));
+    assertChangesConfiguration(
+        (options) -> options.setCodingConvention(new ClosureCodingConvention()));
+  }
+
+  @Test
+  public void testIgnoredOptions() {
+    CompilerOptions options = new CompilerOptions();
+    options.setNumParallelThreads(8);
+    options.setDebugLogDirectory(Path.of("debug"));
+    options.setErrorHandler((level, error) -> {});
+    options.setSourceMapOutputPath("out.map");
+    options.setTypedAstOutputFile(Path.of("out.typedast"));
+
+    assertThat(describe(options)).isEqualTo(describe(new CompilerOptions()));
+  }
+
+  @Test
+  public void testStringsCantRunIntoTheNextValue() {
+    CompilerOptions options = new CompilerOptions();
+    options.setDefineToStringLiteral("A", "a,B:1");
+    CompilerOptions otherOptions = new CompilerOptions();
+    otherOptions.setDefineToStringLiteral("A", "a");
+    otherOptions.setDefineToStringLiteral("B", "1");
+
+    assertThat(describe(options)).isNotEqualTo(describe(otherOptions));
+  }
+
+  @Test
+  public void testOptionsWithoutDescription() {
+    CompilerOptions options = new CompilerOptions();
+    options.setMessageBundle(new EmptyMessageBundle());
+
+    assertThat(TypedAstCacheConfiguration.describe("v1", options)).isNull();
+  }
+
+  private static void assertChangesConfiguration(Consumer<CompilerOptions> setOption) {
+    CompilerOptions options = new CompilerOptions();
+    setOption.accept(options);
+
+    assertThat(describe(options)).isNotEqualTo(describe(new CompilerOptions()));
+  }
+
+  private static String describe(CompilerOptions options) {
+    String configuration = TypedAstCacheConfiguration.describe("v1", options);
+    assertThat(configuration).isNotNull();
+    return configuration;
+  }
+}
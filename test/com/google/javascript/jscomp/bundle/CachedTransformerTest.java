@@ -17,13 +17,23 @@
 package com.google.javascript.jscomp.bundle;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.function.Function;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 import org.mockito.Mock;
@@ -38,6 +48,8 @@ public final class CachedTransformerTest {
   private static final Source BAZ = Source.builder().setCode("baz").build();
   private static final Source QUX = Source.builder().setCode("qux").build();
 
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
   @Mock Function<Source, Source> delegate;
 
   @Before
@@ -66,4 +78,122 @@ public final class CachedTransformerTest {
     assertThat(cached.transform(FOO)).isSameInstanceAs(BAR);
     verify(delegate).apply(FOO);
   }
+
+  @Test
+  public void testUsesPersistentCache() throws IOException {
+    Path directory = folder.newFolder().toPath();
+    Source transformed =
+        Source.builder()
+            .setPath(Path.of("foo.js"))
+            .setCode("transformed")
+            .setOriginalCode("foo")
+            .setSourceMap("{}")
+            .setSourceUrl("foo.js")
+            .setSourceMappingUrl("foo.js.map")
+            .setRuntimes(ImmutableSet.of("es6_runtime"))
+            .setLoadFlags(ImmutableMap.of("module", "es6"))
+            .setEstimatedSize(11)
+            .build();
+    when(delegate.apply(FOO)).thenReturn(transformed);
+    new CachedTransformer(
+            Source.Transformer.of(delegate),
+            CacheBuilder.newBuilder(),
+            PersistentCache.inDirectory(directory),
+            "config")
+        .transform(FOO);
+
+    // A new transformer, as after a restart, doesn't have to transform again.
+    Source.Transformer cached =
+        new CachedTransformer(
+            Source.Transformer.of(delegate),
+            CacheBuilder.newBuilder(),
+            PersistentCache.inDirectory(directory),
+            "config");
+    Source result = cached.transform(FOO);
+    verify(delegate).apply(FOO);
+
+    assertThat(result.path()).isEqualTo(transformed.path());
+    assertThat(result.code()).isEqualTo("transformed");
+    assertThat(result.originalCode()).isEqualTo("foo");
+    assertThat(result.sourceMap()).isEqualTo("{}");
+    assertThat(result.sourceUrl()).isEqualTo("foo.js");
+    assertThat(result.sourceMappingUrl()).isEqualTo("foo.js.map");
+    assertThat(result.runtimes()).containsExactly("es6_runtime");
+    assertThat(result.loadFlags()).containsExactly("module", "es6");
+    assertThat(result.estimatedSize()).isEqualTo(11);
+  }
+
+  @Test
+  public void testIgnoresCorruptPersistentEntries() throws IOException {
+    // An entry with a path that isn't valid.
+    assertIgnoresPersistentEntry(
+        (out) -> {
+          PersistentCache.writeString(out, "\0");
+        });
+    // An entry with the same load flag twice.
+    assertIgnoresPersistentEntry(
+        (out) -> {
+          for (int i = 0; i < 6; i++) {
+            PersistentCache.writeString(out, "foo.js");
+          }
+          out.writeInt(0);
+          out.writeInt(2);
+          for (int i = 0; i < 2; i++) {
+            PersistentCache.writeString(out, "module");
+            PersistentCache.writeString(out, "es6");
+          }
+          out.writeInt(11);
+        });
+  }
+
+  private interface EntryWriter {
+    void write(DataOutputStream out) throws IOException;
+  }
+
+  private void assertIgnoresPersistentEntry(EntryWriter entryWriter) throws IOException {
+    ByteArrayOutputStream entry = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(entry)) {
+      entryWriter.write(out);
+    }
+    PersistentCache persistentCache =
+        new PersistentCache(
+            new PersistentCache.Storage() {
+              @Override
+              public byte[] read(HashCode key) {
+                return entry.toByteArray();
+              }
+
+              @Override
+              public void write(HashCode key, byte[] value) {}
+            });
+    when(delegate.apply(FOO)).thenReturn(BAR);
+
+    Source.Transformer cached =
+        new CachedTransformer(
+            Source.Transformer.of(delegate),
+            CacheBuilder.newBuilder(),
+            persistentCache,
+            "config");
+
+    assertThat(cached.transform(FOO)).isSameInstanceAs(BAR);
+    assertThat(persistentCache.stats().missCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testCodeSizeWeigherEvictsBeyondMaximumCodeSize() {
+    Source.Transformer cached =
+        new CachedTransformer(
+            Source.Transformer.of(delegate),
+            CacheBuilder.newBuilder()
+                .maximumWeight(10)
+                .weigher(CachedTransformer.CODE_SIZE_WEIGHER));
+    when(delegate.apply(FOO)).thenReturn(BAR);
+    when(delegate.apply(BAZ)).thenReturn(QUX);
+
+    cached.transform(FOO); // 6 characters
+    cached.transform(BAZ); // 6 characters
+    cached.transform(FOO);
+
+    verify(delegate, times(2)).apply(FOO);
+  }
 }
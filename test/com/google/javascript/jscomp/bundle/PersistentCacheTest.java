@@ -0,0 +1,194 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.bundle;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link PersistentCache}. */
+@RunWith(JUnit4.class)
+public final class PersistentCacheTest {
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private static final HashCode KEY = Hashing.sha256().hashString("key", UTF_8);
+
+  private Path directory;
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Before
+  public void setUp() throws IOException {
+    directory = folder.newFolder().toPath().resolve("cache");
+  }
+
+  @Test
+  public void testLoadsAndStoresOnMiss() {
+    PersistentCache cache = PersistentCache.inDirectory(directory);
+
+    assertThat(get(cache, "value")).isEqualTo("value");
+    assertThat(get(cache, "other value")).isEqualTo("value");
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testEntriesOutliveTheCache() {
+    get(PersistentCache.inDirectory(directory), "value");
+
+    assertThat(get(PersistentCache.inDirectory(directory), "other value")).isEqualTo("value");
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testFailedLoadsAreNotStored() {
+    PersistentCache cache = PersistentCache.inDirectory(directory);
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            cache.get(
+                KEY,
+                String::new,
+                () -> {
+                  throw new IllegalStateException();
+                },
+                (String value) -> value.getBytes(UTF_8)));
+
+    assertThat(get(cache, "value")).isEqualTo("value");
+    assertThat(cache.stats().loadExceptionCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testCorruptEntriesAreLoadedAgain() throws IOException {
+    PersistentCache cache = PersistentCache.inDirectory(directory);
+    get(cache, "value");
+    Files.writeString(PersistentCache.entryFile(directory, KEY), "corrupt");
+
+    String value =
+        cache.get(
+            KEY,
+            (byte[] entry) -> {
+              throw new UncheckedIOException(new IOException("Corrupt"));
+            },
+            () -> "new value",
+            (String v) -> v.getBytes(UTF_8));
+
+    assertThat(value).isEqualTo("new value");
+    assertThat(get(cache, "other value")).isEqualTo("new value");
+  }
+
+  @Test
+  public void testStats() {
+    PersistentCache cache = PersistentCache.inDirectory(directory);
+    get(cache, "value");
+    get(cache, "value");
+    get(cache, "value");
+
+    CacheStats stats = cache.stats();
+    assertThat(stats.hitCount()).isEqualTo(2);
+    assertThat(stats.missCount()).isEqualTo(1);
+    assertThat(stats.loadSuccessCount()).isEqualTo(1);
+    assertThat(stats.totalLoadTime()).isGreaterThan(0);
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsedEntries() throws IOException {
+    PersistentCache cache = PersistentCache.inDirectory(directory, 40);
+    for (String name : ImmutableList.of("a", "b", "c", "d")) {
+      cache.put(key(name), new byte[10]);
+    }
+    Instant now = Instant.now();
+    setLastUsed("a", now.minusSeconds(40));
+    setLastUsed("b", now.minusSeconds(30));
+    setLastUsed("c", now.minusSeconds(20));
+    setLastUsed("d", now.minusSeconds(10));
+    assertThat(cache.getIfPresent(key("a"), (byte[] entry) -> entry)).isNotNull();
+
+    // Going over the maximum size evicts down to nine tenths of it.
+    cache.put(key("e"), new byte[10]);
+
+    assertThat(cache.getIfPresent(key("b"), (byte[] entry) -> entry)).isNull();
+    assertThat(cache.getIfPresent(key("c"), (byte[] entry) -> entry)).isNull();
+    for (String name : ImmutableList.of("a", "d", "e")) {
+      assertThat(cache.getIfPresent(key(name), (byte[] entry) -> entry)).isNotNull();
+    }
+    assertThat(cache.stats().evictionCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testOtherFilesInTheDirectoryAreNeverEvicted() throws IOException {
+    Files.createDirectories(directory);
+    Path otherFile = directory.resolve("README");
+    Files.write(otherFile, new byte[30]);
+    Files.setLastModifiedTime(otherFile, FileTime.from(Instant.now().minusSeconds(60)));
+    PersistentCache cache = PersistentCache.inDirectory(directory, 40);
+
+    for (String name : ImmutableList.of("a", "b", "c", "d", "e")) {
+      cache.put(key(name), new byte[10]);
+    }
+
+    // Only the entries count towards the maximum size, and only entries are evicted.
+    assertThat(Files.exists(otherFile)).isTrue();
+    assertThat(cache.stats().evictionCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testKeysDependOnTheCompilerVersion() {
+    HashCode key = PersistentCache.newKeyHasher().putInt(1).hash();
+
+    assertThat(key).isEqualTo(PersistentCache.newKeyHasher().putInt(1).hash());
+    assertThat(key).isNotEqualTo(Hashing.sha256().newHasher().putInt(1).hash());
+  }
+
+  private static HashCode key(String name) {
+    return Hashing.sha256().hashString(name, UTF_8);
+  }
+
+  private void setLastUsed(String name, Instant lastUsed) throws IOException {
+    Files.setLastModifiedTime(
+        PersistentCache.entryFile(directory, key(name)), FileTime.from(lastUsed));
+  }
+
+  /** Looks up {@link #KEY}, loading {@code value} on a miss. */
+  private String get(PersistentCache cache, String value) {
+    return cache.get(
+        KEY,
+        (byte[] entry) -> new String(entry, UTF_8),
+        () -> {
+          loads.incrementAndGet();
+          return value;
+        },
+        (String v) -> v.getBytes(UTF_8));
+  }
+}
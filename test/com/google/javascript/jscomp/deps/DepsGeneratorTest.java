@@ -24,10 +24,14 @@ import com.google.common.collect.ImmutableList;
 import com.google.javascript.jscomp.ErrorManager;
 import com.google.javascript.jscomp.PrintStreamErrorManager;
 import com.google.javascript.jscomp.SourceFile;
+import com.google.javascript.jscomp.bundle.PersistentCache;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
@@ -35,6 +39,8 @@ import org.junit.runners.JUnit4;
 @RunWith(JUnit4.class)
 public final class DepsGeneratorTest {
 
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
   private ErrorManager errorManager;
 
   @Before
@@ -644,6 +650,178 @@ goog.addDependency('../this/is/defined/thrice.js', [], []);
         "Could not find file \"./missing.js\".");
   }
 
+  @Test
+  public void testParallelParsing_givesTheSameOutputAsSerialParsing() throws Exception {
+    String serialOutput =
+        createGeneratorForManySources(new PrintStreamErrorManager(System.err))
+            .computeDependencyCalls();
+
+    String parallelOutput =
+        createGeneratorForManySources(errorManager)
+            .setNumParallelThreads(4)
+            .computeDependencyCalls();
+
+    assertWarnings(
+        "File cannot be a combination of goog.provide, goog.module, and/or ES6 "
+            + "module: javascript/foo/mixed.js");
+    assertThat(serialOutput).contains("goog.addDependency('../foo/es6.js', [], [], {'lang': 'es6'");
+    assertThat(parallelOutput).isEqualTo(serialOutput);
+  }
+
+  @Test
+  public void testCache_reusesTheDependenciesOfFilesWithoutProblems() throws Exception {
+    Path cacheDirectory = folder.getRoot().toPath();
+    String uncachedOutput =
+        createGeneratorForManySources(new PrintStreamErrorManager(System.err))
+            .computeDependencyCalls();
+    var unused =
+        createGeneratorForManySources(new PrintStreamErrorManager(System.err))
+            .setCache(PersistentCache.inDirectory(cacheDirectory))
+            .computeDependencyCalls();
+
+    PersistentCache cache = PersistentCache.inDirectory(cacheDirectory);
+    String cachedOutput =
+        createGeneratorForManySources(errorManager)
+            .setCache(cache)
+            .setNumParallelThreads(4)
+            .computeDependencyCalls();
+
+    // The file with the warning is parsed again, so that the warning is reported again.
+    assertWarnings(
+        "File cannot be a combination of goog.provide, goog.module, and/or ES6 "
+            + "module: javascript/foo/mixed.js");
+    assertThat(cache.stats().hitCount()).isEqualTo(MANY_SOURCES_COUNT - 1);
+    assertThat(cache.stats().missCount()).isEqualTo(1);
+    assertThat(cachedOutput).isEqualTo(uncachedOutput);
+  }
+
+  @Test
+  public void testCache_isKeyedOnHowTheModuleLoaderResolves() throws Exception {
+    PersistentCache cache = PersistentCache.inDirectory(folder.getRoot().toPath());
+    ErrorManager errorManager = new PrintStreamErrorManager(System.err);
+    var unused =
+        createGeneratorForManySources(errorManager).setCache(cache).computeDependencyCalls();
+
+    unused =
+        createGeneratorForManySources(
+                errorManager,
+                createLoader(ImmutableList.of("/base/javascript/"), BrowserModuleResolver.FACTORY))
+            .setCache(cache)
+            .computeDependencyCalls();
+    unused =
+        createGeneratorForManySources(
+                errorManager,
+                createLoader(ImmutableList.of("/base/"), new NodeModuleResolver.Factory()))
+            .setCache(cache)
+            .computeDependencyCalls();
+
+    assertThat(cache.stats().hitCount()).isEqualTo(0);
+    unused = createGeneratorForManySources(errorManager).setCache(cache).computeDependencyCalls();
+    assertThat(cache.stats().hitCount()).isEqualTo(MANY_SOURCES_COUNT - 1);
+  }
+
+  @Test
+  public void testCache_keepsOutFilesThatTheModuleLoaderReportedProblemsFor() throws Exception {
+    PersistentCache cache = PersistentCache.inDirectory(folder.getRoot().toPath());
+    List<SourceFile> srcs = new ArrayList<>();
+    List<String> expectedLoaderWarnings = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      srcs.add(SourceFile.fromCode("/base/javascript/foo/dep" + i + ".js", "export let x = 1;"));
+      // The loader has no inputs, so it can't resolve the import, but the file is in the srcs.
+      srcs.add(
+          SourceFile.fromCode(
+              "/base/javascript/foo/importer" + i + ".js", "import './dep" + i + ".js';"));
+      expectedLoaderWarnings.add("Failed to load module \"./dep" + i + ".js\"");
+    }
+
+    for (int run = 0; run < 2; run++) {
+      ErrorManager loaderErrorManager = new PrintStreamErrorManager(System.err);
+      ModuleLoader loader =
+          ModuleLoader.builder()
+              .setErrorHandler(loaderErrorManager)
+              .setModuleRoots(ImmutableList.of("/base/"))
+              .setInputs(ImmutableList.of())
+              .setFactory(BrowserModuleResolver.FACTORY)
+              .setPathResolver(ModuleLoader.PathResolver.ABSOLUTE)
+              .build();
+      String output =
+          new DepsGenerator(
+                  ImmutableList.of(),
+                  srcs,
+                  DepsGenerator.InclusionStrategy.ALWAYS,
+                  "/base/javascript/closure",
+                  errorManager,
+                  loader)
+              .setCache(cache)
+              .setNumParallelThreads(4)
+              .computeDependencyCalls();
+
+      assertThat(output).isNotNull();
+      assertThat(loaderErrorManager.getWarnings())
+          .comparingElementsUsing(DESCRIPTION_EQUALITY)
+          .containsExactlyElementsIn(expectedLoaderWarnings)
+          .inOrder();
+      assertThat(loader.getErrorHandler()).isSameInstanceAs(loaderErrorManager);
+    }
+    assertNoWarnings();
+    // Only the imported files are reused. The importers are parsed again, so that the loader
+    // reports the imports again.
+    assertThat(cache.stats().hitCount()).isEqualTo(8);
+    assertThat(cache.stats().missCount()).isEqualTo(24);
+  }
+
+  private static final int MANY_SOURCES_COUNT = 24;
+
+  /**
+   * Creates a generator for {@link #MANY_SOURCES_COUNT} sources: a chain of provides and requires,
+   * modules of each kind, an externs file and a file with a warning.
+   */
+  private static DepsGenerator createGeneratorForManySources(ErrorManager errorManager) {
+    return createGeneratorForManySources(
+        errorManager, createLoader(ImmutableList.of("/base/"), BrowserModuleResolver.FACTORY));
+  }
+
+  private static DepsGenerator createGeneratorForManySources(
+      ErrorManager errorManager, ModuleLoader loader) {
+    List<SourceFile> srcs = new ArrayList<>();
+    srcs.add(SourceFile.fromCode("/base/javascript/foo/ns0.js", "goog.provide('ns0');"));
+    for (int i = 1; i < MANY_SOURCES_COUNT - 4; i++) {
+      srcs.add(
+          SourceFile.fromCode(
+              "/base/javascript/foo/ns" + i + ".js",
+              "goog.provide('ns" + i + "');\ngoog.require('ns" + (i - 1) + "');"));
+    }
+    srcs.add(
+        SourceFile.fromCode(
+            "/base/javascript/foo/googmodule.js",
+            "goog.module('my.goog.module');\nconst ns0 = goog.require('ns0');"));
+    srcs.add(
+        SourceFile.fromCode("/base/javascript/foo/es6.js", "export let x = () => 1;"));
+    srcs.add(
+        SourceFile.fromCode("/base/javascript/foo/externs.js", "/** @externs */\nvar ext;"));
+    srcs.add(
+        SourceFile.fromCode(
+            "/base/javascript/foo/mixed.js", "goog.provide('mixed');\nexport let y = 2;"));
+    return new DepsGenerator(
+        ImmutableList.of(),
+        srcs,
+        DepsGenerator.InclusionStrategy.ALWAYS,
+        "/base/javascript/closure",
+        errorManager,
+        loader);
+  }
+
+  private static ModuleLoader createLoader(
+      ImmutableList<String> moduleRoots, ModuleLoader.ModuleResolverFactory factory) {
+    return ModuleLoader.builder()
+        .setErrorHandler(null)
+        .setModuleRoots(moduleRoots)
+        .setInputs(ImmutableList.of())
+        .setFactory(factory)
+        .setPathResolver(ModuleLoader.PathResolver.ABSOLUTE)
+        .build();
+  }
+
   private void assertNoWarnings() {
     assertThat(errorManager.getWarnings()).isEmpty();
     assertThat(errorManager.getErrors()).isEmpty();
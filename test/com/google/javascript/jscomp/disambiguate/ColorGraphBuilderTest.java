@@ -16,6 +16,7 @@
 
 package com.google.javascript.jscomp.disambiguate;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.javascript.jscomp.disambiguate.ColorGraphBuilder.EdgeReason.ALGEBRAIC;
@@ -23,6 +24,7 @@ import static com.google.javascript.jscomp.disambiguate.ColorGraphBuilder.EdgeRe
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableTable;
 import com.google.common.truth.Correspondence;
@@ -37,15 +39,13 @@ import com.google.javascript.jscomp.colors.ColorId;
 import com.google.javascript.jscomp.colors.ColorRegistry;
 import com.google.javascript.jscomp.colors.StandardColors;
 import com.google.javascript.jscomp.disambiguate.ColorGraphBuilder.EdgeReason;
-import com.google.javascript.jscomp.graph.DiGraph;
-import com.google.javascript.jscomp.graph.DiGraph.DiGraphEdge;
-import com.google.javascript.jscomp.graph.DiGraph.DiGraphNode;
+import com.google.javascript.jscomp.graph.CompactDiGraph;
 import com.google.javascript.jscomp.graph.LowestCommonAncestorFinder;
 import com.google.javascript.rhino.Node;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.stream.IntStream;
 import org.jspecify.annotations.Nullable;
 import org.junit.After;
 import org.junit.Before;
@@ -71,7 +71,7 @@ public final class ColorGraphBuilderTest extends CompilerTestCase {
           ColorRegistry.builder().setDefaultNativeColorsForTesting().build());
 
   private @Nullable CompilerPass processor;
-  private DiGraph<ColorGraphNode, Object> result;
+  private CompactDiGraph<ColorGraphNode, Object> result;
   private LinkedHashMap<String, ColorId> labelToId;
 
   @Override
@@ -529,8 +529,9 @@ public final class ColorGraphBuilderTest extends CompilerTestCase {
   @After
   public void verifyResult_topNodeIsOnlyRoot() {
     assertThat(
-            this.result.getNodes().stream()
-                .filter((n) -> n.getInEdges().isEmpty())
+            IntStream.range(0, this.result.getNodeCount())
+                .filter((n) -> this.result.getInDegree(n) == 0)
+                .mapToObj(this.result::getNodeValue)
                 .collect(toImmutableSet()))
         .comparingElementsUsing(NODE_HAS_ID)
         .containsExactly(StandardColors.UNKNOWN.getId());
@@ -539,24 +540,22 @@ public final class ColorGraphBuilderTest extends CompilerTestCase {
   @After
   public void verifyResult_hasNoSelfEdges() {
     assertThat(
-            this.result.getEdges().stream()
-                .filter((e) -> Objects.equals(e.getSource(), e.getDestination()))
+            IntStream.range(0, this.result.getEdgeCount())
+                .filter((e) -> this.result.getSource(e) == this.result.getDestination(e))
+                .boxed()
                 .collect(toImmutableSet()))
         .isEmpty();
   }
 
   @After
   public void verifyResult_hasNoParallelEdges() {
-    assertThat(this.result.getEdges())
-        .comparingElementsUsing(
-            Correspondence
-                .<DiGraphEdge<ColorGraphNode, Object>, DiGraphEdge<ColorGraphNode, Object>>from(
-                    (a, e) ->
-                        Objects.equals(a.getSource(), e.getSource())
-                            && Objects.equals(a.getDestination(), e.getDestination())
-                            && !Objects.equals(a, e),
-                    "is parallel to"))
-        .containsNoneIn(this.result.getEdges());
+    assertThat(
+            IntStream.range(0, this.result.getEdgeCount())
+                .mapToObj(
+                    (e) ->
+                        ImmutableList.of(this.result.getSource(e), this.result.getDestination(e)))
+                .collect(toImmutableList()))
+        .containsNoDuplicates();
   }
 
   @After
@@ -565,9 +564,11 @@ public final class ColorGraphBuilderTest extends CompilerTestCase {
 
   private TableSubject assertThatResultAsTable() {
     ImmutableTable.Builder<ColorId, ColorId, EdgeReason> table = ImmutableTable.builder();
-    for (DiGraphEdge<ColorGraphNode, Object> edge : this.result.getEdges()) {
+    for (int edge = 0; edge < this.result.getEdgeCount(); edge++) {
       table.put(
-          nameOf(edge.getSource()), nameOf(edge.getDestination()), (EdgeReason) edge.getValue());
+          nameOf(this.result.getNodeValue(this.result.getSource(edge))),
+          nameOf(this.result.getNodeValue(this.result.getDestination(edge))),
+          (EdgeReason) this.result.getEdgeValue(edge));
     }
     return assertThat(table.buildOrThrow());
   }
@@ -578,18 +579,17 @@ public final class ColorGraphBuilderTest extends CompilerTestCase {
    * <p>Instances allow setting stub responses for {@code findAll} calls. Inputs an outputs are
    * specfied using sets of type names.
    */
-  private static final class StubLcaFinder
-      extends LowestCommonAncestorFinder<ColorGraphNode, Object> {
-    private DiGraph<ColorGraphNode, Object> graph;
+  private final class StubLcaFinder extends LowestCommonAncestorFinder<ColorGraphNode, Object> {
+    private LowestCommonAncestorFinder.Parents<ColorGraphNode> graph;
     private final LinkedHashMap<ImmutableSet<ColorId>, ImmutableSet<ColorId>> stubs =
         new LinkedHashMap<>();
     private final LinkedHashMap<Runnable, Integer> preconditions = new LinkedHashMap<>();
 
     StubLcaFinder() {
-      super(null);
+      super((LowestCommonAncestorFinder.Parents<ColorGraphNode>) null);
     }
 
-    StubLcaFinder setGraph(DiGraph<ColorGraphNode, Object> graph) {
+    StubLcaFinder setGraph(LowestCommonAncestorFinder.Parents<ColorGraphNode> graph) {
       this.graph = graph;
       return this;
     }
@@ -612,9 +612,8 @@ public final class ColorGraphBuilderTest extends CompilerTestCase {
       ImmutableSet<ColorId> resultNames = this.stubs.get(rootIds);
 
       ImmutableSet<ColorGraphNode> results =
-          this.graph.getNodes().stream()
-              .map(DiGraphNode::getValue)
-              .filter((t) -> resultNames.contains(nameOf(t)))
+          graphNodeFactory.getAllKnownTypes().stream()
+              .filter((t) -> this.graph.hasNode(t) && resultNames.contains(nameOf(t)))
               .collect(toImmutableSet());
       assertThat(results).hasSize(resultNames.size());
 
@@ -622,10 +621,6 @@ public final class ColorGraphBuilderTest extends CompilerTestCase {
     }
   }
 
-  private static ColorId nameOf(DiGraphNode<ColorGraphNode, Object> node) {
-    return nameOf(node.getValue());
-  }
-
   private static ColorId nameOf(ColorGraphNode flat) {
     return flat.getColor().getId();
   }
@@ -634,7 +629,7 @@ public final class ColorGraphBuilderTest extends CompilerTestCase {
     return Color.singleBuilder().setId(id);
   }
 
-  private static final Correspondence<DiGraphNode<ColorGraphNode, Object>, ColorId> NODE_HAS_ID =
+  private static final Correspondence<ColorGraphNode, ColorId> NODE_HAS_ID =
       Correspondence.transforming(ColorGraphBuilderTest::nameOf, "in a node with type");
 
   private ColorId id(String labelName) {
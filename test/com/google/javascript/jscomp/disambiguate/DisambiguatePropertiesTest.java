@@ -35,7 +35,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -60,6 +64,7 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
       """;
 
   private ImmutableSet<String> propertiesThatMustDisambiguate = ImmutableSet.of();
+  private @Nullable ExecutorService executor = null;
 
   public DisambiguatePropertiesTest() {
     super("");
@@ -75,9 +80,20 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
     enableDebugLogging(true);
   }
 
+  @Override
+  @After
+  public void tearDown() throws Exception {
+    super.tearDown();
+    if (this.executor != null) {
+      this.executor.shutdownNow();
+      this.executor = null;
+    }
+  }
+
   @Override
   protected CompilerPass getProcessor(final Compiler compiler) {
-    return new DisambiguateProperties(compiler, propertiesThatMustDisambiguate);
+    return new DisambiguateProperties(
+        compiler, propertiesThatMustDisambiguate, executor);
   }
 
   @Override
@@ -972,6 +988,86 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
         error(DisambiguateProperties.PROPERTY_INVALIDATION));
   }
 
+  @Test
+  public void propertiesAreDisambiguated_acrossScripts_onParallelThreads() {
+    this.executor = Executors.newFixedThreadPool(4);
+
+    test(
+        srcs(
+            """
+            class Foo {
+              x() { }
+              y() { }
+            }
+            """,
+            """
+            class Bar {
+              x() { }
+            }
+            class Baz extends Bar {
+              y() { }
+            }
+            """,
+            """
+            function use(/** !Foo */ foo, /** !Baz */ baz, /** ? */ other) {
+              foo.x();
+              baz.x();
+              baz.y();
+              other.z;
+            }
+            """),
+        expected(
+            """
+            class Foo {
+              JSC$1_x() { }
+              JSC$1_y() { }
+            }
+            """,
+            """
+            class Bar {
+              JSC$3_x() { }
+            }
+            class Baz extends Bar {
+              JSC$5_y() { }
+            }
+            """,
+            """
+            function use(/** !Foo */ foo, /** !Baz */ baz, /** ? */ other) {
+              foo.JSC$1_x();
+              baz.JSC$3_x();
+              baz.JSC$5_y();
+              other.z;
+            }
+            """));
+  }
+
+  @Test
+  public void errorReported_forInvalidation_ofSpecifiedPropNames_onParallelThreads() {
+    this.allowSourcelessWarnings();
+    this.executor = Executors.newFixedThreadPool(4);
+    this.propertiesThatMustDisambiguate =
+        ImmutableSet.of(
+            "invalid0", //
+            "invalid1");
+
+    test(
+        srcs(
+            """
+            class Foo {
+              invalid0() { }
+              invalid1() { }
+            }
+            """,
+            """
+            function use(/** ? */ x) {
+              x.invalid0
+              x.invalid1
+            }
+            """),
+        error(DisambiguateProperties.PROPERTY_INVALIDATION),
+        error(DisambiguateProperties.PROPERTY_INVALIDATION));
+  }
+
   @Test
   public void invalidatingSubtype_doesNotInvalidatePropertyOnlyReferencedOnSupertype() {
     // TODO(b/135045845): track mismatches through subtypes/supertypes
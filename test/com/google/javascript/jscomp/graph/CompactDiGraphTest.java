@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.graph;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link CompactDiGraph}. */
+@RunWith(JUnit4.class)
+public final class CompactDiGraphTest {
+
+  @Test
+  public void testCopyOf() {
+    DiGraph<String, String> graph = LinkedDirectedGraph.create();
+    graph.createNode("a");
+    graph.createNode("b");
+    graph.createNode("c");
+    graph.connect("c", "c->a", "a");
+    graph.connect("a", "a->b", "b");
+    graph.connect("a", "a->c", "c");
+    graph.connect("b", "b->a", "a");
+
+    CompactDiGraph<String, String> compact = CompactDiGraph.copyOf(graph);
+
+    assertThat(compact.getNodeCount()).isEqualTo(3);
+    assertThat(compact.getEdgeCount()).isEqualTo(4);
+    int a = compact.getNodeId("a");
+    int b = compact.getNodeId("b");
+    int c = compact.getNodeId("c");
+    assertThat(new int[] {a, b, c}).isEqualTo(new int[] {0, 1, 2});
+    assertThat(compact.getNodeValue(b)).isEqualTo("b");
+
+    assertThat(compact.getOutDegree(a)).isEqualTo(2);
+    assertThat(compact.getEdgeValue(compact.getOutEdge(a, 0))).isEqualTo("a->b");
+    assertThat(compact.getEdgeValue(compact.getOutEdge(a, 1))).isEqualTo("a->c");
+    assertThat(compact.getDestination(compact.getOutEdge(a, 1))).isEqualTo(c);
+
+    // In edges are in the order they were connected.
+    assertThat(compact.getInDegree(a)).isEqualTo(2);
+    assertThat(compact.getEdgeValue(compact.getInEdge(a, 0))).isEqualTo("c->a");
+    assertThat(compact.getEdgeValue(compact.getInEdge(a, 1))).isEqualTo("b->a");
+    assertThat(compact.getSource(compact.getInEdge(a, 1))).isEqualTo(b);
+    assertThat(compact.getInDegree(b)).isEqualTo(1);
+    assertThat(compact.getOutDegree(c)).isEqualTo(1);
+  }
+
+  @Test
+  public void testFromEdges() {
+    // The edges of the graph in testCopyOf, listed out of order.
+    CompactDiGraph<String, String> compact =
+        CompactDiGraph.fromEdges(
+            ImmutableList.of("a", "b", "c"),
+            4,
+            new int[] {2, 0, 1, 0, -1},
+            new int[] {0, 1, 0, 2, -1},
+            new Object[] {"c->a", "a->b", "b->a", "a->c", null});
+
+    assertThat(compact.getNodeCount()).isEqualTo(3);
+    assertThat(compact.getEdgeCount()).isEqualTo(4);
+    assertThat(compact.getNodeId("c")).isEqualTo(2);
+
+    assertThat(compact.getOutDegree(0)).isEqualTo(2);
+    assertThat(compact.getEdgeValue(compact.getOutEdge(0, 0))).isEqualTo("a->b");
+    assertThat(compact.getEdgeValue(compact.getOutEdge(0, 1))).isEqualTo("a->c");
+    assertThat(compact.getDestination(compact.getOutEdge(0, 1))).isEqualTo(2);
+    assertThat(compact.getEdgeValue(compact.getOutEdge(2, 0))).isEqualTo("c->a");
+
+    assertThat(compact.getInDegree(0)).isEqualTo(2);
+    assertThat(compact.getEdgeValue(compact.getInEdge(0, 0))).isEqualTo("c->a");
+    assertThat(compact.getEdgeValue(compact.getInEdge(0, 1))).isEqualTo("b->a");
+    assertThat(compact.getSource(compact.getInEdge(0, 1))).isEqualTo(1);
+    assertThat(compact.getInDegree(1)).isEqualTo(1);
+    assertThat(compact.getInDegree(2)).isEqualTo(1);
+  }
+
+  @Test
+  public void testSelfAndParallelEdges() {
+    DiGraph<String, String> graph = LinkedDirectedGraph.create();
+    graph.createNode("a");
+    graph.createNode("b");
+    graph.connect("a", "1", "a");
+    graph.connect("a", "2", "b");
+    graph.connect("a", "3", "b");
+
+    CompactDiGraph<String, String> compact = CompactDiGraph.copyOf(graph);
+
+    assertThat(compact.getOutDegree(0)).isEqualTo(3);
+    assertThat(compact.getInDegree(0)).isEqualTo(1);
+    assertThat(compact.getInDegree(1)).isEqualTo(2);
+    assertThat(compact.getSource(compact.getInEdge(0, 0))).isEqualTo(0);
+    assertThat(compact.getEdgeValue(compact.getInEdge(1, 1))).isEqualTo("3");
+  }
+
+  @Test
+  public void testMissingNode() {
+    DiGraph<String, String> graph = LinkedDirectedGraph.create();
+    graph.createNode("a");
+
+    CompactDiGraph<String, String> compact = CompactDiGraph.copyOf(graph);
+
+    assertThat(compact.hasNode("a")).isTrue();
+    assertThat(compact.hasNode("b")).isFalse();
+    assertThrows(IllegalArgumentException.class, () -> compact.getNodeId("b"));
+    assertThrows(IllegalArgumentException.class, () -> compact.getOutEdge(0, 0));
+  }
+}
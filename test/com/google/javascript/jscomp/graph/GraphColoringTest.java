@@ -23,7 +23,15 @@ import static java.util.Comparator.naturalOrder;
 import com.google.javascript.jscomp.graph.Graph.GraphEdge;
 import com.google.javascript.jscomp.graph.GraphColoring.Color;
 import com.google.javascript.jscomp.graph.GraphColoring.GreedyGraphColoring;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -179,6 +187,142 @@ public final class GraphColoringTest {
     assertThat("A".equals(coloring.getPartitionSuperNode("C"))).isFalse();
   }
 
+  @Test
+  public void testSameColoringAsColoringOneColorAtATime() {
+    Random random = new Random(42);
+    LinkedUndirectedGraph<String, String> linkedGraph = LinkedUndirectedGraph.create();
+    BitSetAdjacencyGraph<String> bitSetGraph = BitSetAdjacencyGraph.create();
+    final int count = 60;
+    for (int i = 0; i < count; i++) {
+      linkedGraph.createNode("Node " + i);
+      bitSetGraph.createNode("Node " + i);
+    }
+    for (int i = 0; i < count; i++) {
+      for (int j = i + 1; j < count; j++) {
+        if (random.nextInt(4) == 0) {
+          linkedGraph.connect("Node " + i, null, "Node " + j);
+          bitSetGraph.connect("Node " + i, "Node " + j);
+        }
+      }
+    }
+
+    Map<String, Integer> expected = colorOneColorAtATime(linkedGraph);
+    int numColors = new HashSet<>(expected.values()).size();
+
+    assertThat(new GreedyGraphColoring<>(linkedGraph, naturalOrder()).color())
+        .isEqualTo(numColors);
+    validateColoring(linkedGraph);
+    assertThat(getColors(linkedGraph)).isEqualTo(expected);
+
+    assertThat(new GreedyGraphColoring<>(bitSetGraph, naturalOrder()).color())
+        .isEqualTo(numColors);
+    assertThat(getColors(bitSetGraph)).isEqualTo(expected);
+
+    // A graph that only provides subgraphs.
+    AdjacencyGraph<String, String> subGraphsOnly = new SubGraphsOnly<>(linkedGraph);
+    linkedGraph.clearNodeAnnotations();
+    assertThat(new GreedyGraphColoring<>(subGraphsOnly, naturalOrder()).color())
+        .isEqualTo(numColors);
+    assertThat(getColors(linkedGraph)).isEqualTo(expected);
+  }
+
+  @Test
+  public void testBitSetAdjacencyGraph() {
+    // A pentagon.
+    BitSetAdjacencyGraph<String> graph = BitSetAdjacencyGraph.create();
+    graph.createNode("A");
+    graph.createNode("B");
+    graph.createNode("C");
+    graph.createNode("D");
+    graph.createNode("E");
+    graph.connect("A", "B");
+    graph.connect("B", "C");
+    graph.connect("C", "D");
+    graph.connect("D", "E");
+    graph.connect("E", "A");
+
+    GraphColoring<String, Void> coloring = new GreedyGraphColoring<>(graph, naturalOrder());
+    assertThat(coloring.color()).isEqualTo(3);
+    assertThat(coloring.getPartitionSuperNode("A")).isEqualTo("A");
+    assertThat(coloring.getPartitionSuperNode("C")).isEqualTo("A");
+    assertThat(coloring.haveSameColor("A", "B")).isFalse();
+    assertThat(coloring.haveSameColor("B", "D")).isTrue();
+  }
+
+  /**
+   * Colors the graph by giving the first color to as many nodes as possible, from the highest to
+   * the lowest degree, then the second color to as many of the remaining nodes, and so on.
+   */
+  private static Map<String, Integer> colorOneColorAtATime(Graph<String, String> graph) {
+    List<String> worklist = new ArrayList<>();
+    for (GraphNode<String, String> node : graph.getNodes()) {
+      worklist.add(node.getValue());
+    }
+    worklist.sort(
+        Comparator.comparingInt((String value) -> -graph.getNodeDegree(value))
+            .thenComparing(naturalOrder()));
+    Map<String, Integer> colors = new HashMap<>();
+    for (int color = 0; !worklist.isEmpty(); color++) {
+      List<String> colored = new ArrayList<>();
+      for (Iterator<String> i = worklist.iterator(); i.hasNext(); ) {
+        String value = i.next();
+        if (colored.stream().noneMatch((String other) -> graph.isConnected(value, other))) {
+          colored.add(value);
+          colors.put(value, color);
+          i.remove();
+        }
+      }
+    }
+    return colors;
+  }
+
+  private static <E> Map<String, Integer> getColors(AdjacencyGraph<String, E> graph) {
+    Map<String, Integer> colors = new HashMap<>();
+    for (GraphNode<String, E> node : graph.getNodes()) {
+      colors.put(node.getValue(), node.<Color>getAnnotation().value);
+    }
+    return colors;
+  }
+
+  /** Delegates to a graph, without overriding {@link AdjacencyGraph#newColorInterference}. */
+  private static final class SubGraphsOnly<N, E> implements AdjacencyGraph<N, E> {
+    private final Graph<N, E> graph;
+
+    SubGraphsOnly(Graph<N, E> graph) {
+      this.graph = graph;
+    }
+
+    @Override
+    public Collection<? extends GraphNode<N, E>> getNodes() {
+      return graph.getNodes();
+    }
+
+    @Override
+    public int getNodeCount() {
+      return graph.getNodeCount();
+    }
+
+    @Override
+    public GraphNode<N, E> getNode(N value) {
+      return graph.getNode(value);
+    }
+
+    @Override
+    public SubGraph<N, E> newSubGraph() {
+      return graph.newSubGraph();
+    }
+
+    @Override
+    public void clearNodeAnnotations() {
+      graph.clearNodeAnnotations();
+    }
+
+    @Override
+    public int getWeight(N value) {
+      return graph.getWeight(value);
+    }
+  }
+
   /** Validate that each node has been colored and connected nodes have different coloring. */
   private static <N, E> void validateColoring(Graph<N, E> graph) {
     for (GraphNode<N, E> node : graph.getNodes()) {
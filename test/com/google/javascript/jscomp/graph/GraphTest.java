@@ -151,6 +151,22 @@ public final class GraphTest {
     assertThat(graph.isConnected("a", "a")).isFalse();
   }
 
+  @Test
+  public void testBitSetAdjacencyGraphSelfLoop() {
+    BitSetAdjacencyGraph<String> graph = BitSetAdjacencyGraph.create();
+    graph.createNode("a");
+    graph.createNode("b");
+    graph.connect("a", "a");
+    graph.connect("a", "b");
+    graph.connect("b", "a");
+    assertThat(graph.isConnected("a", "a")).isTrue();
+    assertThat(graph.isConnected("a", "b")).isTrue();
+    assertThat(graph.isConnected("b", "b")).isFalse();
+    assertThat(graph.getNodeDegree("a")).isEqualTo(3);
+    assertThat(graph.getNodeDegree("b")).isEqualTo(1);
+    assertThat(graph.getNode("c")).isNull();
+  }
+
   @Test
   public void testDirectedInAndOutEdges() {
     DiGraph<String, String> graph = LinkedDirectedGraph.create();
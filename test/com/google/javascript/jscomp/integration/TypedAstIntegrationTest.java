@@ -43,12 +43,16 @@ import com.google.javascript.jscomp.testing.JSCompCorrespondences;
 import com.google.javascript.jscomp.testing.TestExternsBuilder;
 import com.google.javascript.rhino.Node;
 import com.google.javascript.rhino.StaticSourceFile.SourceKind;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.SequenceInputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Objects;
@@ -65,6 +69,7 @@ public final class TypedAstIntegrationTest extends IntegrationTestCase {
   private ArrayList<Path> shards;
   private ArrayList<SourceFile> stubExternFiles;
   private ArrayList<SourceFile> stubSourceFiles;
+  private boolean mapUncompressedTypedAsts;
 
   @Override
   @Before
@@ -73,6 +78,7 @@ public final class TypedAstIntegrationTest extends IntegrationTestCase {
     this.shards = new ArrayList<>();
     this.stubExternFiles = new ArrayList<>();
     this.stubSourceFiles = new ArrayList<>();
+    this.mapUncompressedTypedAsts = false;
   }
 
   @Test
@@ -201,6 +207,29 @@ public final class TypedAstIntegrationTest extends IntegrationTestCase {
     assertCompiledCodeEquals(compiler, "", "", "alert('lib1'); alert('lib2')");
   }
 
+  @Test
+  public void disambiguatesAndDeletesMethodsAcrossLibraries_fromMappedFile() throws IOException {
+    this.mapUncompressedTypedAsts = true;
+    SourceFile lib1 = code("class Lib1 { m() { return 'lib1'; } n() { return 'delete me'; } }");
+    SourceFile lib2 = code("class Lib2 { m() { return 'delete me'; } n() { return 'lib2'; } }");
+    precompileLibrary(lib1);
+    precompileLibrary(lib2);
+    precompileLibrary(
+        extern(new TestExternsBuilder().addAlert().build()),
+        typeSummary(lib1),
+        typeSummary(lib2),
+        code("alert(new Lib1().m()); alert(new Lib2().n());"));
+
+    CompilerOptions options = new CompilerOptions();
+    CompilationLevel.ADVANCED_OPTIMIZATIONS.setOptionsForCompilationLevel(options);
+    options.setDependencyOptions(DependencyOptions.none());
+    options.setDisambiguateProperties(true);
+
+    Compiler compiler = compileTypedAstShards(options);
+
+    assertCompiledCodeEquals(compiler, "", "", "alert('lib1'); alert('lib2')");
+  }
+
   @Test
   public void disambiguatesAndDeletesMethodsAcrossLibraries_withTranspilation() throws IOException {
     SourceFile lib1 = code("class Lib1 { m() { return 'lib1'; } n() { return 'delete me'; } }");
@@ -951,11 +980,19 @@ public final class TypedAstIntegrationTest extends IntegrationTestCase {
     Compiler compiler = new Compiler();
     compiler.initOptions(options);
     try (InputStream inputStream = toInputStream(this.shards)) {
-      compiler.initWithTypedAstFilesystem(
-          ImmutableList.copyOf(this.stubExternFiles),
-          ImmutableList.copyOf(this.stubSourceFiles),
-          options,
-          inputStream);
+      if (this.mapUncompressedTypedAsts) {
+        compiler.initWithTypedAstFilesystem(
+            ImmutableList.copyOf(this.stubExternFiles),
+            ImmutableList.copyOf(this.stubSourceFiles),
+            options,
+            mapToFile(inputStream));
+      } else {
+        compiler.initWithTypedAstFilesystem(
+            ImmutableList.copyOf(this.stubExternFiles),
+            ImmutableList.copyOf(this.stubSourceFiles),
+            options,
+            inputStream);
+      }
     }
     compiler.stage2Passes(OptimizationPasses.ALL);
     if (!compiler.hasErrors()) {
@@ -1052,6 +1089,16 @@ public final class TypedAstIntegrationTest extends IntegrationTestCase {
     return new SequenceInputStream(Collections.enumeration(inputShards));
   }
 
+  /** Writes the uncompressed TypedAST shards to a new file and maps the file into memory. */
+  private static ByteString mapToFile(InputStream typedAsts) throws IOException {
+    Path typedAstPath = Files.createTempFile("", ".typedast");
+    Files.write(typedAstPath, typedAsts.readAllBytes());
+    try (FileChannel channel = FileChannel.open(typedAstPath, StandardOpenOption.READ)) {
+      return UnsafeByteOperations.unsafeWrap(
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
   private void assertCompiledCodeEquals(Compiler compiler, String... expected) {
     // Passing the default CompilerOptions to parse the expected code is OK, since it configures the
     // parser to support all input languages.
@@ -42,19 +42,27 @@ import com.google.javascript.rhino.InputId;
 import com.google.javascript.rhino.Node;
 import com.google.javascript.rhino.StaticSourceFile;
 import com.google.javascript.rhino.Token;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import java.io.ByteArrayInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
 import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import org.jspecify.annotations.Nullable;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -79,6 +87,8 @@ public final class SerializeAndDeserializeAstTest extends CompilerTestCase {
   private ImmutableList<String> runtimeLibraries = null;
   private Optional<PassFactory> preSerializePassFactory = Optional.empty();
   private boolean skipMatchingScriptFeaturesBeforeAndAfterSerialization = false;
+  private boolean deserializeFromMappedFile = false;
+  private @Nullable ExecutorService executor = null;
 
   @Override
   protected CompilerPass getProcessor(Compiler compiler) {
@@ -89,7 +99,9 @@ public final class SerializeAndDeserializeAstTest extends CompilerTestCase {
             SerializationOptions.builder()
                 .setIncludeDebugInfo(false)
                 .setRuntimeLibraries(this.runtimeLibraries)
-                .build());
+                .build(),
+            null,
+            this.executor);
     if (preSerializePassFactory.isEmpty()) {
       return serializationPass;
     }
@@ -115,6 +127,16 @@ public final class SerializeAndDeserializeAstTest extends CompilerTestCase {
     this.runtimeLibraries = ImmutableList.of();
   }
 
+  @Override
+  @After
+  public void tearDown() throws Exception {
+    super.tearDown();
+    if (this.executor != null) {
+      this.executor.shutdownNow();
+      this.executor = null;
+    }
+  }
+
   @Test
   public void testConstNumberDeclaration() {
     testSame("const x = 7;");
@@ -833,6 +855,39 @@ public final class SerializeAndDeserializeAstTest extends CompilerTestCase {
     assertThat(result.ast.getRuntimeLibraries()).containsExactly("base", "es6/string");
   }
 
+  @Test
+  public void deserializesFromMappedFile() {
+    this.deserializeFromMappedFile = true;
+
+    testSame(
+        new String[] {
+          "class Foo { method(x) { return `${x}!`; } }",
+          "const foo = new Foo(); foo.method('\\u{1F600}'); foo.method(1n);"
+        });
+  }
+
+  @Test
+  public void serializesScriptsOnParallelThreads_likeOnOneThread() throws IOException {
+    this.executor = Executors.newFixedThreadPool(4);
+    String[] sources = {
+      "/** @const */ var ns = {}; /** @license MIT */ class Foo { method(x) { return x; } }",
+      "ns.foo = new Foo(); ns.foo.method('a'); /** @type {number} */ let count = 0;",
+      "class Bar extends Foo { method(x) { return `${x}!`; } } ns.bar = new Bar();",
+      "ns.bar.method(1n); count++; const {method} = ns.foo; label: for (;;) { break label; }"
+    };
+
+    InputStream serializedStream =
+        toInputStream(externs(ImmutableList.of()), srcs(sources), expected(sources));
+    TypedAst parallelAst = TypedAst.List.parseFrom(serializedStream).getTypedAsts(0);
+    Node root = getLastCompiler().getRoot();
+    TypedAst serialAst =
+        new TypedAstSerializer(getLastCompiler(), SerializationOptions.builder().build())
+            .serializeRoots(root.getFirstChild(), root.getLastChild());
+
+    assertThat(parallelAst.getCodeAstCount()).isEqualTo(4);
+    assertThat(parallelAst.toByteString()).isEqualTo(serialAst.toByteString());
+  }
+
   @Override
   public void testSame(String code) {
     this.test(code, code);
@@ -866,15 +921,28 @@ public final class SerializeAndDeserializeAstTest extends CompilerTestCase {
     //    For example, both serializing and deserializing currently need to call
     //    `compiler.initRuntimeLibraryTypedAsts()`, which may only be called once.
     Compiler deserializingCompiler = createAndInitializeCompiler(externs, code);
+    SourceFile syntheticExterns =
+        SourceFile.fromCode("syntheticExterns", "", StaticSourceFile.SourceKind.EXTERN);
+    ImmutableSet<SourceFile> requiredInputFiles =
+        ImmutableSet.<SourceFile>builder().addAll(externFiles).addAll(codeFiles).build();
     DeserializedAst ast =
-        TypedAstDeserializer.deserializeFullAst(
-            deserializingCompiler,
-            SourceFile.fromCode("syntheticExterns", "", StaticSourceFile.SourceKind.EXTERN),
-            ImmutableSet.<SourceFile>builder().addAll(externFiles).addAll(codeFiles).build(),
-            serializedStream,
-            includeTypes,
-            resolveSourceMapAnnotations,
-            parseInlineSourceMaps);
+        deserializeFromMappedFile
+            ? TypedAstDeserializer.deserializeFullAst(
+                deserializingCompiler,
+                syntheticExterns,
+                requiredInputFiles,
+                mapToFile(serializedStream),
+                includeTypes,
+                resolveSourceMapAnnotations,
+                parseInlineSourceMaps)
+            : TypedAstDeserializer.deserializeFullAst(
+                deserializingCompiler,
+                syntheticExterns,
+                requiredInputFiles,
+                serializedStream,
+                includeTypes,
+                resolveSourceMapAnnotations,
+                parseInlineSourceMaps);
 
     ColorRegistry registry = ast.getColorRegistry().orNull();
     Node newExternsRoot = IR.root();
@@ -983,6 +1051,20 @@ public final class SerializeAndDeserializeAstTest extends CompilerTestCase {
     return new ByteArrayInputStream(ast.toByteArray());
   }
 
+  /** Writes the stream to a new file and maps the file into memory. */
+  private ByteString mapToFile(InputStream stream) {
+    try {
+      Path file = folder.newFile().toPath();
+      Files.write(file, stream.readAllBytes());
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        return UnsafeByteOperations.unsafeWrap(
+            channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   private static void createZipWithContent(Path zipFile, String content) throws IOException {
     Instant lastModified = Instant.now();
     if (zipFile.toFile().exists()) {
@@ -24,6 +24,7 @@ import static java.util.stream.Collectors.joining;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.gson.Gson;
 import com.google.javascript.jscomp.Compiler;
 import com.google.javascript.jscomp.CompilerPass;
@@ -43,7 +44,9 @@ import java.util.function.Consumer;
 import java.util.stream.Stream;
 import org.jspecify.annotations.Nullable;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
@@ -53,6 +56,9 @@ public final class SerializeTypedAstPassTest extends CompilerTestCase {
   private Consumer<TypedAst> astConsumer;
   // individual test cases may override this
   private @Nullable ImmutableSet<String> typesToForwardDeclare = null;
+  private @Nullable TypedAstCache cache = null;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
 
   // Proto fields commonly ignored in tests because hardcoding their values is brittle
   private static final ImmutableList<FieldDescriptor> BRITTLE_TYPE_FIELDS =
@@ -66,6 +72,7 @@ public final class SerializeTypedAstPassTest extends CompilerTestCase {
     super.setUp();
     enableTypeCheck();
     this.typesToForwardDeclare = ImmutableSet.of();
+    this.cache = null;
     enableSourceInformationAnnotator();
     enableDebugLogging(true);
   }
@@ -73,7 +80,10 @@ public final class SerializeTypedAstPassTest extends CompilerTestCase {
   @Override
   protected CompilerPass getProcessor(Compiler compiler) {
     return new SerializeTypedAstPass(
-        compiler, astConsumer, SerializationOptions.builder().setIncludeDebugInfo(false).build());
+        compiler,
+        astConsumer,
+        SerializationOptions.builder().setIncludeDebugInfo(false).build(),
+        cache);
   }
 
   @Override
@@ -118,6 +128,28 @@ public final class SerializeTypedAstPassTest extends CompilerTestCase {
                 .build());
   }
 
+  @Test
+  public void testTypedAst_isReusedFromCache_forTheSameInputs() throws IOException {
+    Path directory = folder.newFolder().toPath();
+    this.cache = new TypedAstCache(directory, 1 << 20, "config");
+    astConsumer = (ast) -> {};
+    testSame("const x = 5;");
+
+    // Replace the cached TypedAst, to tell whether the next compilation reuses it.
+    TypedAst cachedAst = TypedAst.newBuilder().addRuntimeLibraryToInject("cached").build();
+    try (Stream<Path> entries = Files.list(directory)) {
+      Files.write(Iterables.getOnlyElement(entries.toList()), cachedAst.toByteArray());
+    }
+    TypedAst[] resultAst = new TypedAst[1];
+    astConsumer = (ast) -> resultAst[0] = ast;
+
+    testSame("const x = 5;");
+    assertThat(resultAst[0]).isEqualTo(cachedAst);
+
+    testSame("const x = 6;");
+    assertThat(resultAst[0]).isNotEqualTo(cachedAst);
+  }
+
   @Test
   public void testAst_externs() {
     // 2 externs files, the default (empty) externs file + the source file marked with @externs
@@ -20,6 +20,7 @@ import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
 import static org.junit.Assert.assertThrows;
 
+import com.google.javascript.rhino.RhinoStringPool;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -43,6 +44,17 @@ public final class StringPoolTest {
     assertIsEmptyPool(StringPool.fromProto(StringPoolProto.getDefaultInstance()));
   }
 
+  @Test
+  public void parsesFromProto_internsStrings() {
+    StringPool original = StringPool.builder().putAnd("foo").putAnd("\uD83D\uDE00").build();
+
+    StringPool pool = StringPool.fromProto(original.toProto());
+
+    assertThat(pool.get(1)).isSameInstanceAs(RhinoStringPool.addOrGet(new String("foo")));
+    assertThat(pool.get(2)).isEqualTo("\uD83D\uDE00");
+    assertThat(pool.toProto()).isEqualTo(original.toProto());
+  }
+
   private void assertIsEmptyPool(StringPool pool) {
     assertThat(pool.get(0)).isEmpty();
     assertThrows(Exception.class, () -> pool.get(1));
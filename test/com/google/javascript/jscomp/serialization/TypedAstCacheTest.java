@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.serialization;
+
+import static com.google.common.collect.MoreCollectors.onlyElement;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.javascript.jscomp.SourceFile;
+import com.google.javascript.rhino.IR;
+import com.google.javascript.rhino.Node;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link TypedAstCache}. */
+@RunWith(JUnit4.class)
+public final class TypedAstCacheTest {
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private static final SerializationOptions OPTIONS = SerializationOptions.builder().build();
+
+  private Path directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = folder.newFolder().toPath().resolve("cache");
+  }
+
+  @Test
+  public void keyFor_isTheSame_forTheSameInputs() {
+    TypedAstCache cache = new TypedAstCache(directory, 1000, "config");
+
+    assertThat(cache.keyFor(OPTIONS, externs("var x;"), code("x = 1;")))
+        .isEqualTo(cache.keyFor(OPTIONS, externs("var x;"), code("x = 1;")));
+  }
+
+  @Test
+  public void keyFor_changes_whenAnInputChanges() {
+    TypedAstCache cache = new TypedAstCache(directory, 1000, "config");
+    HashCode key = cache.keyFor(OPTIONS, externs("var x;"), code("x = 1;"));
+
+    assertThat(cache.keyFor(OPTIONS, externs("var x;"), code("x = 2;"))).isNotEqualTo(key);
+    assertThat(cache.keyFor(OPTIONS, externs("var y;"), code("x = 1;"))).isNotEqualTo(key);
+  }
+
+  @Test
+  public void keyFor_changes_whenTheConfigurationChanges() {
+    HashCode key =
+        new TypedAstCache(directory, 1000, "config")
+            .keyFor(OPTIONS, externs("var x;"), code("x = 1;"));
+
+    assertThat(
+            new TypedAstCache(directory, 1000, "other config")
+                .keyFor(OPTIONS, externs("var x;"), code("x = 1;")))
+        .isNotEqualTo(key);
+    assertThat(
+            new TypedAstCache(directory, 1000, "config")
+                .keyFor(
+                    SerializationOptions.builder()
+                        .setRuntimeLibraries(ImmutableList.of("es6/symbol"))
+                        .build(),
+                    externs("var x;"),
+                    code("x = 1;")))
+        .isNotEqualTo(key);
+  }
+
+  @Test
+  public void get_returnsTheAddedEntry() {
+    TypedAstCache cache = new TypedAstCache(directory, 1000, "config");
+    HashCode key = cache.keyFor(OPTIONS, externs("var x;"), code("x = 1;"));
+
+    assertThat(cache.get(key)).isNull();
+    cache.put(key, typedAst("a"));
+
+    assertThat(cache.get(key)).isEqualTo(typedAst("a"));
+  }
+
+  @Test
+  public void get_returnsEntriesAddedByAnotherCache() {
+    TypedAstCache cache = new TypedAstCache(directory, 1000, "config");
+    HashCode key = cache.keyFor(OPTIONS, externs("var x;"), code("x = 1;"));
+    cache.put(key, typedAst("a"));
+
+    assertThat(new TypedAstCache(directory, 1000, "config").get(key)).isEqualTo(typedAst("a"));
+  }
+
+  @Test
+  public void get_returnsNull_forACorruptEntry() throws IOException {
+    TypedAstCache cache = new TypedAstCache(directory, 1000, "config");
+    HashCode key = cache.keyFor(OPTIONS, externs("var x;"), code("x = 1;"));
+    cache.put(key, typedAst("a"));
+
+    Files.write(onlyEntry(), new byte[] {-1, -1, -1});
+
+    assertThat(cache.get(key)).isNull();
+  }
+
+  @Test
+  public void put_evictsTheLeastRecentlyUsedEntries() throws IOException {
+    int entrySize = typedAst("a").getSerializedSize();
+    // Eviction stops once the entries fit in nine tenths of the maximum size.
+    TypedAstCache cache = new TypedAstCache(directory, 2 * entrySize + entrySize / 2, "config");
+    HashCode a = cache.keyFor(OPTIONS, externs(""), code("a;"));
+    HashCode b = cache.keyFor(OPTIONS, externs(""), code("b;"));
+    HashCode c = cache.keyFor(OPTIONS, externs(""), code("c;"));
+
+    cache.put(a, typedAst("a"));
+    cache.put(b, typedAst("b"));
+    setLastUsed(a, FileTime.fromMillis(1000));
+    setLastUsed(b, FileTime.fromMillis(2000));
+    assertThat(cache.get(a)).isNotNull(); // Now 'b' is the least recently used entry.
+    cache.put(c, typedAst("c"));
+
+    assertThat(cache.get(a)).isEqualTo(typedAst("a"));
+    assertThat(cache.get(b)).isNull();
+    assertThat(cache.get(c)).isEqualTo(typedAst("c"));
+  }
+
+  private static Node externs(String code) {
+    return IR.root(script(SourceFile.fromCode("externs.js", code, SourceFile.SourceKind.EXTERN)));
+  }
+
+  private static Node code(String code) {
+    return IR.root(script(SourceFile.fromCode("a.js", code)));
+  }
+
+  private static Node script(SourceFile sourceFile) {
+    Node script = IR.script();
+    script.setStaticSourceFile(sourceFile);
+    return script;
+  }
+
+  private static TypedAst typedAst(String runtimeLibrary) {
+    return TypedAst.newBuilder().addRuntimeLibraryToInject(runtimeLibrary).build();
+  }
+
+  private Path onlyEntry() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.collect(ImmutableList.toImmutableList()).get(0);
+    }
+  }
+
+  private void setLastUsed(HashCode key, FileTime time) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      Path entry =
+          files
+              .filter((file) -> file.getFileName().toString().startsWith(key.toString()))
+              .collect(onlyElement());
+      Files.setLastModifiedTime(entry, time);
+    }
+  }
+}
@@ -21,7 +21,12 @@ import static com.google.common.truth.Truth.assertWithMessage;
 import static org.mockito.Answers.RETURNS_SMART_NULLS;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.javascript.jscomp.CompilerOptions.LanguageMode;
 import com.google.javascript.jscomp.bundle.TranspilationException;
+import com.google.javascript.jscomp.deps.ModuleLoader.ResolutionMode;
+import com.google.javascript.jscomp.parsing.parser.FeatureSet;
 import java.net.URI;
 import java.net.URISyntaxException;
 import org.junit.Before;
@@ -120,6 +125,34 @@ public final class BaseTranspilerTest {
     assertThat(runtime).contains("$jscomp.inherits");
   }
 
+  @Test
+  public void testCompilerSupplier_configuration() {
+    FeatureSet es5 = LanguageMode.ECMASCRIPT5.toFeatureSet();
+    ResolutionMode browser = ResolutionMode.BROWSER;
+    String configuration =
+        new BaseTranspiler.CompilerSupplier(es5, browser, ImmutableList.of(), ImmutableMap.of())
+            .configuration();
+
+    assertThat(compiler.configuration()).isEqualTo(configuration);
+    assertThat(BaseTranspiler.ES5_TRANSPILER.configuration()).isEqualTo(configuration);
+    assertThat(BaseTranspiler.LATEST_TRANSPILER.configuration()).isNotEqualTo(configuration);
+    assertThat(
+            new BaseTranspiler.CompilerSupplier(
+                    es5, ResolutionMode.NODE, ImmutableList.of(), ImmutableMap.of())
+                .configuration())
+        .isNotEqualTo(configuration);
+    assertThat(
+            new BaseTranspiler.CompilerSupplier(
+                    es5, browser, ImmutableList.of("a", "b"), ImmutableMap.of())
+                .configuration())
+        .isNotEqualTo(
+            new BaseTranspiler.CompilerSupplier(
+                    es5, browser, ImmutableList.of("a"), ImmutableMap.of("b", ""))
+                .configuration());
+    assertThat(new BaseTranspiler.CompilerSupplier() {}.configuration())
+        .isNotEqualTo(configuration);
+  }
+
   @Test
   public void testCompilerSupplier_inlineSourceMap() {
     // This is a source map generated by
@@ -18,14 +18,20 @@ package com.google.javascript.jscomp.transpile;
 
 import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Answers.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.cache.CacheBuilder;
+import com.google.javascript.jscomp.bundle.PersistentCache;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 import org.mockito.Mock;
@@ -35,6 +41,8 @@ import org.mockito.MockitoAnnotations;
 @RunWith(JUnit4.class)
 public final class CachingTranspilerTest {
 
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
   private Transpiler transpiler;
 
   @Mock(answer = RETURNS_SMART_NULLS)
@@ -91,6 +99,68 @@ public final class CachingTranspilerTest {
     assertThat(transpiler.transpile(FOO_JS, "bard")).isSameInstanceAs(RESULT3);
   }
 
+  @Test
+  public void testTranspileUsesPersistentCache() throws IOException {
+    Path directory = folder.newFolder().toPath();
+    TranspileResult result = new TranspileResult(FOO_JS, "bar", "baz", "{\"version\":3}");
+    when(delegate.transpile(FOO_JS, "bar")).thenReturn(result);
+    new CachingTranspiler(
+            delegate, CacheBuilder.newBuilder(), PersistentCache.inDirectory(directory), "config")
+        .transpile(FOO_JS, "bar");
+
+    // A new transpiler, as after a restart, doesn't have to transpile again.
+    PersistentCache persistentCache = PersistentCache.inDirectory(directory);
+    transpiler =
+        new CachingTranspiler(delegate, CacheBuilder.newBuilder(), persistentCache, "config");
+    assertThat(transpiler.transpile(FOO_JS, "bar")).isEqualTo(result);
+    verify(delegate).transpile(FOO_JS, "bar");
+    assertThat(persistentCache.stats().hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testPersistentCacheDependsOnConfiguration() throws IOException {
+    Path directory = folder.newFolder().toPath();
+    when(delegate.transpile(FOO_JS, "bar")).thenReturn(RESULT1);
+    new CachingTranspiler(
+            delegate, CacheBuilder.newBuilder(), PersistentCache.inDirectory(directory), "config")
+        .transpile(FOO_JS, "bar");
+    new CachingTranspiler(
+            delegate, CacheBuilder.newBuilder(), PersistentCache.inDirectory(directory), "other")
+        .transpile(FOO_JS, "bar");
+
+    verify(delegate, times(2)).transpile(FOO_JS, "bar");
+  }
+
+  @Test
+  public void testCodeSizeWeigherEvictsBeyondMaximumCodeSize() {
+    transpiler =
+        new CachingTranspiler(
+            delegate,
+            CacheBuilder.newBuilder()
+                .maximumWeight(10)
+                .weigher(CachingTranspiler.CODE_SIZE_WEIGHER));
+    when(delegate.transpile(FOO_JS, "bar")).thenReturn(RESULT1);
+    when(delegate.transpile(QUX_JS, "qux")).thenReturn(RESULT2);
+
+    transpiler.transpile(FOO_JS, "bar"); // 6 characters
+    transpiler.transpile(QUX_JS, "qux"); // 8 characters
+    transpiler.transpile(FOO_JS, "bar");
+
+    verify(delegate, times(2)).transpile(FOO_JS, "bar");
+  }
+
+  @Test
+  public void testStats() {
+    CachingTranspiler cachingTranspiler =
+        new CachingTranspiler(delegate, CacheBuilder.newBuilder().recordStats());
+    when(delegate.transpile(FOO_JS, "bar")).thenReturn(RESULT1);
+    cachingTranspiler.transpile(FOO_JS, "bar");
+    cachingTranspiler.transpile(FOO_JS, "bar");
+
+    assertThat(cachingTranspiler.stats().hitCount()).isEqualTo(1);
+    assertThat(cachingTranspiler.stats().missCount()).isEqualTo(1);
+  }
+
   @Test
   public void testRuntimeDelegates() {
     when(delegate.runtime()).thenReturn("xyzzy");
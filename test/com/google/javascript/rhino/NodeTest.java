@@ -678,6 +678,27 @@ public class NodeTest {
     assertThat(m.getSideEffectFlags()).isEqualTo(2);
   }
 
+  @Test
+  public void testSharedProps4() {
+    Node n = getCall("A");
+    n.setSideEffectFlags(5);
+    n.putBooleanProp(Node.INCRDECR_PROP, true);
+    Object value = new Object();
+    n.putProp(Node.FEATURE_SET, value);
+    Node m = getCall("B");
+    m.clonePropsFrom(n);
+
+    // Setting a property to the value it already has keeps the list shared.
+    m.setSideEffectFlags(5);
+    m.putBooleanProp(Node.INCRDECR_PROP, true);
+    m.putProp(Node.FEATURE_SET, value);
+    assertThat(m.getPropListHeadForTesting()).isSameInstanceAs(n.getPropListHeadForTesting());
+
+    m.putProp(Node.FEATURE_SET, new Object());
+    assertThat(m.getPropListHeadForTesting()).isNotSameInstanceAs(n.getPropListHeadForTesting());
+    assertThat(n.getProp(Node.FEATURE_SET)).isSameInstanceAs(value);
+  }
+
   @Test
   public void testBooleanProp() {
     Node n = getVarRef("a");
@@ -116,6 +116,30 @@ public final class RhinoStringPoolTest {
     }
   }
 
+  @Test
+  public void lazyInternedStringList_withDecoder_onlyDecodesAccessedStrings() {
+    ArrayList<Integer> decoded = new ArrayList<>();
+    LazyInternedStringList list =
+        new LazyInternedStringList(
+            3,
+            (int offset) -> {
+              decoded.add(offset);
+              return new String("foo" + offset);
+            });
+
+    assertThat(list.get(1)).isSameInstanceAs(RhinoStringPool.addOrGet("foo1"));
+    assertThat(list.get(1)).isSameInstanceAs(RhinoStringPool.addOrGet("foo1"));
+    assertThat(decoded).containsExactly(1);
+  }
+
+  @Test
+  public void lazyInternedStringList_withDecoder_streamsAllStrings() {
+    LazyInternedStringList list = new LazyInternedStringList(3, (int offset) -> "foo" + offset);
+
+    assertThat(list.get(1)).isEqualTo("foo1");
+    assertThat(list.stream()).containsExactly("foo0", "foo1", "foo2").inOrder();
+  }
+
   @Test
   public void writeOnlyBitset_initializedToFalse() {
     WriteOnlyBitset bitset = new WriteOnlyBitset(5);
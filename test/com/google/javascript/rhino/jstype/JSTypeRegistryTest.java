@@ -55,6 +55,7 @@ import static com.google.javascript.rhino.jstype.JSTypeNative.NULL_VOID;
 import static com.google.javascript.rhino.jstype.JSTypeNative.NUMBER_TYPE;
 import static com.google.javascript.rhino.jstype.JSTypeNative.STRING_TYPE;
 import static com.google.javascript.rhino.testing.TypeSubject.assertType;
+import static org.junit.Assert.assertThrows;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -65,10 +66,17 @@ import com.google.javascript.rhino.StaticScope;
 import com.google.javascript.rhino.Token;
 import com.google.javascript.rhino.testing.AbstractStaticScope;
 import com.google.javascript.rhino.testing.MapBasedScope;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.jspecify.annotations.Nullable;
 import org.junit.Before;
 import org.junit.Test;
@@ -174,6 +182,142 @@ public class JSTypeRegistryTest {
     assertType(registry.getType(null, name)).isEqualTo(type);
   }
 
+  @Test
+  public void testConcurrentUse() throws Exception {
+    // Types may only be created concurrently once the types are defined.
+    JSTypeRegistry closedRegistry = new JSTypeRegistry(null);
+    int numThreads = 8;
+    int typesPerThread = 300;
+    ObjectType objectType = closedRegistry.getNativeObjectType(JSTypeNative.OBJECT_TYPE);
+    ObjectType arrayType = closedRegistry.getNativeObjectType(JSTypeNative.ARRAY_TYPE);
+    CyclicBarrier start = new CyclicBarrier(numThreads);
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    List<Future<List<ObjectType>>> futures = new ArrayList<>();
+    for (int t = 0; t < numThreads; t++) {
+      int thread = t;
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                List<ObjectType> created = new ArrayList<>();
+                for (int i = 0; i < typesPerThread; i++) {
+                  String name = "T" + thread + "_" + i;
+                  ObjectType type = closedRegistry.createObjectType(name, objectType);
+                  assertThat(closedRegistry.declareType(null, name, type)).isTrue();
+                  // Every thread races to declare the same shared name.
+                  boolean unused = closedRegistry.declareType(null, "Shared" + i, type);
+                  String property = "p" + (i % 10);
+                  closedRegistry.registerPropertyOnType(property, type);
+                  closedRegistry.registerPropertyOnType(
+                      property,
+                      closedRegistry.createRecordType(
+                          ImmutableMap.of(property, closedRegistry.getNativeType(NUMBER_TYPE))));
+                  JSType union =
+                      closedRegistry.createUnionType(
+                          type, closedRegistry.createTemplatizedType(arrayType, type));
+                  assertThat(union.isUnionType()).isTrue();
+                  assertThat(closedRegistry.getType(null, name)).isSameInstanceAs(type);
+                  created.add(type);
+                }
+                return created;
+              }));
+    }
+
+    List<ObjectType> allCreated = new ArrayList<>();
+    try {
+      for (Future<List<ObjectType>> future : futures) {
+        allCreated.addAll(future.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(allCreated).hasSize(numThreads * typesPerThread);
+    Set<ObjectType> withProperty = new HashSet<>();
+    for (int p = 0; p < 10; p++) {
+      ImmutableList<ObjectType> types =
+          ImmutableList.copyOf(closedRegistry.getEachReferenceTypeWithProperty("p" + p));
+      assertThat(types).containsNoDuplicates();
+      withProperty.addAll(types);
+    }
+    assertThat(withProperty).containsExactlyElementsIn(allCreated);
+    for (ObjectType type : allCreated) {
+      assertThat(closedRegistry.getType(null, type.getReferenceName())).isSameInstanceAs(type);
+    }
+    for (int i = 0; i < typesPerThread; i++) {
+      assertThat(allCreated).contains(closedRegistry.getType(null, "Shared" + i));
+    }
+  }
+
+  @Test
+  public void testDefiningTypesOnAnotherThreadFails() throws Exception {
+    // The registry in this test was opened for definition on this thread.
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      ObjectType objectType = registry.getNativeObjectType(JSTypeNative.OBJECT_TYPE);
+      Future<?> future = executor.submit(() -> registry.createObjectType("Foo", objectType));
+      ExecutionException e = assertThrows(ExecutionException.class, future::get);
+      assertThat(e).hasCauseThat().isInstanceOf(IllegalStateException.class);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testTypeRelationsAreCachedOnceTypesAreDefined() {
+    JSType numberOrString = union(registry, NUMBER_TYPE, STRING_TYPE);
+    JSType number = registry.getNativeType(NUMBER_TYPE);
+    TypeRelationCache cache = registry.getTypeRelationCache();
+
+    // Nothing is cached while types are being defined.
+    assertThat(number.isSubtypeOf(numberOrString)).isTrue();
+    assertThat(cache.getMissCount()).isEqualTo(0);
+
+    JSTypeRegistry closedRegistry = new JSTypeRegistry(null);
+    numberOrString = union(closedRegistry, NUMBER_TYPE, STRING_TYPE);
+    number = closedRegistry.getNativeType(NUMBER_TYPE);
+    cache = closedRegistry.getTypeRelationCache();
+    assertThat(number.isSubtypeOf(numberOrString)).isTrue();
+    assertThat(numberOrString.isSubtypeOf(number)).isFalse();
+    long hits = cache.getHitCount();
+    long misses = cache.getMissCount();
+    assertThat(misses).isGreaterThan(0);
+
+    assertThat(number.isSubtypeOf(numberOrString)).isTrue();
+    assertThat(numberOrString.isSubtypeOf(number)).isFalse();
+    assertThat(cache.getHitCount()).isEqualTo(hits + 2);
+    assertThat(cache.getMissCount()).isEqualTo(misses);
+  }
+
+  @Test
+  public void testDefiningPropertyInvalidatesCachedTypeRelations() {
+    JSTypeRegistry closedRegistry = new JSTypeRegistry(null);
+    JSType number = closedRegistry.getNativeType(NUMBER_TYPE);
+    ObjectType object = closedRegistry.createAnonymousObjectType(null);
+    JSType record = closedRegistry.createRecordType(ImmutableMap.of("a", number));
+
+    assertThat(object.isSubtypeOf(record)).isFalse();
+    object.defineDeclaredProperty("a", number, null);
+    assertThat(object.isSubtypeOf(record)).isTrue();
+    assertThat(closedRegistry.getTypeRelationCache().getPropertyInvalidationCount())
+        .isGreaterThan(0);
+  }
+
+  @Test
+  public void testDefiningPropertyKeepsCachedNominalTypeRelations() {
+    JSTypeRegistry closedRegistry = new JSTypeRegistry(null);
+    JSType numberOrString = union(closedRegistry, NUMBER_TYPE, STRING_TYPE);
+    JSType number = closedRegistry.getNativeType(NUMBER_TYPE);
+    ObjectType object = closedRegistry.createAnonymousObjectType(null);
+    TypeRelationCache cache = closedRegistry.getTypeRelationCache();
+
+    assertThat(number.isSubtypeOf(numberOrString)).isTrue();
+    long misses = cache.getMissCount();
+    object.defineDeclaredProperty("a", number, null);
+    assertThat(number.isSubtypeOf(numberOrString)).isTrue();
+    assertThat(cache.getMissCount()).isEqualTo(misses);
+  }
+
   @Test
   public void testReadableTypeName() {
 
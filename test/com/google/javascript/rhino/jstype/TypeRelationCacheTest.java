@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.rhino.jstype;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.javascript.rhino.jstype.TypeRelationCache.Relation;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link TypeRelationCache}. */
+@RunWith(JUnit4.class)
+public final class TypeRelationCacheTest {
+  private final JSTypeRegistry registry = new JSTypeRegistry(null);
+  private final JSType number = registry.getNativeType(JSTypeNative.NUMBER_TYPE);
+  private final JSType string = registry.getNativeType(JSTypeNative.STRING_TYPE);
+  private final AtomicInteger computations = new AtomicInteger();
+
+  @Test
+  public void testResultIsRemembered() {
+    TypeRelationCache cache = new TypeRelationCache(16);
+
+    assertThat(check(cache, Relation.SUBTYPE, number, string, true)).isTrue();
+    assertThat(check(cache, Relation.SUBTYPE, number, string, false)).isTrue();
+
+    assertThat(computations.get()).isEqualTo(1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getHitRate()).isEqualTo(0.5);
+  }
+
+  @Test
+  public void testResultsAreKeptPerRelationAndOrder() {
+    TypeRelationCache cache = new TypeRelationCache(16);
+
+    assertThat(check(cache, Relation.SUBTYPE, number, string, true)).isTrue();
+    assertThat(check(cache, Relation.SUBTYPE, string, number, false)).isFalse();
+    assertThat(check(cache, Relation.SUBTYPE_IGNORING_NULL_UNDEFINED, number, string, false))
+        .isFalse();
+
+    assertThat(computations.get()).isEqualTo(3);
+    assertThat(cache.getHitCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testInvalidateDropsResults() {
+    TypeRelationCache cache = new TypeRelationCache(16);
+
+    assertThat(check(cache, Relation.SUBTYPE, number, string, true)).isTrue();
+    cache.invalidate();
+    assertThat(check(cache, Relation.SUBTYPE, number, string, false)).isFalse();
+
+    assertThat(computations.get()).isEqualTo(2);
+    assertThat(cache.getInvalidationCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testDefiningPropertyOnlyDropsResultsThatComparedProperties() {
+    TypeRelationCache cache = new TypeRelationCache(16);
+
+    assertThat(check(cache, Relation.SUBTYPE, number, string, true)).isTrue();
+    assertThat(checkComparingProperties(cache, Relation.SUBTYPE, string, number, true)).isTrue();
+    cache.invalidatePropertyResults();
+    assertThat(check(cache, Relation.SUBTYPE, number, string, false)).isTrue();
+    assertThat(checkComparingProperties(cache, Relation.SUBTYPE, string, number, false))
+        .isFalse();
+
+    assertThat(computations.get()).isEqualTo(3);
+    assertThat(cache.getPropertyInvalidationCount()).isEqualTo(1);
+    assertThat(cache.getInvalidationCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testSizeIsBounded() {
+    TypeRelationCache cache = new TypeRelationCache(4);
+    ImmutableList<JSType> types =
+        ImmutableList.of(
+            number,
+            string,
+            registry.getNativeType(JSTypeNative.BOOLEAN_TYPE),
+            registry.getNativeType(JSTypeNative.NULL_TYPE),
+            registry.getNativeType(JSTypeNative.VOID_TYPE),
+            registry.getNativeType(JSTypeNative.BIGINT_TYPE),
+            registry.getNativeType(JSTypeNative.SYMBOL_TYPE));
+
+    for (JSType type : types) {
+      boolean unused = check(cache, Relation.SUBTYPE, type, number, true);
+    }
+    assertThat(cache.getEvictionCount()).isGreaterThan(0);
+
+    // The most recent result is still there.
+    assertThat(check(cache, Relation.SUBTYPE, types.get(types.size() - 1), number, false)).isTrue();
+    assertThat(computations.get()).isEqualTo(types.size());
+  }
+
+  @Test
+  public void testResultsInUseAreKeptWhenEvicting() {
+    TypeRelationCache cache = new TypeRelationCache(4);
+    JSType bool = registry.getNativeType(JSTypeNative.BOOLEAN_TYPE);
+    JSType nullType = registry.getNativeType(JSTypeNative.NULL_TYPE);
+    JSType voidType = registry.getNativeType(JSTypeNative.VOID_TYPE);
+
+    boolean unused = check(cache, Relation.SUBTYPE, number, number, true);
+    unused = check(cache, Relation.SUBTYPE, string, number, true);
+    unused = check(cache, Relation.SUBTYPE, bool, number, true);
+    // Still in use, so it is moved to the new results.
+    unused = check(cache, Relation.SUBTYPE, number, number, true);
+    unused = check(cache, Relation.SUBTYPE, nullType, number, true);
+    unused = check(cache, Relation.SUBTYPE, voidType, number, true);
+    int computed = computations.get();
+
+    unused = check(cache, Relation.SUBTYPE, number, number, true);
+    assertThat(computations.get()).isEqualTo(computed);
+  }
+
+  private boolean check(
+      TypeRelationCache cache, Relation relation, JSType left, JSType right, boolean result) {
+    return check(cache, relation, left, right, new TypeRelationCache.Result(result, false));
+  }
+
+  private boolean checkComparingProperties(
+      TypeRelationCache cache, Relation relation, JSType left, JSType right, boolean result) {
+    return check(cache, relation, left, right, new TypeRelationCache.Result(result, true));
+  }
+
+  private boolean check(
+      TypeRelationCache cache,
+      Relation relation,
+      JSType left,
+      JSType right,
+      TypeRelationCache.Result result) {
+    return cache.check(
+        relation,
+        left,
+        right,
+        () -> {
+          computations.incrementAndGet();
+          return result;
+        });
+  }
+}